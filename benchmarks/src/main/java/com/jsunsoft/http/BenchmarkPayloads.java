@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import org.apache.hc.core5.http.ContentType;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.xml.XmlMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Deterministic payloads of a given size for the benchmarks: plain text, raw bytes, and a list of
+ * {@link Item items} encoded as JSON or XML.
+ */
+final class BenchmarkPayloads {
+    private static final ObjectMapper JSON_MAPPER = JsonMapper.builder().build();
+    private static final ObjectMapper XML_MAPPER = XmlMapper.builder().build();
+
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789 ";
+
+    enum BodyType {
+        STRING(ContentType.TEXT_PLAIN.withCharset(UTF_8), String.class),
+        BYTES(ContentType.APPLICATION_OCTET_STREAM, byte[].class),
+        JSON(ContentType.APPLICATION_JSON, Items.class),
+        XML(ContentType.APPLICATION_XML, Items.class);
+
+        private final ContentType contentType;
+        private final Class<?> javaType;
+
+        BodyType(ContentType contentType, Class<?> javaType) {
+            this.contentType = contentType;
+            this.javaType = javaType;
+        }
+
+        ContentType getContentType() {
+            return contentType;
+        }
+
+        /**
+         * @return the type a body of this kind is read into
+         */
+        Class<?> getJavaType() {
+            return javaType;
+        }
+    }
+
+    private BenchmarkPayloads() {
+    }
+
+    /**
+     * @return a body of {@code type} of about {@code size} bytes; exactly {@code size} for text and bytes
+     */
+    static byte[] encode(BodyType type, int size) {
+        switch (type) {
+            case STRING:
+            case BYTES:
+                return text(size).getBytes(UTF_8);
+            case JSON:
+                return JSON_MAPPER.writeValueAsBytes(items(JSON_MAPPER, size));
+            case XML:
+                return XML_MAPPER.writeValueAsBytes(items(XML_MAPPER, size));
+            default:
+                throw new IllegalArgumentException("Unsupported body type: " + type);
+        }
+    }
+
+    /**
+     * @return the object a body of {@code type} of about {@code size} bytes decodes to
+     */
+    static Object decoded(BodyType type, int size) {
+        switch (type) {
+            case STRING:
+                return text(size);
+            case BYTES:
+                return text(size).getBytes(UTF_8);
+            case JSON:
+                return items(JSON_MAPPER, size);
+            case XML:
+                return items(XML_MAPPER, size);
+            default:
+                throw new IllegalArgumentException("Unsupported body type: " + type);
+        }
+    }
+
+    static String text(int size) {
+        Random random = new Random(size);
+        StringBuilder result = new StringBuilder(size);
+        for (int i = 0; i < size; i++) {
+            result.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return result.toString();
+    }
+
+    /**
+     * @return items whose encoding with {@code mapper} is about {@code size} bytes
+     */
+    private static Items items(ObjectMapper mapper, int size) {
+        Items sample = new Items();
+        sample.items.add(item(0));
+        int itemSize = mapper.writeValueAsBytes(sample).length;
+
+        Items result = new Items();
+        int count = Math.max(1, size / itemSize);
+        for (int i = 0; i < count; i++) {
+            result.items.add(item(i));
+        }
+        return result;
+    }
+
+    private static Item item(int id) {
+        Item item = new Item();
+        item.id = id;
+        item.name = "item-" + id;
+        item.price = id * 0.25;
+        item.available = id % 2 == 0;
+        item.tags = List.of("alpha", "beta", "gamma");
+        return item;
+    }
+
+    public static final class Items {
+        public List<Item> items = new ArrayList<>();
+    }
+
+    public static final class Item {
+        public long id;
+        public String name;
+        public double price;
+        public boolean available;
+        public List<String> tags;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import com.jsunsoft.http.BenchmarkPayloads.BodyType;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-process HTTP server for the end-to-end benchmarks, built on the JDK {@code com.sun.net.httpserver}.
+ * <p>
+ * {@code GET} and {@code POST} of {@code /{bodyType}/{size}} answer with a prepared payload
+ * ({@link BenchmarkPayloads#encode}); the request body of a {@code POST} is read and discarded.
+ * Payloads are encoded once, so the server costs as little as possible per request.
+ */
+final class BenchmarkServer implements AutoCloseable {
+    private final Map<String, byte[]> payloads = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "benchmark-server");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final HttpServer server;
+
+    BenchmarkServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * @return URI answering with a body of {@code type} of about {@code size} bytes
+     */
+    URI uri(BodyType type, int size) {
+        String path = "/" + type + "/" + size;
+        payloads.computeIfAbsent(path, p -> BenchmarkPayloads.encode(type, size));
+        return uriOf(path);
+    }
+
+    /**
+     * @return URI answering with {@code payload} as a body of {@code type}
+     */
+    URI uri(BodyType type, String name, byte[] payload) {
+        String path = "/" + type + "/" + name;
+        payloads.put(path, payload);
+        return uriOf(path);
+    }
+
+    private URI uriOf(String path) {
+        return URI.create("http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + path);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            try (InputStream requestBody = exchange.getRequestBody()) {
+                requestBody.transferTo(OutputStream.nullOutputStream());
+            }
+            String path = exchange.getRequestURI().getPath();
+            byte[] payload = payloads.get(path);
+            if (payload == null) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            BodyType type = BodyType.valueOf(path.substring(1, path.indexOf('/', 1)));
+            exchange.getResponseHeaders().set("Content-Type", type.getContentType().toString());
+            exchange.sendResponseHeaders(200, payload.length);
+            try (OutputStream responseBody = exchange.getResponseBody()) {
+                responseBody.write(payload);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
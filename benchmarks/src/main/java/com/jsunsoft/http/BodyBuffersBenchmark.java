@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.ParseException;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * {@link BodyBuffers} against the {@code EntityUtils} calls the String and {@code byte[]} readers
+ * used before, on bodies with and without {@code Content-Length}. Run with {@code -prof gc} and
+ * compare {@code gc.alloc.rate.norm}: for chunked bodies {@code EntityUtils} allocates several
+ * times the body size, {@link BodyBuffers} about the size of the result. The direct buffer pair
+ * compares copying a {@code byte[]} into direct memory with filling it through pooled chunks. Run
+ * the chunked bodies with {@code -t} above 1 to measure the chunk pool under concurrent readers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BodyBuffersBenchmark {
+
+    @Param({"1024", "65536", "524288", "1048576"})
+    public int payloadSize;
+
+    @Param({"false", "true"})
+    public boolean chunked;
+
+    private HttpEntity entity;
+
+    @Setup
+    public void setup() {
+        HttpEntity known = new ByteArrayEntity(BenchmarkPayloads.text(payloadSize).getBytes(UTF_8), ContentType.TEXT_PLAIN.withCharset(UTF_8));
+        entity = chunked ? new UnknownLengthEntity(known) : known;
+    }
+
+    @Benchmark
+    public byte[] bytesEntityUtils() throws IOException {
+        return EntityUtils.toByteArray(entity);
+    }
+
+    @Benchmark
+    public byte[] bytesBodyBuffers() throws IOException {
+        return BodyBuffers.toByteArray(entity);
+    }
+
+    @Benchmark
+    public ByteBuffer directByteBufferViaArray() throws IOException {
+        byte[] body = EntityUtils.toByteArray(entity);
+        return ByteBuffer.allocateDirect(body.length).put(body).flip();
+    }
+
+    @Benchmark
+    public ByteBuffer directByteBufferBodyBuffers() throws IOException {
+        return BodyBuffers.toDirectByteBuffer(entity);
+    }
+
+    @Benchmark
+    public String stringEntityUtils() throws IOException, ParseException {
+        return EntityUtils.toString(entity, UTF_8);
+    }
+
+    @Benchmark
+    public String stringBodyBuffers() throws IOException {
+        return BodyBuffers.toString(entity, UTF_8);
+    }
+
+    /**
+     * Hides the length the way a {@code Transfer-Encoding: chunked} response does.
+     */
+    private static final class UnknownLengthEntity extends HttpEntityWrapper {
+        UnknownLengthEntity(HttpEntity entity) {
+            super(entity);
+        }
+
+        @Override
+        public long getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public boolean isChunked() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import com.jsunsoft.http.BenchmarkPayloads.BodyType;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of requests that fail the expected way, with and without
+ * {@link HttpRequestBuilder#setLightweightFailures(boolean) lightweight failures}:
+ * <ul>
+ *     <li>{@link #refused()} — the upstream is down: every connect is refused and becomes a
+ *     {@link ResponseException} with a {@code 503};</li>
+ *     <li>{@link #bodyTooLarge()} — the body exceeds the size limit: reading it throws
+ *     {@link InvalidContentLengthException} and the handler gets a {@code 502};</li>
+ *     <li>{@link #transportFailureOnly()} — just creating the exception, without the network, to
+ *     show how much of the failure path the stack trace is.</li>
+ * </ul>
+ * The difference grows with the stack depth of the caller, so the scores here are a lower bound.
+ * An outage is concurrent; add threads with e.g. {@code -t 8}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FailureBenchmark {
+
+    @Param({"false", "true"})
+    public boolean lightweightFailures;
+
+    private BenchmarkServer server;
+    private CloseableHttpClient client;
+    private HttpRequest httpRequest;
+    private URI refusedUri;
+    private URI largeBodyUri;
+    private ConnectException connectException;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        server = new BenchmarkServer();
+        largeBodyUri = server.uri(BodyType.STRING, 16 * 1024);
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            refusedUri = URI.create("http://localhost:" + serverSocket.getLocalPort() + "/down");
+        }
+        client = ClientBuilder.create().setMaxPoolSize(64).setDefaultMaxPoolSizePerRoute(64).build();
+        httpRequest = HttpRequestBuilder.create(client)
+                .setMaxResponseBodySizeBytes(1024)
+                .setLightweightFailures(lightweightFailures)
+                .build();
+        connectException = new ConnectException("Connection refused");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+    }
+
+    @Benchmark
+    public int refused() {
+        return httpRequest.target(refusedUri).get(String.class).getCode();
+    }
+
+    @Benchmark
+    public int bodyTooLarge() {
+        return httpRequest.target(largeBodyUri).get(String.class).getCode();
+    }
+
+    @Benchmark
+    public ResponseException transportFailureOnly() {
+        return new ResponseException(503, -1, "Failed to connect to server", refusedUri, BasicConnectionFailureType.SERVICE_UNREACHABLE,
+                connectException, !lightweightFailures);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FailureBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
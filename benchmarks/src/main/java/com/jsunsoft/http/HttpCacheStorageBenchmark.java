@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsunsoft.http;
+
+import org.apache.hc.core5.http.message.BasicHttpRequest;
+import org.apache.hc.core5.http.message.BasicHttpResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contention on the {@link MemoryHttpCacheStorage}: cache hits on a small set of hot keys from many
+ * threads, with and without a store every 64 operations. Compare the scores of
+ * {@code -t 1} and {@code -t 8}: hits take no lock, so throughput should scale with the threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class HttpCacheStorageBenchmark {
+    private static final int KEY_COUNT = 1024;
+
+    private final String[] keys = new String[KEY_COUNT];
+    private MemoryHttpCacheStorage storage;
+    private CacheEntry entry;
+
+    @Setup
+    public void setup() {
+        BasicHttpResponse response = new BasicHttpResponse(200, "OK");
+        response.addHeader("Cache-Control", "max-age=60");
+        long now = System.currentTimeMillis();
+        entry = CacheEntry.create(new BasicHttpRequest("GET", "/"), response, BenchmarkPayloads.text(1024).getBytes(StandardCharsets.UTF_8), now, now);
+
+        // Room for three quarters of the keys, so stores keep evicting.
+        storage = new MemoryHttpCacheStorage(entry.getWeight() * KEY_COUNT * 3 / 4);
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = "http://example.com:80/items/" + i;
+            storage.put(keys[i], entry);
+        }
+    }
+
+    @Benchmark
+    public CacheEntry hit() {
+        return storage.get(keys[ThreadLocalRandom.current().nextInt(KEY_COUNT / 2)]);
+    }
+
+    @Benchmark
+    public CacheEntry hitOrStore() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String key = keys[random.nextInt(KEY_COUNT)];
+        if (random.nextInt(64) == 0) {
+            storage.put(key, entry);
+            return entry;
+        }
+        return storage.get(key);
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import com.jsunsoft.http.BenchmarkPayloads.BodyType;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end cost of a request through {@link HttpRequest}: building the request, the exchange
+ * with an in-process {@link BenchmarkServer} over loopback, and reading the body into its type.
+ * <p>
+ * Throughput gives ops/ms, sample time gives the latency percentiles, and {@code -prof gc}
+ * ({@link #main} adds it) gives {@code gc.alloc.rate.norm}, the bytes allocated per request.
+ * <p>
+ * Mutable and retryable targets are created per request, as in typical code; the immutable
+ * target is created once and shared. The retryable target never retries here — the server
+ * always answers {@code 200} — so its score is the overhead of the retry machinery.
+ * <p>
+ * The full matrix is large; narrow it with JMH options, e.g.
+ * {@code java -jar benchmarks.jar RequestBenchmark -p bodyType=JSON -p payloadSize=1024 -prof gc}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestBenchmark {
+
+    public enum TargetKind {
+        MUTABLE, IMMUTABLE, RETRYABLE
+    }
+
+    private static final RetryContext NO_RETRY_IN_PRACTICE = RetryContext.onIdempotent5xx(1, Duration.ZERO);
+
+    @Param({"STRING", "BYTES", "JSON", "XML"})
+    public BodyType bodyType;
+
+    @Param({"128", "16384", "1048576"})
+    public int payloadSize;
+
+    @Param({"MUTABLE", "IMMUTABLE", "RETRYABLE"})
+    public TargetKind targetKind;
+
+    private BenchmarkServer server;
+    private CloseableHttpClient client;
+    private HttpRequest httpRequest;
+    private URI uri;
+    private WebTarget immutableTarget;
+
+    private String stringBody;
+    private HttpEntity bytesBody;
+    private Object objectBody;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        server = new BenchmarkServer();
+        uri = server.uri(bodyType, payloadSize);
+        client = ClientBuilder.create().setMaxPoolSize(64).setDefaultMaxPoolSizePerRoute(64).build();
+        httpRequest = HttpRequestBuilder.create(client).build();
+        immutableTarget = httpRequest.immutableTarget(uri).addContentType(bodyType.getContentType());
+
+        Object body = BenchmarkPayloads.decoded(bodyType, payloadSize);
+        if (bodyType == BodyType.STRING) {
+            stringBody = (String) body;
+        } else if (bodyType == BodyType.BYTES) {
+            bytesBody = new ByteArrayEntity((byte[]) body, bodyType.getContentType());
+        } else {
+            objectBody = body;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+    }
+
+    @Benchmark
+    public Object get() {
+        return target().get(bodyType.getJavaType()).get();
+    }
+
+    @Benchmark
+    public Object post() {
+        Class<?> responseType = bodyType.getJavaType();
+        WebTarget target = target();
+        ResponseHandler<?> responseHandler;
+        if (stringBody != null) {
+            responseHandler = target.post(stringBody, responseType);
+        } else if (bytesBody != null) {
+            responseHandler = target.post(bytesBody, responseType);
+        } else {
+            responseHandler = target.post(objectBody, responseType);
+        }
+        return responseHandler.get();
+    }
+
+    private WebTarget target() {
+        switch (targetKind) {
+            case IMMUTABLE:
+                return immutableTarget;
+            case RETRYABLE:
+                return httpRequest.retryableTarget(uri, NO_RETRY_IN_PRACTICE).addContentType(bodyType.getContentType());
+            default:
+                return httpRequest.target(uri).addContentType(bodyType.getContentType());
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RequestBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
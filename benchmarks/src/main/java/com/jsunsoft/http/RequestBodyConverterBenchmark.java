@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import com.jsunsoft.http.BenchmarkPayloads.BodyType;
+import com.jsunsoft.http.xml.XmlBodyCodecProvider;
+import org.apache.hc.core5.http.HttpEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the {@link RequestBodyConverters} serializing a request body of 1 KB to 50 MB into its entity.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class RequestBodyConverterBenchmark {
+
+    @Param({"JSON", "XML"})
+    public BodyType bodyType;
+
+    @Param({"1024", "65536", "1048576", "52428800"})
+    public int payloadSize;
+
+    private RequestBodyConverter converter;
+    private Object body;
+
+    @Setup
+    public void setup() {
+        body = BenchmarkPayloads.decoded(bodyType, payloadSize);
+        if (bodyType == BodyType.JSON) {
+            converter = RequestBodyConverters.jsonConverter(ObjectMapperInitializer.initJsonMapperIfNull(null, Collections.emptyMap()));
+        } else {
+            BodyCodecProvider xml = BodyCodecs.find(XmlBodyCodecProvider.NAME);
+            converter = RequestBodyConverters.codecConverter(xml, ObjectMapperInitializer.lazyMapper(xml, null, Collections.emptyMap()));
+        }
+    }
+
+    @Benchmark
+    public HttpEntity convert() {
+        return converter.convert(new RequestBodyConverterContext(body, bodyType.getContentType(), null));
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import com.jsunsoft.http.BenchmarkPayloads.BodyType;
+import com.jsunsoft.http.xml.XmlBodyCodecProvider;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.http.message.BasicClassicHttpResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Cost of the {@link ResponseBodyReaders} on in-memory bodies of 1 KB to 50 MB, without any I/O.
+ * <p>
+ * Each operation wraps the entity the way {@link BasicResponse} does — in a {@link BoundedHttpEntity}
+ * when {@code bounded}, so the size cap's overhead shows up — and reads it into its type.
+ * {@link #readStringCharsetFallback} reads text whose {@code Content-Type} declares no charset, the
+ * path where the reader falls back to the default response charset.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ResponseBodyReaderBenchmark {
+
+    private static final URI BENCHMARK_URI = URI.create("http://localhost/benchmark");
+    private static final long MAX_RESPONSE_BODY_SIZE = Long.MAX_VALUE;
+
+    @State(Scope.Thread)
+    public static class ReadState {
+        @Param({"STRING", "BYTES", "JSON", "XML"})
+        public BodyType bodyType;
+
+        @Param({"1024", "65536", "1048576", "52428800"})
+        public int payloadSize;
+
+        @Param({"false", "true"})
+        public boolean bounded;
+
+        private HttpEntity entity;
+        private ResponseBodyReader<?> reader;
+
+        @Setup
+        public void setup() {
+            entity = new ByteArrayEntity(BenchmarkPayloads.encode(bodyType, payloadSize), bodyType.getContentType());
+            reader = readerOf(bodyType);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class CharsetFallbackState {
+        @Param({"1024", "65536", "1048576", "52428800"})
+        public int payloadSize;
+
+        @Param({"false", "true"})
+        public boolean bounded;
+
+        private HttpEntity entity;
+
+        @Setup
+        public void setup() {
+            entity = new ByteArrayEntity(BenchmarkPayloads.text(payloadSize).getBytes(UTF_8), ContentType.create("text/plain"));
+        }
+    }
+
+    @Benchmark
+    public Object read(ReadState state) throws IOException {
+        return read(state.reader, state.bodyType.getJavaType(), state.entity, state.bounded);
+    }
+
+    @Benchmark
+    public Object readStringCharsetFallback(CharsetFallbackState state) throws IOException {
+        return read(ResponseBodyReaders.stringReader(), String.class, state.entity, state.bounded);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object read(ResponseBodyReader reader, Class<?> type, HttpEntity entity, boolean bounded) throws IOException {
+        ClassicHttpResponse response = new BasicClassicHttpResponse(200);
+        response.setEntity(bounded ? new BoundedHttpEntity(entity, MAX_RESPONSE_BODY_SIZE) : entity);
+        return reader.read(new BasicResponseBodyReaderContext(response, type, type, BENCHMARK_URI, bounded ? MAX_RESPONSE_BODY_SIZE : 0, UTF_8));
+    }
+
+    static ResponseBodyReader<?> readerOf(BodyType bodyType) {
+        switch (bodyType) {
+            case STRING:
+                return ResponseBodyReaders.stringReader();
+            case BYTES:
+                return ResponseBodyReaders.byteReader();
+            case JSON:
+                return ResponseBodyReaders.jsonReader(ObjectMapperInitializer.initJsonMapperIfNull(null, Collections.emptyMap()));
+            case XML:
+                BodyCodecProvider xml = BodyCodecs.find(XmlBodyCodecProvider.NAME);
+                return ResponseBodyReaders.codecReader(xml, ObjectMapperInitializer.lazyMapper(xml, null, Collections.emptyMap()));
+            default:
+                throw new IllegalArgumentException("Unsupported body type: " + bodyType);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import com.jsunsoft.http.BenchmarkPayloads.BodyType;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to first request in a fresh JVM: building a client and {@code httpRequestCount}
+ * {@link HttpRequest}s, as an application does at boot, then one JSON request.
+ * <p>
+ * Every fork measures a single cold shot, so the score includes class loading and the
+ * construction of the Jackson mappers; the many forks average out the noise. The setup keeps
+ * Jackson out of the JVM: the payload is a literal, not encoded by {@link BenchmarkPayloads}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class StartupBenchmark {
+    private static final byte[] PAYLOAD = "{\"items\":[{\"id\":1,\"name\":\"item-1\",\"price\":0.25,\"available\":true,\"tags\":[\"alpha\"]}]}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Param({"1", "24"})
+    public int httpRequestCount;
+
+    private BenchmarkServer server;
+    private URI uri;
+    private CloseableHttpClient client;
+
+    @Setup
+    public void setup() throws IOException {
+        server = new BenchmarkServer();
+        uri = server.uri(BodyType.JSON, "startup", PAYLOAD);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+    }
+
+    @Benchmark
+    public Object timeToFirstRequest() {
+        client = ClientBuilder.create().build();
+        HttpRequest first = null;
+        for (int i = 0; i < httpRequestCount; i++) {
+            HttpRequest httpRequest = HttpRequestBuilder.create(client).build();
+            if (first == null) {
+                first = httpRequest;
+            }
+        }
+        return first.target(uri).get(BenchmarkPayloads.Items.class).get();
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsunsoft.http;
+
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.socket.UnixDomainSocketFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trip of a small {@code GET} over a Unix domain socket
+ * ({@link ClientBuilder#setUnixDomainSocket(Path)}) and over loopback TCP.
+ * <p>
+ * Both transports talk to the same minimal blocking server, which answers every request with its
+ * request line, so the difference between the {@code transport} params is the transport alone.
+ * The connection is pooled and reused, so the scores compare the per-request path, not connecting.
+ * Requires a platform with Unix domain sockets (JDK 16+).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UnixDomainSocketBenchmark {
+
+    public enum Transport {
+        UNIX, TCP
+    }
+
+    @Param({"UNIX", "TCP"})
+    public Transport transport;
+
+    private Path socketDir;
+    private RequestLineServer server;
+    private CloseableHttpClient client;
+    private WebTarget webTarget;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        if (!UnixDomainSocketFactory.isAvailable()) {
+            throw new IllegalStateException("Unix domain sockets are not supported on this platform");
+        }
+        if (transport == Transport.UNIX) {
+            socketDir = Files.createTempDirectory("http-request-uds");
+            Path socketPath = socketDir.resolve("server.sock");
+            server = RequestLineServer.start(ServerSocketChannel.open(StandardProtocolFamily.UNIX), UnixDomainSocketAddress.of(socketPath));
+            client = ClientBuilder.create().setUnixDomainSocket(socketPath).build();
+            webTarget = HttpRequestBuilder.create(client).build().immutableTarget("http://localhost/ping");
+        } else {
+            server = RequestLineServer.start(ServerSocketChannel.open(StandardProtocolFamily.INET), new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            int port = ((InetSocketAddress) server.getLocalAddress()).getPort();
+            client = ClientBuilder.create().build();
+            webTarget = HttpRequestBuilder.create(client).build().immutableTarget("http://127.0.0.1:" + port + "/ping");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+        if (socketDir != null) {
+            Files.deleteIfExists(socketDir.resolve("server.sock"));
+            Files.deleteIfExists(socketDir);
+        }
+    }
+
+    @Benchmark
+    public String get() {
+        return webTarget.get(String.class).get();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UnixDomainSocketBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+
+    /**
+     * Minimal blocking HTTP/1.1 server answering every request with its request line, on any
+     * {@link ServerSocketChannel}, so both transports run identical server code.
+     */
+    private static final class RequestLineServer implements Closeable {
+        private final ServerSocketChannel serverChannel;
+
+        private RequestLineServer(ServerSocketChannel serverChannel) {
+            this.serverChannel = serverChannel;
+        }
+
+        static RequestLineServer start(ServerSocketChannel serverChannel, SocketAddress address) throws IOException {
+            serverChannel.bind(address);
+            RequestLineServer server = new RequestLineServer(serverChannel);
+            Thread acceptor = new Thread(server::acceptLoop, "benchmark-server");
+            acceptor.setDaemon(true);
+            acceptor.start();
+            return server;
+        }
+
+        SocketAddress getLocalAddress() throws IOException {
+            return serverChannel.getLocalAddress();
+        }
+
+        private void acceptLoop() {
+            while (serverChannel.isOpen()) {
+                try {
+                    SocketChannel channel = serverChannel.accept();
+                    Thread handler = new Thread(() -> serve(channel), "benchmark-server-connection");
+                    handler.setDaemon(true);
+                    handler.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private static void serve(SocketChannel channel) {
+            try (channel;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.US_ASCII));
+                 OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel))) {
+                String requestLine;
+                while ((requestLine = in.readLine()) != null) {
+                    String line;
+                    do {
+                        line = in.readLine();
+                    } while (line != null && !line.isEmpty());
+
+                    String[] parts = requestLine.split(" ");
+                    byte[] body = (parts[0] + " " + parts[1]).getBytes(StandardCharsets.US_ASCII);
+                    out.write(("HTTP/1.1 200 OK\r\nContent-Type: text/plain\r\nContent-Length: " + body.length + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+                    out.write(body);
+                    out.flush();
+                }
+            } catch (IOException ignored) {
+                // Client closed the connection.
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverChannel.close();
+        }
+    }
+}
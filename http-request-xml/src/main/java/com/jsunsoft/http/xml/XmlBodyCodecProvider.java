@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http.xml;
+
+import com.jsunsoft.http.BodyCodecProvider;
+import com.jsunsoft.http.annotations.Beta;
+import org.apache.hc.core5.http.ContentType;
+import tools.jackson.databind.cfg.MapperBuilder;
+import tools.jackson.dataformat.xml.XmlMapper;
+
+import java.util.List;
+
+/**
+ * XML ({@code application/xml} and {@code text/xml}) bodies via Jackson's {@link XmlMapper}.
+ * <p>
+ * Nothing needs to be configured: with this artifact on the classpath every {@link com.jsunsoft.http.HttpRequest}
+ * reads and writes XML bodies. A custom mapper is set with
+ * {@link com.jsunsoft.http.HttpRequestBuilder#setDefaultXmlMapper(tools.jackson.databind.ObjectMapper)}.
+ *
+ * @since 5.0.0
+ */
+@Beta
+public final class XmlBodyCodecProvider implements BodyCodecProvider {
+    /**
+     * Name of the codec, see {@link com.jsunsoft.http.HttpRequestBuilder#setDefaultMapper(String, tools.jackson.databind.ObjectMapper)}.
+     */
+    public static final String NAME = "xml";
+
+    private static final List<ContentType> CONTENT_TYPES = List.of(ContentType.APPLICATION_XML, ContentType.TEXT_XML);
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public List<ContentType> getContentTypes() {
+        return CONTENT_TYPES;
+    }
+
+    @Override
+    public MapperBuilder<?, ?> newMapperBuilder() {
+        return XmlMapper.builder();
+    }
+}
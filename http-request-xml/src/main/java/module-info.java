@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+module com.jsunsoft.http.xml {
+    requires transitive com.jsunsoft.http;
+    requires transitive tools.jackson.dataformat.xml;
+
+    exports com.jsunsoft.http.xml;
+
+    provides com.jsunsoft.http.BodyCodecProvider with com.jsunsoft.http.xml.XmlBodyCodecProvider;
+}
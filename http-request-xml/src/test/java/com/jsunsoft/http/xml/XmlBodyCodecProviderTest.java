@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http.xml;
+
+import com.fasterxml.jackson.annotation.JsonRootName;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import com.jsunsoft.http.ClientBuilder;
+import com.jsunsoft.http.HttpRequest;
+import com.jsunsoft.http.HttpRequestBuilder;
+import com.jsunsoft.http.ResponseHandler;
+import com.jsunsoft.http.WebTarget;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.dataformat.xml.XmlMapper;
+
+import java.time.LocalDate;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.apache.hc.core5.http.ContentType.APPLICATION_XML;
+import static org.apache.hc.core5.http.ContentType.TEXT_XML;
+import static org.apache.hc.core5.http.HttpHeaders.CONTENT_LENGTH;
+import static org.apache.hc.core5.http.HttpHeaders.CONTENT_TYPE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class XmlBodyCodecProviderTest {
+    private static final String XML_BODY = "<xml><id>1</id><key>testValue</key></xml>";
+
+    @RegisterExtension
+    static WireMockExtension wireMockRule = WireMockExtension.newInstance()
+            .options(WireMockConfiguration.wireMockConfig().dynamicPort())
+            .build();
+
+    private final HttpRequest xmlHttpRequest = HttpRequestBuilder.create(ClientBuilder.create().build())
+            .addContentType(APPLICATION_XML)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        wireMockRule.resetAll();
+    }
+
+    @Test
+    void xmlParsingTest() {
+        stubEcho(APPLICATION_XML.toString());
+
+        ResponseHandler<Wrapper> responseHandler = target().post(XML_BODY, Wrapper.class);
+
+        assertTrue(responseHandler.isSuccess());
+        assertTrue(responseHandler.hasContent());
+        assertEquals(1, responseHandler.get().id);
+        assertEquals("testValue", responseHandler.get().key);
+    }
+
+    @Test
+    void requestXmlSerializationTest() {
+        stubEcho(APPLICATION_XML.toString());
+
+        Wrapper xmlWrapper = target()
+                .post(XML_BODY, Wrapper.class)
+                .requiredGet();
+
+        ResponseHandler<Wrapper> rh = target().post(xmlWrapper, Wrapper.class);
+
+        assertTrue(rh.isSuccess());
+        assertEquals(1, rh.get().id);
+    }
+
+    @Test
+    void textXmlContentTypeIsKept() {
+        stubEcho(TEXT_XML.toString());
+
+        Wrapper wrapper = new Wrapper();
+        wrapper.id = 1;
+        wrapper.key = "testValue";
+
+        ResponseHandler<Wrapper> rh = HttpRequestBuilder.create(ClientBuilder.create().build()).build()
+                .target(wireMockRule.getRuntimeInfo().getHttpBaseUrl())
+                .path("xml")
+                .addContentType(TEXT_XML)
+                .post(wrapper, Wrapper.class);
+
+        assertTrue(rh.isSuccess());
+        assertEquals("testValue", rh.get().key);
+    }
+
+    @Test
+    void datePatternIsAppliedToUserMapper() {
+        String body = "<Dated><localDate>19930511</localDate><ignored>x</ignored></Dated>";
+        wireMockRule.stubFor(get(urlEqualTo("/dated"))
+                .willReturn(aResponse()
+                        .withBody(body)
+                        .withHeader(CONTENT_TYPE, APPLICATION_XML.toString())
+                        .withStatus(200)));
+
+        HttpRequest httpRequest = HttpRequestBuilder.create(ClientBuilder.create().build())
+                .setDefaultXmlMapper(XmlMapper.builder().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES).build())
+                .addResponseDefaultDateDeserializationPattern(LocalDate.class, "yyyyMMdd")
+                .build();
+
+        Dated dated = httpRequest.target(wireMockRule.getRuntimeInfo().getHttpBaseUrl())
+                .path("dated")
+                .get(Dated.class)
+                .requiredGet();
+
+        assertEquals(LocalDate.of(1993, 5, 11), dated.localDate);
+    }
+
+    private WebTarget target() {
+        return xmlHttpRequest.immutableTarget(wireMockRule.getRuntimeInfo().getHttpBaseUrl()).path("xml");
+    }
+
+    private static void stubEcho(String contentType) {
+        wireMockRule.stubFor(post(urlEqualTo("/xml"))
+                .withHeader(CONTENT_TYPE, containing(contentType))
+                .withRequestBody(equalTo(XML_BODY))
+                .willReturn(aResponse()
+                        .withBody(XML_BODY)
+                        .withHeader(CONTENT_TYPE, contentType)
+                        .withHeader(CONTENT_LENGTH, String.valueOf(XML_BODY.length()))
+                        .withStatus(200)));
+    }
+
+    @JsonRootName("xml")
+    public static class Wrapper {
+        public int id;
+        public String key;
+    }
+
+    public static class Dated {
+        public LocalDate localDate;
+    }
+}
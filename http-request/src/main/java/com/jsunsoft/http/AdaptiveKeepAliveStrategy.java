@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsunsoft.http;
+
+import org.apache.hc.client5.http.ConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.RouteInfo;
+import org.apache.hc.client5.http.classic.ExecChain;
+import org.apache.hc.client5.http.classic.ExecChainHandler;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.EndpointDetails;
+import org.apache.hc.core5.http.HeaderElement;
+import org.apache.hc.core5.http.HeaderElements;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.NoHttpResponseException;
+import org.apache.hc.core5.http.message.MessageSupport;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.TimeValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keep-alive strategy that keeps pooled connections alive for as long as the server — or the proxy
+ * in front of it — is expected to keep them open, and no longer.
+ * <p>
+ * The keep-alive period of a connection is the smallest of:
+ * <ul>
+ *     <li>the configured default ({@link org.apache.hc.client5.http.config.RequestConfig#getConnectionKeepAlive()});</li>
+ *     <li>the server's {@code Keep-Alive: timeout=N} hint, minus a safety margin;</li>
+ *     <li>the idle timeout learned for the route, minus a safety margin.</li>
+ * </ul>
+ * Proxies rarely announce their idle timeout, so it is learned: when a request on a reused
+ * connection fails with a stale-connection symptom ({@link NoHttpResponseException}, connection
+ * reset, broken pipe), the time that connection sat idle is an upper bound of the route's real
+ * idle timeout. Further stale connections only shrink the learned value, converging on the
+ * effective timeout, and it never drops below {@link #MIN_LEARNED_IDLE_TIMEOUT_MILLIS} so an
+ * unrelated reset cannot disable reuse.
+ * <p>
+ * The timeout may be raised later, or the reset may have been a one-off, so the learned value
+ * recovers: it doubles for every five minutes ({@link #RECOVERY_PERIOD_NANOS}) without a stale
+ * connection on the route, and is forgotten after {@value #MAX_RECOVERY_DOUBLINGS} doublings. A stale connection while
+ * recovering shrinks it again and restarts the period.
+ * <p>
+ * Idle time is measured from the moment the response headers were received, which slightly
+ * over-estimates it for large bodies; the safety margin absorbs the difference.
+ * <p>
+ * Failures are observed by {@link #staleConnectionObserver()}, which must be installed right
+ * before the main transport of the exec chain.
+ */
+final class AdaptiveKeepAliveStrategy implements ConnectionKeepAliveStrategy {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdaptiveKeepAliveStrategy.class);
+
+    static final long MIN_LEARNED_IDLE_TIMEOUT_MILLIS = 1000;
+
+    static final long RECOVERY_PERIOD_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    static final int MAX_RECOVERY_DOUBLINGS = 16;
+
+    private static final long MIN_SAFETY_MARGIN_MILLIS = 100;
+
+    /**
+     * When each pooled connection last went idle, keyed by its (per-connection) endpoint details.
+     * Weak keys: entries go away with the connection.
+     */
+    private final Map<EndpointDetails, Long> idleSinceNanos = Collections.synchronizedMap(new WeakHashMap<>());
+    private final ConcurrentMap<HttpRoute, LearnedIdleTimeout> learnedIdleTimeouts = new ConcurrentHashMap<>();
+
+    @Override
+    public TimeValue getKeepAliveDuration(HttpResponse response, HttpContext context) {
+        HttpClientContext clientContext = HttpClientContext.cast(context);
+
+        EndpointDetails endpointDetails = clientContext.getEndpointDetails();
+        if (endpointDetails != null) {
+            idleSinceNanos.put(endpointDetails, System.nanoTime());
+        }
+
+        TimeValue defaultKeepAlive = clientContext.getRequestConfigOrDefault().getConnectionKeepAlive();
+        long keepAliveMillis = TimeValue.isPositive(defaultKeepAlive) ? defaultKeepAlive.toMilliseconds() : Long.MAX_VALUE;
+
+        long hintMillis = parseKeepAliveTimeoutMillis(response);
+        if (hintMillis >= 0) {
+            keepAliveMillis = Math.min(keepAliveMillis, belowWithMargin(hintMillis));
+        }
+
+        RouteInfo route = clientContext.getHttpRoute();
+        long learnedMillis = route instanceof HttpRoute ? getLearnedIdleTimeoutMillis((HttpRoute) route) : -1;
+        if (learnedMillis >= 0) {
+            keepAliveMillis = Math.min(keepAliveMillis, belowWithMargin(learnedMillis));
+        }
+
+        return keepAliveMillis == Long.MAX_VALUE ? defaultKeepAlive : TimeValue.ofMilliseconds(keepAliveMillis);
+    }
+
+    /**
+     * @return exec interceptor reporting stale-connection failures back to this strategy
+     */
+    ExecChainHandler staleConnectionObserver() {
+        return this::observe;
+    }
+
+    /**
+     * @return the idle timeout learned for {@code route} in milliseconds, or {@code -1} if nothing was learned yet
+     */
+    long getLearnedIdleTimeoutMillis(HttpRoute route) {
+        return getLearnedIdleTimeoutMillis(route, System.nanoTime());
+    }
+
+    long getLearnedIdleTimeoutMillis(HttpRoute route, long nowNanos) {
+        LearnedIdleTimeout learned = learnedIdleTimeouts.get(route);
+        if (learned == null) {
+            return -1;
+        }
+        long millis = learned.getMillis(nowNanos);
+        if (millis < 0) {
+            learnedIdleTimeouts.remove(route, learned);
+        }
+        return millis;
+    }
+
+    void onStaleConnection(HttpRoute route, long idleMillis) {
+        onStaleConnection(route, idleMillis, System.nanoTime());
+    }
+
+    void onStaleConnection(HttpRoute route, long idleMillis, long nowNanos) {
+        long bound = Math.max(idleMillis, MIN_LEARNED_IDLE_TIMEOUT_MILLIS);
+        long previous = getLearnedIdleTimeoutMillis(route, nowNanos);
+        LearnedIdleTimeout learned = learnedIdleTimeouts.compute(route, (r, current) -> {
+            long currentMillis = current == null ? -1 : current.getMillis(nowNanos);
+            return new LearnedIdleTimeout(currentMillis < 0 ? bound : Math.min(bound, currentMillis), nowNanos);
+        });
+        if (learned.millis != previous) {
+            LOGGER.debug("Stale connection to route [{}] after {} ms idle. Learned idle timeout is now {} ms.", route, idleMillis, learned.millis);
+        }
+    }
+
+    private ClassicHttpResponse observe(ClassicHttpRequest request, ExecChain.Scope scope, ExecChain chain) throws IOException, HttpException {
+        try {
+            return chain.proceed(request, scope);
+        } catch (NoHttpResponseException | SocketException e) {
+            if (!(e instanceof ConnectException)) {
+                EndpointDetails endpointDetails = scope.clientContext.getEndpointDetails();
+                // Only connections that came back from the pool have an entry; fresh ones are not stale.
+                Long idleSince = endpointDetails == null ? null : idleSinceNanos.remove(endpointDetails);
+                if (idleSince != null) {
+                    onStaleConnection(scope.route, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - idleSince));
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Idle timeout learned from the last stale connection of a route.
+     */
+    private static final class LearnedIdleTimeout {
+        private final long millis;
+        private final long sinceNanos;
+
+        private LearnedIdleTimeout(long millis, long sinceNanos) {
+            this.millis = millis;
+            this.sinceNanos = sinceNanos;
+        }
+
+        /**
+         * @return the timeout recovered up to {@code nowNanos}, or {@code -1} once it is forgotten
+         */
+        private long getMillis(long nowNanos) {
+            long doublings = Math.max(0, nowNanos - sinceNanos) / RECOVERY_PERIOD_NANOS;
+            return doublings < MAX_RECOVERY_DOUBLINGS ? millis << doublings : -1;
+        }
+    }
+
+    // at least 1 ms: HttpCore treats a zero keep-alive as unlimited, so a too short timeout must expire instead
+    private static long belowWithMargin(long millis) {
+        return Math.max(1, millis - Math.max(millis / 10, MIN_SAFETY_MARGIN_MILLIS));
+    }
+
+    /**
+     * @return the {@code timeout} parameter of the {@code Keep-Alive} header in milliseconds, or {@code -1}
+     */
+    private static long parseKeepAliveTimeoutMillis(HttpResponse response) {
+        Iterator<HeaderElement> it = MessageSupport.iterate(response, HeaderElements.KEEP_ALIVE);
+        while (it.hasNext()) {
+            HeaderElement element = it.next();
+            if ("timeout".equalsIgnoreCase(element.getName()) && element.getValue() != null) {
+                try {
+                    return TimeUnit.SECONDS.toMillis(Long.parseLong(element.getValue().trim()));
+                } catch (NumberFormatException e) {
+                    LOGGER.debug("Ignoring malformed Keep-Alive timeout: [{}]", element.getValue());
+                }
+            }
+        }
+        return -1;
+    }
+}
@@ -16,6 +16,15 @@
 
 package com.jsunsoft.http;
 
+import org.apache.hc.client5.http.ClientProtocolException;
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.apache.hc.client5.http.HttpHostConnectException;
+import org.apache.hc.core5.http.ConnectionRequestTimeoutException;
+import org.apache.hc.core5.http.NoHttpResponseException;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+
 /**
  * Type to specified why connection is failure.
  */
@@ -51,4 +60,22 @@ enum BasicConnectionFailureType implements ConnectionFailureType {
     public boolean isRemoteServerUnreachable() {
         return this == SERVICE_UNREACHABLE;
     }
+
+    /**
+     * @return the failure type {@link BasicWebTarget} reports for {@code e}
+     */
+    static BasicConnectionFailureType of(IOException e) {
+        if (e instanceof ConnectionRequestTimeoutException) {
+            return CONNECTION_POOL_IS_EMPTY;
+        } else if (e instanceof ConnectTimeoutException) {
+            return CONNECT_TIMEOUT;
+        } else if (e instanceof SocketTimeoutException || e instanceof NoHttpResponseException) {
+            return RESPONSE_TIMEOUT;
+        } else if (e instanceof HttpHostConnectException) {
+            return SERVICE_UNREACHABLE;
+        } else if (e instanceof ClientProtocolException) {
+            return UNDEFINED;
+        }
+        return IO;
+    }
 }
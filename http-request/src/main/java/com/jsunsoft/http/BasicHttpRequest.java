@@ -24,6 +24,7 @@ import org.apache.hc.core5.net.URIBuilder;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.Charset;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
@@ -34,6 +35,8 @@ import java.util.function.UnaryOperator;
  * Basic implementation of HttpRequest
  */
 class BasicHttpRequest implements HttpRequest {
+    private static final RetryContext NO_RETRY = BasicRetryContext.fixedDelay(0, Duration.ZERO, true);
+
     private final CloseableHttpClient closeableHttpClient;
     private final Collection<Header> defaultHeaders;
     private final Collection<NameValuePair> defaultRequestParameters;
@@ -139,6 +142,19 @@ class BasicHttpRequest implements HttpRequest {
         }
     }
 
+    @Override
+    public WebTarget loadBalancedTarget(EndpointGroup endpointGroup) {
+        return loadBalancedTarget(endpointGroup, NO_RETRY);
+    }
+
+    @Override
+    public WebTarget loadBalancedTarget(EndpointGroup endpointGroup, RetryContext retryContext) {
+        ArgsCheck.notNull(endpointGroup, "endpointGroup");
+        ArgsCheck.notNull(retryContext, "retryContext");
+        endpointGroup.getEndpoints().forEach(this::validateUriScheme);
+        return new LoadBalancedWebTarget(closeableHttpClient, endpointGroup, defaultHeaders, defaultRequestParameters, retryContext, responseBodyReaderConfig, requestBodySerializeConfig, requestPayloadLogging, payloadRedactor, defaultQueryCharset, defaultBodyCharset);
+    }
+
     private void validateUriScheme(URI uri) {
         if (allowedSchemes.isEmpty()) {
             return;
@@ -17,7 +17,9 @@
 package com.jsunsoft.http;
 
 import org.apache.hc.core5.http.*;
-import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.io.Closer;
+import org.apache.hc.core5.io.ModalCloseable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,41 +36,112 @@ class BasicResponse implements Response {
     private final ClassicHttpResponse classicHttpResponse;
     private final ResponseBodyReaderConfig responseBodyReaderConfig;
     private final URI uri;
+    private Runnable closeListener;
+    /**
+     * Set while the entity is a body served or stored by the {@link HttpCache}.
+     */
+    private CachedHttpEntity cachedEntity;
+    /**
+     * Set while the body streams from a connection.
+     */
+    private DrainingHttpEntity drainingEntity;
+    private final RequestTimings timings;
 
     public BasicResponse(ClassicHttpResponse classicHttpResponse, ResponseBodyReaderConfig responseBodyReaderConfig, URI uri) {
+        this(classicHttpResponse, responseBodyReaderConfig, uri, null);
+    }
+
+    /**
+     * @param timings timings of the request, {@code null} if not recorded
+     */
+    BasicResponse(ClassicHttpResponse classicHttpResponse, ResponseBodyReaderConfig responseBodyReaderConfig, URI uri, RequestTimings timings) {
         this.classicHttpResponse = classicHttpResponse;
         this.responseBodyReaderConfig = responseBodyReaderConfig;
         this.uri = uri;
+        this.timings = timings;
 
         HttpEntity entity = classicHttpResponse.getEntity();
+        if (entity instanceof CachedHttpEntity) {
+            cachedEntity = (CachedHttpEntity) entity;
+        }
+        if (entity != null) {
+            if (timings != null) {
+                entity = new TimedHttpEntity(entity, timings);
+            }
+            if (cachedEntity == null) {
+                drainingEntity = new DrainingHttpEntity(entity, responseBodyReaderConfig.getMaxDrainBytes(), responseBodyReaderConfig.getMaxDrainNanos());
+                entity = drainingEntity;
+            }
+            classicHttpResponse.setEntity(entity);
+        }
         if (entity != null && responseBodyReaderConfig.getMaxResponseBodySizeBytes() > 0) {
-            classicHttpResponse.setEntity(new BoundedHttpEntity(entity, responseBodyReaderConfig.getMaxResponseBodySizeBytes()));
+            classicHttpResponse.setEntity(new BoundedHttpEntity(entity, responseBodyReaderConfig.getMaxResponseBodySizeBytes(), !responseBodyReaderConfig.isLightweightFailures()));
         }
     }
 
+    /**
+     * @return whether the body is a stale copy served by the {@link HttpCache}
+     */
+    boolean isStale() {
+        return cachedEntity != null && cachedEntity.isStale();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RequestTimings getTimings() {
+        return timings;
+    }
+
     ResponseBodyReaderConfig getResponseBodyReaderConfig() {
         return responseBodyReaderConfig;
     }
 
+    /**
+     * Registers a callback invoked once the underlying response has been closed, e.g. to release
+     * per-endpoint bookkeeping of a load-balanced target. The listener must be idempotent: closing
+     * the response more than once calls it again.
+     */
+    void setCloseListener(Runnable closeListener) {
+        this.closeListener = closeListener;
+    }
+
     /**
      * Best-effort close of the response.
      * <p>
-     * Note: Entity consumption may fail (e.g. when response body size limit is exceeded). In such cases we still
-     * close the underlying response to release resources and avoid masking the original processing error.
+     * An unread remainder of the body is read within the drain budget of the
+     * {@link ResponseBodyReaderConfig} so the connection goes back to the pool. A remainder over
+     * the budget gets the connection discarded right away: a graceful close would make HttpClient
+     * read the whole remainder, however large or slow (and defeat the body size limit).
+     * <p>
+     * Note: Draining may fail (e.g. when the connection breaks). In such cases we still close the underlying
+     * response to release resources and avoid masking the original processing error.
      */
     @Override
     public void close() throws IOException {
-
+        DrainingHttpEntity entity = drainingEntity;
+        boolean reused = entity == null || entity.release();
         try {
-            HttpEntity entity = getEntity();
-            if (entity != null && responseBodyReaderConfig.getMaxResponseBodySizeBytes() <= 0) {
-                // Only fully consume when there is no body size limit configured (safe for unlimited reads).
-                // When a limit is configured we avoid consuming because consuming = reading the remainder of the body,
-                // which can be arbitrarily large / slow (and defeats the purpose of the size limit).
-                EntityUtils.consumeQuietly(entity);
+            if (reused || !(classicHttpResponse instanceof ModalCloseable)) {
+                classicHttpResponse.close();
+            } else {
+                ((ModalCloseable) classicHttpResponse).close(CloseMode.IMMEDIATE);
+                // The connection is gone: closing the entity now fails fast instead of reading the
+                // remainder, and lets decorators observing it see the body end.
+                Closer.closeQuietly(entity);
             }
         } finally {
-            classicHttpResponse.close();
+            if (timings != null) {
+                timings.markEnd();
+                timings.endRequestEvent(classicHttpResponse.getCode(), null);
+                if (entity != null) {
+                    timings.markConnectionReleased(reused);
+                }
+            }
+            if (closeListener != null) {
+                closeListener.run();
+            }
         }
     }
 
@@ -117,6 +190,7 @@ class BasicResponse implements Response {
      */
     @Override
     public void setEntity(HttpEntity entity) {
+        cachedEntity = null;
         classicHttpResponse.setEntity(entity);
     }
 
@@ -316,6 +390,8 @@ class BasicResponse implements Response {
     /**
      * Read the entity input stream as an instance of specified Java type using a {@link ResponseBodyReader}.
      * <p>
+     * A body served by the {@link HttpCache} is read once per immutable result type: later reads return
+     * the cached result.
      * <p>
      * Note: method will throw any unchecked exception which will occurred in specified {@link ResponseBodyReader}.
      *
@@ -328,6 +404,38 @@ class BasicResponse implements Response {
      */
     @SuppressWarnings("unchecked")
     private <T> T readEntityChecked(Class<T> type, Type genericType) throws IOException {
+        CachedHttpEntity cached = cachedEntity;
+        long maxBodySize = responseBodyReaderConfig.getMaxResponseBodySizeBytes();
+        if (cached == null || !cached.isResultCacheable(genericType) || (maxBodySize > 0 && cached.getContentLength() > maxBodySize)) {
+            return readEntityWithReaders(type, genericType);
+        }
+
+        Object result = cached.getResult(genericType, responseBodyReaderConfig);
+        if (result == null) {
+            result = readEntityWithReaders(type, genericType);
+            if (result != null) {
+                cached.putResult(genericType, responseBodyReaderConfig, result);
+            }
+        }
+        return (T) result;
+    }
+
+    private <T> T readEntityWithReaders(Class<T> type, Type genericType) throws IOException {
+        if (timings == null) {
+            return readWithFirstReadableReader(type, genericType);
+        }
+        long startNanos = System.nanoTime();
+        long bodyNanos = timings.getBodyNanos();
+        try {
+            return readWithFirstReadableReader(type, genericType);
+        } finally {
+            // The readers pull the body as they parse: waiting for bytes is body time, not deserialization.
+            timings.addDeserializeNanos(System.nanoTime() - startNanos - (timings.getBodyNanos() - bodyNanos));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T readWithFirstReadableReader(Class<T> type, Type genericType) throws IOException {
         ResponseBodyReaderContext<T> responseBodyReaderContext = new BasicResponseBodyReaderContext<>(
                 this, type, genericType, getURI(),
                 responseBodyReaderConfig.getMaxResponseBodySizeBytes(),
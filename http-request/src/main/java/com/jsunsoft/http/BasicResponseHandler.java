@@ -54,20 +54,15 @@ final class BasicResponseHandler<T> implements ResponseHandler<T> {
     private final ConnectionFailureType connectionFailureType;
     private final Duration duration;
     private final Exception errorCause;
+    private final boolean stale;
+    private final RequestTimings timings;
+    /**
+     * The captured body of a non-successful response, {@code null} without one.
+     */
+    private final ErrorBody errorBody;
 
-    BasicResponseHandler(T content, int statusCode, int originalStatusCode, HeaderGroup headerGroup, Exception errorCause, String errorText, Type type, ContentType contentType, URI uri, long startTime) {
-        this(content, statusCode, originalStatusCode, headerGroup, errorText, errorCause, type, contentType, uri, BasicConnectionFailureType.NONE, startTime);
-    }
-
-    BasicResponseHandler(T content, int statusCode, int originalStatusCode, Exception errorCause, Type type, ContentType contentType, URI uri, ConnectionFailureType connectionFailureType, long startTime) {
-        this(content, statusCode, originalStatusCode, new HeaderGroup(), errorCause.getMessage(), errorCause, type, contentType, uri, connectionFailureType, startTime);
-    }
-
-    BasicResponseHandler(T content, int statusCode, int originalStatusCode, String errorText, Exception errorCause, Type type, ContentType contentType, URI uri, ConnectionFailureType connectionFailureType, long startTime) {
-        this(content, statusCode, originalStatusCode, new HeaderGroup(), errorText, errorCause, type, contentType, uri, connectionFailureType, startTime);
-    }
-
-    private BasicResponseHandler(T content, int statusCode, int originalStatusCode, HeaderGroup headerGroup, String errorText, Exception errorCause, Type type, ContentType contentType, URI uri, ConnectionFailureType connectionFailureType, long startTime) {
+    BasicResponseHandler(T content, int statusCode, int originalStatusCode, HeaderGroup headerGroup, String errorText, Exception errorCause, Type type, ContentType contentType, URI uri, ConnectionFailureType connectionFailureType, long startTime,
+                         boolean stale, RequestTimings timings, ErrorBody errorBody) {
         this.statusCode = statusCode;
         this.originalStatusCode = originalStatusCode;
         this.content = content;
@@ -80,6 +75,9 @@ final class BasicResponseHandler<T> implements ResponseHandler<T> {
         this.connectionFailureType = ArgsCheck.notNull(connectionFailureType, "connectionFailureType");
         this.duration = Duration.ofMillis(System.currentTimeMillis() - startTime);
         this.errorCause = errorCause;
+        this.stale = stale;
+        this.timings = timings;
+        this.errorBody = errorBody;
     }
 
     /**
@@ -298,15 +296,36 @@ final class BasicResponseHandler<T> implements ResponseHandler<T> {
      */
     @Override
     public String getErrorText() {
+        String text = errorText();
         if (errorCause == null) {
-            return errorText;
+            return text;
         }
 
-        if (errorText == null || StringUtils.isBlank(errorText)) {
+        if (text == null || StringUtils.isBlank(text)) {
             return throwableDeepMessages(errorCause);
         }
 
-        return ensureEndsWithDot(errorText) + " Reason: " + throwableDeepMessages(errorCause);
+        return ensureEndsWithDot(text) + " Reason: " + throwableDeepMessages(errorCause);
+    }
+
+    /**
+     * @return the error text, decoded from the captured error body if there is one
+     */
+    private String errorText() {
+        return errorBody != null ? errorBody.getText() : errorText;
+    }
+
+    @Override
+    public <E> Optional<E> getError(Class<E> errorType) {
+        ArgsCheck.notNull(errorType, "errorType");
+        return getError(new TypeReference<>(errorType));
+    }
+
+    @Override
+    public <E> Optional<E> getError(TypeReference<E> errorType) {
+        ArgsCheck.notNull(errorType, "errorType");
+        return errorBody == null ? Optional.empty()
+                : Optional.ofNullable(errorBody.read(errorType, originalStatusCode, headerGroup.getHeaders(), contentType, uri));
     }
 
     /**
@@ -426,6 +445,11 @@ final class BasicResponseHandler<T> implements ResponseHandler<T> {
         return duration;
     }
 
+    @Override
+    public RequestTimings getTimings() {
+        return timings;
+    }
+
     /**
      * @return connectionFailureType.
      * @see ConnectionFailureType
@@ -435,6 +459,12 @@ final class BasicResponseHandler<T> implements ResponseHandler<T> {
         return connectionFailureType;
     }
 
+    @Override
+    @Beta
+    public boolean isStale() {
+        return stale;
+    }
+
     @Override
     public String toString() {
         return "ResponseHandler{" +
@@ -445,6 +475,8 @@ final class BasicResponseHandler<T> implements ResponseHandler<T> {
                 ", uri=" + uri +
                 ", connectionFailureType=" + connectionFailureType +
                 ", duration=" + duration +
+                ", stale=" + stale +
+                ", timings=" + timings +
                 ", contentType=" + contentType +
                 ", headerGroup=" + headerGroup +
                 '}';
@@ -458,11 +490,11 @@ final class BasicResponseHandler<T> implements ResponseHandler<T> {
 
     private ResponseException responseException() {
         if (errorCause == null) {
-            return new UnexpectedStatusCodeException(statusCode, originalStatusCode, errorText, uri);
+            return new UnexpectedStatusCodeException(statusCode, originalStatusCode, errorText(), uri);
         } else if (errorCause instanceof ResponseException re) {
             return re;
         } else {
-            return new ResponseException(statusCode, originalStatusCode, errorText, uri, connectionFailureType, errorCause);
+            return new ResponseException(statusCode, originalStatusCode, errorText(), uri, connectionFailureType, errorCause);
         }
     }
 
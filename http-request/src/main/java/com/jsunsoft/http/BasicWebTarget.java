@@ -21,6 +21,7 @@ import org.apache.hc.client5.http.ConnectTimeoutException;
 import org.apache.hc.client5.http.HttpHostConnectException;
 import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
 import org.apache.hc.client5.http.routing.RoutingSupport;
 import org.apache.hc.core5.http.*;
 import org.apache.hc.core5.http.io.entity.StringEntity;
@@ -31,11 +32,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.SocketTimeoutException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.util.Collection;
+import java.util.List;
 import java.util.function.UnaryOperator;
 
 import static com.jsunsoft.http.BasicConnectionFailureType.*;
@@ -121,6 +126,14 @@ class BasicWebTarget implements WebTarget {
         this.bodyCharset = source.getBodyCharset();
     }
 
+    /**
+     * @return a copy sending requests the way this target does (retries, endpoint selection), whose
+     * headers can be changed for one request without touching this target
+     */
+    BasicWebTarget copy() {
+        return new BasicWebTarget(this);
+    }
+
     @Override
     public WebTarget path(String path) {
         ArgsCheck.notNull(path, "path");
@@ -173,15 +186,52 @@ class BasicWebTarget implements WebTarget {
     public Response request(HttpMethod method, HttpContext context) {
         ArgsCheck.notNull(method, "method");
 
-        ClassicHttpRequest request = resolveRequest(method);
+        return execute(method, context, getURI());
+    }
 
-        ClassicHttpResponse response = executeRequest(request, context);
+    /**
+     * Executes a single request against {@code requestUri} using this target's headers, entity and
+     * request config. Lets subclasses route the same prepared request to another host without
+     * copying the target (a copy would fail for non-repeatable entities).
+     */
+    BasicResponse execute(HttpMethod method, HttpContext context, URI requestUri) {
+        ClassicHttpRequest request = resolveRequest(method, requestUri);
+
+        RequestTimings timings = startTimings(method, requestUri, request);
+        HttpContext requestContext = context;
+        if (timings != null) {
+            requestContext = context != null ? context : HttpClientContext.create();
+            requestContext.setAttribute(RequestTimings.CONTEXT_ATTRIBUTE, timings);
+        } else if (context != null) {
+            // A caller's context may be reused after a request that recorded timings.
+            context.setAttribute(RequestTimings.CONTEXT_ATTRIBUTE, null);
+        }
+
+        ClassicHttpResponse response;
+        try {
+            response = executeRequest(request, requestContext);
+        } catch (ResponseException e) {
+            if (timings != null) {
+                timings.markEnd();
+                timings.endRequestEvent(e.getStatusCode(), e.getConnectionFailureType());
+                e.setTimings(timings);
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            if (timings != null) {
+                timings.endRequestEvent(0, UNDEFINED);
+            }
+            throw e;
+        }
+        if (timings != null) {
+            timings.markResponseHead();
+        }
 
         URI uri = resolveRequestURI(request);
 
 
         try {
-            return new BasicResponse(response, responseBodyReaderConfig, uri);
+            return new BasicResponse(response, responseBodyReaderConfig, uri, timings);
         } catch (RuntimeException e) {
             // Safety net: if wrapping the raw response fails (e.g. BoundedHttpEntity construction
             // throws, or a downstream constructor blows up on malformed state), make sure we don't
@@ -197,6 +247,25 @@ class BasicWebTarget implements WebTarget {
 
     }
 
+    /**
+     * @return timings to record for the request, {@code null} if neither the config nor a JFR recording
+     * (of requests or of connection leases) wants them
+     */
+    private RequestTimings startTimings(HttpMethod method, URI requestUri, ClassicHttpRequest request) {
+        Object requestEvent = HttpEvents.beginRequest(method, requestUri, request.getEntity() == null ? 0 : request.getEntity().getContentLength());
+        if (requestEvent == null && !responseBodyReaderConfig.isRecordTimings() && !HttpEvents.isConnectionLeaseEnabled()) {
+            return null;
+        }
+        return new RequestTimings(requestEvent);
+    }
+
+    /**
+     * @throws IllegalStateException if the request entity can't be sent again
+     */
+    void checkEntityRepeatable() {
+        httpUriRequestBuilder.checkEntityRepeatable("Cannot retry request");
+    }
+
     private ClassicHttpResponse executeRequest(ClassicHttpRequest request, HttpContext context) {
 
 
@@ -209,24 +278,32 @@ class BasicWebTarget implements WebTarget {
 
             return closeableHttpClient.executeOpen(httpHost, request, context);
         } catch (ConnectionRequestTimeoutException e) {
-            throw new ResponseException(SC_SERVICE_UNAVAILABLE, "Connection pool is empty", uri, CONNECTION_POOL_IS_EMPTY, e);
+            throw transportFailure(SC_SERVICE_UNAVAILABLE, "Connection pool is empty", uri, CONNECTION_POOL_IS_EMPTY, e);
         } catch (ConnectTimeoutException e) {
-            throw new ResponseException(SC_GATEWAY_TIMEOUT, "Unable to establish a connection within the given period of time", uri, CONNECT_TIMEOUT, e);
+            throw transportFailure(SC_GATEWAY_TIMEOUT, "Unable to establish a connection within the given period of time", uri, CONNECT_TIMEOUT, e);
         } catch (SocketTimeoutException | NoHttpResponseException e) {
             //todo support retry when NoHttpResponseException
-            throw new ResponseException(SC_GATEWAY_TIMEOUT, "Server didn't respond with specified time", uri, RESPONSE_TIMEOUT, e);
+            throw transportFailure(SC_GATEWAY_TIMEOUT, "Server didn't respond with specified time", uri, RESPONSE_TIMEOUT, e);
         } catch (HttpHostConnectException e) {
-            throw new ResponseException(SC_SERVICE_UNAVAILABLE, "Failed to connect to server. Potential reasons: The target server may be down, unreachable, or there are network connectivity issues", uri, SERVICE_UNREACHABLE, e);
+            throw transportFailure(SC_SERVICE_UNAVAILABLE, "Failed to connect to server. Potential reasons: The target server may be down, unreachable, or there are network connectivity issues", uri, SERVICE_UNREACHABLE, e);
         } catch (ClientProtocolException e) {
             throw new RequestException("Error in the HTTP protocol. URI: [" + uri + "]", e);
         } catch (IOException e) {
-            throw new ResponseException(SC_SERVICE_UNAVAILABLE, "Connection was aborted", uri, IO, e);
+            throw transportFailure(SC_SERVICE_UNAVAILABLE, "Connection was aborted", uri, IO, e);
         }
     }
 
-    private ClassicHttpRequest resolveRequest(HttpMethod method) {
+    /**
+     * Expected failure of the transport. In lightweight failure mode its stack trace is not filled
+     * in: the cause keeps the one that tells where it failed.
+     */
+    private ResponseException transportFailure(int statusCode, String message, URI uri, ConnectionFailureType connectionFailureType, IOException cause) {
+        return new ResponseException(statusCode, -1, message, uri, connectionFailureType, cause, !responseBodyReaderConfig.isLightweightFailures());
+    }
+
+    private ClassicHttpRequest resolveRequest(HttpMethod method, URI requestUri) {
 
-        return httpUriRequestBuilder.setMethod(method.name()).setUri(getURI()).build();
+        return httpUriRequestBuilder.setMethod(method.name()).setUri(requestUri).build();
     }
 
     private HttpHost resolveHttpHost(ClassicHttpRequest request) throws ClientProtocolException {
@@ -249,6 +326,118 @@ class BasicWebTarget implements WebTarget {
     public <T> ResponseHandler<T> request(HttpMethod method, TypeReference<T> typeReference) {
         CustomArgsCheck.checkIsCorrectTypeForDeserialization(typeReference.getRawType());
 
+        return request(method, typeReference, response -> response.readEntityChecked(typeReference));
+    }
+
+    @Override
+    public ResponseHandler<Path> download(Path target) {
+        ArgsCheck.notNull(target, "target");
+
+        return request(HttpMethod.GET, new TypeReference<>(Path.class), response -> {
+            EntityTransfers.download(response.getEntity(), target);
+            return target;
+        });
+    }
+
+    @Override
+    public ResponseHandler<Path> download(Path target, int parallelism) {
+        ArgsCheck.notNull(target, "target");
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+
+        if (parallelism == 1) {
+            return download(target);
+        }
+        BasicWebTarget probeTarget = copy();
+        probeTarget.updateHeader(RangedDownload.firstRangeHeader());
+        return probeTarget.request(HttpMethod.GET, new TypeReference<>(Path.class), new SuccessBodyReader<>() {
+            @Override
+            public Path read(Response response) throws IOException {
+                RangedDownload.download(BasicWebTarget.this, response, target, parallelism);
+                return target;
+            }
+
+            @Override
+            public boolean reads(int statusCode) {
+                return RangedDownload.downloads(statusCode);
+            }
+        });
+    }
+
+    @Override
+    public ResponseHandler<Path> resumableDownload(Path target) {
+        ResumableDownload download = new ResumableDownload(target);
+
+        ResponseHandler<Path> result = resumableDownloadAttempt(download);
+        for (int resumes = getMaxResumes(); resumes > 0 && result.isNonSuccess() && download.isInterrupted(); resumes--) {
+            LOGGER.debug("Download of uri: [{}] was interrupted, resuming it. Resumes left: {}", result.getURI(), resumes);
+            result = resumableDownloadAttempt(download);
+        }
+        return result;
+    }
+
+    /**
+     * @return how many times a {@link #resumableDownload(Path)} interrupted in the middle of the body is resumed within the same call
+     */
+    int getMaxResumes() {
+        return 0;
+    }
+
+    private ResponseHandler<Path> resumableDownloadAttempt(ResumableDownload download) {
+        URI uri = getURI();
+        List<Header> resumeHeaders = download.resumeHeaders(uri);
+        BasicWebTarget attemptTarget = copy();
+        resumeHeaders.forEach(attemptTarget::updateHeader);
+        return attemptTarget.request(HttpMethod.GET, new TypeReference<>(Path.class), new SuccessBodyReader<>() {
+            @Override
+            public Path read(Response response) throws IOException {
+                download.write(BasicWebTarget.this, response, uri);
+                return download.getTarget();
+            }
+
+            @Override
+            public boolean reads(int statusCode) {
+                return ResumableDownload.writes(statusCode, resumeHeaders);
+            }
+        });
+    }
+
+    @Override
+    public ResponseHandler<Long> getTo(OutputStream out) {
+        ArgsCheck.notNull(out, "out");
+
+        return request(HttpMethod.GET, new TypeReference<>(Long.class), response -> EntityTransfers.transferTo(response.getEntity(), out));
+    }
+
+    @Override
+    public ResponseHandler<Long> getTo(WritableByteChannel channel) {
+        ArgsCheck.notNull(channel, "channel");
+
+        return request(HttpMethod.GET, new TypeReference<>(Long.class), response -> EntityTransfers.transferTo(response.getEntity(), channel));
+    }
+
+    /**
+     * Body of a successful response, read by {@link #request(HttpMethod, TypeReference, SuccessBodyReader)}.
+     */
+    @FunctionalInterface
+    interface SuccessBodyReader<T> {
+        T read(Response response) throws IOException;
+
+        /**
+         * @return whether the body of a response with {@code statusCode} is read; a response read despite a
+         * non-successful status is reported as {@code 200}
+         */
+        default boolean reads(int statusCode) {
+            return HttpRequestUtils.isSuccess(statusCode);
+        }
+    }
+
+    /**
+     * Executes the request and wraps the outcome into a {@link ResponseHandler}: the body of a successful
+     * response is read by {@code successBodyReader}, the body of any other one becomes the error text.
+     */
+    <T> ResponseHandler<T> request(HttpMethod method, TypeReference<T> typeReference, SuccessBodyReader<T> successBodyReader) {
         long startTime = System.currentTimeMillis();
 
         ResponseHandler<T> result;
@@ -259,7 +448,7 @@ class BasicWebTarget implements WebTarget {
             originalStatusCode = response.getCode();
             int statusCode = originalStatusCode;
             HttpEntity httpEntity = response.getEntity();
-            URI responseUri = getURI();
+            URI responseUri = response.getURI();
 
             LOGGER.debug("Response code from uri: [{}] is {}", responseUri, statusCode);
 
@@ -270,6 +459,7 @@ class BasicWebTarget implements WebTarget {
             T content = null;
             Exception errorCause = null;
             String failedMessage = null;
+            ErrorBody errorBody = null;
 
             if (mayHaveBody && httpEntity == null) {
                 // The spec says this response could carry a body but Apache surfaced null —
@@ -280,19 +470,27 @@ class BasicWebTarget implements WebTarget {
                 statusCode = SC_BAD_GATEWAY;
             } else {
                 try {
-                    if (!HttpRequestUtils.isVoidType(typeReference.getRawType()) && mayHaveBody && HttpRequestUtils.isSuccess(statusCode)) {
+                    if (!HttpRequestUtils.isVoidType(typeReference.getRawType()) && mayHaveBody && successBodyReader.reads(statusCode)) {
 
-                        content = response.readEntityChecked(typeReference);
+                        content = successBodyReader.read(response);
+                        if (HttpRequestUtils.isNonSuccess(statusCode)) {
+                            statusCode = SC_OK;
+                        }
 
                         LOGGER.trace("Result of Uri: [{}] is {}", responseUri, content);
                     } else if (HttpRequestUtils.isNonSuccess(statusCode)) {
 
-                        failedMessage = response.readEntityChecked(String.class);
-                        String logMsg = "Unexpected Response. Url: [" + responseUri + "] Status code: " + statusCode + ", Error message: " + failedMessage;
-                        if (statusCode == SC_BAD_REQUEST) {
-                            LOGGER.warn(logMsg);
-                        } else {
-                            LOGGER.debug(logMsg);
+                        // Only the first bytes: the rest is drained or discarded when the response is closed.
+                        // The handler decodes the error text from it when asked for.
+                        errorBody = ErrorBody.capture(response, responseBodyReaderConfig);
+                        if (statusCode == SC_BAD_REQUEST || LOGGER.isDebugEnabled()) {
+                            String logMsg = "Unexpected Response. Url: [" + responseUri + "] Status code: " + statusCode
+                                    + ", Error message: " + (errorBody == null ? null : errorBody.getText());
+                            if (statusCode == SC_BAD_REQUEST) {
+                                LOGGER.warn(logMsg);
+                            } else {
+                                LOGGER.debug(logMsg);
+                            }
                         }
                     }
                 } catch (ResponseBodyReaderException e) {
@@ -317,16 +515,17 @@ class BasicWebTarget implements WebTarget {
 
             ContentType responseContentType = HttpRequestUtils.getContentTypeFromHttpEntity(httpEntity);
             // here we don't consume the httpEntity e.g. EntityUtils.consumeQuietly(httpEntity); as The close method of BasicResponse will do it
-            result = new BasicResponseHandler<>(content, statusCode, originalStatusCode, headerGroup, errorCause, failedMessage, typeReference.getType(), responseContentType, responseUri, startTime);
+            boolean stale = response instanceof BasicResponse && ((BasicResponse) response).isStale();
+            result = new BasicResponseHandler<>(content, statusCode, originalStatusCode, headerGroup, failedMessage, errorCause, typeReference.getType(), responseContentType, responseUri, NONE, startTime, stale, response.getTimings(), errorBody);
         } catch (ResponseException e) {
 
-            result = new BasicResponseHandler<>(null, e.getStatusCode(), e.getOriginalStatusCode(), e, typeReference.getType(), null, e.getURI(), e.getConnectionFailureType(), startTime);
+            result = new BasicResponseHandler<>(null, e.getStatusCode(), e.getOriginalStatusCode(), new HeaderGroup(), e.getMessage(), e, typeReference.getType(), null, e.getURI(), e.getConnectionFailureType(), startTime, false, e.getTimings(), null);
             LOGGER.debug("Request failed.", e);
         } catch (IOException e) {
 
             LOGGER.error("IO error occurred.", e);
 
-            result = new BasicResponseHandler<>(null, SC_INTERNAL_SERVER_ERROR, originalStatusCode, "IO error occurred while closing response.", e, typeReference.getType(), null, getURI(), IO, startTime);
+            result = new BasicResponseHandler<>(null, SC_INTERNAL_SERVER_ERROR, originalStatusCode, new HeaderGroup(), "IO error occurred while closing response.", e, typeReference.getType(), null, getURI(), IO, startTime, false, null, null);
         }
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("Executing of uri: [{}] completed. Time: {}", result.getURI(), HttpRequestUtils.humanTime(startTime));
@@ -532,7 +731,7 @@ class BasicWebTarget implements WebTarget {
             }
         }
 
-        throw new RequestException("Serializer is not found. Now supported only JSON and XML serialization depends on [" + HttpHeaders.CONTENT_TYPE + "]. Founded first content type header is: " + contentType);
+        throw new RequestException("Serializer is not found. Now supported only JSON and body codec (e.g. XML with http-request-xml) serialization depends on [" + HttpHeaders.CONTENT_TYPE + "]. Founded first content type header is: " + contentType);
     }
 
     private void logRequestBody(HttpMethod method, final String payload) {
@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Reads whole response bodies into {@code byte[]}, {@code String} and direct {@link ByteBuffer}s with
+ * as few copies as possible.
+ * <p>
+ * {@code EntityUtils} grows a single buffer by doubling when the length is unknown (chunked
+ * responses), then copies it into the result, and decodes text through a {@code Reader} into a
+ * growing {@code char[]} before the final {@code String} copy. Here:
+ * <ul>
+ *     <li>a body of known length is read straight into an array of that length — the result itself
+ *     for {@code byte[]}, the input of a single decode for {@code String};</li>
+ *     <li>a body of unknown length is read into fixed-size chunks borrowed from a bounded pool and
+ *     copied once into the exact-size result;</li>
+ *     <li>a body that fits in one chunk is decoded straight from the pooled chunk, so reading it into
+ *     a {@code String} allocates nothing but the {@code String}.</li>
+ * </ul>
+ * {@link DrainingHttpEntity} and {@link EntityChannel} borrow chunks too and return them when done.
+ * <p>
+ * The pool is an array of {@link #MAX_POOLED_CHUNKS} slots taken and filled by compare-and-set, with
+ * no lock. Each thread starts probing at its own run of {@link #STRIPE_SLOTS} slots, so concurrent
+ * readers mostly stay out of each other's way, and goes on through the rest of the array before
+ * allocating a chunk, or dropping it for the GC on return. The pool grows with the number of
+ * processors.
+ * <p>
+ * Text decoding matches {@code EntityUtils.toString(HttpEntity, Charset)}: the charset of the
+ * {@code Content-Type} wins, then the given default; malformed input is replaced, not rejected.
+ */
+final class BodyBuffers {
+    static final int CHUNK_SIZE = 16 * 1024;
+    static final int STRIPE_SLOTS = 32;
+    /**
+     * {@link #STRIPE_SLOTS} per processor, at least 128, rounded up to a power of two.
+     */
+    static final int MAX_POOLED_CHUNKS = Integer.highestOneBit(Math.max(128, STRIPE_SLOTS * Runtime.getRuntime().availableProcessors() * 2 - 1));
+
+    /**
+     * Largest array the JVM reliably allocates.
+     */
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    private static final AtomicReferenceArray<byte[]> POOL = new AtomicReferenceArray<>(MAX_POOLED_CHUNKS);
+
+    private BodyBuffers() {
+    }
+
+    /**
+     * @return the body, or {@code null} if the entity has no content stream
+     */
+    static byte[] toByteArray(HttpEntity entity) throws IOException {
+        ArgsCheck.notNull(entity, "entity");
+        InputStream content = entity.getContent();
+        if (content == null) {
+            return null;
+        }
+        try (InputStream in = content) {
+            long length = entity.getContentLength();
+            if (length >= 0 && length <= MAX_ARRAY_LENGTH) {
+                return readKnownLength(in, (int) length);
+            }
+            Chunks chunks = new Chunks();
+            try {
+                chunks.readFrom(in);
+                return chunks.toByteArray();
+            } finally {
+                chunks.release();
+            }
+        }
+    }
+
+    /**
+     * @param defaultCharset charset used when the {@code Content-Type} declares none
+     * @return the decoded body, or {@code null} if the entity has no content stream
+     */
+    static String toString(HttpEntity entity, Charset defaultCharset) throws IOException {
+        ArgsCheck.notNull(entity, "entity");
+        Charset charset = charsetOf(entity, defaultCharset);
+        InputStream content = entity.getContent();
+        if (content == null) {
+            return null;
+        }
+        try (InputStream in = content) {
+            long length = entity.getContentLength();
+            if (length > CHUNK_SIZE && length <= MAX_ARRAY_LENGTH) {
+                return new String(readKnownLength(in, (int) length), charset);
+            }
+            Chunks chunks = new Chunks();
+            try {
+                chunks.readFrom(in);
+                return chunks.decode(charset);
+            } finally {
+                chunks.release();
+            }
+        }
+    }
+
+    /**
+     * Reads the body into a direct buffer through pooled chunks, so no heap array of the body's size
+     * is allocated.
+     *
+     * @return the body, flipped for reading, or {@code null} if the entity has no content stream
+     */
+    static ByteBuffer toDirectByteBuffer(HttpEntity entity) throws IOException {
+        ArgsCheck.notNull(entity, "entity");
+        InputStream content = entity.getContent();
+        if (content == null) {
+            return null;
+        }
+        try (InputStream in = content) {
+            long length = entity.getContentLength();
+            if (length >= 0 && length <= MAX_ARRAY_LENGTH) {
+                return readKnownLengthDirect(in, (int) length);
+            }
+            Chunks chunks = new Chunks();
+            try {
+                chunks.readFrom(in);
+                return chunks.toDirectByteBuffer();
+            } finally {
+                chunks.release();
+            }
+        }
+    }
+
+    static Charset charsetOf(HttpEntity entity, Charset defaultCharset) throws UnsupportedEncodingException {
+        ContentType contentType;
+        try {
+            contentType = ContentType.parse(entity.getContentType());
+        } catch (UnsupportedCharsetException e) {
+            throw new UnsupportedEncodingException(e.getMessage());
+        }
+        if (contentType != null && contentType.getCharset() != null) {
+            return contentType.getCharset();
+        }
+        return defaultCharset != null ? defaultCharset : StandardCharsets.ISO_8859_1;
+    }
+
+    /**
+     * @return number of chunks currently pooled
+     */
+    static int pooledChunks() {
+        int pooled = 0;
+        for (int i = 0; i < MAX_POOLED_CHUNKS; i++) {
+            if (POOL.get(i) != null) {
+                pooled++;
+            }
+        }
+        return pooled;
+    }
+
+    private static byte[] readKnownLength(InputStream in, int length) throws IOException {
+        byte[] body = new byte[length];
+        int read = in.readNBytes(body, 0, length);
+        if (read < length) {
+            return Arrays.copyOf(body, read);
+        }
+        // Probe for EOF: it also lets a size-capped stream reject a body longer than announced.
+        int next = in.read();
+        if (next == -1) {
+            return body;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(length + CHUNK_SIZE);
+        out.write(body, 0, length);
+        out.write(next);
+        in.transferTo(out);
+        return out.toByteArray();
+    }
+
+    private static ByteBuffer readKnownLengthDirect(InputStream in, int length) throws IOException {
+        ByteBuffer body = ByteBuffer.allocateDirect(length);
+        byte[] chunk = borrow();
+        try {
+            int read;
+            while ((read = in.read(chunk, 0, CHUNK_SIZE)) != -1) {
+                if (read > body.remaining()) {
+                    // Longer than announced: rare enough to grow by copying.
+                    ByteBuffer grown = ByteBuffer.allocateDirect((int) Math.min(MAX_ARRAY_LENGTH, Math.max(2L * body.capacity(), (long) body.position() + CHUNK_SIZE)));
+                    body.flip();
+                    body = grown.put(body);
+                }
+                body.put(chunk, 0, read);
+            }
+        } finally {
+            release(chunk);
+        }
+        return body.flip();
+    }
+
+    /**
+     * @return a chunk of {@link #CHUNK_SIZE} bytes from the pool, or a new one if the pool is empty
+     */
+    static byte[] borrow() {
+        int start = firstSlot();
+        for (int i = 0; i < MAX_POOLED_CHUNKS; i++) {
+            int slot = (start + i) & (MAX_POOLED_CHUNKS - 1);
+            byte[] chunk = POOL.get(slot);
+            if (chunk != null && POOL.compareAndSet(slot, chunk, null)) {
+                return chunk;
+            }
+        }
+        return new byte[CHUNK_SIZE];
+    }
+
+    /**
+     * Returns a chunk from {@link #borrow()} to the pool, if the pool has room.
+     *
+     * @return {@code false} if the pool is full and the chunk was dropped
+     */
+    static boolean release(byte[] chunk) {
+        int start = firstSlot();
+        for (int i = 0; i < MAX_POOLED_CHUNKS; i++) {
+            int slot = (start + i) & (MAX_POOLED_CHUNKS - 1);
+            if (POOL.get(slot) == null && POOL.compareAndSet(slot, null, chunk)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return first slot of the stripe of the current thread
+     */
+    private static int firstSlot() {
+        return (int) Thread.currentThread().getId() * STRIPE_SLOTS & (MAX_POOLED_CHUNKS - 1);
+    }
+
+    /**
+     * Body read into pooled chunks; all but the last are full.
+     */
+    private static final class Chunks {
+        private final List<byte[]> chunks = new ArrayList<>(4);
+        private int size;
+
+        void readFrom(InputStream in) throws IOException {
+            int read;
+            do {
+                byte[] chunk = borrow();
+                chunks.add(chunk);
+                read = in.readNBytes(chunk, 0, CHUNK_SIZE);
+                if (read > MAX_ARRAY_LENGTH - size) {
+                    throw new OutOfMemoryError("Response body is too large to be buffered in memory");
+                }
+                size += read;
+            } while (read == CHUNK_SIZE);
+        }
+
+        byte[] toByteArray() {
+            byte[] result = new byte[size];
+            int offset = 0;
+            for (byte[] chunk : chunks) {
+                int n = Math.min(CHUNK_SIZE, size - offset);
+                System.arraycopy(chunk, 0, result, offset, n);
+                offset += n;
+            }
+            return result;
+        }
+
+        ByteBuffer toDirectByteBuffer() {
+            ByteBuffer result = ByteBuffer.allocateDirect(size);
+            for (byte[] chunk : chunks) {
+                result.put(chunk, 0, Math.min(CHUNK_SIZE, result.remaining()));
+            }
+            return result.flip();
+        }
+
+        String decode(Charset charset) {
+            return size <= CHUNK_SIZE ? new String(chunks.get(0), 0, size, charset) : new String(toByteArray(), charset);
+        }
+
+        void release() {
+            for (byte[] chunk : chunks) {
+                if (!BodyBuffers.release(chunk)) {
+                    break;
+                }
+            }
+            chunks.clear();
+        }
+    }
+}
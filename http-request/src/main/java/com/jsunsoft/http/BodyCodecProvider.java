@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import com.jsunsoft.http.annotations.Beta;
+import org.apache.hc.core5.http.ContentType;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.cfg.MapperBuilder;
+
+import java.util.List;
+
+/**
+ * Service provider of a body format that Jackson reads and writes, such as XML.
+ * <p>
+ * JSON is built in. Other formats ship as separate artifacts, so applications that don't use them
+ * don't carry their dependencies — XML, for example, comes with {@code http-request-xml}.
+ * Providers are discovered with {@link java.util.ServiceLoader}: declare the implementation in
+ * {@code META-INF/services/com.jsunsoft.http.BodyCodecProvider} and, in a module, with
+ * {@code provides com.jsunsoft.http.BodyCodecProvider with ...}.
+ * <p>
+ * For every provider found, each {@link HttpRequest} gets a default {@link ResponseBodyReader} and
+ * {@link RequestBodyConverter} for the provider's {@link #getContentTypes() content types}. They
+ * behave like the JSON ones: the library default mapper is built from {@link #newMapperBuilder()}
+ * with the library defaults and date patterns applied, it is built on first use and shared, and
+ * a user mapper can replace it with {@link HttpRequestBuilder#setDefaultMapper(String, ObjectMapper)}.
+ * <p>
+ * Implementations must have a public no-argument constructor and be thread-safe.
+ *
+ * @since 5.0.0
+ */
+@Beta
+public interface BodyCodecProvider {
+
+    /**
+     * @return unique name of the format, e.g. {@code "xml"}, under which a user mapper is set
+     */
+    String getName();
+
+    /**
+     * @return media types of the bodies the codec reads and writes, compared by MIME type only
+     */
+    List<ContentType> getContentTypes();
+
+    /**
+     * @return a new builder of the format's mapper
+     */
+    MapperBuilder<?, ?> newMapperBuilder();
+}
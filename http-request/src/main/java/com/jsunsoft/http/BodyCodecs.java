@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.function.Supplier;
+
+/**
+ * The {@link BodyCodecProvider}s found with {@link ServiceLoader}, looked up once per JVM.
+ */
+final class BodyCodecs {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BodyCodecs.class);
+
+    private BodyCodecs() {
+    }
+
+    /**
+     * @return the providers, in discovery order
+     */
+    static List<BodyCodecProvider> providers() {
+        return Holder.PROVIDERS;
+    }
+
+    /**
+     * @return the provider named {@code name}, {@code null} if there is none
+     */
+    static BodyCodecProvider find(String name) {
+        for (BodyCodecProvider provider : providers()) {
+            if (provider.getName().equals(name)) {
+                return provider;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Resolves the mapper of every provider: the user mapper of {@code userMappers} when one is set
+     * for the provider's name, the library default otherwise. Mappers are built on first use.
+     *
+     * @param userMappers       user mappers by codec name, may be {@code null}
+     * @param dateTypeToPattern date patterns to install, may be {@code null}
+     * @return mapper suppliers by provider, in discovery order
+     * @throws IllegalArgumentException if {@code userMappers} names a codec that wasn't found
+     */
+    static Map<BodyCodecProvider, Supplier<ObjectMapper>> lazyMappers(Map<String, ObjectMapper> userMappers, Map<Class<?>, String> dateTypeToPattern) {
+        if (userMappers != null) {
+            for (String name : userMappers.keySet()) {
+                if (find(name) == null) {
+                    throw new IllegalArgumentException("No body codec named [" + name + "] was found. Add the artifact providing it (e.g. http-request-xml for [xml]) to the classpath.");
+                }
+            }
+        }
+        Map<BodyCodecProvider, Supplier<ObjectMapper>> result = new LinkedHashMap<>();
+        for (BodyCodecProvider provider : providers()) {
+            ObjectMapper userMapper = userMappers == null ? null : userMappers.get(provider.getName());
+            result.put(provider, ObjectMapperInitializer.lazyMapper(provider, userMapper, dateTypeToPattern));
+        }
+        return result;
+    }
+
+    private static List<BodyCodecProvider> load() {
+        List<BodyCodecProvider> result = new ArrayList<>();
+        Iterator<BodyCodecProvider> providers = ServiceLoader.load(BodyCodecProvider.class, BodyCodecProvider.class.getClassLoader()).iterator();
+        while (hasNext(providers)) {
+            BodyCodecProvider provider;
+            try {
+                provider = providers.next();
+            } catch (ServiceConfigurationError e) {
+                // A provider that can't be instantiated is skipped; the iterator moves on to the next one.
+                LOGGER.error("Failed to load a body codec provider.", e);
+                continue;
+            }
+            if (result.stream().anyMatch(p -> p.getName().equals(provider.getName()))) {
+                LOGGER.warn("Ignoring body codec provider [{}]: another provider named [{}] was found first.", provider.getClass().getName(), provider.getName());
+            } else {
+                LOGGER.debug("Found body codec provider [{}] for [{}].", provider.getClass().getName(), provider.getName());
+                result.add(provider);
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    private static boolean hasNext(Iterator<BodyCodecProvider> providers) {
+        try {
+            return providers.hasNext();
+        } catch (ServiceConfigurationError e) {
+            LOGGER.error("Failed to look up body codec providers.", e);
+            return false;
+        }
+    }
+
+    private static final class Holder {
+        private static final List<BodyCodecProvider> PROVIDERS = load();
+    }
+}
@@ -27,10 +27,19 @@ import java.io.OutputStream;
 final class BoundedHttpEntity extends HttpEntityWrapper {
 
     private final long maxSize;
+    private final boolean writableStackTrace;
 
     BoundedHttpEntity(final HttpEntity entity, final long maxSize) {
+        this(entity, maxSize, true);
+    }
+
+    /**
+     * @param writableStackTrace {@code false} to throw {@link InvalidContentLengthException} without a stack trace
+     */
+    BoundedHttpEntity(final HttpEntity entity, final long maxSize, final boolean writableStackTrace) {
         super(entity);
         this.maxSize = maxSize;
+        this.writableStackTrace = writableStackTrace;
     }
 
     @Override
@@ -70,7 +79,7 @@ final class BoundedHttpEntity extends HttpEntityWrapper {
                 .setMaxCount(maxSize + 1L)
                 .setOnMaxCount((max, count) -> {
                     throw new InvalidContentLengthException(count,
-                            "Response body exceeds maximum allowed size: " + maxSize + " bytes");
+                            "Response body exceeds maximum allowed size: " + maxSize + " bytes", writableStackTrace);
                 })
                 .setPropagateClose(true)
                 .get();
@@ -84,14 +93,14 @@ final class BoundedHttpEntity extends HttpEntityWrapper {
      * {@link BoundedInputStream} entirely and let an oversize body stream out unchecked. By
      * routing through {@link #getContent()} we guarantee the size cap is enforced on every
      * read, regardless of which API the caller uses (e.g. {@code response.getEntity().writeTo(...)}
-     * to spool a response to disk).
+     * to spool a response to disk). The copy goes through {@link EntityTransfers}' large buffer.
      */
     @Override
     public void writeTo(final OutputStream outStream) throws IOException {
         ArgsCheck.notNull(outStream, "Output stream");
 
         try (InputStream inStream = getContent()) {
-            inStream.transferTo(outStream);
+            EntityTransfers.transferTo(inStream, outStream);
         }
     }
 }
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsunsoft.http;
+
+import org.apache.hc.core5.http.HeaderElement;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.MessageHeaders;
+import org.apache.hc.core5.http.message.MessageSupport;
+
+import java.util.Iterator;
+import java.util.Locale;
+
+/**
+ * Parsed {@code Cache-Control} directives of a request or a response (RFC 9111 §5.2).
+ * <p>
+ * Delta-seconds are kept in seconds; {@code -1} means the directive is absent. A {@code max-stale}
+ * without a value is {@link Long#MAX_VALUE}. Field-qualified {@code no-cache} and {@code private}
+ * are treated as their unqualified forms, which is the conservative reading.
+ */
+final class CacheControl {
+    static final CacheControl EMPTY = new CacheControl();
+
+    private long maxAge = -1;
+    private long sharedMaxAge = -1;
+    private long maxStale = -1;
+    private long minFresh = -1;
+    private long staleWhileRevalidate = -1;
+    private long staleIfError = -1;
+    private boolean noCache;
+    private boolean noStore;
+    private boolean privateResponse;
+    private boolean publicResponse;
+    private boolean mustRevalidate;
+    private boolean proxyRevalidate;
+    private boolean onlyIfCached;
+
+    private CacheControl() {
+    }
+
+    /**
+     * @param message request or response
+     * @return directives of all {@code Cache-Control} headers of {@code message}; for a message
+     * without them, {@code Pragma: no-cache} counts as {@code no-cache}
+     */
+    static CacheControl parse(MessageHeaders message) {
+        if (!message.containsHeader(HttpHeaders.CACHE_CONTROL)) {
+            if (message.containsHeader(HttpHeaders.PRAGMA) && hasToken(message, HttpHeaders.PRAGMA, "no-cache")) {
+                CacheControl cacheControl = new CacheControl();
+                cacheControl.noCache = true;
+                return cacheControl;
+            }
+            return EMPTY;
+        }
+
+        CacheControl cacheControl = new CacheControl();
+        Iterator<HeaderElement> it = MessageSupport.iterate(message, HttpHeaders.CACHE_CONTROL);
+        while (it.hasNext()) {
+            HeaderElement element = it.next();
+            String value = element.getValue();
+            switch (element.getName().toLowerCase(Locale.ROOT)) {
+                case "max-age" -> cacheControl.maxAge = parseDeltaSeconds(value, 0);
+                case "s-maxage" -> cacheControl.sharedMaxAge = parseDeltaSeconds(value, 0);
+                case "max-stale" -> cacheControl.maxStale = parseDeltaSeconds(value, Long.MAX_VALUE);
+                case "min-fresh" -> cacheControl.minFresh = parseDeltaSeconds(value, 0);
+                case "stale-while-revalidate" -> cacheControl.staleWhileRevalidate = parseDeltaSeconds(value, -1);
+                case "stale-if-error" -> cacheControl.staleIfError = parseDeltaSeconds(value, -1);
+                case "no-cache" -> cacheControl.noCache = true;
+                case "no-store" -> cacheControl.noStore = true;
+                case "private" -> cacheControl.privateResponse = true;
+                case "public" -> cacheControl.publicResponse = true;
+                case "must-revalidate" -> cacheControl.mustRevalidate = true;
+                case "proxy-revalidate" -> cacheControl.proxyRevalidate = true;
+                case "only-if-cached" -> cacheControl.onlyIfCached = true;
+                default -> {
+                    // Unknown extensions are ignored (RFC 9111 §5.2.3).
+                }
+            }
+        }
+        return cacheControl;
+    }
+
+    /**
+     * RFC 9111 §1.2.2: an invalid or negative value must be treated as stale ({@code 0}) for
+     * freshness directives, a missing one defaults to {@code valueIfAbsent}, and values beyond
+     * 2^31 saturate.
+     */
+    private static long parseDeltaSeconds(String value, long valueIfAbsent) {
+        if (value == null) {
+            return valueIfAbsent;
+        }
+        try {
+            return Math.max(0, Math.min(Long.parseLong(value.trim()), Integer.MAX_VALUE));
+        } catch (NumberFormatException e) {
+            return value.trim().chars().allMatch(Character::isDigit) && !value.isBlank() ? Integer.MAX_VALUE : 0;
+        }
+    }
+
+    private static boolean hasToken(MessageHeaders message, String headerName, String token) {
+        Iterator<String> it = MessageSupport.iterateTokens(message, headerName);
+        while (it.hasNext()) {
+            if (token.equalsIgnoreCase(it.next())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    long getMaxAge() {
+        return maxAge;
+    }
+
+    long getSharedMaxAge() {
+        return sharedMaxAge;
+    }
+
+    long getMaxStale() {
+        return maxStale;
+    }
+
+    long getMinFresh() {
+        return minFresh;
+    }
+
+    long getStaleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+
+    long getStaleIfError() {
+        return staleIfError;
+    }
+
+    boolean isNoCache() {
+        return noCache;
+    }
+
+    boolean isNoStore() {
+        return noStore;
+    }
+
+    boolean isPrivate() {
+        return privateResponse;
+    }
+
+    boolean isPublic() {
+        return publicResponse;
+    }
+
+    boolean isMustRevalidate() {
+        return mustRevalidate;
+    }
+
+    boolean isProxyRevalidate() {
+        return proxyRevalidate;
+    }
+
+    boolean isOnlyIfCached() {
+        return onlyIfCached;
+    }
+}
@@ -0,0 +1,368 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsunsoft.http;
+
+import org.apache.hc.client5.http.utils.DateUtils;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.MessageHeaders;
+import org.apache.hc.core5.http.message.BasicClassicHttpResponse;
+import org.apache.hc.core5.http.message.BasicHeader;
+import org.apache.hc.core5.http.message.HeaderGroup;
+import org.apache.hc.core5.http.message.MessageSupport;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Immutable stored response of the {@link HttpCache}: status line, end-to-end headers, body and
+ * the timing information needed to compute its age (RFC 9111 §4.2.3).
+ * <p>
+ * The body is a read-only buffer: a heap array for responses just received, a memory-mapped slice
+ * of a segment file for entries of the {@link DiskHttpCacheStorage}.
+ * <p>
+ * The values of the request headers nominated by the response's {@code Vary} header are kept so a
+ * later request can be matched against them (RFC 9111 §4.1).
+ */
+final class CacheEntry {
+    private static final Set<String> NOT_STORED_HEADERS = Set.of(
+            "connection", "keep-alive", "proxy-authenticate", "proxy-authorization", "te", "trailer",
+            "transfer-encoding", "upgrade", "content-length"
+    );
+
+    /**
+     * Headers a {@code 304 Not Modified} must not change in the stored response (RFC 9111 §3.2).
+     */
+    private static final Set<String> NOT_UPDATED_HEADERS = Set.of(
+            "content-encoding", "content-range", "content-type"
+    );
+
+    private static final Header[] EMPTY_HEADERS = new Header[0];
+
+    private static final AtomicLong SERIALS = new AtomicLong();
+
+    private final int code;
+    private final String reasonPhrase;
+    private final Header[] headers;
+    private final ByteBuffer body;
+    private final long requestTimeMillis;
+    private final long responseTimeMillis;
+    private final Map<String, String> varyValues;
+    private final CacheControl cacheControl;
+    private final long dateMillis;
+    /**
+     * Identifies the body: kept when the entry is freshened, new for every response stored.
+     */
+    private final long serial;
+
+    private CacheEntry(int code, String reasonPhrase, Header[] headers, ByteBuffer body, long requestTimeMillis, long responseTimeMillis, Map<String, String> varyValues, long serial) {
+        this.code = code;
+        this.reasonPhrase = reasonPhrase;
+        this.headers = headers;
+        this.body = body;
+        this.requestTimeMillis = requestTimeMillis;
+        this.responseTimeMillis = responseTimeMillis;
+        this.varyValues = varyValues;
+        this.serial = serial;
+
+        HeaderGroup headerGroup = headerGroup();
+        this.cacheControl = CacheControl.parse(headerGroup);
+        Instant date = DateUtils.parseStandardDate(headerGroup, HttpHeaders.DATE);
+        this.dateMillis = date != null ? date.toEpochMilli() : responseTimeMillis;
+    }
+
+    /**
+     * @param request            request the response was received for
+     * @param response           response to store
+     * @param body               fully read response body
+     * @param requestTimeMillis  time the request was sent
+     * @param responseTimeMillis time the response was received
+     * @return new entry
+     */
+    static CacheEntry create(HttpRequest request, HttpResponse response, byte[] body, long requestTimeMillis, long responseTimeMillis) {
+        return new CacheEntry(response.getCode(), response.getReasonPhrase(), storedHeaders(response.getHeaders()), ByteBuffer.wrap(body).asReadOnlyBuffer(),
+                requestTimeMillis, responseTimeMillis, varyValues(request, response), nextSerial());
+    }
+
+    /**
+     * Recreates an entry read back from persistent storage.
+     *
+     * @param body   read-only body, not copied
+     * @param serial {@linkplain #getSerial() serial} to identify the body with
+     */
+    static CacheEntry restore(int code, String reasonPhrase, Header[] headers, ByteBuffer body, long requestTimeMillis, long responseTimeMillis,
+                              Map<String, String> varyValues, long serial) {
+        return new CacheEntry(code, reasonPhrase, headers, body, requestTimeMillis, responseTimeMillis, Collections.unmodifiableMap(new TreeMap<>(varyValues)), serial);
+    }
+
+    static long nextSerial() {
+        return SERIALS.incrementAndGet();
+    }
+
+    /**
+     * Freshens this entry with the headers of a {@code 304 Not Modified} (RFC 9111 §4.3.4).
+     *
+     * @return new entry with the same body
+     */
+    CacheEntry update(HttpResponse notModified, long requestTimeMillis, long responseTimeMillis) {
+        HeaderGroup merged = headerGroup();
+        for (Header header : notModified.getHeaders()) {
+            String name = header.getName().toLowerCase(Locale.ROOT);
+            if (!NOT_STORED_HEADERS.contains(name) && !NOT_UPDATED_HEADERS.contains(name)) {
+                merged.removeHeaders(header.getName());
+            }
+        }
+        for (Header header : notModified.getHeaders()) {
+            String name = header.getName().toLowerCase(Locale.ROOT);
+            if (!NOT_STORED_HEADERS.contains(name) && !NOT_UPDATED_HEADERS.contains(name)) {
+                merged.addHeader(header);
+            }
+        }
+        return new CacheEntry(code, reasonPhrase, merged.getHeaders(), body, requestTimeMillis, responseTimeMillis, varyValues, serial);
+    }
+
+    /**
+     * @return whether {@code request} selects this entry: the headers nominated by {@code Vary}
+     * have the same values as in the request this entry was stored for
+     */
+    boolean matches(HttpRequest request) {
+        for (Map.Entry<String, String> entry : varyValues.entrySet()) {
+            if (!entry.getValue().equals(combinedValue(request, entry.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return {@code current_age} of RFC 9111 §4.2.3 in milliseconds
+     */
+    long getCurrentAgeMillis(long nowMillis) {
+        long apparentAge = Math.max(0, responseTimeMillis - dateMillis);
+        long responseDelay = responseTimeMillis - requestTimeMillis;
+        long correctedAgeValue = getAgeHeaderMillis() + responseDelay;
+        long correctedInitialAge = Math.max(apparentAge, correctedAgeValue);
+        long residentTime = Math.max(0, nowMillis - responseTimeMillis);
+        return correctedInitialAge + residentTime;
+    }
+
+    /**
+     * @param sharedCache          whether {@code s-maxage} applies
+     * @param heuristicCoefficient fraction of the time since {@code Last-Modified} used when the
+     *                             response has no explicit expiration
+     * @return freshness lifetime of RFC 9111 §4.2.1 in milliseconds
+     */
+    long getFreshnessLifetimeMillis(boolean sharedCache, double heuristicCoefficient) {
+        if (sharedCache && cacheControl.getSharedMaxAge() >= 0) {
+            return TimeUnit.SECONDS.toMillis(cacheControl.getSharedMaxAge());
+        }
+        if (cacheControl.getMaxAge() >= 0) {
+            return TimeUnit.SECONDS.toMillis(cacheControl.getMaxAge());
+        }
+        Header expiresHeader = getFirstHeader(HttpHeaders.EXPIRES);
+        if (expiresHeader != null) {
+            Instant expires = DateUtils.parseStandardDate(expiresHeader.getValue());
+            // An invalid Expires (e.g. "0") means already expired.
+            return expires != null ? Math.max(0, expires.toEpochMilli() - dateMillis) : 0;
+        }
+        Header lastModifiedHeader = getFirstHeader(HttpHeaders.LAST_MODIFIED);
+        if (lastModifiedHeader != null && HttpCache.isHeuristicallyCacheable(code)) {
+            Instant lastModified = DateUtils.parseStandardDate(lastModifiedHeader.getValue());
+            if (lastModified != null && lastModified.toEpochMilli() < dateMillis) {
+                return (long) ((dateMillis - lastModified.toEpochMilli()) * heuristicCoefficient);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @param nowMillis current time
+     * @return a new response serving this entry without entity, with its {@code Age} header set
+     */
+    ClassicHttpResponse toResponse(long nowMillis) {
+        BasicClassicHttpResponse response = new BasicClassicHttpResponse(code, reasonPhrase);
+        response.setHeaders(headers);
+        response.setHeader(HttpHeaders.AGE, Long.toString(TimeUnit.MILLISECONDS.toSeconds(getCurrentAgeMillis(nowMillis))));
+        return response;
+    }
+
+    ContentType getContentType() {
+        Header header = getFirstHeader(HttpHeaders.CONTENT_TYPE);
+        return header != null ? ContentType.parseLenient(header.getValue()) : null;
+    }
+
+    String getContentEncoding() {
+        Header header = getFirstHeader(HttpHeaders.CONTENT_ENCODING);
+        return header != null ? header.getValue() : null;
+    }
+
+    boolean hasValidators() {
+        return getETag() != null || getLastModified() != null;
+    }
+
+    String getETag() {
+        Header header = getFirstHeader(HttpHeaders.ETAG);
+        return header != null ? header.getValue() : null;
+    }
+
+    /**
+     * @return value identifying the body of this entry: its strong {@code ETag}, or otherwise a
+     * per-process serial number that survives revalidation but not replacement by a new response
+     */
+    String getContentVersion() {
+        String eTag = getETag();
+        return eTag != null && eTag.startsWith("\"") ? eTag : "#" + serial;
+    }
+
+    String getLastModified() {
+        Header header = getFirstHeader(HttpHeaders.LAST_MODIFIED);
+        return header != null ? header.getValue() : null;
+    }
+
+    CacheControl getCacheControl() {
+        return cacheControl;
+    }
+
+    int getCode() {
+        return code;
+    }
+
+    Header[] getHeaders() {
+        return headers.clone();
+    }
+
+    String getReasonPhrase() {
+        return reasonPhrase;
+    }
+
+    /**
+     * @return new read-only view of the body, positioned at its start
+     */
+    ByteBuffer getBody() {
+        return body.duplicate();
+    }
+
+    int getBodyLength() {
+        return body.remaining();
+    }
+
+    long getSerial() {
+        return serial;
+    }
+
+    long getRequestTimeMillis() {
+        return requestTimeMillis;
+    }
+
+    long getResponseTimeMillis() {
+        return responseTimeMillis;
+    }
+
+    Map<String, String> getVaryValues() {
+        return varyValues;
+    }
+
+    /**
+     * @return approximate memory footprint in bytes, used for size-bounded eviction
+     */
+    long getWeight() {
+        long weight = 64L + body.remaining();
+        for (Header header : headers) {
+            weight += header.getName().length() + (header.getValue() != null ? header.getValue().length() : 0);
+        }
+        return weight;
+    }
+
+    private long getAgeHeaderMillis() {
+        Header header = getFirstHeader(HttpHeaders.AGE);
+        if (header == null) {
+            return 0;
+        }
+        try {
+            return TimeUnit.SECONDS.toMillis(Math.max(0, Long.parseLong(header.getValue().trim())));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private Header getFirstHeader(String name) {
+        for (Header header : headers) {
+            if (header.getName().equalsIgnoreCase(name)) {
+                return header;
+            }
+        }
+        return null;
+    }
+
+    private HeaderGroup headerGroup() {
+        HeaderGroup headerGroup = new HeaderGroup();
+        headerGroup.setHeaders(headers);
+        return headerGroup;
+    }
+
+    private static Header[] storedHeaders(Header[] responseHeaders) {
+        List<Header> stored = new ArrayList<>(responseHeaders.length);
+        for (Header header : responseHeaders) {
+            if (!NOT_STORED_HEADERS.contains(header.getName().toLowerCase(Locale.ROOT))) {
+                stored.add(new BasicHeader(header.getName(), header.getValue()));
+            }
+        }
+        return stored.toArray(EMPTY_HEADERS);
+    }
+
+    private static Map<String, String> varyValues(HttpRequest request, HttpResponse response) {
+        if (!response.containsHeader(HttpHeaders.VARY)) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> values = new TreeMap<>();
+        Iterator<String> it = MessageSupport.iterateTokens(response, HttpHeaders.VARY);
+        while (it.hasNext()) {
+            String name = it.next().toLowerCase(Locale.ROOT);
+            values.put(name, combinedValue(request, name));
+        }
+        return Collections.unmodifiableMap(values);
+    }
+
+    private static String combinedValue(MessageHeaders message, String name) {
+        Header[] values = message.getHeaders(name);
+        if (values.length == 0) {
+            return "";
+        }
+        StringBuilder combined = new StringBuilder();
+        for (Header value : values) {
+            if (combined.length() > 0) {
+                combined.append(',');
+            }
+            combined.append(value.getValue() != null ? value.getValue().trim() : "");
+        }
+        return combined.toString();
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsunsoft.http;
+
+import org.apache.hc.core5.http.io.entity.AbstractHttpEntity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.nio.channels.Channels;
+
+/**
+ * Body of a response served or stored by the {@link HttpCache}, streamed straight from the stored
+ * buffer (heap or memory-mapped file) without copying. Repeatable: every {@link #getContent()}
+ * starts over.
+ * <p>
+ * Remembers the entry it belongs to so {@link BasicResponse} can reuse an already deserialized
+ * result of the same body instead of reading it again.
+ */
+final class CachedHttpEntity extends AbstractHttpEntity {
+    private final HttpCache cache;
+    private final String key;
+    private final CacheEntry entry;
+    private final boolean stale;
+
+    /**
+     * @param stale whether the entry is served stale ({@code stale-while-revalidate} or {@code stale-if-error})
+     */
+    CachedHttpEntity(HttpCache cache, String key, CacheEntry entry, boolean stale) {
+        super(entry.getContentType(), entry.getContentEncoding());
+        this.cache = cache;
+        this.key = key;
+        this.entry = entry;
+        this.stale = stale;
+    }
+
+    boolean isStale() {
+        return stale;
+    }
+
+    @Override
+    public InputStream getContent() {
+        return new ByteBufferInputStream(entry.getBody());
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+        ArgsCheck.notNull(outStream, "outStream");
+        Channels.newChannel(outStream).write(entry.getBody());
+    }
+
+    @Override
+    public long getContentLength() {
+        return entry.getBodyLength();
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release: the buffer belongs to the cache entry.
+    }
+
+    /**
+     * @return whether results of {@code type} read from this body may be cached
+     */
+    boolean isResultCacheable(Type type) {
+        return cache.isImmutableResultType(type);
+    }
+
+    /**
+     * @param type        type the body is read as
+     * @param readerScope the reader configuration the result was produced with
+     * @return result previously read from the same body, or {@code null}
+     */
+    Object getResult(Type type, Object readerScope) {
+        return cache.lookupResult(key, entry, type, readerScope);
+    }
+
+    void putResult(Type type, Object readerScope, Object result) {
+        cache.storeResult(key, entry, type, readerScope, result);
+    }
+}
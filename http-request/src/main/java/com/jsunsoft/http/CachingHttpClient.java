@@ -0,0 +1,352 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsunsoft.http;
+
+import org.apache.hc.client5.http.config.Configurable;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.io.entity.InputStreamEntity;
+import org.apache.hc.core5.http.message.BasicClassicHttpRequest;
+import org.apache.hc.core5.http.message.BasicClassicHttpResponse;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Decorates the caller's {@link CloseableHttpClient} with an {@link HttpCache}. All
+ * {@link WebTarget}s of an {@link com.jsunsoft.http.HttpRequest} built with a cache execute through
+ * it, so caching applies to every request flavor (plain, retryable, load-balanced) alike.
+ */
+final class CachingHttpClient extends HttpClientDecorator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachingHttpClient.class);
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE", "QUERY");
+
+    /**
+     * Origin errors a {@code stale-if-error} entry may be served in place of (RFC 5861 §4).
+     */
+    private static final Set<Integer> SERVER_ERRORS = Set.of(500, 502, 503, 504);
+
+    /**
+     * Requests with these headers expect the server's own answer to their precondition or range.
+     */
+    private static final String[] BYPASS_HEADERS = {
+            HttpHeaders.IF_MATCH, HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MODIFIED_SINCE,
+            HttpHeaders.IF_UNMODIFIED_SINCE, HttpHeaders.IF_RANGE, HttpHeaders.RANGE
+    };
+
+    private final HttpCache cache;
+
+    CachingHttpClient(CloseableHttpClient backend, HttpCache cache) {
+        super(backend);
+        this.cache = ArgsCheck.notNull(cache, "cache");
+    }
+
+    @Override
+    public ClassicHttpResponse executeOpen(HttpHost target, ClassicHttpRequest request, HttpContext context) throws IOException {
+        String method = request.getMethod().toUpperCase(Locale.ROOT);
+        if (!"GET".equals(method)) {
+            ClassicHttpResponse response = backend.executeOpen(target, request, context);
+            if (!SAFE_METHODS.contains(method) && response.getCode() < HttpStatus.SC_BAD_REQUEST) {
+                invalidate(target, request, response);
+            }
+            return response;
+        }
+
+        String key = HttpCache.keyOf(target, request);
+        if (key == null || hasAnyHeader(request, BYPASS_HEADERS)) {
+            return backend.executeOpen(target, request, context);
+        }
+
+        CacheControl requestCacheControl = CacheControl.parse(request);
+        CacheEntry entry = cache.lookup(key, request);
+        long now = System.currentTimeMillis();
+
+        if (entry != null && cache.isFresh(entry, now, requestCacheControl)) {
+            cache.recordHit();
+            LOGGER.trace("Cache hit: [{}]", key);
+            return serve(key, entry, now, false);
+        }
+        if (entry != null && cache.isStaleWhileRevalidate(entry, now, requestCacheControl)) {
+            // Copied now: the caller may reuse its request and context once this one completes.
+            ClassicHttpRequest refreshRequest = copyOf(request);
+            HttpContext refreshContext = refreshContext(request, context);
+            if (cache.refreshInBackground(key, () -> refresh(target, refreshRequest, refreshContext, key, entry))) {
+                cache.recordStaleWhileRevalidate();
+                LOGGER.debug("Serving stale cache entry while refreshing it: [{}]", key);
+                return serve(key, entry, now, true);
+            }
+        }
+        if (requestCacheControl.isOnlyIfCached()) {
+            LOGGER.debug("No fresh cache entry for only-if-cached request: [{}]", key);
+            return gatewayTimeout();
+        }
+
+        if (entry != null && entry.hasValidators()) {
+            cache.recordRevalidation();
+            LOGGER.debug("Revalidating cache entry: [{}]", key);
+        } else {
+            cache.recordMiss();
+            LOGGER.trace("Cache miss: [{}]", key);
+        }
+        ClassicHttpResponse response = fetch(target, request, context, key, entry, requestCacheControl, true);
+        if (response == null) {
+            cache.recordStaleIfError();
+            return serve(key, entry, System.currentTimeMillis(), true);
+        }
+        return response;
+    }
+
+    /**
+     * Sends {@code request} to the origin, as a conditional request if {@code entry} has validators,
+     * and updates the cache with the answer.
+     *
+     * @param entry      stored entry for the request, {@code null} if none
+     * @param foreground {@code false} for a background refresh: statistics are left alone and the
+     *                   stale entry is never offered in place of an error
+     * @return response to serve, or {@code null} if the origin failed and the stale {@code entry} may be served instead
+     */
+    private ClassicHttpResponse fetch(HttpHost target, ClassicHttpRequest request, HttpContext context, String key, CacheEntry entry,
+                                      CacheControl requestCacheControl, boolean foreground) throws IOException {
+        boolean conditional = entry != null && entry.hasValidators();
+        if (conditional) {
+            // Set on the request itself rather than on a copy so its RequestConfig and entity are kept.
+            String eTag = entry.getETag();
+            String lastModified = entry.getLastModified();
+            if (eTag != null) {
+                request.setHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+            }
+            if (lastModified != null) {
+                request.setHeader(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+            }
+        }
+
+        long requestTime = System.currentTimeMillis();
+        ClassicHttpResponse response;
+        try {
+            response = backend.executeOpen(target, request, context);
+        } catch (IOException e) {
+            if (foreground && entry != null && cache.isStaleIfError(entry, System.currentTimeMillis(), requestCacheControl)) {
+                LOGGER.debug("Serving stale cache entry [{}] as the request failed: {}", key, e.toString());
+                return null;
+            }
+            throw e;
+        } finally {
+            if (conditional) {
+                request.removeHeaders(HttpHeaders.IF_NONE_MATCH);
+                request.removeHeaders(HttpHeaders.IF_MODIFIED_SINCE);
+            }
+        }
+        long responseTime = System.currentTimeMillis();
+
+        if (conditional && response.getCode() == HttpStatus.SC_NOT_MODIFIED) {
+            discard(response);
+            CacheEntry updated = entry.update(response, requestTime, responseTime);
+            cache.store(key, updated);
+            if (foreground) {
+                cache.recordRevalidationHit();
+            }
+            return serve(key, updated, responseTime, false);
+        }
+        if (foreground && entry != null && SERVER_ERRORS.contains(response.getCode()) && cache.isStaleIfError(entry, responseTime, requestCacheControl)) {
+            LOGGER.debug("Serving stale cache entry [{}] as the origin answered {}", key, response.getCode());
+            discard(response);
+            return null;
+        }
+        return storeIfCacheable(key, request, response, requestTime, responseTime);
+    }
+
+    /**
+     * Background refresh of a {@code stale-while-revalidate} entry. Failures only leave the entry stale.
+     */
+    private void refresh(HttpHost target, ClassicHttpRequest request, HttpContext context, String key, CacheEntry entry) {
+        LOGGER.debug("Refreshing stale cache entry in background: [{}]", key);
+        try (ClassicHttpResponse response = fetch(target, request, context, key, entry, CacheControl.EMPTY, false)) {
+            EntityUtils.consume(response.getEntity());
+        } catch (IOException | RuntimeException e) {
+            LOGGER.debug("Background refresh of cache entry [{}] failed.", key, e);
+        }
+    }
+
+    private ClassicHttpResponse storeIfCacheable(String key, ClassicHttpRequest request, ClassicHttpResponse response, long requestTime, long responseTime) throws IOException {
+        if (!cache.isStorable(request, response)) {
+            if (CacheControl.parse(response).isNoStore()) {
+                cache.remove(key);
+            }
+            return response;
+        }
+
+        byte[] body;
+        try {
+            body = bufferBody(response);
+        } catch (IOException | RuntimeException e) {
+            response.close();
+            throw e;
+        }
+        if (body != null) {
+            CacheEntry entry = CacheEntry.create(request, response, body, requestTime, responseTime);
+            cache.store(key, entry);
+            if (response.getEntity() != null) {
+                response.setEntity(new CachedHttpEntity(cache, key, entry, false));
+            }
+        }
+        return response;
+    }
+
+    private ClassicHttpResponse serve(String key, CacheEntry entry, long nowMillis, boolean stale) {
+        ClassicHttpResponse response = entry.toResponse(nowMillis);
+        response.setEntity(new CachedHttpEntity(cache, key, entry, stale));
+        return response;
+    }
+
+    private static void discard(ClassicHttpResponse response) throws IOException {
+        try {
+            EntityUtils.consume(response.getEntity());
+        } finally {
+            response.close();
+        }
+    }
+
+    /**
+     * Reads the body of {@code response} into memory and replaces its entity with the buffered one.
+     *
+     * @return the body, or {@code null} if it exceeds the max object size; the response then streams
+     * the already read prefix followed by the rest
+     */
+    private byte[] bufferBody(ClassicHttpResponse response) throws IOException {
+        HttpEntity entity = response.getEntity();
+        if (entity == null) {
+            return new byte[0];
+        }
+        long maxObjectSize = cache.getMaxObjectSize();
+        if (entity.getContentLength() > maxObjectSize) {
+            return null;
+        }
+
+        ContentType contentType = entity.getContentType() != null ? ContentType.parseLenient(entity.getContentType()) : null;
+        InputStream content = entity.getContent();
+        if (content == null) {
+            return new byte[0];
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(entity.getContentLength() > 0 ? (int) entity.getContentLength() : 8192);
+        byte[] chunk = new byte[8192];
+        int read;
+        while ((read = content.read(chunk)) != -1) {
+            buffer.write(chunk, 0, read);
+            if (buffer.size() > maxObjectSize) {
+                InputStream replay = new SequenceInputStream(new ByteArrayInputStream(buffer.toByteArray()), content);
+                response.setEntity(new InputStreamEntity(replay, -1, contentType, entity.getContentEncoding()));
+                return null;
+            }
+        }
+        content.close();
+
+        byte[] body = buffer.toByteArray();
+        response.setEntity(new ByteArrayEntity(body, contentType, entity.getContentEncoding()));
+        return body;
+    }
+
+    /**
+     * RFC 9111 §4.4: a successful unsafe request invalidates the request URI and the same-origin
+     * {@code Location} and {@code Content-Location} URIs.
+     */
+    private void invalidate(HttpHost target, ClassicHttpRequest request, ClassicHttpResponse response) {
+        String key = HttpCache.keyOf(target, request);
+        if (key == null) {
+            return;
+        }
+        cache.remove(key);
+        invalidateLocation(key, response.getFirstHeader(HttpHeaders.LOCATION));
+        invalidateLocation(key, response.getFirstHeader(HttpHeaders.CONTENT_LOCATION));
+    }
+
+    private void invalidateLocation(String requestKey, Header location) {
+        if (location == null) {
+            return;
+        }
+        try {
+            URI requestUri = new URI(requestKey);
+            URI locationUri = requestUri.resolve(location.getValue());
+            if (locationUri.getHost() != null && locationUri.getHost().equalsIgnoreCase(requestUri.getHost())) {
+                cache.remove(HttpCache.keyOf(locationUri));
+            }
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            LOGGER.trace("Ignoring malformed [{}] header: [{}]", location.getName(), location.getValue());
+        }
+    }
+
+    private static ClassicHttpRequest copyOf(ClassicHttpRequest request) {
+        BasicClassicHttpRequest copy = new BasicClassicHttpRequest(request.getMethod(), request.getPath());
+        copy.setScheme(request.getScheme());
+        copy.setAuthority(request.getAuthority());
+        copy.setVersion(request.getVersion());
+        copy.setHeaders(request.getHeaders());
+        return copy;
+    }
+
+    /**
+     * @return new context carrying the request config of {@code request}, as the caller's context
+     * can't be shared with a background thread
+     */
+    private static HttpContext refreshContext(ClassicHttpRequest request, HttpContext context) {
+        RequestConfig requestConfig = request instanceof Configurable ? ((Configurable) request).getConfig() : null;
+        if (requestConfig == null && context != null) {
+            requestConfig = HttpClientContext.cast(context).getRequestConfig();
+        }
+        HttpClientContext refreshContext = HttpClientContext.create();
+        if (requestConfig != null) {
+            refreshContext.setRequestConfig(requestConfig);
+        }
+        return refreshContext;
+    }
+
+    private static boolean hasAnyHeader(ClassicHttpRequest request, String[] names) {
+        for (String name : names) {
+            if (request.containsHeader(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ClassicHttpResponse gatewayTimeout() {
+        BasicClassicHttpResponse response = new BasicClassicHttpResponse(HttpStatus.SC_GATEWAY_TIMEOUT, "Gateway Timeout");
+        response.setEntity(new ByteArrayEntity(new byte[0], null));
+        return response;
+    }
+}
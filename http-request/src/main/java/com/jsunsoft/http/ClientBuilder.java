@@ -22,13 +22,16 @@ import org.apache.hc.client5.http.HttpRoute;
 import org.apache.hc.client5.http.SystemDefaultDnsResolver;
 import org.apache.hc.client5.http.config.ConnectionConfig;
 import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.ChainElement;
 import org.apache.hc.client5.http.impl.DefaultRedirectStrategy;
+import org.apache.hc.client5.http.impl.DefaultSchemePortResolver;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
 import org.apache.hc.client5.http.impl.io.ManagedHttpClientConnectionFactory;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
 import org.apache.hc.client5.http.impl.routing.DefaultProxyRoutePlanner;
+import org.apache.hc.client5.http.impl.routing.DefaultRoutePlanner;
 import org.apache.hc.client5.http.impl.routing.SystemDefaultRoutePlanner;
 import org.apache.hc.client5.http.io.HttpClientConnectionManager;
 import org.apache.hc.client5.http.protocol.RedirectStrategy;
@@ -52,13 +55,16 @@ import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
 import java.io.IOException;
 import java.net.*;
+import java.nio.file.Path;
 import java.security.KeyManagementException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -108,6 +114,11 @@ public class ClientBuilder {
     private int maxResponseLineLength = -1;
     private boolean disallowPrivateAndLoopbackHosts;
     private Predicate<InetAddress> ssrfAllowExceptionWhen;
+    private boolean connectionEvictionEnabled;
+    private TimeValue connectionMaxIdleTime;
+    private TimeValue connectionEvictionInterval;
+    private AdaptiveKeepAliveStrategy adaptiveKeepAliveStrategy;
+    private Map<HttpHost, Path> unixDomainSockets;
 
     ClientBuilder() {
 
@@ -302,6 +313,167 @@ public class ClientBuilder {
         return this;
     }
 
+    /**
+     * Defines period of inactivity after which persistent connections must be re-validated prior
+     * to being leased. Re-validation costs a cheap check of the socket, and catches connections the
+     * server closed while they sat in the pool before a request is written to them.
+     * <p>
+     * Default: {@code null} (Apache HC5 default of 2 seconds)
+     * </p>
+     * Note: Can be overridden by {@linkplain #addDefaultConnectionConfigCustomizer(Consumer)}
+     *
+     * @param validateAfterInactivity period of inactivity, a non-positive value disables validation
+     * @return ClientBuilder instance
+     * @see org.apache.hc.client5.http.config.ConnectionConfig.Builder#setValidateAfterInactivity(TimeValue)
+     */
+    public ClientBuilder setConnectionValidateAfterInactivity(TimeValue validateAfterInactivity) {
+        defaultConnectionConfigBuilder.setValidateAfterInactivity(validateAfterInactivity);
+        return this;
+    }
+
+    /**
+     * Closes expired pooled connections in the background, before they are leased again.
+     * <p>
+     * A connection is expired once its {@linkplain #setConnectionTimeToLive(TimeValue) time to live}
+     * (its max lifetime) or the keep-alive period negotiated with the server has elapsed. Without
+     * eviction such connections are discovered lazily on lease; a connection the server already
+     * dropped then surfaces as {@code NoHttpResponseException}.
+     * <p>
+     * Pools of all clients are swept by one shared daemon thread, which stops when the last client
+     * using it is closed. Default: disabled.
+     *
+     * @return ClientBuilder instance
+     * @see #evictIdleConnections(TimeValue)
+     * @see #setConnectionEvictionInterval(TimeValue)
+     */
+    public ClientBuilder evictExpiredConnections() {
+        connectionEvictionEnabled = true;
+        return this;
+    }
+
+    /**
+     * Closes expired connections (see {@link #evictExpiredConnections()}) and connections that
+     * stayed idle in the pool for longer than {@code maxIdleTime} in the background. Set
+     * {@code maxIdleTime} below the idle timeout of the servers and proxies you talk to.
+     *
+     * @param maxIdleTime max time a connection may stay idle in the pool. Must not be {@code null}.
+     * @return ClientBuilder instance
+     * @see #setConnectionEvictionInterval(TimeValue)
+     */
+    public ClientBuilder evictIdleConnections(TimeValue maxIdleTime) {
+        connectionMaxIdleTime = ArgsCheck.notNull(maxIdleTime, "maxIdleTime");
+        connectionEvictionEnabled = true;
+        return this;
+    }
+
+    /**
+     * Defines how often the background evictor sweeps the pool. Only used when eviction is enabled.
+     * <p>
+     * Default: the max idle time if set and shorter than 5 seconds, otherwise 5 seconds.
+     * </p>
+     *
+     * @param evictionInterval sweep interval. Must not be {@code null}.
+     * @return ClientBuilder instance
+     */
+    public ClientBuilder setConnectionEvictionInterval(TimeValue evictionInterval) {
+        connectionEvictionInterval = ArgsCheck.notNull(evictionInterval, "evictionInterval");
+        return this;
+    }
+
+    /**
+     * Defines how long a persistent connection may stay idle in the pool when the server does not
+     * say otherwise with a {@code Keep-Alive} header.
+     * <p>
+     * Default: {@code null} (Apache HC5 default of 3 minutes)
+     * </p>
+     * Note: Can be overridden by {@linkplain #addDefaultRequestConfigCustomizer(Consumer)}
+     *
+     * @param connectionKeepAlive default keep-alive period
+     * @return ClientBuilder instance
+     * @see org.apache.hc.client5.http.config.RequestConfig.Builder#setConnectionKeepAlive(TimeValue)
+     */
+    public ClientBuilder setConnectionKeepAlive(TimeValue connectionKeepAlive) {
+        defaultRequestConfigBuilder.setConnectionKeepAlive(connectionKeepAlive);
+        return this;
+    }
+
+    /**
+     * Keeps pooled connections alive slightly shorter than the server, or any proxy in front of
+     * it, keeps them open — for maximum reuse without handing out half-closed sockets.
+     * <p>
+     * The keep-alive period is capped by the server's {@code Keep-Alive: timeout=N} hint and by an
+     * idle timeout learned per route: when a request on a reused connection fails as stale
+     * ({@code NoHttpResponseException}, connection reset), the time the connection sat idle bounds
+     * that route's real idle timeout. Both caps are applied with a safety margin of 10% (at least
+     * 100 ms). Without a hint or a learned value the {@linkplain #setConnectionKeepAlive(TimeValue)
+     * default keep-alive} applies. A learned value doubles for every five minutes without stale
+     * connections on its route, and is eventually forgotten. Clients built by this builder share
+     * what was learned.
+     * <p>
+     * Combine with {@link #evictExpiredConnections()} so connections past their keep-alive are
+     * closed in the background rather than on lease. Default: disabled (Apache HC5 honors the
+     * {@code Keep-Alive} hint as-is and learns nothing).
+     * <p>
+     * Note: A keep-alive strategy set via {@linkplain #addHttpClientCustomizer(Consumer)} takes precedence.
+     *
+     * @return ClientBuilder instance
+     */
+    @Beta
+    public ClientBuilder enableAdaptiveKeepAlive() {
+        return enableAdaptiveKeepAlive(new AdaptiveKeepAliveStrategy());
+    }
+
+    ClientBuilder enableAdaptiveKeepAlive(AdaptiveKeepAliveStrategy keepAliveStrategy) {
+        adaptiveKeepAliveStrategy = ArgsCheck.notNull(keepAliveStrategy, "keepAliveStrategy");
+        return this;
+    }
+
+    /**
+     * Sends every request of this client over the given Unix domain socket instead of TCP, e.g. to
+     * a local sidecar proxy. The request URI keeps its scheme and host (for example
+     * {@code http://localhost/stats}); the host is sent in the {@code Host} header only.
+     * <p>
+     * Requires JDK 16+ (or junixsocket on the class path) and cannot be combined with a proxy.
+     * </p>
+     * Note: Can be overridden per request via {@link WebTarget#setRequestConfig(RequestConfig)}
+     * and by {@linkplain #addDefaultRequestConfigCustomizer(Consumer)}
+     *
+     * @param socketPath path of the socket file, e.g. {@code /var/run/envoy.sock}
+     * @return ClientBuilder instance
+     * @see org.apache.hc.client5.http.config.RequestConfig.Builder#setUnixDomainSocket(Path)
+     * @see #setUnixDomainSocket(HttpHost, Path)
+     */
+    @Beta
+    public ClientBuilder setUnixDomainSocket(Path socketPath) {
+        defaultRequestConfigBuilder.setUnixDomainSocket(socketPath);
+        return this;
+    }
+
+    /**
+     * Sends requests for {@code httpHost} over the given Unix domain socket instead of TCP, while
+     * other hosts keep using TCP. Use a dedicated host name per socket, e.g.
+     * {@code setUnixDomainSocket(new HttpHost("envoy"), Path.of("/var/run/envoy.sock"))} and
+     * {@code httpRequest.target("http://envoy/clusters")}.
+     * <p>
+     * Requires JDK 16+ (or junixsocket on the class path). The mapping takes precedence over a
+     * configured proxy. Per-route pool caps of such routes can't be set via
+     * {@link #setMaxPoolSizePerRoute(HttpHost, int)}; the default per-route cap applies.
+     *
+     * @param httpHost   host whose requests go to the socket. Must not be {@code null}.
+     * @param socketPath path of the socket file. Must not be {@code null}.
+     * @return ClientBuilder instance
+     */
+    @Beta
+    public ClientBuilder setUnixDomainSocket(HttpHost httpHost, Path socketPath) {
+        ArgsCheck.notNull(httpHost, "httpHost");
+        ArgsCheck.notNull(socketPath, "socketPath");
+        if (unixDomainSockets == null) {
+            unixDomainSockets = new LinkedHashMap<>();
+        }
+        unixDomainSockets.put(httpHost, socketPath);
+        return this;
+    }
+
     /**
      * Note: Can override any config defined in another method which is related to connection manager config
      *
@@ -378,6 +550,19 @@ public class ClientBuilder {
         return this;
     }
 
+    /**
+     * Set the max size of concurrent connections for every endpoint of the group.
+     *
+     * @param endpointGroup    see documentation of {@link com.jsunsoft.http.HostPoolConfig#setMaxPoolSizePerRoute(EndpointGroup, int)}
+     * @param maxRoutePoolSize maxRoutePoolSize
+     * @return ClientBuilder instance
+     */
+    @Beta
+    public ClientBuilder setMaxPoolSizePerRoute(EndpointGroup endpointGroup, int maxRoutePoolSize) {
+        hostPoolConfig.setMaxPoolSizePerRoute(endpointGroup, maxRoutePoolSize);
+        return this;
+    }
+
     /**
      * @return ClientBuilder instance
      * @see org.apache.hc.client5.http.impl.DefaultRedirectStrategy
@@ -792,6 +977,7 @@ public class ClientBuilder {
      * </pre>
      * Note that the connection manager is closed only if it is not marked as shared.
      * The close method of the HttpClientWithResources will call only close for underlined Client, not Connection Manager.
+     * When connection eviction is enabled, the close method also stops the background eviction of this client's pool.
      *
      * @return wrapper that closes client and connection manager
      */
@@ -814,7 +1000,7 @@ public class ClientBuilder {
         }
         ConnectionConfig connectionConfig = freshConnectionConfigBuilder.build();
 
-        PoolingHttpClientConnectionManagerBuilder cmBuilder = PoolingHttpClientConnectionManagerBuilder.create()
+        PoolingHttpClientConnectionManagerBuilder cmBuilder = RequestTimingsRecorder.connectionManagerBuilder()
                 .setMaxConnPerRoute(hostPoolConfig.getDefaultMaxPoolSizePerRoute())
                 .setMaxConnTotal(hostPoolConfig.getMaxPoolSize())
                 .setDefaultConnectionConfig(connectionConfig);
@@ -868,6 +1054,10 @@ public class ClientBuilder {
             routePlanner = new SystemDefaultRoutePlanner(ProxySelector.getDefault());
         }
 
+        if (unixDomainSockets != null && !unixDomainSockets.isEmpty()) {
+            routePlanner = new UnixDomainSocketRoutePlanner(unixDomainSockets, routePlanner == null ? new DefaultRoutePlanner(DefaultSchemePortResolver.INSTANCE) : routePlanner);
+        }
+
         HttpClientBuilder clientBuilder =
                 HttpClientBuilder.create()
                         .setDefaultRequestConfig(requestConfig)
@@ -885,6 +1075,16 @@ public class ClientBuilder {
             clientBuilder.setRoutePlanner(routePlanner);
         }
 
+        // Marks where leasing and sending start for RequestTimings.
+        clientBuilder.addExecInterceptorBefore(ChainElement.CONNECT.name(), "request-timings-lease", RequestTimingsRecorder.leaseObserver());
+        clientBuilder.addExecInterceptorAfter(ChainElement.CONNECT.name(), "request-timings-transport", RequestTimingsRecorder.transportObserver());
+
+        if (adaptiveKeepAliveStrategy != null) {
+            clientBuilder.setKeepAliveStrategy(adaptiveKeepAliveStrategy);
+            // Right before the main transport: sees the leased connection's endpoint details on failure.
+            clientBuilder.addExecInterceptorAfter(ChainElement.CONNECT.name(), "adaptive-keep-alive", adaptiveKeepAliveStrategy.staleConnectionObserver());
+        }
+
         if (defaultHeaders != null && !defaultHeaders.isEmpty()) {
             clientBuilder.setDefaultHeaders(defaultHeaders);
         }
@@ -900,12 +1100,31 @@ public class ClientBuilder {
         }
 
 
+        CloseableHttpClient client = clientBuilder.build();
+
+        ConnectionEvictor.Registration evictorRegistration = null;
+        if (connectionEvictionEnabled) {
+            evictorRegistration = ConnectionEvictor.register(connectionManager, connectionMaxIdleTime, resolveConnectionEvictionInterval());
+        }
+
         return new HttpClientWithResourcesWrapper(
-                clientBuilder.build(),
-                connectionManager
+                client,
+                connectionManager,
+                evictorRegistration
         );
     }
 
+    private TimeValue resolveConnectionEvictionInterval() {
+        if (connectionEvictionInterval != null) {
+            return connectionEvictionInterval;
+        }
+        TimeValue defaultInterval = TimeValue.ofSeconds(5);
+        if (connectionMaxIdleTime != null && connectionMaxIdleTime.compareTo(defaultInterval) < 0) {
+            return connectionMaxIdleTime;
+        }
+        return defaultInterval;
+    }
+
     private void initializeClientTlsStrategyBuilder() {
         if (clientTlsStrategyBuilder == null) {
             clientTlsStrategyBuilder = ClientTlsStrategyBuilder.create();
@@ -967,10 +1186,16 @@ public class ClientBuilder {
     static class HttpClientWithResourcesWrapper implements AutoCloseable {
         private final CloseableHttpClient client;
         private final HttpClientConnectionManager connectionManager;
+        private final ConnectionEvictor.Registration evictorRegistration;
 
         HttpClientWithResourcesWrapper(CloseableHttpClient client, HttpClientConnectionManager connectionManager) {
+            this(client, connectionManager, null);
+        }
+
+        HttpClientWithResourcesWrapper(CloseableHttpClient client, HttpClientConnectionManager connectionManager, ConnectionEvictor.Registration evictorRegistration) {
             this.client = client;
             this.connectionManager = connectionManager;
+            this.evictorRegistration = evictorRegistration;
         }
 
         public CloseableHttpClient getClient() {
@@ -983,8 +1208,14 @@ public class ClientBuilder {
 
         @Override
         public void close() throws IOException {
-            //closes also underlined connection manager if connection manager not marked as shared
-            client.close();
+            try {
+                //closes also underlined connection manager if connection manager not marked as shared
+                client.close();
+            } finally {
+                if (evictorRegistration != null) {
+                    evictorRegistration.close();
+                }
+            }
         }
     }
 }
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsunsoft.http;
+
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.util.TimeValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background eviction of expired and idle pooled connections, shared by every client built with
+ * {@link ClientBuilder#evictExpiredConnections()} or {@link ClientBuilder#evictIdleConnections(TimeValue)}.
+ * <p>
+ * Apache HC5 only notices a stale connection when it is leased again — for a connection the server
+ * (or a proxy in between) already closed that shows up as a {@code NoHttpResponseException} on the
+ * next request. Closing such connections proactively keeps them out of the lease path.
+ * <p>
+ * All registered pools are swept by one daemon thread, started on the first registration and
+ * stopped when the last one is {@linkplain Registration#close() closed}. A registration whose
+ * connection manager has been closed (e.g. by {@code CloseableHttpClient#close()}) removes itself
+ * on its next run.
+ */
+final class ConnectionEvictor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConnectionEvictor.class);
+
+    private static ScheduledExecutorService executor;
+    private static int registrations;
+
+    private ConnectionEvictor() {
+        throw new AssertionError("No com.jsunsoft.http.ConnectionEvictor instances for you!");
+    }
+
+    /**
+     * Starts evicting connections of {@code connectionManager} every {@code interval}.
+     *
+     * @param connectionManager pool to sweep
+     * @param maxIdleTime       connections idle for longer are closed, {@code null} to close only expired ones
+     * @param interval          sweep interval
+     * @return handle that stops the sweeps of this pool
+     */
+    static synchronized Registration register(PoolingHttpClientConnectionManager connectionManager, TimeValue maxIdleTime, TimeValue interval) {
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "http-request-connection-evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        registrations++;
+
+        Registration registration = new Registration(connectionManager, maxIdleTime);
+        long intervalMillis = Math.max(1, interval.toMilliseconds());
+        registration.future = executor.scheduleWithFixedDelay(registration::evict, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        return registration;
+    }
+
+    private static synchronized void unregister() {
+        if (--registrations == 0) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    static synchronized boolean isRunning() {
+        return executor != null;
+    }
+
+    /**
+     * Sweeps of one connection pool.
+     */
+    static final class Registration implements AutoCloseable {
+        private final PoolingHttpClientConnectionManager connectionManager;
+        private final TimeValue maxIdleTime;
+        private volatile ScheduledFuture<?> future;
+        private boolean closed;
+
+        private Registration(PoolingHttpClientConnectionManager connectionManager, TimeValue maxIdleTime) {
+            this.connectionManager = connectionManager;
+            this.maxIdleTime = maxIdleTime;
+        }
+
+        private void evict() {
+            if (connectionManager.isClosed()) {
+                close();
+                return;
+            }
+            try {
+                connectionManager.closeExpired();
+                if (maxIdleTime != null) {
+                    connectionManager.closeIdle(maxIdleTime);
+                }
+            } catch (RuntimeException e) {
+                // Never let an exception escape: it would silently cancel the periodic task.
+                LOGGER.warn("Failed to evict pooled connections.", e);
+            }
+        }
+
+        /**
+         * Stops the sweeps; the evictor thread exits once no registration is left. Idempotent.
+         */
+        @Override
+        public void close() {
+            synchronized (ConnectionEvictor.class) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                future.cancel(false);
+                unregister();
+            }
+        }
+    }
+}
@@ -16,8 +16,16 @@
 
 package com.jsunsoft.http;
 
-//todo rename and make public
-interface ConnectionFailureType {
+import com.jsunsoft.http.annotations.Beta;
+
+/**
+ * Classifies why a request failed before a response was received.
+ *
+ * @see HttpMetrics#recordFailure(String, String, ConnectionFailureType, long)
+ */
+//todo rename
+@Beta
+public interface ConnectionFailureType {
     /**
      * @return true When have Any IO problem
      */
@@ -18,6 +18,7 @@ package com.jsunsoft.http;
 
 import java.io.InputStream;
 import java.lang.reflect.Type;
+import java.nio.channels.Channel;
 
 class CustomArgsCheck {
     private CustomArgsCheck() {
@@ -25,9 +26,9 @@ class CustomArgsCheck {
     }
 
     static void checkIsCorrectTypeForDeserialization(Type type) {
-        if (type instanceof Class<?> cls && InputStream.class.isAssignableFrom(cls)) {
+        if (type instanceof Class<?> cls && (InputStream.class.isAssignableFrom(cls) || Channel.class.isAssignableFrom(cls))) {
             throw new IllegalArgumentException(
-                    "Parameter 'type' can't be assignable from: " + InputStream.class +
+                    "Parameter 'type' can't be assignable from: " + (InputStream.class.isAssignableFrom(cls) ? InputStream.class : Channel.class) +
                             ". The stream will have closed after execution and can't be used"
             );
         }
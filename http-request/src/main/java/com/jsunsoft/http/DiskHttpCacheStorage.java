@@ -0,0 +1,1039 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsunsoft.http;
+
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.message.BasicHeader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * {@link HttpCacheStorage} keeping entries in append-only segment files of a directory, so the
+ * working set can exceed the heap and survives restarts.
+ * <p>
+ * Every {@link #put(String, CacheEntry)} appends a record (key, status line, headers, body) to the
+ * active segment, and every {@link #remove(String)} or eviction a tombstone; records carry a CRC32.
+ * Only the location of each record is kept in memory. A hit maps the segment read-only and hands out the
+ * body as a slice of the mapping, so it is streamed to the reader straight from the page cache
+ * without copying it to the heap.
+ * <p>
+ * Re-putting an entry with the same body, as when it is freshened by a {@code 304 Not Modified},
+ * appends a header record only: it replaces the status line and headers of the key's last record,
+ * whose body it keeps using. Compaction folds the two back into one record.
+ * <p>
+ * When the active segment is full it is flushed to disk and sealed: a hint file listing its records
+ * is written next to it (to a temporary file, then atomically renamed). On startup the index is
+ * rebuilt from the hint files, which takes a few reads per segment; segments without a valid hint,
+ * i.e. the one being written when the process stopped, are scanned record by record and truncated
+ * at the first torn or corrupt record. Later records override earlier ones.
+ * <p>
+ * Once the live records exceed the size bound, the least recently used entries are evicted until
+ * 1/{@value #FREED_FRACTION_DIVISOR} of the bound is free. When more than half the bound is taken by
+ * dead records, the oldest segments are compacted: their live records are copied to the active
+ * segment and the files are deleted. Compacting oldest first keeps the tombstones correct, as a
+ * tombstone can only shadow records of older segments.
+ * <p>
+ * Puts and removals are written by a background thread, which also evicts and compacts; until then
+ * a put entry is served from the heap. Of several pending writes of a key only the last one is
+ * written, so they don't depend on the order they run in, and a caller finding the write queue full
+ * writes itself. One lock guards the files and the updates of the index. Hits take no lock: the
+ * index is a concurrent map of immutable locations, and a hit only stamps its location with the
+ * access time, so eviction is approximate LRU. A hit racing with compaction reads the relocated
+ * record again. The directory is locked for the lifetime of the storage.
+ */
+final class DiskHttpCacheStorage implements HttpCacheStorage {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DiskHttpCacheStorage.class);
+
+    static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024;
+    /**
+     * Segments are mapped as a whole and sliced with {@code int} offsets.
+     */
+    static final long MAX_SEGMENT_SIZE = Integer.MAX_VALUE;
+
+    private static final int RECORD_MAGIC = 0x48435231;
+    private static final int HINT_MAGIC = 0x48434831;
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+    /**
+     * Status line and headers of the key, with the body of its previous record.
+     */
+    private static final byte HEADERS = 3;
+    /**
+     * Magic, type and payload length.
+     */
+    private static final int RECORD_HEADER_SIZE = 4 + 1 + 4;
+    /**
+     * CRC32 of the type, payload length and payload.
+     */
+    private static final int RECORD_TRAILER_SIZE = 4;
+
+    private static final String SEGMENT_SUFFIX = ".segment";
+    private static final String HINT_SUFFIX = ".hint";
+    private static final String LOCK_FILE_NAME = "cache.lock";
+    private static final int FREED_FRACTION_DIVISOR = 16;
+    private static final int WRITE_QUEUE_CAPACITY = 1024;
+
+    private final Path directory;
+    private final long maxSize;
+    private final long lowWatermark;
+    private final long segmentSize;
+    private final Executor writer;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private final ConcurrentHashMap<String, Location> index = new ConcurrentHashMap<>(1024);
+    /**
+     * Puts and removals not written yet, by key.
+     */
+    private final ConcurrentHashMap<String, Write> pending = new ConcurrentHashMap<>();
+    private Segment active;
+    private volatile long liveBytes;
+    private volatile long fileBytes;
+    private volatile long evictionCount;
+    private volatile boolean closed;
+    private boolean compactionScheduled;
+
+    /**
+     * Opens the storage in {@code directory}, creating it if needed, and loads the entries stored by
+     * a previous instance. Writes happen on a background thread.
+     *
+     * @param maxSize     bound of the live records in bytes
+     * @param segmentSize size at which a segment is sealed and a new one started, at most {@link #MAX_SEGMENT_SIZE}
+     * @throws IOException if the directory can't be used or is locked by another storage
+     */
+    DiskHttpCacheStorage(Path directory, long maxSize, long segmentSize) throws IOException {
+        this(directory, maxSize, segmentSize, newWriter());
+    }
+
+    /**
+     * @param writer runs the writes, evictions and compactions. Shut down on {@link #close()} if it is an {@link ExecutorService}.
+     */
+    DiskHttpCacheStorage(Path directory, long maxSize, long segmentSize, Executor writer) throws IOException {
+        if (segmentSize <= 0 || segmentSize > MAX_SEGMENT_SIZE) {
+            throw new IllegalArgumentException("segmentSize must be positive and at most " + MAX_SEGMENT_SIZE + ", got " + segmentSize);
+        }
+        this.directory = directory;
+        this.maxSize = maxSize;
+        this.lowWatermark = maxSize - maxSize / FREED_FRACTION_DIVISOR;
+        this.segmentSize = segmentSize;
+        this.writer = writer;
+
+        Files.createDirectories(directory);
+        lockChannel = FileChannel.open(directory.resolve(LOCK_FILE_NAME), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock fileLock;
+        try {
+            fileLock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            fileLock = null;
+        }
+        if (fileLock == null) {
+            lockChannel.close();
+            shutdownWriter();
+            throw new IOException("Cache directory [" + directory + "] is used by another cache.");
+        }
+        lock = fileLock;
+
+        try {
+            load();
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private static ExecutorService newWriter() {
+        // The thread is started on demand and times out when idle; a full queue rejects, see submit.
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(WRITE_QUEUE_CAPACITY), runnable -> {
+            Thread thread = new Thread(runnable, "http-request-disk-cache");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Override
+    public CacheEntry get(String key) {
+        if (closed) {
+            return null;
+        }
+        Write write = pending.get(key);
+        if (write != null) {
+            return write.entry;
+        }
+        Location location = index.get(key);
+        while (location != null) {
+            location.accessNanos = System.nanoTime();
+            try {
+                return decode(location);
+            } catch (IOException | RuntimeException e) {
+                Location current = index.get(key);
+                if (current == location) {
+                    drop(key, location, e);
+                    return null;
+                }
+                // Relocated by a compaction, which closed the segment being read.
+                location = current;
+            }
+        }
+        return null;
+    }
+
+    private synchronized void drop(String key, Location location, Exception cause) {
+        if (!closed && index.remove(key, location)) {
+            LOGGER.warn("Dropping unreadable cache entry [{}] of [{}].", key, location.segment.path, cause);
+            release(location);
+            tombstone(key);
+        }
+    }
+
+    @Override
+    public void put(String key, CacheEntry entry) {
+        submit(key, new Write(entry));
+    }
+
+    @Override
+    public void remove(String key) {
+        submit(key, new Write(null));
+    }
+
+    private void submit(String key, Write write) {
+        if (closed) {
+            return;
+        }
+        pending.put(key, write);
+        Runnable task = () -> apply(key, write);
+        try {
+            writer.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.run();
+        }
+    }
+
+    private synchronized void apply(String key, Write write) {
+        if (pending.get(key) != write) {
+            // Superseded by a later put or removal of the key, which is written instead.
+            return;
+        }
+        try {
+            if (closed) {
+                return;
+            }
+            if (write.entry != null) {
+                store(key, write.entry);
+            } else {
+                erase(key);
+            }
+        } finally {
+            pending.remove(key, write);
+        }
+        scheduleCompaction();
+    }
+
+    private void store(String key, CacheEntry entry) {
+        ByteBuffer meta = encode(key, entry);
+        Location current = index.get(key);
+        if (current != null && current.serial == entry.getSerial()) {
+            storeHeaders(key, current, meta);
+            return;
+        }
+        long length = (long) RECORD_HEADER_SIZE + meta.remaining() + entry.getBodyLength() + RECORD_TRAILER_SIZE;
+        if (length > maxSize || length > Integer.MAX_VALUE) {
+            erase(key);
+            return;
+        }
+        try {
+            Location location = append(PUT, key, meta, entry.getBody(), entry.getSerial());
+            Location previous = index.put(key, location);
+            if (previous != null) {
+                release(previous);
+            }
+            retain(location);
+            evict();
+        } catch (IOException e) {
+            LOGGER.warn("Failed to write cache entry [{}] to [{}].", key, directory, e);
+        }
+    }
+
+    /**
+     * Stores new headers for the body of {@code current}, without writing the body again.
+     */
+    private void storeHeaders(String key, Location current, ByteBuffer meta) {
+        try {
+            Location headers = append(HEADERS, key, meta, null, 0);
+            if (current.headers != null) {
+                release(current.headers);
+            }
+            retain(headers);
+            index.put(key, current.withHeaders(headers));
+            evict();
+        } catch (IOException e) {
+            LOGGER.warn("Failed to write headers of cache entry [{}] to [{}].", key, directory, e);
+        }
+    }
+
+    private void erase(String key) {
+        Location location = index.remove(key);
+        if (location == null) {
+            // Evicted and dropped records are shadowed by a tombstone already.
+            return;
+        }
+        release(location);
+        tombstone(key);
+    }
+
+    @Override
+    public void clear() {
+        pending.clear();
+        clearStored();
+    }
+
+    private synchronized void clearStored() {
+        if (closed) {
+            return;
+        }
+        for (Segment segment : segments.values()) {
+            delete(segment);
+        }
+        segments.clear();
+        index.clear();
+        liveBytes = 0;
+        fileBytes = 0;
+        try {
+            active = newSegment();
+        } catch (IOException e) {
+            LOGGER.warn("Failed to create a cache segment in [{}]. The disk cache is closed.", directory, e);
+            closeFiles();
+        }
+    }
+
+    @Override
+    public long getEntryCount() {
+        return index.size();
+    }
+
+    @Override
+    public long getTotalWeight() {
+        return liveBytes;
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return total size of the segment files in bytes, live and dead records
+     */
+    long getFileBytes() {
+        return fileBytes;
+    }
+
+    synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Waits for the pending writes, seals the active segment so the next start loads from hint files,
+     * and releases the directory.
+     */
+    @Override
+    public void close() {
+        shutdownWriter();
+        closeFiles();
+    }
+
+    private void shutdownWriter() {
+        if (writer instanceof ExecutorService) {
+            ExecutorService executor = (ExecutorService) writer;
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                    LOGGER.warn("Timed out waiting for the writes of cache directory [{}].", directory);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private synchronized void closeFiles() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        pending.clear();
+        try {
+            if (active != null && active.size > 0) {
+                seal(active);
+            } else if (active != null) {
+                segments.remove(active.id);
+                delete(active);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Failed to seal cache segment [{}]. It will be scanned on the next start.", active.path, e);
+        }
+        for (Segment segment : segments.values()) {
+            segment.close();
+        }
+        index.clear();
+        try {
+            lock.release();
+        } catch (IOException e) {
+            LOGGER.debug("Failed to release the lock of [{}].", directory, e);
+        }
+        try {
+            lockChannel.close();
+        } catch (IOException e) {
+            LOGGER.debug("Failed to close the lock file of [{}].", directory, e);
+        }
+    }
+
+    private void load() throws IOException {
+        TreeSet<Long> ids = new TreeSet<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .forEach(name -> {
+                        try {
+                            ids.add(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())));
+                        } catch (NumberFormatException e) {
+                            LOGGER.debug("Ignoring unknown file [{}] in cache directory.", name);
+                        }
+                    });
+        }
+
+        for (Long id : ids) {
+            Segment segment = new Segment(id, segmentPath(id));
+            segments.put(id, segment);
+            fileBytes += segment.size;
+            if (!loadHint(segment)) {
+                scan(segment);
+            }
+        }
+
+        Segment last = segments.isEmpty() ? null : segments.lastEntry().getValue();
+        for (Segment segment : segments.values()) {
+            if (segment.records != null && segment != last) {
+                seal(segment);
+            }
+        }
+        active = last != null && last.records != null ? last : newSegment();
+        LOGGER.debug("Loaded {} cache entries from {} segments of [{}].", index.size(), segments.size(), directory);
+        evict();
+    }
+
+    /**
+     * Rebuilds the index from the records of {@code segment}, truncating it at the first invalid record.
+     */
+    private void scan(Segment segment) throws IOException {
+        segment.records = new ArrayList<>();
+        long size = segment.channel.size();
+        long offset = 0;
+        if (size > 0) {
+            MappedByteBuffer mapped = segment.channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            while (offset < size) {
+                int length = validRecordLength(mapped, (int) offset, size);
+                if (length < 0) {
+                    break;
+                }
+                ByteBuffer payload = mapped.duplicate().position((int) offset + RECORD_HEADER_SIZE);
+                load(segment, mapped.get((int) offset + 4), readString(payload), offset, length);
+                offset += length;
+            }
+        }
+        if (offset < size) {
+            LOGGER.warn("Truncating cache segment [{}] at a torn or corrupt record at offset {}.", segment.path, offset);
+            segment.channel.truncate(offset);
+            fileBytes -= size - offset;
+        }
+        segment.size = offset;
+    }
+
+    /**
+     * @return length of the valid record at {@code offset}, or {@code -1}
+     */
+    private static int validRecordLength(ByteBuffer mapped, int offset, long size) {
+        if (size - offset < RECORD_HEADER_SIZE + RECORD_TRAILER_SIZE || mapped.getInt(offset) != RECORD_MAGIC) {
+            return -1;
+        }
+        byte type = mapped.get(offset + 4);
+        int payloadLength = mapped.getInt(offset + 5);
+        if (type != PUT && type != REMOVE && type != HEADERS || payloadLength < 4
+                || payloadLength > size - offset - RECORD_HEADER_SIZE - RECORD_TRAILER_SIZE) {
+            return -1;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(mapped.slice(offset + 4, RECORD_HEADER_SIZE - 4 + payloadLength));
+        if ((int) crc.getValue() != mapped.getInt(offset + RECORD_HEADER_SIZE + payloadLength)) {
+            return -1;
+        }
+        return RECORD_HEADER_SIZE + payloadLength + RECORD_TRAILER_SIZE;
+    }
+
+    /**
+     * @return whether the index was rebuilt from a valid hint file of {@code segment}
+     */
+    private boolean loadHint(Segment segment) {
+        Path hintPath = hintPath(segment.id);
+        if (!Files.exists(hintPath)) {
+            return false;
+        }
+        List<Record> records = new ArrayList<>();
+        CRC32 crc = new CRC32();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(hintPath)))) {
+            DataInputStream checked = new DataInputStream(new CheckedInputStream(in, crc));
+            if (checked.readInt() != HINT_MAGIC || checked.readLong() != segment.size) {
+                LOGGER.warn("Ignoring stale cache hint file [{}].", hintPath);
+                return false;
+            }
+            int count = checked.readInt();
+            for (int i = 0; i < count; i++) {
+                byte type = checked.readByte();
+                byte[] key = new byte[checked.readInt()];
+                checked.readFully(key);
+                records.add(new Record(type, new String(key, StandardCharsets.UTF_8), checked.readLong(), checked.readInt()));
+            }
+            if ((int) crc.getValue() != in.readInt()) {
+                LOGGER.warn("Ignoring corrupt cache hint file [{}].", hintPath);
+                return false;
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Ignoring unreadable cache hint file [{}].", hintPath, e);
+            return false;
+        }
+        for (Record record : records) {
+            load(segment, record.type, record.key, record.offset, record.length);
+        }
+        return true;
+    }
+
+    private void load(Segment segment, byte type, String key, long offset, int length) {
+        Location previous = null;
+        if (type == PUT) {
+            Location location = new Location(segment, offset, length, CacheEntry.nextSerial(), null);
+            previous = index.put(key, location);
+            retain(location);
+        } else if (type == HEADERS) {
+            // Without a record of the key the body is gone, and so is this record.
+            Location current = index.get(key);
+            if (current != null) {
+                previous = current.headers;
+                Location headers = new Location(segment, offset, length, 0, null);
+                index.put(key, current.withHeaders(headers));
+                retain(headers);
+            }
+        } else {
+            previous = index.remove(key);
+        }
+        if (previous != null) {
+            release(previous);
+        }
+        if (segment.records != null) {
+            segment.records.add(new Record(type, key, offset, length));
+        }
+    }
+
+    /**
+     * Flushes {@code segment} and writes its hint file.
+     */
+    private void seal(Segment segment) throws IOException {
+        segment.channel.force(false);
+
+        Path hintPath = hintPath(segment.id);
+        Path tmpPath = directory.resolve(hintPath.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (FileChannel channel = FileChannel.open(tmpPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            DataOutputStream checked = new DataOutputStream(new CheckedOutputStream(out, crc));
+            checked.writeInt(HINT_MAGIC);
+            checked.writeLong(segment.size);
+            checked.writeInt(segment.records.size());
+            for (Record record : segment.records) {
+                byte[] key = record.key.getBytes(StandardCharsets.UTF_8);
+                checked.writeByte(record.type);
+                checked.writeInt(key.length);
+                checked.write(key);
+                checked.writeLong(record.offset);
+                checked.writeInt(record.length);
+            }
+            checked.flush();
+            out.writeInt((int) crc.getValue());
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(tmpPath, hintPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        segment.records = null;
+    }
+
+    private Segment newSegment() throws IOException {
+        long id = segments.isEmpty() ? 1 : segments.lastKey() + 1;
+        Segment segment = new Segment(id, segmentPath(id));
+        segment.records = new ArrayList<>();
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private void roll() throws IOException {
+        seal(active);
+        active = newSegment();
+    }
+
+    /**
+     * Appends a record to the active segment, starting a new one if it doesn't fit.
+     */
+    private Location append(byte type, String key, ByteBuffer meta, ByteBuffer body, long serial) throws IOException {
+        int payloadLength = meta.remaining() + (body != null ? body.remaining() : 0);
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE).putInt(RECORD_MAGIC).put(type).putInt(payloadLength).flip();
+
+        CRC32 crc = new CRC32();
+        crc.update(header.duplicate().position(4));
+        crc.update(meta.duplicate());
+        if (body != null) {
+            crc.update(body.duplicate());
+        }
+        ByteBuffer trailer = ByteBuffer.allocate(RECORD_TRAILER_SIZE).putInt((int) crc.getValue()).flip();
+
+        ByteBuffer[] buffers = body != null ? new ByteBuffer[]{header, meta, body, trailer} : new ByteBuffer[]{header, meta, trailer};
+        return write(type, key, buffers, RECORD_HEADER_SIZE + payloadLength + RECORD_TRAILER_SIZE, serial);
+    }
+
+    private Location write(byte type, String key, ByteBuffer[] buffers, int length, long serial) throws IOException {
+        if (active.size > 0 && active.size + length > segmentSize) {
+            roll();
+        }
+        Segment segment = active;
+        long offset = segment.size;
+        try {
+            segment.channel.position(offset);
+            long remaining = length;
+            while (remaining > 0) {
+                remaining -= segment.channel.write(buffers);
+            }
+        } catch (IOException e) {
+            try {
+                segment.channel.truncate(offset);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        segment.size += length;
+        fileBytes += length;
+        segment.records.add(new Record(type, key, offset, length));
+        return new Location(segment, offset, length, serial, null);
+    }
+
+    private void retain(Location location) {
+        location.segment.liveBytes += location.length;
+        liveBytes += location.length;
+    }
+
+    private void release(Location location) {
+        location.segment.liveBytes -= location.length;
+        liveBytes -= location.length;
+        if (location.headers != null) {
+            release(location.headers);
+        }
+    }
+
+    /**
+     * Evicts the least recently used entries until 1/{@value #FREED_FRACTION_DIVISOR} of the size bound
+     * is free, if the live records exceed it. Each evicted record is shadowed by a tombstone: otherwise
+     * it would be loaded again on the next start, and a later {@link #remove(String)} of its key, which
+     * finds nothing to remove, would be lost.
+     */
+    private void evict() {
+        if (liveBytes <= maxSize) {
+            return;
+        }
+        // Access times keep changing: sort a snapshot of them.
+        List<Candidate> candidates = new ArrayList<>(index.size());
+        for (Map.Entry<String, Location> entry : index.entrySet()) {
+            candidates.add(new Candidate(entry.getKey(), entry.getValue()));
+        }
+        candidates.sort(Comparator.comparingLong(candidate -> candidate.accessNanos));
+        for (Candidate candidate : candidates) {
+            if (liveBytes <= lowWatermark) {
+                break;
+            }
+            if (index.remove(candidate.key, candidate.location)) {
+                release(candidate.location);
+                evictionCount++;
+                tombstone(candidate.key);
+            }
+        }
+    }
+
+    /**
+     * Appends a tombstone of {@code key}, shadowing its records in this and older segments.
+     *
+     * @return whether the tombstone was written
+     */
+    private boolean tombstone(String key) {
+        try {
+            append(REMOVE, key, encodeKey(key), null, 0);
+            return true;
+        } catch (IOException e) {
+            LOGGER.warn("Failed to write removal of cache entry [{}] to [{}].", key, directory, e);
+            return false;
+        }
+    }
+
+    private boolean needsCompaction() {
+        return segments.size() > 1 && fileBytes - liveBytes > maxSize / 2;
+    }
+
+    private void scheduleCompaction() {
+        if (compactionScheduled || !needsCompaction()) {
+            return;
+        }
+        compactionScheduled = true;
+        try {
+            writer.execute(this::compact);
+        } catch (RejectedExecutionException e) {
+            compactionScheduled = false;
+        }
+    }
+
+    /**
+     * Compacts the oldest segments while dead records take more than half the size bound. Bounded
+     * by the number of segments, as compacting a segment without dead records frees nothing.
+     */
+    private synchronized void compact() {
+        compactionScheduled = false;
+        try {
+            for (int i = segments.size() - 1; i > 0 && !closed && needsCompaction(); i--) {
+                Segment oldest = segments.firstEntry().getValue();
+                for (Map.Entry<String, Location> entry : index.entrySet()) {
+                    String key = entry.getKey();
+                    Location location = entry.getValue();
+                    if (location.segment == oldest && location.headers != null) {
+                        // A copy of the body record alone would be loaded after the header record it is overridden by.
+                        CacheEntry current = decode(location);
+                        relocate(key, location, append(PUT, key, encode(key, current), current.getBody(), location.serial));
+                    } else if (location.segment == oldest) {
+                        relocate(key, location, write(PUT, key, new ByteBuffer[]{oldest.slice(location.offset, location.length)}, location.length, location.serial));
+                    } else if (location.headers != null && location.headers.segment == oldest) {
+                        Location headers = location.headers;
+                        Location copy = write(HEADERS, key, new ByteBuffer[]{oldest.slice(headers.offset, headers.length)}, headers.length, 0);
+                        release(headers);
+                        retain(copy);
+                        Location relocated = location.withHeaders(copy);
+                        relocated.accessNanos = location.accessNanos;
+                        index.put(key, relocated);
+                    }
+                }
+                segments.remove(oldest.id);
+                delete(oldest);
+                LOGGER.debug("Compacted cache segment [{}].", oldest.path);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Failed to compact cache segments of [{}].", directory, e);
+        }
+    }
+
+    /**
+     * Replaces the record of {@code key} by its {@code copy}, which takes over the access time: a
+     * compaction is no access.
+     */
+    private void relocate(String key, Location location, Location copy) {
+        release(location);
+        retain(copy);
+        copy.accessNanos = location.accessNanos;
+        index.put(key, copy);
+    }
+
+    private void delete(Segment segment) {
+        segment.close();
+        fileBytes -= segment.size;
+        try {
+            // Hint first: a segment without hint is scanned, a hint without segment would be dangling.
+            Files.deleteIfExists(hintPath(segment.id));
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to delete cache segment [{}].", segment.path, e);
+        }
+    }
+
+    private CacheEntry decode(Location location) throws IOException {
+        ByteBuffer body = null;
+        ByteBuffer record = location.segment.slice(location.offset, location.length);
+        if (location.headers != null) {
+            body = readBody(record);
+            record = location.headers.segment.slice(location.headers.offset, location.headers.length);
+        }
+        record.position(RECORD_HEADER_SIZE);
+        readString(record);
+        int code = record.getInt();
+        String reasonPhrase = readString(record);
+        long requestTimeMillis = record.getLong();
+        long responseTimeMillis = record.getLong();
+        Header[] headers = new Header[record.getInt()];
+        for (int i = 0; i < headers.length; i++) {
+            headers[i] = new BasicHeader(readString(record), readString(record));
+        }
+        int varyCount = record.getInt();
+        Map<String, String> varyValues = new TreeMap<>();
+        for (int i = 0; i < varyCount; i++) {
+            varyValues.put(readString(record), readString(record));
+        }
+        int bodyLength = record.getInt();
+        if (body == null) {
+            body = record.slice(record.position(), bodyLength).asReadOnlyBuffer();
+        } else if (body.remaining() != bodyLength) {
+            throw new IllegalStateException("Header record of length " + bodyLength + " doesn't match body of length " + body.remaining());
+        }
+        return CacheEntry.restore(code, reasonPhrase, headers, body, requestTimeMillis, responseTimeMillis, varyValues, location.serial);
+    }
+
+    /**
+     * @return body of the {@link #PUT} record {@code record}
+     */
+    private static ByteBuffer readBody(ByteBuffer record) {
+        record.position(RECORD_HEADER_SIZE);
+        readString(record);
+        record.getInt();
+        readString(record);
+        record.position(record.position() + 2 * Long.BYTES);
+        int headerCount = record.getInt();
+        for (int i = 0; i < 2 * headerCount; i++) {
+            readString(record);
+        }
+        int varyCount = record.getInt();
+        for (int i = 0; i < 2 * varyCount; i++) {
+            readString(record);
+        }
+        int bodyLength = record.getInt();
+        return record.slice(record.position(), bodyLength).asReadOnlyBuffer();
+    }
+
+    private static ByteBuffer encode(String key, CacheEntry entry) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeString(out, key);
+            out.writeInt(entry.getCode());
+            writeString(out, entry.getReasonPhrase());
+            out.writeLong(entry.getRequestTimeMillis());
+            out.writeLong(entry.getResponseTimeMillis());
+            Header[] headers = entry.getHeaders();
+            out.writeInt(headers.length);
+            for (Header header : headers) {
+                writeString(out, header.getName());
+                writeString(out, header.getValue());
+            }
+            out.writeInt(entry.getVaryValues().size());
+            for (Map.Entry<String, String> vary : entry.getVaryValues().entrySet()) {
+                writeString(out, vary.getKey());
+                writeString(out, vary.getValue());
+            }
+            out.writeInt(entry.getBodyLength());
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing to a byte array can't fail", e);
+        }
+        return ByteBuffer.wrap(bytes.toByteArray());
+    }
+
+    private static ByteBuffer encodeKey(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(4 + bytes.length).putInt(bytes.length).put(bytes).flip();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private Path segmentPath(long id) {
+        return directory.resolve(String.format("%016d%s", id, SEGMENT_SUFFIX));
+    }
+
+    private Path hintPath(long id) {
+        return directory.resolve(String.format("%016d%s", id, HINT_SUFFIX));
+    }
+
+    /**
+     * Where the current record of a key is stored. Replaced in the index, not changed, so a hit reads
+     * a consistent one.
+     */
+    private static final class Location {
+        private final Segment segment;
+        private final long offset;
+        private final int length;
+        /**
+         * {@linkplain CacheEntry#getSerial() Serial} of the stored body, stable for the lifetime of the record.
+         */
+        private final long serial;
+        /**
+         * {@link #HEADERS} record overriding the status line and headers of this one, {@code null} if none.
+         */
+        private final Location headers;
+        private volatile long accessNanos;
+
+        private Location(Segment segment, long offset, int length, long serial, Location headers) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+            this.serial = serial;
+            this.headers = headers;
+            this.accessNanos = System.nanoTime();
+        }
+
+        private Location withHeaders(Location headers) {
+            return new Location(segment, offset, length, serial, headers);
+        }
+    }
+
+    private static final class Candidate {
+        private final String key;
+        private final Location location;
+        private final long accessNanos;
+
+        private Candidate(String key, Location location) {
+            this.key = key;
+            this.location = location;
+            this.accessNanos = location.accessNanos;
+        }
+    }
+
+    /**
+     * Pending put, or removal if {@code entry} is {@code null}.
+     */
+    private static final class Write {
+        private final CacheEntry entry;
+
+        private Write(CacheEntry entry) {
+            this.entry = entry;
+        }
+    }
+
+    /**
+     * Record of a segment as listed in its hint file.
+     */
+    private static final class Record {
+        private final byte type;
+        private final String key;
+        private final long offset;
+        private final int length;
+
+        private Record(byte type, String key, long offset, int length) {
+            this.type = type;
+            this.key = key;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    private static final class Segment {
+        private final long id;
+        private final Path path;
+        private final FileChannel channel;
+        /**
+         * Changed under the lock, read by hits too.
+         */
+        private volatile long size;
+        private long liveBytes;
+        /**
+         * Records appended since the segment was started, {@code null} once sealed.
+         */
+        private List<Record> records;
+        private volatile MappedByteBuffer mapped;
+
+        private Segment(long id, Path path) throws IOException {
+            this.id = id;
+            this.path = path;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.size = channel.size();
+        }
+
+        /**
+         * @return read-only view of the given bytes, backed by a mapping of the segment. The mapping
+         * is replaced, not unmapped, when the segment grew: slices handed out earlier stay valid.
+         * Segments don't exceed {@link #MAX_SEGMENT_SIZE}, so offsets fit in an {@code int}.
+         */
+        private ByteBuffer slice(long offset, int length) throws IOException {
+            MappedByteBuffer current = mapped;
+            if (current == null || offset + length > current.capacity()) {
+                // Concurrent hits may map it more than once, harmlessly.
+                current = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                mapped = current;
+            }
+            return current.slice((int) offset, length);
+        }
+
+        private void close() {
+            mapped = null;
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOGGER.debug("Failed to close cache segment [{}].", path, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Keeps the connection of a response reusable when its body is not read to the end, within a budget.
+ * <p>
+ * A connection goes back to the pool only once its response body was read to the end; closing the
+ * content stream of HttpClient early reads the rest, however long it is. Here, when the content stream
+ * is closed early, or the response is closed with the body unread, the remainder is read and dropped
+ * only if it fits in {@code maxDrainBytes} and arrives within {@code maxDrainNanos}. A remainder the
+ * {@code Content-Length} already shows to be larger is not read at all. A body that was not drained
+ * is left open and {@link #release()} reports it, so the response discards the connection instead.
+ * <p>
+ * The time budget is checked between reads; a single read is bounded by the socket timeout.
+ */
+final class DrainingHttpEntity extends HttpEntityWrapper {
+    private final long maxDrainBytes;
+    private final long maxDrainNanos;
+    private long bytesRead;
+    private boolean eof;
+    private boolean abandoned;
+    /**
+     * The last content stream handed out and not closed yet.
+     */
+    private InputStream openContent;
+
+    DrainingHttpEntity(HttpEntity entity, long maxDrainBytes, long maxDrainNanos) {
+        super(entity);
+        this.maxDrainBytes = maxDrainBytes;
+        this.maxDrainNanos = maxDrainNanos;
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        InputStream content = super.getContent();
+        if (content == null) {
+            return null;
+        }
+        openContent = new DrainingInputStream(content);
+        return openContent;
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+        try {
+            super.writeTo(outStream);
+            eof = true;
+        } catch (IOException | RuntimeException e) {
+            abandoned = true;
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the unread remainder of the body within the budget and closes the content stream.
+     *
+     * @return {@code true} if the body was read to the end and the connection can be reused,
+     * {@code false} if it has to be discarded
+     */
+    boolean release() {
+        if (abandoned) {
+            return false;
+        }
+        if (openContent == null && (eof || !isStreaming())) {
+            // Read to the end, or in memory: there is nothing left to read.
+            return true;
+        }
+        try {
+            InputStream content = openContent != null ? openContent : getContent();
+            if (content != null) {
+                content.close();
+            }
+        } catch (IOException | RuntimeException e) {
+            abandoned = true;
+        }
+        return !abandoned;
+    }
+
+    /**
+     * @return {@code true} if the remainder of {@code content} was read to the end within the budget
+     */
+    private boolean drain(InputStream content) {
+        long contentLength = getContentLength();
+        if (contentLength >= 0 && contentLength - bytesRead > maxDrainBytes) {
+            return false;
+        }
+
+        byte[] chunk = BodyBuffers.borrow();
+        try {
+            long startNanos = System.nanoTime();
+            long drained = 0;
+            while (true) {
+                // One byte past the budget tells a remainder of exactly the budget from a larger one.
+                long left = maxDrainBytes - drained;
+                int read = content.read(chunk, 0, left >= chunk.length ? chunk.length : (int) left + 1);
+                if (read < 0) {
+                    eof = true;
+                    return true;
+                }
+                drained += read;
+                bytesRead += read;
+                if (drained > maxDrainBytes || System.nanoTime() - startNanos > maxDrainNanos) {
+                    return false;
+                }
+            }
+        } catch (IOException e) {
+            return false;
+        } finally {
+            BodyBuffers.release(chunk);
+        }
+    }
+
+    private final class DrainingInputStream extends FilterInputStream {
+        private boolean closed;
+
+        private DrainingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b < 0) {
+                eof = true;
+            } else {
+                bytesRead++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = in.read(b, off, len);
+            if (read < 0) {
+                eof = true;
+            } else {
+                bytesRead += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = in.skip(n);
+            bytesRead += skipped;
+            return skipped;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (openContent == this) {
+                openContent = null;
+            }
+            if (eof || drain(in)) {
+                in.close();
+            } else {
+                // Closing would make HttpClient read the whole remainder; the response discards the connection instead.
+                abandoned = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,580 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsunsoft.http;
+
+import com.jsunsoft.http.annotations.Beta;
+import org.apache.hc.client5.http.impl.DefaultSchemePortResolver;
+import org.apache.hc.client5.http.routing.RoutingSupport;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.net.URIBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A fixed set of interchangeable replicas of one upstream service, used by
+ * {@link HttpRequest#loadBalancedTarget(EndpointGroup)} to spread requests client-side without
+ * an extra L7 hop.
+ * <p>
+ * Each request picks its replica with <em>power-of-two-choices</em> over
+ * <em>least outstanding requests</em>: two distinct endpoints are sampled at random and the one
+ * with fewer in-flight requests wins. This keeps the load spread close to "least loaded" while
+ * needing only two counter reads per pick and no shared lock — the in-flight counters are plain
+ * {@link AtomicInteger}s, incremented when the request is dispatched and decremented when its
+ * {@link Response} is closed.
+ * <p>
+ * Endpoints must differ only in scheme, host and port. Path, query, and fragment come from the
+ * {@link WebTarget} the request is built on — every endpoint must therefore share the same
+ * (usually empty) base path.
+ *
+ * <h2>Lifecycle and reuse</h2>
+ *
+ * The in-flight counters are what make the balancing work, so an {@code EndpointGroup} must be
+ * created once and shared — typically a singleton next to the {@link HttpRequest} it is used
+ * with. Instances are immutable apart from those counters and are thread-safe.
+ *
+ * <h2>Pool caps</h2>
+ *
+ * Register the endpoints' per-route connection caps with
+ * {@link ClientBuilder#setMaxPoolSizePerRoute(EndpointGroup, int)}. Setting
+ * {@link Builder#setMaxInFlightPerEndpoint(int)} to the same value lets the balancer steer away
+ * from a replica whose route pool is exhausted instead of queueing on its connection lease.
+ *
+ * <h2>Outlier detection</h2>
+ *
+ * With {@link Builder#setOutlierDetection(OutlierDetection)} endpoints that keep failing or are
+ * far slower than their peers are temporarily taken out of rotation; see
+ * {@link OutlierDetection}. When an active health check is configured the group owns a
+ * background thread — {@link #close()} the group when it is no longer needed.
+ *
+ * <pre>{@code
+ * EndpointGroup replicas = EndpointGroup.builder()
+ *         .addEndpoint("http://10.0.0.1:8080")
+ *         .addEndpoint("http://10.0.0.2:8080")
+ *         .setMaxInFlightPerEndpoint(32)
+ *         .build();
+ *
+ * CloseableHttpClient client = ClientBuilder.create()
+ *         .setMaxPoolSizePerRoute(replicas, 32)
+ *         .build();
+ *
+ * httpRequest.loadBalancedTarget(replicas).path("/users").get(User.class);
+ * }</pre>
+ *
+ * @since 5.0.0
+ */
+@Beta
+public final class EndpointGroup implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EndpointGroup.class);
+
+    /**
+     * Smoothing factor of the per-endpoint latency moving average.
+     */
+    private static final double LATENCY_EWMA_ALPHA = 0.2;
+
+    private final Endpoint[] endpoints;
+    private final List<URI> uris;
+    private final int maxInFlightPerEndpoint;
+    private final OutlierDetection outlierDetection;
+    private final ScheduledExecutorService healthCheckExecutor;
+
+    private EndpointGroup(Collection<URI> uris, int maxInFlightPerEndpoint, OutlierDetection outlierDetection) {
+        if (uris.isEmpty()) {
+            throw new IllegalArgumentException("EndpointGroup requires at least one endpoint");
+        }
+        this.uris = List.copyOf(uris);
+        this.endpoints = new Endpoint[this.uris.size()];
+        String basePath = null;
+        for (int i = 0; i < endpoints.length; i++) {
+            URI uri = this.uris.get(i);
+            if (uri.getHost() == null) {
+                throw new IllegalArgumentException("Endpoint URI must be absolute and carry a host: " + uri);
+            }
+            String path = uri.getRawPath() == null ? "" : uri.getRawPath();
+            if (basePath == null) {
+                basePath = path;
+            } else if (!basePath.equals(path)) {
+                throw new IllegalArgumentException("Endpoints must differ only in scheme, host and port. Base path [" + path + "] of " + uri + " differs from [" + basePath + "]");
+            }
+            endpoints[i] = new Endpoint(uri);
+        }
+        this.maxInFlightPerEndpoint = maxInFlightPerEndpoint;
+        this.outlierDetection = outlierDetection;
+
+        if (outlierDetection != null && outlierDetection.getActiveHealthCheck() != null) {
+            long intervalNanos = outlierDetection.getActiveHealthCheckInterval().toNanos();
+            this.healthCheckExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "http-request-endpoint-health-check");
+                thread.setDaemon(true);
+                return thread;
+            });
+            healthCheckExecutor.scheduleWithFixedDelay(this::runHealthChecks, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        } else {
+            this.healthCheckExecutor = null;
+        }
+    }
+
+    /**
+     * Creates a group over the given endpoints with default settings.
+     *
+     * @param uris endpoint URIs. Must not be {@code null} or empty.
+     * @return new EndpointGroup instance
+     * @throws IllegalArgumentException if {@code uris} is empty or the endpoints differ in more than scheme, host and port
+     */
+    public static EndpointGroup of(URI... uris) {
+        ArgsCheck.notNull(uris, "uris");
+        return of(Arrays.asList(uris));
+    }
+
+    /**
+     * Creates a group over the given endpoints with default settings.
+     *
+     * @param uris endpoint URIs. Must not be {@code null} or empty.
+     * @return new EndpointGroup instance
+     * @throws IllegalArgumentException if {@code uris} is empty or the endpoints differ in more than scheme, host and port
+     */
+    public static EndpointGroup of(Collection<URI> uris) {
+        ArgsCheck.notNull(uris, "uris");
+        Builder builder = builder();
+        uris.forEach(builder::addEndpoint);
+        return builder.build();
+    }
+
+    /**
+     * @return new Builder instance
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return the endpoint URIs in registration order
+     */
+    public List<URI> getEndpoints() {
+        return uris;
+    }
+
+    /**
+     * @return the configured in-flight cap per endpoint, or {@code 0} when unbounded
+     */
+    public int getMaxInFlightPerEndpoint() {
+        return maxInFlightPerEndpoint;
+    }
+
+    /**
+     * Returns the number of requests currently dispatched to {@code uri} whose response has not
+     * been closed yet. Intended for diagnostics and tests.
+     *
+     * @param uri one of {@link #getEndpoints()}
+     * @return in-flight request count
+     * @throws IllegalArgumentException if {@code uri} is not part of this group
+     */
+    public int getInFlight(URI uri) {
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.uri.equals(uri)) {
+                return endpoint.getInFlight();
+            }
+        }
+        throw new IllegalArgumentException("Unknown endpoint: " + uri);
+    }
+
+    /**
+     * @param uri one of {@link #getEndpoints()}
+     * @return {@code true} if outlier detection currently keeps {@code uri} out of rotation
+     * @throws IllegalArgumentException if {@code uri} is not part of this group
+     */
+    public boolean isEjected(URI uri) {
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.uri.equals(uri)) {
+                return endpoint.isEjected(System.nanoTime());
+            }
+        }
+        throw new IllegalArgumentException("Unknown endpoint: " + uri);
+    }
+
+    /**
+     * Stops the active health check, if one is configured. The group stays usable for
+     * balancing afterwards; only the probes stop.
+     */
+    @Override
+    public void close() {
+        if (healthCheckExecutor != null) {
+            healthCheckExecutor.shutdownNow();
+        }
+    }
+
+    Collection<HttpHost> getHttpHosts() {
+        List<HttpHost> hosts = new ArrayList<>(endpoints.length);
+        for (Endpoint endpoint : endpoints) {
+            hosts.add(endpoint.httpHost);
+        }
+        return hosts;
+    }
+
+    /**
+     * @param uri URI a request was sent to
+     * @return the endpoint serving {@code uri}'s scheme, host and port, or {@code null} if none does
+     */
+    Endpoint findByHost(URI uri) {
+        HttpHost httpHost = RoutingSupport.normalize(HttpHost.create(uri), DefaultSchemePortResolver.INSTANCE);
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.httpHost.equals(httpHost)) {
+                return endpoint;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Picks the endpoint for the next attempt.
+     *
+     * @param excluded endpoints already tried by the current request chain; they are skipped
+     *                 unless every endpoint has been tried
+     * @return chosen endpoint, never {@code null}
+     */
+    Endpoint choose(Collection<Endpoint> excluded) {
+        boolean skipEjected = outlierDetection != null;
+        long now = skipEjected ? System.nanoTime() : 0;
+
+        // Ejected endpoints are skipped unless nothing else is left; excluded ones likewise.
+        Endpoint[] candidates = candidates(excluded, skipEjected, now);
+        if (candidates.length == 0 && skipEjected) {
+            candidates = candidates(excluded, false, now);
+        }
+        if (candidates.length == 0) {
+            candidates = endpoints;
+        }
+
+        if (candidates.length == 1) {
+            return candidates[0];
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.length);
+        int second = random.nextInt(candidates.length - 1);
+        if (second >= first) {
+            second++;
+        }
+
+        Endpoint a = candidates[first];
+        Endpoint b = candidates[second];
+        Endpoint chosen = a.getInFlight() <= b.getInFlight() ? a : b;
+
+        if (maxInFlightPerEndpoint > 0 && chosen.getInFlight() >= maxInFlightPerEndpoint) {
+            // Both samples are saturated. Fall back to a full scan so a free replica is not
+            // missed just because it wasn't sampled; if all are saturated the least loaded wins.
+            for (Endpoint candidate : candidates) {
+                if (candidate.getInFlight() < chosen.getInFlight()) {
+                    chosen = candidate;
+                }
+            }
+        }
+        return chosen;
+    }
+
+    private Endpoint[] candidates(Collection<Endpoint> excluded, boolean skipEjected, long now) {
+        if (excluded.isEmpty() && !skipEjected) {
+            return endpoints;
+        }
+        Endpoint[] result = new Endpoint[endpoints.length];
+        int n = 0;
+        for (Endpoint endpoint : endpoints) {
+            if (!excluded.contains(endpoint) && !(skipEjected && endpoint.isEjected(now))) {
+                result[n++] = endpoint;
+            }
+        }
+        return n == endpoints.length ? endpoints : Arrays.copyOf(result, n);
+    }
+
+    /**
+     * Records a non-5xx response of {@code endpoint}.
+     *
+     * @param latencyNanos time from dispatch to response headers
+     */
+    void recordSuccess(Endpoint endpoint, long latencyNanos) {
+        if (outlierDetection == null) {
+            return;
+        }
+        endpoint.consecutiveFailures.set(0);
+
+        double factor = outlierDetection.getLatencyOutlierFactor();
+        int minimumSamples = outlierDetection.getLatencyMinimumSamples();
+        double average = endpoint.recordLatency(latencyNanos);
+
+        if (factor > 0 && endpoint.latencySamples >= minimumSamples) {
+            double peerMedian = peerLatencyMedian(endpoint, minimumSamples, System.nanoTime());
+            if (peerMedian > 0 && average > factor * peerMedian) {
+                eject(endpoint, "average latency " + TimeUnit.NANOSECONDS.toMillis((long) average) + " ms exceeds " + factor + "x the peer median of " + TimeUnit.NANOSECONDS.toMillis((long) peerMedian) + " ms");
+            }
+        }
+    }
+
+    /**
+     * Records a 5xx response or a transport failure of {@code endpoint}.
+     */
+    void recordFailure(Endpoint endpoint) {
+        if (outlierDetection == null) {
+            return;
+        }
+        int threshold = outlierDetection.getConsecutiveFailures();
+        if (threshold > 0 && endpoint.consecutiveFailures.incrementAndGet() >= threshold) {
+            eject(endpoint, threshold + " consecutive failures");
+        }
+    }
+
+    private double peerLatencyMedian(Endpoint endpoint, int minimumSamples, long now) {
+        double[] peers = new double[endpoints.length];
+        int n = 0;
+        for (Endpoint peer : endpoints) {
+            if (peer != endpoint && peer.latencySamples >= minimumSamples && !peer.isEjected(now)) {
+                peers[n++] = peer.latencyEwmaNanos;
+            }
+        }
+        if (n == 0) {
+            return 0;
+        }
+        Arrays.sort(peers, 0, n);
+        return n % 2 == 1 ? peers[n / 2] : (peers[n / 2 - 1] + peers[n / 2]) / 2;
+    }
+
+    private synchronized void eject(Endpoint endpoint, String reason) {
+        long now = System.nanoTime();
+        if (endpoint.isEjected(now)) {
+            return;
+        }
+
+        int ejected = 0;
+        for (Endpoint e : endpoints) {
+            if (e.isEjected(now)) {
+                ejected++;
+            }
+        }
+        int percent = outlierDetection.getMaxEjectionPercent();
+        int maxEjected = percent == 0 || endpoints.length < 2 ? 0 : Math.min(endpoints.length - 1, Math.max(1, endpoints.length * percent / 100));
+        if (ejected >= maxEjected) {
+            LOGGER.debug("Endpoint [{}] is an outlier ({}) but is kept in rotation: {} of {} endpoints are already ejected.", endpoint, reason, ejected, endpoints.length);
+            return;
+        }
+
+        long baseNanos = outlierDetection.getBaseEjectionTime().toNanos();
+        long maxNanos = outlierDetection.getMaxEjectionTime().toNanos();
+        if (endpoint.ejectedUntilNanos != 0 && now - endpoint.ejectedUntilNanos >= maxNanos) {
+            // Stayed healthy in rotation long enough: start over from the base ejection time.
+            endpoint.ejectionCount = 0;
+        }
+        int shift = Math.min(endpoint.ejectionCount, 30);
+        long ejectionNanos = baseNanos > (maxNanos >> shift) ? maxNanos : Math.min(maxNanos, baseNanos << shift);
+
+        endpoint.ejectionCount++;
+        endpoint.ejectedUntilNanos = now + ejectionNanos;
+        endpoint.consecutiveFailures.set(0);
+        endpoint.resetLatency();
+
+        LOGGER.warn("Endpoint [{}] ejected for {}: {}.", endpoint, Duration.ofNanos(ejectionNanos), reason);
+    }
+
+    private void runHealthChecks() {
+        EndpointHealthCheck healthCheck = outlierDetection.getActiveHealthCheck();
+        for (Endpoint endpoint : endpoints) {
+            boolean healthy;
+            try {
+                healthy = healthCheck.isHealthy(endpoint.uri);
+            } catch (Exception e) {
+                LOGGER.debug("Health check of endpoint [{}] failed.", endpoint, e);
+                healthy = false;
+            }
+
+            if (healthy) {
+                endpoint.consecutiveFailures.set(0);
+                if (endpoint.isEjected(System.nanoTime())) {
+                    // End the ejection now; keeping ejectedUntilNanos in the past preserves the backoff multiplier.
+                    endpoint.ejectedUntilNanos = System.nanoTime() - 1;
+                    LOGGER.info("Endpoint [{}] passed the health check and is returned to rotation.", endpoint);
+                }
+            } else {
+                recordFailure(endpoint);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "EndpointGroup{" +
+                "endpoints=" + uris +
+                ", maxInFlightPerEndpoint=" + maxInFlightPerEndpoint +
+                ", outlierDetection=" + outlierDetection +
+                '}';
+    }
+
+    /**
+     * One replica of the group with its lock-free in-flight counter and outlier-detection state.
+     */
+    static final class Endpoint {
+        private final URI uri;
+        private final HttpHost httpHost;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+        // Ejection state, written under the group's lock.
+        private volatile long ejectedUntilNanos;
+        private int ejectionCount;
+
+        // Latency moving average, written under this endpoint's lock and read without it.
+        private volatile double latencyEwmaNanos;
+        private volatile int latencySamples;
+
+        private Endpoint(URI uri) {
+            this.uri = uri;
+            this.httpHost = RoutingSupport.normalize(new HttpHost(uri.getScheme(), uri.getHost(), uri.getPort()), DefaultSchemePortResolver.INSTANCE);
+        }
+
+        URI getURI() {
+            return uri;
+        }
+
+        HttpHost getHttpHost() {
+            return httpHost;
+        }
+
+        int getInFlight() {
+            return inFlight.get();
+        }
+
+        void acquire() {
+            inFlight.incrementAndGet();
+        }
+
+        void release() {
+            inFlight.decrementAndGet();
+        }
+
+        boolean isEjected(long now) {
+            long until = ejectedUntilNanos;
+            return until != 0 && now - until < 0;
+        }
+
+        synchronized double recordLatency(long latencyNanos) {
+            double average = latencySamples == 0 ? latencyNanos : latencyEwmaNanos + LATENCY_EWMA_ALPHA * (latencyNanos - latencyEwmaNanos);
+            latencyEwmaNanos = average;
+            if (latencySamples < Integer.MAX_VALUE) {
+                latencySamples++;
+            }
+            return average;
+        }
+
+        synchronized void resetLatency() {
+            latencyEwmaNanos = 0;
+            latencySamples = 0;
+        }
+
+        /**
+         * @param requestUri the URI built by the target
+         * @return {@code requestUri} with scheme, host and port replaced by this endpoint's
+         */
+        URI resolve(URI requestUri) {
+            try {
+                return new URIBuilder(requestUri)
+                        .setScheme(uri.getScheme())
+                        .setHost(uri.getHost())
+                        .setPort(uri.getPort())
+                        .build();
+            } catch (URISyntaxException e) {
+                throw new IllegalArgumentException("URI syntax is incorrect. URI: [" + requestUri + "].", e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return uri.toString();
+        }
+    }
+
+    /**
+     * Builder for {@link EndpointGroup}.
+     */
+    public static final class Builder {
+        private final Set<URI> uris = new LinkedHashSet<>();
+        private int maxInFlightPerEndpoint;
+        private OutlierDetection outlierDetection;
+
+        private Builder() {
+        }
+
+        /**
+         * @param uri endpoint URI, e.g. {@code http://10.0.0.1:8080}. Must not be {@code null}.
+         * @return Builder instance
+         */
+        public Builder addEndpoint(URI uri) {
+            ArgsCheck.notNull(uri, "uri");
+            uris.add(uri);
+            return this;
+        }
+
+        /**
+         * @param uri The string to be parsed into a URI
+         * @return Builder instance
+         * @throws IllegalArgumentException If the given string violates RFC&nbsp;2396
+         */
+        public Builder addEndpoint(String uri) {
+            ArgsCheck.notNull(uri, "uri");
+            return addEndpoint(URI.create(uri));
+        }
+
+        /**
+         * Caps the number of in-flight requests the balancer prefers to send to one endpoint.
+         * When both power-of-two samples are at the cap the balancer scans for any endpoint
+         * below it; if all are saturated the least loaded one is used anyway — the cap steers,
+         * it never rejects. Default is {@code 0} (unbounded).
+         *
+         * @param maxInFlightPerEndpoint cap, {@code <= 0} for unbounded
+         * @return Builder instance
+         */
+        public Builder setMaxInFlightPerEndpoint(int maxInFlightPerEndpoint) {
+            this.maxInFlightPerEndpoint = Math.max(0, maxInFlightPerEndpoint);
+            return this;
+        }
+
+        /**
+         * Enables passive outlier detection and, optionally, active health checking. Disabled by
+         * default: every endpoint stays in rotation regardless of its responses.
+         *
+         * @param outlierDetection outlier detection settings, {@code null} to disable
+         * @return Builder instance
+         */
+        public Builder setOutlierDetection(OutlierDetection outlierDetection) {
+            this.outlierDetection = outlierDetection;
+            return this;
+        }
+
+        /**
+         * @return new EndpointGroup instance
+         * @throws IllegalArgumentException if no endpoint was added or the endpoints differ in more than scheme, host and port
+         */
+        public EndpointGroup build() {
+            return new EndpointGroup(uris, maxInFlightPerEndpoint, outlierDetection);
+        }
+    }
+}
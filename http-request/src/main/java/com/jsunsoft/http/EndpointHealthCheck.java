@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsunsoft.http;
+
+import com.jsunsoft.http.annotations.Beta;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * Active health-check probe of an {@link EndpointGroup} endpoint, run periodically on a
+ * background thread when configured via
+ * {@link OutlierDetection.Builder#setActiveHealthCheck(EndpointHealthCheck, java.time.Duration)}.
+ * <p>
+ * A failed probe counts as a failure of the endpoint, exactly like a failed request. A
+ * successful probe of an ejected endpoint returns it to rotation before its ejection period ends.
+ *
+ * @since 5.0.0
+ */
+@Beta
+@FunctionalInterface
+public interface EndpointHealthCheck {
+
+    /**
+     * @param endpoint endpoint URI as registered in the group
+     * @return {@code true} when the endpoint is healthy
+     * @throws Exception treated as an unhealthy result
+     */
+    boolean isHealthy(URI endpoint) throws Exception;
+
+    /**
+     * Probe that sends {@code GET endpoint + path} and treats any 2xx response as healthy.
+     *
+     * @param httpRequest httpRequest used to send the probe; configure short timeouts on its client. Must not be {@code null}.
+     * @param path        health-check path, e.g. {@code /health}. Must not be {@code null}.
+     * @return EndpointHealthCheck instance
+     */
+    static EndpointHealthCheck httpGet(HttpRequest httpRequest, String path) {
+        ArgsCheck.notNull(httpRequest, "httpRequest");
+        ArgsCheck.notNull(path, "path");
+        return endpoint -> {
+            try (Response response = httpRequest.target(endpoint).path(path).get()) {
+                return HttpRequestUtils.isSuccess(response.getCode());
+            } catch (ResponseException | IOException e) {
+                return false;
+            }
+        };
+    }
+}
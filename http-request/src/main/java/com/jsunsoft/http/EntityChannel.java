@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * {@link ReadableByteChannel} over a response body stream. Closing the channel closes the stream,
+ * which releases the connection.
+ * <p>
+ * Reads into a heap buffer go straight into its backing array; reads into a direct buffer are
+ * staged through one chunk borrowed from {@link BodyBuffers} for the life of the channel.
+ * Any size cap of the entity applies, as the stream is the capped one. Reads and {@link #close()}
+ * are serialized, so the chunk can't go back to the pool while a read still uses it.
+ */
+final class EntityChannel implements ReadableByteChannel {
+    private final InputStream content;
+    private byte[] chunk;
+    private boolean open = true;
+
+    EntityChannel(InputStream content) {
+        this.content = ArgsCheck.notNull(content, "content");
+    }
+
+    @Override
+    public synchronized int read(ByteBuffer dst) throws IOException {
+        if (!open) {
+            throw new ClosedChannelException();
+        }
+        int length = dst.remaining();
+        if (length == 0) {
+            return 0;
+        }
+        int read;
+        if (dst.hasArray()) {
+            read = content.read(dst.array(), dst.arrayOffset() + dst.position(), length);
+            if (read > 0) {
+                dst.position(dst.position() + read);
+            }
+        } else {
+            if (chunk == null) {
+                chunk = BodyBuffers.borrow();
+            }
+            read = content.read(chunk, 0, Math.min(length, chunk.length));
+            if (read > 0) {
+                dst.put(chunk, 0, read);
+            }
+        }
+        return read;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!open) {
+            return;
+        }
+        open = false;
+        try {
+            content.close();
+        } finally {
+            if (chunk != null) {
+                BodyBuffers.release(chunk);
+                chunk = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import org.apache.hc.core5.http.HttpEntity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streams response bodies to an {@link OutputStream}, a {@link WritableByteChannel} or a file
+ * without holding the body in memory.
+ * <p>
+ * Bodies are copied through a {@link #TRANSFER_SIZE} buffer — eight times the buffer of
+ * {@link InputStream#transferTo(OutputStream)} — so a large download takes an eighth of the write
+ * calls. Any size cap of the entity applies, as the copy reads the capped stream.
+ * <p>
+ * A file is written to a temporary sibling and moved over the target only once the whole body was
+ * received, so the target never holds a partial body. When the {@code Content-Length} is known the
+ * free space is checked and the temporary file sized up front, so an obviously full disk fails before
+ * the body is read. Nothing is forced to the device: durability is left to the OS.
+ */
+final class EntityTransfers {
+    static final int TRANSFER_SIZE = 64 * 1024;
+
+    private static final String TEMP_FILE_SUFFIX = ".part";
+
+    private EntityTransfers() {
+    }
+
+    /**
+     * Copies the body to {@code out}. The stream is neither flushed nor closed.
+     *
+     * @return number of bytes copied
+     */
+    static long transferTo(HttpEntity entity, OutputStream out) throws IOException {
+        ArgsCheck.notNull(entity, "entity");
+        ArgsCheck.notNull(out, "out");
+        InputStream content = entity.getContent();
+        if (content == null) {
+            return 0;
+        }
+        try (InputStream in = content) {
+            return transferTo(in, out);
+        }
+    }
+
+    /**
+     * Copies the body to {@code channel}. The channel is not closed.
+     *
+     * @return number of bytes copied
+     */
+    static long transferTo(HttpEntity entity, WritableByteChannel channel) throws IOException {
+        ArgsCheck.notNull(entity, "entity");
+        ArgsCheck.notNull(channel, "channel");
+        InputStream content = entity.getContent();
+        if (content == null) {
+            return 0;
+        }
+        try (InputStream in = content) {
+            return transferTo(in, channel);
+        }
+    }
+
+    /**
+     * Writes the body to {@code target}, replacing it atomically where the file system allows.
+     * On failure the target is left untouched and the temporary file is deleted.
+     *
+     * @return number of bytes written
+     */
+    static long download(HttpEntity entity, Path target) throws IOException {
+        ArgsCheck.notNull(entity, "entity");
+        ArgsCheck.notNull(target, "target");
+        Path temp = createTempSibling(target);
+        try {
+            long written;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                long length = entity.getContentLength();
+                if (length > 0) {
+                    preallocate(channel, temp, length);
+                }
+                InputStream content = entity.getContent();
+                written = 0;
+                if (content != null) {
+                    try (InputStream in = content) {
+                        written = transferTo(in, channel);
+                    }
+                }
+                if (channel.size() != written) {
+                    channel.truncate(written);
+                }
+            }
+            moveOver(temp, target);
+            return written;
+        } catch (IOException | RuntimeException e) {
+            deleteAfterFailure(temp, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Creates an empty temporary file in the directory of {@code target}, so it can later be moved over it atomically.
+     */
+    static Path createTempSibling(Path target) throws IOException {
+        Path absoluteTarget = target.toAbsolutePath();
+        return Files.createTempFile(absoluteTarget.getParent(), "." + absoluteTarget.getFileName(), TEMP_FILE_SUFFIX);
+    }
+
+    /**
+     * Best-effort free space check, then sizes {@code file} to {@code length} by writing its last byte;
+     * the body overwrites it. The file is sparse until written, so no blocks are reserved, and space
+     * taken by other writers after the check can still fail a later write.
+     *
+     * @throws IOException if the file system has less than {@code length} bytes of usable space
+     */
+    static void preallocate(FileChannel channel, Path file, long length) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        long usableSpace = Files.getFileStore(directory).getUsableSpace();
+        if (usableSpace < length) {
+            throw new IOException("Not enough usable space in [" + directory + "] to store " + length + " bytes, only " + usableSpace + " bytes available");
+        }
+        ByteBuffer lastByte = ByteBuffer.allocate(1);
+        while (lastByte.hasRemaining()) {
+            channel.write(lastByte, length - 1);
+        }
+    }
+
+    /**
+     * Moves {@code source} over {@code target}, atomically where the file system allows.
+     */
+    static void moveOver(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    static void deleteAfterFailure(Path temp, Exception failure) {
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    static long transferTo(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[TRANSFER_SIZE];
+        long transferred = 0;
+        int read;
+        while ((read = in.read(buffer)) >= 0) {
+            out.write(buffer, 0, read);
+            transferred += read;
+        }
+        return transferred;
+    }
+
+    /**
+     * Copies {@code in} to {@code channel} starting at {@code position}, with positional writes that leave
+     * the channel position alone, so several copies can write to the same channel concurrently.
+     *
+     * @return number of bytes copied
+     */
+    static long transferTo(InputStream in, FileChannel channel, long position) throws IOException {
+        byte[] buffer = new byte[TRANSFER_SIZE];
+        ByteBuffer wrapped = ByteBuffer.wrap(buffer);
+        long transferred = 0;
+        int read;
+        while ((read = in.read(buffer)) >= 0) {
+            wrapped.clear().limit(read);
+            while (wrapped.hasRemaining()) {
+                channel.write(wrapped, position + transferred + wrapped.position());
+            }
+            transferred += read;
+        }
+        return transferred;
+    }
+
+    private static long transferTo(InputStream in, WritableByteChannel channel) throws IOException {
+        byte[] buffer = new byte[TRANSFER_SIZE];
+        ByteBuffer wrapped = ByteBuffer.wrap(buffer);
+        long transferred = 0;
+        int read;
+        while ((read = in.read(buffer)) >= 0) {
+            wrapped.clear().limit(read);
+            while (wrapped.hasRemaining()) {
+                channel.write(wrapped);
+            }
+            transferred += read;
+        }
+        return transferred;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.http.message.BasicClassicHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Body of a non-successful response, read up to the error body capture limit of the
+ * {@link ResponseBodyReaderConfig}.
+ * <p>
+ * Error bodies are mostly just logged, and some upstreams answer with multi-megabyte error pages
+ * exactly when they are overloaded. Only the first {@code maxBytes} are read; the rest is left to
+ * {@link BasicResponse#close()}, which drains or discards it within the drain budget. The captured
+ * bytes are kept so the body can still be read into an error type through the reader chain, see
+ * {@link ResponseHandler#getError(Class)}. Only the bytes: the text is decoded when asked for, and the
+ * status line and headers are those of the response handler.
+ */
+final class ErrorBody {
+    private final byte[] bytes;
+    private final int length;
+    private final boolean truncated;
+    private final Charset charset;
+    private final ResponseBodyReaderConfig responseBodyReaderConfig;
+
+    private ErrorBody(byte[] bytes, int length, boolean truncated, Charset charset, ResponseBodyReaderConfig responseBodyReaderConfig) {
+        this.bytes = bytes;
+        this.length = length;
+        this.truncated = truncated;
+        this.charset = charset;
+        this.responseBodyReaderConfig = responseBodyReaderConfig;
+    }
+
+    /**
+     * Reads the body of {@code response}, at most {@link ResponseBodyReaderConfig#getMaxErrorBodyBytes()} of it.
+     *
+     * @return the captured body, or {@code null} if the response has no content stream
+     */
+    static ErrorBody capture(Response response, ResponseBodyReaderConfig responseBodyReaderConfig) throws IOException {
+        HttpEntity entity = ArgsCheck.notNull(response.getEntity(), "entity");
+        Charset charset = BodyBuffers.charsetOf(entity, responseBodyReaderConfig.getDefaultResponseCharset());
+        int maxBytes = responseBodyReaderConfig.getMaxErrorBodyBytes();
+        if (maxBytes <= 0) {
+            byte[] body = BodyBuffers.toByteArray(entity);
+            return body == null ? null : new ErrorBody(body, body.length, false, charset, responseBodyReaderConfig);
+        }
+
+        InputStream content = entity.getContent();
+        if (content == null) {
+            return null;
+        }
+        try (InputStream in = content) {
+            long contentLength = entity.getContentLength();
+            byte[] body = new byte[contentLength >= 0 && contentLength < maxBytes ? (int) contentLength : maxBytes];
+            int length = in.readNBytes(body, 0, body.length);
+            boolean truncated = contentLength >= 0 ? contentLength > length : length == maxBytes && in.read() >= 0;
+            return new ErrorBody(body, length, truncated, charset, responseBodyReaderConfig);
+        }
+    }
+
+    /**
+     * @return the body decoded with the charset of its {@code Content-Type}, marked when truncated. Decoded on each call.
+     */
+    String getText() {
+        return truncated
+                ? decodePrefix(bytes, length, charset) + "... (truncated to " + bytes.length + " bytes)"
+                : new String(bytes, 0, length, charset);
+    }
+
+    boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * Reads the captured body through the reader chain, as {@link Response#readEntity(TypeReference)}
+     * would have read the whole body. The response itself may be closed.
+     *
+     * @param statusCode  status code of the response
+     * @param headers     headers of the response
+     * @param contentType content type of the body, may be {@code null}
+     * @param uri         URI of the response
+     * @throws ResponseBodyProcessingException if the body was truncated or cannot be read as {@code errorType}
+     */
+    <E> E read(TypeReference<E> errorType, int statusCode, Header[] headers, ContentType contentType, URI uri) {
+        if (truncated) {
+            throw new ResponseBodyProcessingException("Error body exceeds the capture limit of " + bytes.length
+                    + " bytes. Cannot deserialize response to: [" + errorType + "].");
+        }
+        BasicClassicHttpResponse errorResponse = new BasicClassicHttpResponse(statusCode);
+        errorResponse.setHeaders(headers);
+        errorResponse.setEntity(new ByteArrayEntity(bytes, 0, length, contentType));
+        return new BasicResponse(errorResponse, responseBodyReaderConfig, uri).readEntity(errorType);
+    }
+
+    /**
+     * Decodes {@code length} bytes, dropping a character the cut split rather than replacing it.
+     */
+    private static String decodePrefix(byte[] bytes, int length, Charset charset) {
+        CharsetDecoder decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CharBuffer chars = CharBuffer.allocate((int) Math.ceil(length * (double) decoder.maxCharsPerByte()));
+        // Not the end of input: an incomplete trailing sequence is left undecoded.
+        decoder.decode(ByteBuffer.wrap(bytes, 0, length), chars, false);
+        return chars.flip().toString();
+    }
+}
@@ -88,6 +88,22 @@ class HostPoolConfig {
         return this;
     }
 
+    /**
+     * Set the max size of concurrent connections for every endpoint of the group. Pair it with
+     * {@link EndpointGroup.Builder#setMaxInFlightPerEndpoint(int)} so the balancer steers away from
+     * an endpoint whose route pool is exhausted.
+     *
+     * @param endpointGroup    endpointGroup
+     * @param maxRoutePoolSize maxRoutePoolSize
+     *
+     * @return HostPoolConfig
+     */
+    public HostPoolConfig setMaxPoolSizePerRoute(EndpointGroup endpointGroup, int maxRoutePoolSize) {
+        ArgsCheck.notNull(endpointGroup, "endpointGroup");
+        endpointGroup.getHttpHosts().forEach(httpHost -> setMaxPoolSizePerRoute(httpHost, maxRoutePoolSize));
+        return this;
+    }
+
     public static HostPoolConfig create() {
         return new HostPoolConfig();
     }
@@ -0,0 +1,619 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsunsoft.http;
+
+import com.jsunsoft.http.annotations.Beta;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.URIScheme;
+import org.apache.hc.core5.http.message.MessageSupport;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Client-side HTTP response cache following RFC 9111, installed with
+ * {@link HttpRequestBuilder#setHttpCache(HttpCache)}.
+ * <p>
+ * {@code GET} responses are stored when their headers allow it ({@code Cache-Control},
+ * {@code Expires}, or a validator). A stored response is served without contacting the server while
+ * it is fresh; once stale it is revalidated with a conditional request built from its {@code ETag}
+ * ({@code If-None-Match}) and {@code Last-Modified} ({@code If-Modified-Since}), and a
+ * {@code 304 Not Modified} is answered from the cache with the refreshed headers. Responses without
+ * explicit expiration get a heuristic lifetime of a fraction of the time since {@code Last-Modified}.
+ * <p>
+ * Request directives {@code no-cache}, {@code no-store}, {@code max-age}, {@code min-fresh},
+ * {@code max-stale} and {@code only-if-cached} are honored, as is {@code Pragma: no-cache}. A
+ * successful unsafe request ({@code POST}, {@code PUT}, {@code DELETE}, ...) invalidates the entry
+ * of its URI. Requests carrying their own conditional or {@code Range} headers bypass the cache.
+ * <p>
+ * Entries are keyed by the normalized URI and matched against the request headers nominated by
+ * {@code Vary}; one variant per URI is kept, so a request with different values replaces it.
+ * Bodies are buffered up to {@link Builder#setMaxObjectSize(long)}; larger responses stream through
+ * unchanged. The store evicts the (approximately) least recently used entries beyond {@link Builder#setMaxTotalSize(long)}.
+ * <p>
+ * Stale responses are served when the origin allows it (RFC 5861). Within the
+ * {@code stale-while-revalidate} window a stale entry is served immediately and refreshed in the
+ * background, by at most {@link Builder#setMaxBackgroundRefreshes(int)} threads and once per entry
+ * however many requests hit it meanwhile. Within the {@code stale-if-error} window (of the response
+ * or the request) a stale entry is served when the origin can't be reached or answers with
+ * {@code 500}, {@code 502}, {@code 503} or {@code 504}. Such responses are flagged by
+ * {@link ResponseHandler#isStale()}. Neither applies to {@code must-revalidate} or {@code no-cache}
+ * responses.
+ * <p>
+ * With {@link Builder#setDiskStorage(Path)} entries are also written to segment files of a directory,
+ * bounded by {@link Builder#setMaxDiskSize(long)}, for working sets larger than the heap. Entries
+ * evicted from memory are then served from disk, their bodies streamed from memory-mapped files,
+ * and a new cache on the same directory starts with the entries of the previous one. A disk cache
+ * must be {@linkplain #close() closed} to release the directory.
+ * <p>
+ * Deserialized bodies can be cached too: for the types declared with
+ * {@link Builder#addImmutableResultType(Class)}, reading a cached body as the same type again (e.g. on
+ * every hit of a large JSON document) returns the result of the first read instead of parsing the
+ * bytes once more. Results are keyed by the URI, the {@code Vary}-nominated request headers, the
+ * strong {@code ETag} of the body (or the body instance when it has none) and the target type, and
+ * are evicted least recently used first, each weighing the size of its body. As the same instance
+ * is handed to every caller, only declare types whose instances are never modified.
+ * <p>
+ * The cache is private (a single user's cache) by default. One instance can be shared by several
+ * {@link com.jsunsoft.http.HttpRequest}s and is thread-safe.
+ *
+ * <pre>{@code
+ * HttpCache cache = HttpCache.builder()
+ *         .setMaxTotalSize(64 * 1024 * 1024)
+ *         .setMaxObjectSize(4 * 1024 * 1024)
+ *         .build();
+ *
+ * HttpRequest httpRequest = HttpRequestBuilder.create(httpClient)
+ *         .setHttpCache(cache)
+ *         .build();
+ * }</pre>
+ *
+ * @since 5.0.0
+ */
+@Beta
+public final class HttpCache implements Closeable {
+    /**
+     * Status codes cacheable without explicit freshness (RFC 9110 §15.1). {@code 206} is left out
+     * as range requests are not cached.
+     */
+    private static final Set<Integer> HEURISTICALLY_CACHEABLE = Set.of(200, 203, 204, 300, 301, 308, 404, 405, 410, 414, 501);
+
+    private final long maxTotalSize;
+    private final long maxObjectSize;
+    private final boolean sharedCache;
+    private final double heuristicCoefficient;
+    private final HttpCacheStorage storage;
+    private final Set<Type> immutableResultTypes;
+    private final ResultCache resultCache;
+    private final int maxBackgroundRefreshes;
+    private final ThreadPoolExecutor refreshExecutor;
+    private final Set<String> refreshingKeys = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder revalidationCount = new LongAdder();
+    private final LongAdder revalidationHitCount = new LongAdder();
+    private final LongAdder resultHitCount = new LongAdder();
+    private final LongAdder staleWhileRevalidateCount = new LongAdder();
+    private final LongAdder staleIfErrorCount = new LongAdder();
+
+    private HttpCache(Builder builder, HttpCacheStorage diskStorage) {
+        this.maxTotalSize = builder.maxTotalSize;
+        this.maxObjectSize = builder.maxObjectSize > 0 ? builder.maxObjectSize : Math.min(8L * 1024 * 1024, maxTotalSize);
+        this.sharedCache = builder.sharedCache;
+        this.heuristicCoefficient = builder.heuristicCoefficient;
+        this.storage = diskStorage != null
+                ? new TieredHttpCacheStorage(new MemoryHttpCacheStorage(maxTotalSize), diskStorage)
+                : new MemoryHttpCacheStorage(maxTotalSize);
+        this.immutableResultTypes = Set.copyOf(builder.immutableResultTypes);
+        this.resultCache = immutableResultTypes.isEmpty() ? null
+                : new ResultCache(builder.maxResultCacheSize > 0 ? builder.maxResultCacheSize : maxTotalSize);
+        this.maxBackgroundRefreshes = builder.maxBackgroundRefreshes;
+        // Threads are started on demand and time out when idle; a full queue rejects, see refreshInBackground.
+        this.refreshExecutor = new ThreadPoolExecutor(maxBackgroundRefreshes, maxBackgroundRefreshes, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(maxBackgroundRefreshes * 16), runnable -> {
+            Thread thread = new Thread(runnable, "http-request-cache-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.refreshExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * @return new Builder instance
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return snapshot of the cache counters
+     */
+    public HttpCacheStatistics getStatistics() {
+        return new HttpCacheStatistics(hitCount.sum(), missCount.sum(), revalidationCount.sum(), revalidationHitCount.sum(),
+                storage.getEvictionCount(), storage.getEntryCount(), storage.getTotalWeight(),
+                resultHitCount.sum(), resultCache != null ? resultCache.size() : 0,
+                staleWhileRevalidateCount.sum(), staleIfErrorCount.sum());
+    }
+
+    /**
+     * Removes the entry stored for {@code uri} and its deserialized results, if any.
+     *
+     * @param uri absolute URI. Must not be {@code null}.
+     */
+    public void invalidate(URI uri) {
+        ArgsCheck.notNull(uri, "uri");
+        String key = keyOf(uri);
+        storage.remove(key);
+        if (resultCache != null) {
+            resultCache.removeAll(key);
+        }
+    }
+
+    /**
+     * Removes all entries and deserialized results. Counters are kept.
+     */
+    public void clear() {
+        storage.clear();
+        if (resultCache != null) {
+            resultCache.clear();
+        }
+    }
+
+    /**
+     * Stops pending background refreshes and closes the disk storage, if any, so the next cache on
+     * its directory loads quickly. Entries are no longer served afterwards. Idempotent.
+     */
+    @Override
+    public void close() {
+        refreshExecutor.shutdownNow();
+        storage.close();
+    }
+
+    /**
+     * @return the entry stored under {@code key} if it was stored for a request with the same
+     * values of the {@code Vary}-nominated headers as {@code request}, otherwise {@code null}
+     */
+    CacheEntry lookup(String key, HttpRequest request) {
+        CacheEntry entry = storage.get(key);
+        return entry != null && entry.matches(request) ? entry : null;
+    }
+
+    void store(String key, CacheEntry entry) {
+        storage.put(key, entry);
+    }
+
+    void remove(String key) {
+        storage.remove(key);
+    }
+
+    /**
+     * RFC 9111 §3: whether the response to {@code request} may be stored, and is worth storing
+     * because it can either be served fresh or be revalidated.
+     */
+    boolean isStorable(HttpRequest request, HttpResponse response) {
+        CacheControl responseCacheControl = CacheControl.parse(response);
+        if (CacheControl.parse(request).isNoStore() || responseCacheControl.isNoStore()) {
+            return false;
+        }
+        if (sharedCache && responseCacheControl.isPrivate()) {
+            return false;
+        }
+        if (sharedCache && request.containsHeader(HttpHeaders.AUTHORIZATION)
+                && !(responseCacheControl.isPublic() || responseCacheControl.getSharedMaxAge() >= 0 || responseCacheControl.isMustRevalidate())) {
+            return false;
+        }
+        if (hasToken(response, HttpHeaders.VARY, "*")) {
+            return false;
+        }
+
+        boolean explicitlyCacheable = responseCacheControl.getMaxAge() >= 0
+                || (sharedCache && responseCacheControl.getSharedMaxAge() >= 0)
+                || response.containsHeader(HttpHeaders.EXPIRES)
+                || responseCacheControl.isPublic()
+                || (!sharedCache && responseCacheControl.isPrivate());
+
+        int code = response.getCode();
+        boolean cacheableCode = HEURISTICALLY_CACHEABLE.contains(code)
+                || (explicitlyCacheable && code >= HttpStatus.SC_OK && code != HttpStatus.SC_PARTIAL_CONTENT && code != HttpStatus.SC_NOT_MODIFIED);
+
+        return cacheableCode && (explicitlyCacheable || response.containsHeader(HttpHeaders.ETAG) || response.containsHeader(HttpHeaders.LAST_MODIFIED));
+    }
+
+    /**
+     * RFC 9111 §4.2: whether {@code entry} may be served without validation.
+     */
+    boolean isFresh(CacheEntry entry, long nowMillis, CacheControl requestCacheControl) {
+        CacheControl responseCacheControl = entry.getCacheControl();
+        if (requestCacheControl.isNoCache() || responseCacheControl.isNoCache()) {
+            return false;
+        }
+
+        long age = entry.getCurrentAgeMillis(nowMillis);
+        long lifetime = getFreshnessLifetimeMillis(entry);
+        if (requestCacheControl.getMaxAge() >= 0 && age > TimeUnit.SECONDS.toMillis(requestCacheControl.getMaxAge())) {
+            return false;
+        }
+        if (requestCacheControl.getMinFresh() >= 0 && lifetime - age < TimeUnit.SECONDS.toMillis(requestCacheControl.getMinFresh())) {
+            return false;
+        }
+        if (lifetime > age) {
+            return true;
+        }
+        return !mustRevalidate(entry) && requestCacheControl.getMaxStale() >= 0
+                && age - lifetime <= TimeUnit.SECONDS.toMillis(requestCacheControl.getMaxStale());
+    }
+
+    /**
+     * RFC 5861 §3: whether the stale {@code entry} may be served while it is refreshed in the background.
+     * Requests asking for a minimum freshness are validated synchronously.
+     */
+    boolean isStaleWhileRevalidate(CacheEntry entry, long nowMillis, CacheControl requestCacheControl) {
+        long window = entry.getCacheControl().getStaleWhileRevalidate();
+        if (window < 0 || requestCacheControl.isNoCache() || requestCacheControl.getMaxAge() >= 0 || requestCacheControl.getMinFresh() >= 0) {
+            return false;
+        }
+        return isStaleWithin(entry, nowMillis, window);
+    }
+
+    /**
+     * RFC 5861 §4: whether the stale {@code entry} may be served instead of an error. Both the
+     * response and the request may allow it.
+     */
+    boolean isStaleIfError(CacheEntry entry, long nowMillis, CacheControl requestCacheControl) {
+        long window = Math.max(entry.getCacheControl().getStaleIfError(), requestCacheControl.getStaleIfError());
+        return window >= 0 && isStaleWithin(entry, nowMillis, window);
+    }
+
+    private boolean isStaleWithin(CacheEntry entry, long nowMillis, long windowSeconds) {
+        if (entry.getCacheControl().isNoCache() || mustRevalidate(entry)) {
+            return false;
+        }
+        long staleness = entry.getCurrentAgeMillis(nowMillis) - getFreshnessLifetimeMillis(entry);
+        return staleness <= TimeUnit.SECONDS.toMillis(windowSeconds);
+    }
+
+    /**
+     * Runs {@code refresh} of the entry under {@code key} on the refresh executor, unless a refresh
+     * of it is already pending.
+     *
+     * @return {@code false} if the executor is saturated and the caller should validate itself
+     */
+    boolean refreshInBackground(String key, Runnable refresh) {
+        if (!refreshingKeys.add(key)) {
+            return true;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    refresh.run();
+                } finally {
+                    refreshingKeys.remove(key);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            refreshingKeys.remove(key);
+            return false;
+        }
+    }
+
+    long getFreshnessLifetimeMillis(CacheEntry entry) {
+        return entry.getFreshnessLifetimeMillis(sharedCache, heuristicCoefficient);
+    }
+
+    /**
+     * @return whether a stale {@code entry} must not be served without successful validation
+     */
+    boolean mustRevalidate(CacheEntry entry) {
+        CacheControl cacheControl = entry.getCacheControl();
+        return cacheControl.isMustRevalidate()
+                || (sharedCache && (cacheControl.isProxyRevalidate() || cacheControl.getSharedMaxAge() >= 0));
+    }
+
+    boolean isImmutableResultType(Type type) {
+        return resultCache != null && immutableResultTypes.contains(type);
+    }
+
+    /**
+     * @return the result of an earlier read of the body of {@code entry} as {@code type}, or {@code null}
+     */
+    Object lookupResult(String key, CacheEntry entry, Type type, Object readerScope) {
+        Object result = resultCache.get(resultKey(key, entry, type, readerScope));
+        if (result != null) {
+            resultHitCount.increment();
+        }
+        return result;
+    }
+
+    void storeResult(String key, CacheEntry entry, Type type, Object readerScope, Object result) {
+        resultCache.put(resultKey(key, entry, type, readerScope), result, entry.getBodyLength());
+    }
+
+    private static ResultCache.Key resultKey(String key, CacheEntry entry, Type type, Object readerScope) {
+        return new ResultCache.Key(key, entry.getVaryValues(), entry.getContentVersion(), type, readerScope);
+    }
+
+    long getMaxObjectSize() {
+        return maxObjectSize;
+    }
+
+    void recordHit() {
+        hitCount.increment();
+    }
+
+    void recordMiss() {
+        missCount.increment();
+    }
+
+    void recordRevalidation() {
+        revalidationCount.increment();
+    }
+
+    void recordRevalidationHit() {
+        revalidationHitCount.increment();
+    }
+
+    void recordStaleWhileRevalidate() {
+        staleWhileRevalidateCount.increment();
+    }
+
+    void recordStaleIfError() {
+        staleIfErrorCount.increment();
+    }
+
+    static boolean isHeuristicallyCacheable(int code) {
+        return HEURISTICALLY_CACHEABLE.contains(code);
+    }
+
+    /**
+     * @return cache key of the request: its absolute URI with lower-case scheme and host, an
+     * explicit port and a non-empty path, or {@code null} if the URI can't be determined
+     */
+    static String keyOf(HttpHost target, HttpRequest request) {
+        try {
+            URI uri = request.getUri();
+            if (uri.getHost() == null && target != null) {
+                uri = new URI(target.toURI() + request.getRequestUri());
+            }
+            return uri.getHost() != null ? keyOf(uri) : null;
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    static String keyOf(URI uri) {
+        String scheme = uri.getScheme() != null ? uri.getScheme().toLowerCase(Locale.ROOT) : URIScheme.HTTP.id;
+        int port = uri.getPort() >= 0 ? uri.getPort() : URIScheme.HTTPS.same(scheme) ? 443 : 80;
+        String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+        String query = uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "";
+        return scheme + "://" + uri.getHost().toLowerCase(Locale.ROOT) + ":" + port + path + query;
+    }
+
+    private static boolean hasToken(HttpResponse response, String headerName, String token) {
+        Iterator<String> it = MessageSupport.iterateTokens(response, headerName);
+        while (it.hasNext()) {
+            if (token.equals(it.next())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "HttpCache{" +
+                "maxTotalSize=" + maxTotalSize +
+                ", maxObjectSize=" + maxObjectSize +
+                ", sharedCache=" + sharedCache +
+                ", heuristicCoefficient=" + heuristicCoefficient +
+                ", maxBackgroundRefreshes=" + maxBackgroundRefreshes +
+                ", storage=" + storage.getClass().getSimpleName() +
+                ", immutableResultTypes=" + immutableResultTypes +
+                '}';
+    }
+
+    /**
+     * Builder for {@link HttpCache}.
+     */
+    public static final class Builder {
+        private long maxTotalSize = 64L * 1024 * 1024;
+        private long maxObjectSize;
+        private boolean sharedCache;
+        private double heuristicCoefficient = 0.1;
+        private final Set<Type> immutableResultTypes = new HashSet<>();
+        private long maxResultCacheSize;
+        private Path diskDirectory;
+        private long maxDiskSize = 1024L * 1024 * 1024;
+        private int maxBackgroundRefreshes = 2;
+
+        private Builder() {
+        }
+
+        /**
+         * @param maxTotalSize approximate bound of all stored entries in bytes, least recently used
+         *                     entries are evicted beyond it. Must be positive. Default is 64 MiB.
+         * @return Builder instance
+         */
+        public Builder setMaxTotalSize(long maxTotalSize) {
+            if (maxTotalSize <= 0) {
+                throw new IllegalArgumentException("maxTotalSize must be positive, got " + maxTotalSize);
+            }
+            this.maxTotalSize = maxTotalSize;
+            return this;
+        }
+
+        /**
+         * @param maxObjectSize largest response body in bytes that is stored; larger ones are
+         *                      streamed to the caller without caching. Must be positive and not
+         *                      greater than the total size. Default is 8 MiB, or the total size if smaller.
+         * @return Builder instance
+         */
+        public Builder setMaxObjectSize(long maxObjectSize) {
+            if (maxObjectSize <= 0) {
+                throw new IllegalArgumentException("maxObjectSize must be positive, got " + maxObjectSize);
+            }
+            this.maxObjectSize = maxObjectSize;
+            return this;
+        }
+
+        /**
+         * @param sharedCache {@code true} to behave as a shared cache: {@code s-maxage} and
+         *                    {@code proxy-revalidate} apply, and {@code private} responses or
+         *                    responses to requests with {@code Authorization} are not stored unless
+         *                    explicitly allowed. Default is {@code false} (private cache).
+         * @return Builder instance
+         */
+        public Builder setSharedCache(boolean sharedCache) {
+            this.sharedCache = sharedCache;
+            return this;
+        }
+
+        /**
+         * @param heuristicCoefficient fraction of the time since {@code Last-Modified} used as the
+         *                             freshness lifetime of responses without explicit expiration,
+         *                             {@code 0..1}; {@code 0} disables heuristic freshness. Default is {@code 0.1}.
+         * @return Builder instance
+         */
+        public Builder setHeuristicCoefficient(double heuristicCoefficient) {
+            if (heuristicCoefficient < 0 || heuristicCoefficient > 1) {
+                throw new IllegalArgumentException("heuristicCoefficient must be in range 0..1, got " + heuristicCoefficient);
+            }
+            this.heuristicCoefficient = heuristicCoefficient;
+            return this;
+        }
+
+        /**
+         * @param maxBackgroundRefreshes number of threads refreshing {@code stale-while-revalidate}
+         *                               entries in the background. When they and their queue are
+         *                               busy, the stale entry is validated by the caller instead.
+         *                               Must be positive. Default is {@code 2}.
+         * @return Builder instance
+         */
+        public Builder setMaxBackgroundRefreshes(int maxBackgroundRefreshes) {
+            if (maxBackgroundRefreshes <= 0) {
+                throw new IllegalArgumentException("maxBackgroundRefreshes must be positive, got " + maxBackgroundRefreshes);
+            }
+            this.maxBackgroundRefreshes = maxBackgroundRefreshes;
+            return this;
+        }
+
+        /**
+         * Adds a disk tier: entries are also stored in segment files of {@code directory}, and served
+         * from there when they no longer fit in memory. A cache built on a directory used before
+         * starts with its entries. The directory can be used by one cache at a time.
+         *
+         * @param directory directory of the segment files, created if missing. Must not be {@code null}.
+         * @return Builder instance
+         */
+        public Builder setDiskStorage(Path directory) {
+            this.diskDirectory = ArgsCheck.notNull(directory, "directory");
+            return this;
+        }
+
+        /**
+         * @param maxDiskSize approximate bound of the entries stored on disk in bytes, least recently
+         *                    used entries are evicted beyond it. Must be positive. Default is 1 GiB.
+         *                    The files can temporarily take up to half as much again before being compacted.
+         * @return Builder instance
+         */
+        public Builder setMaxDiskSize(long maxDiskSize) {
+            if (maxDiskSize <= 0) {
+                throw new IllegalArgumentException("maxDiskSize must be positive, got " + maxDiskSize);
+            }
+            this.maxDiskSize = maxDiskSize;
+            return this;
+        }
+
+        /**
+         * Declares that instances of {@code resultType} are never modified once deserialized, which
+         * enables caching them: reading a cached body as {@code resultType} again returns the same instance.
+         *
+         * @param resultType immutable type responses are read as. Must not be {@code null}.
+         * @return Builder instance
+         */
+        public Builder addImmutableResultType(Class<?> resultType) {
+            ArgsCheck.notNull(resultType, "resultType");
+            immutableResultTypes.add(resultType);
+            return this;
+        }
+
+        /**
+         * Generic variant of {@link #addImmutableResultType(Class)}, e.g. for
+         * {@code new TypeReference<List<Product>>() {}} when the list is unmodifiable as well.
+         *
+         * @param resultType immutable type responses are read as. Must not be {@code null}.
+         * @return Builder instance
+         */
+        public Builder addImmutableResultType(TypeReference<?> resultType) {
+            ArgsCheck.notNull(resultType, "resultType");
+            immutableResultTypes.add(resultType.getType());
+            return this;
+        }
+
+        /**
+         * @param maxResultCacheSize bound of the deserialized results, measured as the total size in
+         *                           bytes of the bodies they were read from. Must be positive.
+         *                           Default is the {@linkplain #setMaxTotalSize(long) total size}.
+         * @return Builder instance
+         */
+        public Builder setMaxResultCacheSize(long maxResultCacheSize) {
+            if (maxResultCacheSize <= 0) {
+                throw new IllegalArgumentException("maxResultCacheSize must be positive, got " + maxResultCacheSize);
+            }
+            this.maxResultCacheSize = maxResultCacheSize;
+            return this;
+        }
+
+        /**
+         * @return new HttpCache instance
+         * @throws HttpRequestBuildException if the disk storage directory can't be opened or is used by another cache
+         */
+        public HttpCache build() {
+            if (maxObjectSize > 0 && maxObjectSize > maxTotalSize) {
+                throw new IllegalArgumentException("maxObjectSize (" + maxObjectSize + ") must not be greater than maxTotalSize (" + maxTotalSize + ")");
+            }
+            DiskHttpCacheStorage diskStorage = null;
+            if (diskDirectory != null) {
+                try {
+                    diskStorage = new DiskHttpCacheStorage(diskDirectory, maxDiskSize, DiskHttpCacheStorage.DEFAULT_SEGMENT_SIZE);
+                } catch (IOException e) {
+                    throw new HttpRequestBuildException(e);
+                }
+            }
+            return new HttpCache(this, diskStorage);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsunsoft.http;
+
+import com.jsunsoft.http.annotations.Beta;
+
+/**
+ * Point-in-time snapshot of the counters of an {@link HttpCache}.
+ *
+ * @see HttpCache#getStatistics()
+ * @since 5.0.0
+ */
+@Beta
+public final class HttpCacheStatistics {
+    private final long hitCount;
+    private final long missCount;
+    private final long revalidationCount;
+    private final long revalidationHitCount;
+    private final long evictionCount;
+    private final long entryCount;
+    private final long totalSize;
+    private final long resultHitCount;
+    private final long resultCount;
+    private final long staleWhileRevalidateCount;
+    private final long staleIfErrorCount;
+
+    HttpCacheStatistics(long hitCount, long missCount, long revalidationCount, long revalidationHitCount, long evictionCount, long entryCount, long totalSize,
+                        long resultHitCount, long resultCount, long staleWhileRevalidateCount, long staleIfErrorCount) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.revalidationCount = revalidationCount;
+        this.revalidationHitCount = revalidationHitCount;
+        this.evictionCount = evictionCount;
+        this.entryCount = entryCount;
+        this.totalSize = totalSize;
+        this.resultHitCount = resultHitCount;
+        this.resultCount = resultCount;
+        this.staleWhileRevalidateCount = staleWhileRevalidateCount;
+        this.staleIfErrorCount = staleIfErrorCount;
+    }
+
+    /**
+     * @return requests answered from the cache without contacting the server
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return cacheable requests sent to the server because no usable entry was stored
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return conditional requests sent to the server to validate a stored entry
+     */
+    public long getRevalidationCount() {
+        return revalidationCount;
+    }
+
+    /**
+     * @return revalidations answered with {@code 304 Not Modified}, i.e. served from the cache
+     * without transferring the body again
+     */
+    public long getRevalidationHitCount() {
+        return revalidationHitCount;
+    }
+
+    /**
+     * @return entries evicted to stay within the size bound
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return number of stored entries
+     */
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * @return approximate size of the stored entries in bytes
+     */
+    public long getTotalSize() {
+        return totalSize;
+    }
+
+    /**
+     * @return reads of a cached body answered with an already deserialized result
+     * @see HttpCache.Builder#addImmutableResultType(Class)
+     */
+    public long getResultHitCount() {
+        return resultHitCount;
+    }
+
+    /**
+     * @return number of stored deserialized results
+     */
+    public long getResultCount() {
+        return resultCount;
+    }
+
+    /**
+     * @return stale responses served while being refreshed in the background ({@code stale-while-revalidate})
+     */
+    public long getStaleWhileRevalidateCount() {
+        return staleWhileRevalidateCount;
+    }
+
+    /**
+     * @return stale responses served because the origin failed ({@code stale-if-error})
+     */
+    public long getStaleIfErrorCount() {
+        return staleIfErrorCount;
+    }
+
+    /**
+     * @return share of cacheable requests whose body came from the cache (hits, {@code 304}
+     * revalidations and stale responses), {@code 0} when there were none
+     */
+    public double getHitRatio() {
+        long served = hitCount + revalidationHitCount + staleWhileRevalidateCount + staleIfErrorCount;
+        long total = hitCount + missCount + revalidationCount + staleWhileRevalidateCount;
+        return total == 0 ? 0 : (double) served / total;
+    }
+
+    @Override
+    public String toString() {
+        return "HttpCacheStatistics{" +
+                "hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                ", revalidationCount=" + revalidationCount +
+                ", revalidationHitCount=" + revalidationHitCount +
+                ", evictionCount=" + evictionCount +
+                ", entryCount=" + entryCount +
+                ", totalSize=" + totalSize +
+                ", resultHitCount=" + resultHitCount +
+                ", resultCount=" + resultCount +
+                ", staleWhileRevalidateCount=" + staleWhileRevalidateCount +
+                ", staleIfErrorCount=" + staleIfErrorCount +
+                '}';
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsunsoft.http;
+
+import java.io.Closeable;
+
+/**
+ * Storage of {@link CacheEntry cache entries} keyed by the normalized request URI. Implementations
+ * bound their own size and must be thread-safe.
+ */
+interface HttpCacheStorage extends Closeable {
+
+    /**
+     * @return the entry stored under {@code key}, or {@code null}
+     */
+    CacheEntry get(String key);
+
+    /**
+     * Stores {@code entry}, replacing any entry stored under {@code key}. May evict other entries.
+     */
+    void put(String key, CacheEntry entry);
+
+    void remove(String key);
+
+    void clear();
+
+    long getEntryCount();
+
+    /**
+     * @return sum of the {@linkplain CacheEntry#getWeight() weights} of the stored entries
+     */
+    long getTotalWeight();
+
+    /**
+     * @return number of entries evicted to respect the size bound
+     */
+    long getEvictionCount();
+
+    /**
+     * Releases the resources held by the storage, e.g. open files. Entries are no longer served afterwards.
+     */
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.io.CloseMode;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Base of the clients {@link HttpRequestBuilder} stacks on the caller's {@link CloseableHttpClient}.
+ * Subclasses implement {@code executeOpen}.
+ * <p>
+ * Each decorator is installed only when configured. From the outermost to the innermost the stack is:
+ * <ol>
+ *     <li>{@link ListeningHttpClient}</li>
+ *     <li>{@link MeteredHttpClient}</li>
+ *     <li>{@link CachingHttpClient}</li>
+ *     <li>the caller's client</li>
+ * </ol>
+ * <p>
+ * Closing a decorator does not close the decorated client: the caller owns it.
+ */
+abstract class HttpClientDecorator extends CloseableHttpClient {
+    final CloseableHttpClient backend;
+
+    HttpClientDecorator(CloseableHttpClient backend) {
+        this.backend = ArgsCheck.notNull(backend, "backend");
+    }
+
+    /**
+     * Tells every decorator stacked in {@code client} that a retryable target is about to send a request again.
+     */
+    static void retryScheduled(CloseableHttpClient client, RetryAttempt attempt, Duration delay) {
+        CloseableHttpClient current = client;
+        while (current instanceof HttpClientDecorator) {
+            HttpClientDecorator decorator = (HttpClientDecorator) current;
+            decorator.onRetryScheduled(attempt, delay);
+            current = decorator.backend;
+        }
+    }
+
+    /**
+     * Called before a retryable target waits {@code delay} and sends the request again.
+     */
+    void onRetryScheduled(RetryAttempt attempt, Duration delay) {
+    }
+
+    @Override
+    protected CloseableHttpResponse doExecute(HttpHost target, ClassicHttpRequest request, HttpContext context) throws IOException {
+        return CloseableHttpResponse.adapt(executeOpen(target, request, context));
+    }
+
+    @Override
+    public void close() {
+        // The decorated client is owned by the caller.
+    }
+
+    @Override
+    public void close(CloseMode closeMode) {
+        // The decorated client is owned by the caller.
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import org.apache.hc.client5.http.HttpRoute;
+
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Entry point for the JDK Flight Recorder events of the library.
+ * <p>
+ * {@code jdk.jfr} is an optional dependency: runtimes built without it (e.g. a trimmed
+ * {@code jlink} image) simply record nothing. Every {@code begin*} method returns an opaque
+ * handle, {@code null} when the event is disabled, which the matching {@code end*} method
+ * accepts; a disabled event costs one check and no allocation.
+ * <p>
+ * The events are described in {@link JfrHttpEvents}.
+ */
+final class HttpEvents {
+    private static final boolean JFR_AVAILABLE = ModuleLayer.boot().findModule("jdk.jfr").isPresent();
+
+    private HttpEvents() {
+    }
+
+    static Object beginRequest(HttpMethod method, URI uri, long requestBytes) {
+        return JFR_AVAILABLE ? JfrHttpEvents.beginRequest(method, uri, requestBytes) : null;
+    }
+
+    static void endRequest(Object event, int statusCode, long responseBytes, ConnectionFailureType failureType) {
+        if (event != null) {
+            JfrHttpEvents.endRequest(event, statusCode, responseBytes, failureType);
+        }
+    }
+
+    /**
+     * @return whether a recording takes connection lease events, which are observed through {@link RequestTimings}
+     */
+    static boolean isConnectionLeaseEnabled() {
+        return JFR_AVAILABLE && JfrHttpEvents.isConnectionLeaseEnabled();
+    }
+
+    static Object beginConnectionLease(HttpRoute route) {
+        return JFR_AVAILABLE ? JfrHttpEvents.beginConnectionLease(route) : null;
+    }
+
+    static void endConnectionLease(Object event, boolean newConnection) {
+        if (event != null) {
+            JfrHttpEvents.endConnectionLease(event, newConnection);
+        }
+    }
+
+    static Object beginRetrySleep(RetryAttempt attempt, Duration delay) {
+        return JFR_AVAILABLE ? JfrHttpEvents.beginRetrySleep(attempt, delay) : null;
+    }
+
+    static void endRetrySleep(Object event) {
+        if (event != null) {
+            JfrHttpEvents.endRetrySleep(event);
+        }
+    }
+
+    static Object beginDeserialization(Type type, Object mapper) {
+        return JFR_AVAILABLE ? JfrHttpEvents.beginDeserialization(type, mapper) : null;
+    }
+
+    static void endDeserialization(Object event) {
+        if (event != null) {
+            JfrHttpEvents.endDeserialization(event);
+        }
+    }
+
+    /**
+     * @return {@code uri} without user info, query and fragment, to keep events free of secrets
+     */
+    static String withoutQuery(URI uri) {
+        if (uri == null) {
+            return null;
+        }
+        if (uri.getHost() == null) {
+            return uri.getRawPath();
+        }
+        StringBuilder result = new StringBuilder(64).append(uri.getScheme()).append("://").append(uri.getHost());
+        if (uri.getPort() >= 0) {
+            result.append(':').append(uri.getPort());
+        }
+        if (uri.getRawPath() != null) {
+            result.append(uri.getRawPath());
+        }
+        return result.toString();
+    }
+}
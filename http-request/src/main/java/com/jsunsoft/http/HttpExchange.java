@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import com.jsunsoft.http.annotations.Beta;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.protocol.HttpContext;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One attempt of a request, as seen by {@link RequestListener}s.
+ * <p>
+ * Listeners can keep per-request state, such as a tracing span, in the exchange's attributes
+ * between callbacks. An exchange is used by one thread at a time and is not thread-safe.
+ *
+ * @since 5.0.0
+ */
+@Beta
+public final class HttpExchange {
+    static final String CONTEXT_ATTRIBUTE = "com.jsunsoft.http.exchange";
+
+    private final HttpHost target;
+    private final ClassicHttpRequest request;
+    private final HttpContext context;
+    private final RequestListener[] listeners;
+    private Map<Object, Object> attributes;
+
+    HttpExchange(HttpHost target, ClassicHttpRequest request, HttpContext context, RequestListener[] listeners) {
+        this.target = target;
+        this.request = request;
+        this.context = context;
+        this.listeners = listeners;
+    }
+
+    /**
+     * @return the exchange executing with {@code context}, {@code null} if none is observed
+     */
+    static HttpExchange of(HttpContext context) {
+        Object exchange = context == null ? null : context.getAttribute(CONTEXT_ATTRIBUTE);
+        return exchange instanceof HttpExchange ? (HttpExchange) exchange : null;
+    }
+
+    /**
+     * @return the host the request is sent to
+     */
+    public HttpHost getTarget() {
+        return target;
+    }
+
+    /**
+     * @return the request; changing its headers has an effect only in {@link RequestListener#requestStarted}
+     */
+    public ClassicHttpRequest getRequest() {
+        return request;
+    }
+
+    /**
+     * @return the request method, e.g. {@code GET}
+     */
+    public String getMethod() {
+        return request.getMethod();
+    }
+
+    /**
+     * @return the phase timings of the request, {@code null} if it was not sent by a {@link WebTarget}
+     */
+    public RequestTimings getTimings() {
+        return RequestTimings.of(context);
+    }
+
+    /**
+     * @return the value stored under {@code key}, {@code null} if none
+     */
+    public Object getAttribute(Object key) {
+        return attributes == null ? null : attributes.get(key);
+    }
+
+    /**
+     * Stores listener state for the rest of the exchange.
+     *
+     * @param key   the key, typically a constant owned by the listener
+     * @param value the value; {@code null} removes the key
+     */
+    public void setAttribute(Object key, Object value) {
+        if (value == null) {
+            if (attributes != null) {
+                attributes.remove(key);
+            }
+            return;
+        }
+        if (attributes == null) {
+            attributes = new HashMap<>(4);
+        }
+        attributes.put(key, value);
+    }
+
+    RequestListener[] getListeners() {
+        return listeners;
+    }
+
+    @Override
+    public String toString() {
+        return "HttpExchange{" +
+                "method='" + request.getMethod() + '\'' +
+                ", target=" + target +
+                ", path='" + request.getPath() + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import com.jsunsoft.http.annotations.Beta;
+
+/**
+ * Receives the measurements of the requests executed by an {@link HttpRequest}.
+ * <p>
+ * Install it with {@link HttpRequestBuilder#setMetrics(HttpMetrics)}. Methods are called on the
+ * thread executing the request, so implementations must be thread-safe and should not block.
+ * {@link InMemoryHttpMetrics} is a ready-to-use implementation; bridging to a metrics library
+ * means implementing its three abstract methods.
+ * <p>
+ * A {@code route} is the target host as {@code scheme://host[:port]}, a {@code method} is the
+ * request method as sent, e.g. {@code GET}.
+ *
+ * @see InMemoryHttpMetrics
+ * @since 5.0.0
+ */
+@Beta
+public interface HttpMetrics {
+
+    /**
+     * Called once per response, when its body was read to the end or the response was closed.
+     *
+     * @param route         target of the request
+     * @param method        request method
+     * @param statusCode    response status code
+     * @param durationNanos time from sending the request until the response head was received
+     * @param requestBytes  request body bytes sent, {@code 0} without a body
+     * @param responseBytes response body bytes read by the caller, {@code 0} without a body
+     */
+    void recordExchange(String route, String method, int statusCode, long durationNanos, long requestBytes, long responseBytes);
+
+    /**
+     * Called when a request failed before a response was received.
+     *
+     * @param route         target of the request
+     * @param method        request method
+     * @param failureType   why the request failed
+     * @param durationNanos time from sending the request until it failed
+     */
+    void recordFailure(String route, String method, ConnectionFailureType failureType, long durationNanos);
+
+    /**
+     * Called each time a retryable target decides to send a request again.
+     *
+     * @param route  target of the attempt being retried
+     * @param method request method
+     * @see HttpRequest#retryableTarget(String, RetryContext)
+     */
+    void recordRetry(String route, String method);
+
+    /**
+     * Called once per response with a body streamed from a connection, when it is closed. A body
+     * left unread is drained within the configured budget so the connection can be reused; a
+     * remainder over the budget gets the connection discarded instead.
+     *
+     * @param route  target of the request
+     * @param reused {@code true} if the connection was kept for reuse, {@code false} if it was discarded
+     * @see HttpRequestBuilder#setResponseDrainBudget(long, java.time.Duration)
+     */
+    default void recordConnectionRelease(String route, boolean reused) {
+    }
+}
@@ -0,0 +1,323 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import com.jsunsoft.http.annotations.Beta;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Point-in-time export of an {@link InMemoryHttpMetrics}.
+ *
+ * @see InMemoryHttpMetrics#snapshot()
+ * @since 5.0.0
+ */
+@Beta
+public final class HttpMetricsSnapshot {
+    private final List<Exchange> exchanges;
+    private final List<Failure> failures;
+    private final List<Retry> retries;
+    private final List<ConnectionRelease> connectionReleases;
+
+    HttpMetricsSnapshot(Collection<Exchange> exchanges, Collection<Failure> failures, Collection<Retry> retries,
+                        Collection<ConnectionRelease> connectionReleases) {
+        this.exchanges = List.copyOf(exchanges);
+        this.failures = List.copyOf(failures);
+        this.retries = List.copyOf(retries);
+        this.connectionReleases = List.copyOf(connectionReleases);
+    }
+
+    /**
+     * @return one entry per route, method and status class that received a response
+     */
+    public List<Exchange> getExchanges() {
+        return exchanges;
+    }
+
+    /**
+     * @return one entry per route, method and failure type that failed without a response
+     */
+    public List<Failure> getFailures() {
+        return failures;
+    }
+
+    /**
+     * @return one entry per route and method that was retried
+     */
+    public List<Retry> getRetries() {
+        return retries;
+    }
+
+    /**
+     * @return one entry per route that released a connection after a response with a body
+     */
+    public List<ConnectionRelease> getConnectionReleases() {
+        return connectionReleases;
+    }
+
+    /**
+     * @param route       route as {@code scheme://host[:port]}
+     * @param method      request method
+     * @param statusClass status class, e.g. {@code 2xx}
+     * @return the matching entry, if any response of that class was recorded
+     */
+    public Optional<Exchange> getExchange(String route, String method, String statusClass) {
+        return exchanges.stream()
+                .filter(e -> e.route.equals(route) && e.method.equals(method) && e.statusClass.equals(statusClass))
+                .findFirst();
+    }
+
+    /**
+     * @return the number of failures recorded for {@code route} and {@code method}, of any type
+     */
+    public long getFailureCount(String route, String method) {
+        return failures.stream().filter(f -> f.route.equals(route) && f.method.equals(method)).mapToLong(Failure::getCount).sum();
+    }
+
+    /**
+     * @return the number of retries recorded for {@code route} and {@code method}
+     */
+    public long getRetryCount(String route, String method) {
+        return retries.stream().filter(r -> r.route.equals(route) && r.method.equals(method)).mapToLong(Retry::getCount).sum();
+    }
+
+    /**
+     * @param route route as {@code scheme://host[:port]}
+     * @return the matching entry, if any connection of that route was released
+     */
+    public Optional<ConnectionRelease> getConnectionRelease(String route) {
+        return connectionReleases.stream().filter(r -> r.route.equals(route)).findFirst();
+    }
+
+    /**
+     * Responses of one route, method and status class.
+     */
+    public static final class Exchange {
+        private final String route;
+        private final String method;
+        private final String statusClass;
+        private final long count;
+        private final long totalLatencyNanos;
+        private final long maxLatencyNanos;
+        private final long[] latencyCounts;
+        private final long requestBytes;
+        private final long responseBytes;
+
+        Exchange(String route, String method, String statusClass, long count, long totalLatencyNanos, long maxLatencyNanos, long[] latencyCounts,
+                 long requestBytes, long responseBytes) {
+            this.route = route;
+            this.method = method;
+            this.statusClass = statusClass;
+            this.count = count;
+            this.totalLatencyNanos = totalLatencyNanos;
+            this.maxLatencyNanos = maxLatencyNanos;
+            this.latencyCounts = latencyCounts;
+            this.requestBytes = requestBytes;
+            this.responseBytes = responseBytes;
+        }
+
+        public String getRoute() {
+            return route;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        /**
+         * @return {@code 1xx} to {@code 5xx}, or the status code itself when outside that range
+         */
+        public String getStatusClass() {
+            return statusClass;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return mean latency in nanoseconds, {@code 0} when nothing was recorded
+         */
+        public long getMeanLatencyNanos() {
+            return count == 0 ? 0 : totalLatencyNanos / count;
+        }
+
+        public long getMaxLatencyNanos() {
+            return maxLatencyNanos;
+        }
+
+        /**
+         * The result is the upper bound of the histogram bucket holding the percentile, so it
+         * overstates the exact value by less than 0.8%.
+         *
+         * @param percentile percentile in {@code [0, 100]}, e.g. {@code 99.9}
+         * @return latency in nanoseconds at or below which {@code percentile} percent of the responses fall
+         */
+        public long getLatencyNanosAtPercentile(double percentile) {
+            return LatencyHistogram.valueAtPercentile(latencyCounts, percentile, maxLatencyNanos);
+        }
+
+        /**
+         * @return request body bytes sent
+         */
+        public long getRequestBytes() {
+            return requestBytes;
+        }
+
+        /**
+         * @return response body bytes read
+         */
+        public long getResponseBytes() {
+            return responseBytes;
+        }
+
+        @Override
+        public String toString() {
+            return "Exchange{" +
+                    "route='" + route + '\'' +
+                    ", method='" + method + '\'' +
+                    ", statusClass='" + statusClass + '\'' +
+                    ", count=" + count +
+                    ", meanLatencyNanos=" + getMeanLatencyNanos() +
+                    ", p50LatencyNanos=" + getLatencyNanosAtPercentile(50) +
+                    ", p99LatencyNanos=" + getLatencyNanosAtPercentile(99) +
+                    ", maxLatencyNanos=" + maxLatencyNanos +
+                    ", requestBytes=" + requestBytes +
+                    ", responseBytes=" + responseBytes +
+                    '}';
+        }
+    }
+
+    /**
+     * Requests of one route and method that failed for the same reason.
+     */
+    public static final class Failure {
+        private final String route;
+        private final String method;
+        private final ConnectionFailureType failureType;
+        private final long count;
+
+        Failure(String route, String method, ConnectionFailureType failureType, long count) {
+            this.route = route;
+            this.method = method;
+            this.failureType = failureType;
+            this.count = count;
+        }
+
+        public String getRoute() {
+            return route;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public ConnectionFailureType getFailureType() {
+            return failureType;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        @Override
+        public String toString() {
+            return "Failure{" +
+                    "route='" + route + '\'' +
+                    ", method='" + method + '\'' +
+                    ", failureType=" + failureType +
+                    ", count=" + count +
+                    '}';
+        }
+    }
+
+    /**
+     * Retries of one route and method.
+     */
+    public static final class Retry {
+        private final String route;
+        private final String method;
+        private final long count;
+
+        Retry(String route, String method, long count) {
+            this.route = route;
+            this.method = method;
+            this.count = count;
+        }
+
+        public String getRoute() {
+            return route;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        @Override
+        public String toString() {
+            return "Retry{" +
+                    "route='" + route + '\'' +
+                    ", method='" + method + '\'' +
+                    ", count=" + count +
+                    '}';
+        }
+    }
+
+    /**
+     * Connections of one route given back after a response with a body: reused when the body was read,
+     * or drained within the budget, to the end; discarded when the remainder was over the budget.
+     */
+    public static final class ConnectionRelease {
+        private final String route;
+        private final long reusedCount;
+        private final long discardedCount;
+
+        ConnectionRelease(String route, long reusedCount, long discardedCount) {
+            this.route = route;
+            this.reusedCount = reusedCount;
+            this.discardedCount = discardedCount;
+        }
+
+        public String getRoute() {
+            return route;
+        }
+
+        public long getReusedCount() {
+            return reusedCount;
+        }
+
+        public long getDiscardedCount() {
+            return discardedCount;
+        }
+
+        @Override
+        public String toString() {
+            return "ConnectionRelease{" +
+                    "route='" + route + '\'' +
+                    ", reusedCount=" + reusedCount +
+                    ", discardedCount=" + discardedCount +
+                    '}';
+        }
+    }
+}
@@ -34,8 +34,8 @@ import java.net.URI;
  *
  * {@code HttpRequest} is intended to be built once and reused indefinitely — typically a
  * singleton (or a small set of pre-configured singletons) per process. Each call to
- * {@link #target(URI)} / {@link #immutableTarget(URI)} / {@link #retryableTarget(URI, RetryContext)}
- * returns a fresh, independent {@link WebTarget}; the {@code HttpRequest} itself is not consumed
+ * {@link #target(URI)} / {@link #immutableTarget(URI)} / {@link #retryableTarget(URI, RetryContext)} /
+ * {@link #loadBalancedTarget(EndpointGroup)} returns a fresh, independent {@link WebTarget}; the {@code HttpRequest} itself is not consumed
  * by these calls.
  *
  * <h2>Thread safety</h2>
@@ -149,4 +149,37 @@ public interface HttpRequest {
      * @throws IllegalArgumentException If the given string violates RFC&nbsp;2396
      */
     WebTarget immutableTarget(String uri);
+
+    /**
+     * Build a new web resource target that spreads requests over the endpoints of the given group.
+     * <p>
+     * Each request is sent to the endpoint with fewer in-flight requests out of two picked at
+     * random (power-of-two-choices); see {@link EndpointGroup} for details. Build the target on
+     * the group's base path only — use {@link WebTarget#path(String) path} for the resource. A
+     * request that could not reach its endpoint (connect timeout, unreachable host, exhausted
+     * route pool) is re-sent to another endpoint. The same mutability contract as
+     * {@link #target(URI)} applies.
+     *
+     * @param endpointGroup endpoints to balance over. Must not be {@code null}. Share one instance
+     *                      across requests — its in-flight counters drive the balancing.
+     * @return load-balanced WebTarget instance
+     * @throws NullPointerException     in case the supplied argument is {@code null}.
+     * @throws IllegalArgumentException if an endpoint's scheme is not allowed
+     */
+    @Beta
+    WebTarget loadBalancedTarget(EndpointGroup endpointGroup);
+
+    /**
+     * Build a new load-balanced web resource target with retries. Behaves like
+     * {@link #loadBalancedTarget(EndpointGroup)}; in addition every retry decided by the
+     * {@code retryContext} is sent to a different endpoint than the attempt it retries.
+     *
+     * @param endpointGroup endpoints to balance over. Must not be {@code null}.
+     * @param retryContext  retryContext. Must not be {@code null}.
+     * @return load-balanced, retryable WebTarget instance
+     * @throws NullPointerException     in case the supplied argument is {@code null}.
+     * @throws IllegalArgumentException if an endpoint's scheme is not allowed
+     */
+    @Beta
+    WebTarget loadBalancedTarget(EndpointGroup endpointGroup, RetryContext retryContext);
 }
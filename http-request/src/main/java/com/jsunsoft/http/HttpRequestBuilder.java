@@ -32,6 +32,7 @@ import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.*;
 import java.util.function.UnaryOperator;
 
@@ -75,6 +76,10 @@ public class HttpRequestBuilder {
     private UnaryOperator<String> payloadRedactor;
     private Charset defaultQueryCharset;
     private Charset defaultBodyCharset;
+    private HttpCache httpCache;
+    private HttpMetrics metrics;
+    private List<RequestListener> requestListeners;
+    private boolean requestTimings;
 
     private HttpRequestBuilder(CloseableHttpClient closeableHttpClient) {
         this.closeableHttpClient = ArgsCheck.notNull(closeableHttpClient, "closeableHttpClient");
@@ -337,7 +342,7 @@ public class HttpRequestBuilder {
      * Adds a date deserialization pattern for the default response deserializer.
      * <p>
      * When a custom {@link ObjectMapper} is supplied via {@link #setDefaultJsonMapper(ObjectMapper)}
-     * or {@link #setDefaultXmlMapper(ObjectMapper)}, the pattern is installed on a derived mapper
+     * or {@link #setDefaultMapper(String, ObjectMapper)}, the pattern is installed on a derived mapper
      * produced via {@link ObjectMapper#rebuild() rebuild()} of the provided mapper — the caller's
      * instance is left unmodified (it is immutable in any case under Jackson 3) — and is registered
      * as a Jackson {@code configOverride} for the given type. A {@code configOverride} already set
@@ -356,7 +361,7 @@ public class HttpRequestBuilder {
      * Adds a date serialization pattern for the request body serialization.
      * <p>
      * When a custom {@link ObjectMapper} is supplied via {@link #setDefaultJsonMapper(ObjectMapper)}
-     * or {@link #setDefaultXmlMapper(ObjectMapper)}, the pattern is installed on a derived mapper
+     * or {@link #setDefaultMapper(String, ObjectMapper)}, the pattern is installed on a derived mapper
      * produced via {@link ObjectMapper#rebuild() rebuild()} of the provided mapper — the caller's
      * instance is left unmodified — and is registered as a Jackson {@code configOverride} for the
      * given type. A {@code configOverride} already set by the caller for the same type will be
@@ -414,19 +419,40 @@ public class HttpRequestBuilder {
     /**
      * Sets the default XML mapper used for request body serialization and response body deserialization.
      * <p>
-     * Jackson 3 mappers are immutable, so the supplied instance is stored by reference; no defensive
-     * copy is necessary. Pass {@code null} to fall back to the library default mapper.
-     * <p>
-     * Strict / lenient deserialization works the same as for the JSON mapper — see
-     * {@link #setDefaultJsonMapper(ObjectMapper)} for the discussion.
+     * XML support is provided by the {@code http-request-xml} artifact, which must be on the classpath
+     * (or module path); otherwise {@link #build()} fails. Equivalent to
+     * {@code setDefaultMapper("xml", defaultXmlMapper)}.
      *
      * @param defaultXmlMapper the XML mapper to use, or {@code null} to restore the default
      * @return the current instance of HttpRequestBuilder
+     * @see #setDefaultMapper(String, ObjectMapper)
      */
     public HttpRequestBuilder setDefaultXmlMapper(ObjectMapper defaultXmlMapper) {
+        return setDefaultMapper("xml", defaultXmlMapper);
+    }
+
+    /**
+     * Sets the mapper of a {@link BodyCodecProvider body codec}, used for request body serialization
+     * and response body deserialization of the codec's content types.
+     * <p>
+     * Jackson 3 mappers are immutable, so the supplied instance is stored by reference; no defensive
+     * copy is necessary. Pass {@code null} to fall back to the library default mapper, which is built
+     * on first use. Strict / lenient deserialization works the same as for the JSON mapper — see
+     * {@link #setDefaultJsonMapper(ObjectMapper)} for the discussion.
+     * <p>
+     * {@link #build()} throws {@link IllegalArgumentException} when no codec named {@code codecName}
+     * was found.
+     *
+     * @param codecName the {@link BodyCodecProvider#getName() name} of the codec, e.g. {@code "xml"}
+     * @param mapper    the mapper to use, or {@code null} to restore the default
+     * @return the current instance of HttpRequestBuilder
+     * @since 5.0.0
+     */
+    @Beta
+    public HttpRequestBuilder setDefaultMapper(String codecName, ObjectMapper mapper) {
         // See setDefaultJsonMapper — Jackson 3 mappers are immutable, no defensive copy required.
-        requestBodySerializeConfigBuilder.setDefaultXmlMapper(defaultXmlMapper);
-        responseBodyReaderConfigBuilder.setDefaultXmlMapper(defaultXmlMapper);
+        requestBodySerializeConfigBuilder.setDefaultMapper(codecName, mapper);
+        responseBodyReaderConfigBuilder.setDefaultMapper(codecName, mapper);
         return this;
     }
 
@@ -542,6 +568,71 @@ public class HttpRequestBuilder {
         return this;
     }
 
+    /**
+     * Makes the expected failures the library creates skip filling in their stack trace.
+     * <p>
+     * During an outage every request fails: connect timeouts, refused connections, an exhausted pool.
+     * Each becomes a {@link ResponseException} (and a body over
+     * {@link #setMaxResponseBodySizeBytes(long) the size limit} an {@link InvalidContentLengthException}),
+     * and walking the stack for each costs noticeable CPU at high request rates. With lightweight
+     * failures these exceptions have an empty stack trace; the cause of a transport failure still
+     * has its own, and the status code, {@link ConnectionFailureType} and message are unchanged.
+     * Exceptions thrown to the caller, e.g. by {@link ResponseHandler#orElseThrow()}, keep their
+     * stack trace. Default is {@code false}.
+     *
+     * @param lightweightFailures {@code true} to skip the stack trace of expected failures
+     * @return the current instance of HttpRequestBuilder
+     */
+    @Beta
+    public HttpRequestBuilder setLightweightFailures(boolean lightweightFailures) {
+        responseBodyReaderConfigBuilder.setLightweightFailures(lightweightFailures);
+        return this;
+    }
+
+    /**
+     * Sets how many bytes of a non-successful response body are read into the
+     * {@link ResponseHandler#getErrorText() error text}. By default the whole body is read.
+     * <p>
+     * Error bodies are mostly logged, and some servers answer with large error pages exactly when
+     * they are overloaded. With a limit, the text of a longer body is truncated and marked so; the rest
+     * of the body is drained or the connection discarded, see {@link #setResponseDrainBudget(long, Duration)}.
+     * {@link ResponseHandler#getError(Class)} can read only bodies that fit in the limit.
+     *
+     * @param maxErrorBodyBytes positive byte limit, or {@code <= 0} to read whole error bodies
+     * @return the current instance of HttpRequestBuilder
+     */
+    @Beta
+    public HttpRequestBuilder setMaxErrorBodyBytes(int maxErrorBodyBytes) {
+        responseBodyReaderConfigBuilder.setMaxErrorBodyBytes(maxErrorBodyBytes);
+        return this;
+    }
+
+    /**
+     * Sets how much of an unread response body is read when the response is closed, to keep its
+     * connection reusable.
+     * <p>
+     * A pooled connection can only be reused once the body of its response was read to the end.
+     * When a response is closed (or its content stream is) with part of the body unread, the
+     * remainder is read and dropped if it is at most {@code maxDrainBytes} long and arrives within
+     * {@code maxDrainTime}; otherwise the connection is discarded, which costs a new connection
+     * (and TLS handshake) on a later request. A remainder the {@code Content-Length} shows to be
+     * over the budget is not read at all.
+     * <p>
+     * By default the budget is 64 KiB and one second when
+     * {@link #setMaxResponseBodySizeBytes(long) a body size limit} is set, and unlimited otherwise.
+     * The outcome is reported to {@link HttpMetrics#recordConnectionRelease(String, boolean)}.
+     *
+     * @param maxDrainBytes most bytes to read, {@code 0} to discard the connection of any unread body
+     * @param maxDrainTime  most time to spend reading them
+     * @return the current instance of HttpRequestBuilder
+     * @throws IllegalArgumentException if {@code maxDrainBytes} or {@code maxDrainTime} is negative
+     */
+    @Beta
+    public HttpRequestBuilder setResponseDrainBudget(long maxDrainBytes, Duration maxDrainTime) {
+        responseBodyReaderConfigBuilder.setDrainBudget(maxDrainBytes, maxDrainTime);
+        return this;
+    }
+
     /**
      * Sets the charset used to decode response bodies into {@code String} when the response's
      * {@code Content-Type} header carries no {@code charset} parameter. Defaults to
@@ -682,6 +773,80 @@ public class HttpRequestBuilder {
         return this;
     }
 
+    /**
+     * Caches {@code GET} responses of every {@link WebTarget} created from the resulting
+     * {@link HttpRequest} according to RFC 9111: fresh responses are served without contacting the
+     * server and stale ones are revalidated with {@code If-None-Match} / {@code If-Modified-Since}.
+     * <p>
+     * The same cache can be set on several builders to share entries between {@link HttpRequest}s.
+     *
+     * @param httpCache the cache to use; {@code null} disables caching (the default)
+     * @return the current instance of HttpRequestBuilder
+     * @see HttpCache
+     */
+    @Beta
+    public HttpRequestBuilder setHttpCache(HttpCache httpCache) {
+        this.httpCache = httpCache;
+        return this;
+    }
+
+    /**
+     * Records latency, body sizes, failures and retries of every request sent through the
+     * resulting {@link HttpRequest}, per route, method and status class.
+     * <p>
+     * Without metrics (the default) requests are neither timed nor wrapped, so the disabled path
+     * costs nothing.
+     *
+     * @param metrics receiver of the measurements, e.g. an {@link InMemoryHttpMetrics}; {@code null} disables metrics
+     * @return the current instance of HttpRequestBuilder
+     * @see HttpMetrics
+     */
+    @Beta
+    public HttpRequestBuilder setMetrics(HttpMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
+    /**
+     * Makes every {@link Response} and {@link ResponseHandler} of the resulting {@link HttpRequest}
+     * carry its {@link RequestTimings}.
+     * <p>
+     * Timings are recorded anyway with {@link #setMetrics(HttpMetrics) metrics} or
+     * {@link #addRequestListener(RequestListener) listeners}, which read them, and while a JDK Flight
+     * Recorder recording takes the request or connection lease events. Otherwise (the default) nothing is allocated for
+     * them and {@code getTimings()} returns {@code null}.
+     *
+     * @return the current instance of HttpRequestBuilder
+     * @see RequestTimings
+     */
+    @Beta
+    public HttpRequestBuilder enableRequestTimings() {
+        this.requestTimings = true;
+        return this;
+    }
+
+    /**
+     * Registers a listener notified of the lifecycle of every request sent through the resulting
+     * {@link HttpRequest}: start, headers sent, response headers, body read, retries and
+     * completion or failure. Listeners are called in registration order.
+     * <p>
+     * Without listeners (the default) no event is created or delivered.
+     *
+     * @param requestListener the listener; must not be {@code null}
+     * @return the current instance of HttpRequestBuilder
+     * @throws NullPointerException if {@code requestListener} is {@code null}
+     * @see RequestListener
+     */
+    @Beta
+    public HttpRequestBuilder addRequestListener(RequestListener requestListener) {
+        ArgsCheck.notNull(requestListener, "requestListener");
+        if (requestListeners == null) {
+            requestListeners = new ArrayList<>();
+        }
+        requestListeners.add(requestListener);
+        return this;
+    }
+
     /**
      * Builds the HttpRequest instance.
      *
@@ -704,6 +869,16 @@ public class HttpRequestBuilder {
                 ? payloadRedactor
                 : UnaryOperator.identity();
 
-        return new BasicHttpRequest(closeableHttpClient, defaultHeaders, defaultRequestParameters, responseBodyReaderConfigBuilder.build(), requestBodySerializeConfigBuilder.build(), allowedSchemes, requestPayloadLogging, effectiveRedactor, defaultQueryCharset, defaultBodyCharset);
+        responseBodyReaderConfigBuilder.setRecordTimings(requestTimings || metrics != null || requestListeners != null);
+
+        CloseableHttpClient httpClient = httpCache != null ? new CachingHttpClient(closeableHttpClient, httpCache) : closeableHttpClient;
+        if (metrics != null) {
+            httpClient = new MeteredHttpClient(httpClient, metrics);
+        }
+        if (requestListeners != null) {
+            httpClient = new ListeningHttpClient(httpClient, requestListeners);
+        }
+
+        return new BasicHttpRequest(httpClient, defaultHeaders, defaultRequestParameters, responseBodyReaderConfigBuilder.build(), requestBodySerializeConfigBuilder.build(), allowedSchemes, requestPayloadLogging, effectiveRedactor, defaultQueryCharset, defaultBodyCharset);
     }
 }
@@ -101,17 +101,7 @@ class HttpUriRequestBuilder {
         }
 
         if (entity != null) {
-            // Repeatable entities (StringEntity, ByteArrayEntity, FileEntity, ...) can be re-sent
-            // on each attempt — safe to share the reference with the copy. Non-repeatable entities
-            // (InputStreamEntity and similar streaming sources) are consumed on first send and
-            // cannot be replayed; reject these with an actionable error so retries don't silently
-            // produce empty-body requests.
-            if (!entity.isRepeatable()) {
-                throw new IllegalStateException(
-                        "Cannot copy request builder: the HttpEntity is non-repeatable (e.g. " +
-                                "InputStreamEntity) and cannot be re-sent on retry. Wrap the body in a " +
-                                "repeatable entity such as StringEntity, ByteArrayEntity, or FileEntity.");
-            }
+            checkEntityRepeatable("Cannot copy request builder");
             copyHttpUriRequestBuilder.entity = entity;
         }
 
@@ -126,6 +116,24 @@ class HttpUriRequestBuilder {
         return copyHttpUriRequestBuilder;
     }
 
+    /**
+     * Repeatable entities (StringEntity, ByteArrayEntity, FileEntity, ...) can be re-sent on each
+     * attempt. Non-repeatable entities (InputStreamEntity and similar streaming sources) are
+     * consumed on first send and cannot be replayed; reject these with an actionable error so
+     * retries don't silently produce empty-body requests.
+     *
+     * @param action what can't be done, used as the message prefix
+     * @throws IllegalStateException if the entity is non-repeatable
+     */
+    void checkEntityRepeatable(String action) {
+        if (entity != null && !entity.isRepeatable()) {
+            throw new IllegalStateException(
+                    action + ": the HttpEntity is non-repeatable (e.g. " +
+                            "InputStreamEntity) and cannot be re-sent on retry. Wrap the body in a " +
+                            "repeatable entity such as StringEntity, ByteArrayEntity, or FileEntity.");
+        }
+    }
+
     public HttpUriRequestBuilder setCharset(final Charset charset) {
         this.charset = charset;
         return this;
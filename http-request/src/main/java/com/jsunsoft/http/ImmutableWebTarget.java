@@ -24,9 +24,12 @@ import org.apache.hc.core5.http.NameValuePair;
 import org.apache.hc.core5.http.protocol.HttpContext;
 import org.apache.hc.core5.net.URIBuilder;
 
+import java.io.OutputStream;
 import java.net.URI;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.Collection;
 import java.util.function.UnaryOperator;
 
@@ -227,4 +230,29 @@ class ImmutableWebTarget extends BasicWebTarget {
     public <T> ResponseHandler<T> request(HttpMethod method, TypeReference<T> typeReference) {
         return toBasicWebTarget().request(method, typeReference);
     }
+
+    @Override
+    public ResponseHandler<Path> download(Path target) {
+        return toBasicWebTarget().download(target);
+    }
+
+    @Override
+    public ResponseHandler<Path> download(Path target, int parallelism) {
+        return toBasicWebTarget().download(target, parallelism);
+    }
+
+    @Override
+    public ResponseHandler<Path> resumableDownload(Path target) {
+        return toBasicWebTarget().resumableDownload(target);
+    }
+
+    @Override
+    public ResponseHandler<Long> getTo(OutputStream out) {
+        return toBasicWebTarget().getTo(out);
+    }
+
+    @Override
+    public ResponseHandler<Long> getTo(WritableByteChannel channel) {
+        return toBasicWebTarget().getTo(channel);
+    }
 }
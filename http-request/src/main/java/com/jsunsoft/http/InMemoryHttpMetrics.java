@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import com.jsunsoft.http.annotations.Beta;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Zero-dependency {@link HttpMetrics} that keeps everything in memory.
+ * <p>
+ * Per route, method and status class ({@code 2xx}, {@code 4xx}, ...) it keeps a lock-free latency
+ * histogram with nanosecond precision (see {@link HttpMetricsSnapshot.Exchange}) and the request
+ * and response body bytes. Failures are counted per route, method and {@link ConnectionFailureType},
+ * retries per route and method, and connection releases per route, reused or discarded.
+ * {@link #snapshot()} exports the current values, e.g. for a
+ * periodic reporter:
+ * <pre>{@code
+ * InMemoryHttpMetrics metrics = new InMemoryHttpMetrics();
+ * HttpRequest httpRequest = HttpRequestBuilder.create(client).setMetrics(metrics).build();
+ * ...
+ * for (HttpMetricsSnapshot.Exchange exchange : metrics.snapshot().getExchanges()) {
+ *     LOGGER.info("{} {} {}: count={} p99={}ns", exchange.getMethod(), exchange.getRoute(), exchange.getStatusClass(),
+ *             exchange.getCount(), exchange.getLatencyNanosAtPercentile(99));
+ * }
+ * }</pre>
+ * Each histogram takes about 40 KB, so the number of distinct routes should stay bounded.
+ *
+ * @since 5.0.0
+ */
+@Beta
+public final class InMemoryHttpMetrics implements HttpMetrics {
+    private static final String[] STATUS_CLASSES = {"1xx", "2xx", "3xx", "4xx", "5xx"};
+
+    private final ConcurrentMap<Key, ExchangeStats> exchanges = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Key, LongAdder> failures = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Key, LongAdder> retries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ReleaseStats> connectionReleases = new ConcurrentHashMap<>();
+
+    @Override
+    public void recordExchange(String route, String method, int statusCode, long durationNanos, long requestBytes, long responseBytes) {
+        ExchangeStats stats = exchanges.computeIfAbsent(new Key(route, method, statusClassOf(statusCode)), k -> new ExchangeStats());
+        stats.latency.record(durationNanos);
+        stats.requestBytes.add(requestBytes);
+        stats.responseBytes.add(responseBytes);
+    }
+
+    @Override
+    public void recordFailure(String route, String method, ConnectionFailureType failureType, long durationNanos) {
+        failures.computeIfAbsent(new Key(route, method, failureType), k -> new LongAdder()).increment();
+    }
+
+    @Override
+    public void recordRetry(String route, String method) {
+        retries.computeIfAbsent(new Key(route, method, null), k -> new LongAdder()).increment();
+    }
+
+    @Override
+    public void recordConnectionRelease(String route, boolean reused) {
+        ReleaseStats stats = connectionReleases.computeIfAbsent(route, r -> new ReleaseStats());
+        (reused ? stats.reused : stats.discarded).increment();
+    }
+
+    /**
+     * @return the values recorded so far; recordings racing with the call may be partially included
+     */
+    public HttpMetricsSnapshot snapshot() {
+        Collection<HttpMetricsSnapshot.Exchange> exchangeSnapshots = new ArrayList<>(exchanges.size());
+        exchanges.forEach((key, stats) -> {
+            LatencyHistogram latency = stats.latency;
+            exchangeSnapshots.add(new HttpMetricsSnapshot.Exchange(key.route, key.method, (String) key.qualifier,
+                    latency.getCount(), latency.getSum(), latency.getMax(), latency.copyCounts(),
+                    stats.requestBytes.sum(), stats.responseBytes.sum()));
+        });
+
+        Collection<HttpMetricsSnapshot.Failure> failureSnapshots = new ArrayList<>(failures.size());
+        failures.forEach((key, count) -> failureSnapshots.add(
+                new HttpMetricsSnapshot.Failure(key.route, key.method, (ConnectionFailureType) key.qualifier, count.sum())));
+
+        Collection<HttpMetricsSnapshot.Retry> retrySnapshots = new ArrayList<>(retries.size());
+        retries.forEach((key, count) -> retrySnapshots.add(new HttpMetricsSnapshot.Retry(key.route, key.method, count.sum())));
+
+        Collection<HttpMetricsSnapshot.ConnectionRelease> releaseSnapshots = new ArrayList<>(connectionReleases.size());
+        connectionReleases.forEach((route, stats) -> releaseSnapshots.add(
+                new HttpMetricsSnapshot.ConnectionRelease(route, stats.reused.sum(), stats.discarded.sum())));
+
+        return new HttpMetricsSnapshot(exchangeSnapshots, failureSnapshots, retrySnapshots, releaseSnapshots);
+    }
+
+    /**
+     * Discards everything recorded so far.
+     */
+    public void reset() {
+        exchanges.clear();
+        failures.clear();
+        retries.clear();
+        connectionReleases.clear();
+    }
+
+    static String statusClassOf(int statusCode) {
+        int statusClass = statusCode / 100;
+        return statusClass >= 1 && statusClass <= STATUS_CLASSES.length ? STATUS_CLASSES[statusClass - 1] : String.valueOf(statusCode);
+    }
+
+    private static final class ExchangeStats {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder requestBytes = new LongAdder();
+        private final LongAdder responseBytes = new LongAdder();
+    }
+
+    private static final class ReleaseStats {
+        private final LongAdder reused = new LongAdder();
+        private final LongAdder discarded = new LongAdder();
+    }
+
+    private static final class Key {
+        private final String route;
+        private final String method;
+        private final Object qualifier;
+        private final int hash;
+
+        private Key(String route, String method, Object qualifier) {
+            this.route = route;
+            this.method = method;
+            this.qualifier = qualifier;
+            this.hash = Objects.hash(route, method, qualifier);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return Objects.equals(route, key.route) && Objects.equals(method, key.method) && Objects.equals(qualifier, key.qualifier);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -23,10 +23,35 @@ package com.jsunsoft.http;
 public class InvalidContentLengthException extends ResponseBodyReaderException {
     /** Reported content length value. */
     private final long contentLength;
+    /**
+     * {@code false} while the superclass constructor runs, so its {@link #fillInStackTrace()} call is skipped.
+     */
+    private final boolean writableStackTrace;
 
     InvalidContentLengthException(long contentLength, String message) {
+        this(contentLength, message, true);
+    }
+
+    /**
+     * @param writableStackTrace {@code false} to skip filling in the stack trace, for the expected
+     *                           failure of a body over the size limit
+     */
+    InvalidContentLengthException(long contentLength, String message, boolean writableStackTrace) {
         super("Invalid content length \"" + contentLength + "\": " + message);
         this.contentLength = contentLength;
+        this.writableStackTrace = writableStackTrace;
+        if (writableStackTrace) {
+            super.fillInStackTrace();
+        }
+    }
+
+    /**
+     * {@code IOException} has no constructor to disable the stack trace, so it is filled in by the
+     * constructor, only when writable.
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return writableStackTrace ? super.fillInStackTrace() : this;
     }
 
     /**
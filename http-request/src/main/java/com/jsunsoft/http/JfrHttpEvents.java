@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+import org.apache.hc.client5.http.HttpRoute;
+
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * JDK Flight Recorder events of the library. Only {@link HttpEvents} refers to this class, and only
+ * when {@code jdk.jfr} is present.
+ * <p>
+ * All events are enabled by default and committed only when they last at least their threshold,
+ * so a running recording sees the slow cases only. Both can be changed with the standard JFR
+ * settings by event name, e.g.
+ * {@code -XX:StartFlightRecording:com.jsunsoft.http.Request#threshold=0ms} or {@link jdk.jfr.Recording#enable(String)}.
+ * Stack traces are off: the events are emitted on hot paths and the fields identify the request.
+ */
+final class JfrHttpEvents {
+
+    private JfrHttpEvents() {
+    }
+
+    static Object beginRequest(HttpMethod method, URI uri, long requestBytes) {
+        RequestEvent event = new RequestEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.method = method.name();
+        event.uri = HttpEvents.withoutQuery(uri);
+        event.requestBytes = requestBytes;
+        event.begin();
+        return event;
+    }
+
+    static void endRequest(Object handle, int statusCode, long responseBytes, ConnectionFailureType failureType) {
+        RequestEvent event = (RequestEvent) handle;
+        event.end();
+        if (event.shouldCommit()) {
+            event.statusCode = statusCode;
+            event.responseBytes = responseBytes;
+            event.failureType = failureType == null ? null : failureType.toString();
+            event.commit();
+        }
+    }
+
+    static boolean isConnectionLeaseEnabled() {
+        return new ConnectionLeaseEvent().isEnabled();
+    }
+
+    static Object beginConnectionLease(HttpRoute route) {
+        ConnectionLeaseEvent event = new ConnectionLeaseEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.route = String.valueOf(route);
+        event.begin();
+        return event;
+    }
+
+    static void endConnectionLease(Object handle, boolean newConnection) {
+        ConnectionLeaseEvent event = (ConnectionLeaseEvent) handle;
+        event.end();
+        if (event.shouldCommit()) {
+            event.newConnection = newConnection;
+            event.commit();
+        }
+    }
+
+    static Object beginRetrySleep(RetryAttempt attempt, Duration delay) {
+        RetrySleepEvent event = new RetrySleepEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.method = attempt.getMethod().name();
+        event.uri = HttpEvents.withoutQuery(attempt.getURI());
+        event.attemptNumber = attempt.getAttemptNumber();
+        event.statusCode = attempt.getResponse() == null ? 0 : attempt.getResponse().getCode();
+        event.delay = delay.toNanos();
+        event.begin();
+        return event;
+    }
+
+    static void endRetrySleep(Object handle) {
+        RetrySleepEvent event = (RetrySleepEvent) handle;
+        event.end();
+        event.commit();
+    }
+
+    static Object beginDeserialization(Type type, Object mapper) {
+        DeserializationEvent event = new DeserializationEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.type = type.getTypeName();
+        event.mapper = mapper.getClass().getSimpleName();
+        event.begin();
+        return event;
+    }
+
+    static void endDeserialization(Object handle) {
+        DeserializationEvent event = (DeserializationEvent) handle;
+        event.end();
+        event.commit();
+    }
+
+    @Name("com.jsunsoft.http.Request")
+    @Label("HTTP Request")
+    @Description("Execution of a request, from sending it until its response is closed")
+    @Category({"HTTP Client"})
+    @Threshold("100 ms")
+    @StackTrace(false)
+    static final class RequestEvent extends Event {
+        @Label("Method")
+        String method;
+
+        @Label("URI")
+        @Description("Request URI without user info, query and fragment")
+        String uri;
+
+        @Label("Status Code")
+        @Description("Response status code; for a failure, the status reported by the library")
+        int statusCode;
+
+        @Label("Request Bytes")
+        @Description("Length of the request body, -1 if unknown")
+        @DataAmount
+        long requestBytes;
+
+        @Label("Response Bytes")
+        @Description("Response body bytes read")
+        @DataAmount
+        long responseBytes;
+
+        @Label("Failure Type")
+        @Description("Why no response was received, empty if one was")
+        String failureType;
+    }
+
+    @Name("com.jsunsoft.http.ConnectionLease")
+    @Label("HTTP Connection Lease")
+    @Description("Wait for a connection from the pool")
+    @Category({"HTTP Client"})
+    @Threshold("10 ms")
+    @StackTrace(false)
+    static final class ConnectionLeaseEvent extends Event {
+        @Label("Route")
+        String route;
+
+        @Label("New Connection")
+        @Description("Whether the leased connection had to be opened, excluded from the duration")
+        boolean newConnection;
+    }
+
+    @Name("com.jsunsoft.http.RetrySleep")
+    @Label("HTTP Retry Sleep")
+    @Description("Back-off of a retryable web target before retrying a request")
+    @Category({"HTTP Client"})
+    @Threshold("10 ms")
+    @StackTrace(false)
+    static final class RetrySleepEvent extends Event {
+        @Label("Method")
+        String method;
+
+        @Label("URI")
+        @Description("URI of the attempt being retried, without user info, query and fragment")
+        String uri;
+
+        @Label("Attempt Number")
+        int attemptNumber;
+
+        @Label("Status Code")
+        @Description("Status code of the attempt being retried, 0 if it failed without a response")
+        int statusCode;
+
+        @Label("Delay")
+        @Timespan
+        long delay;
+    }
+
+    @Name("com.jsunsoft.http.Deserialization")
+    @Label("HTTP Body Deserialization")
+    @Description("Conversion of a JSON or body codec (e.g. XML) response body into the requested type, including the wait for body bytes")
+    @Category({"HTTP Client"})
+    @Threshold("10 ms")
+    @StackTrace(false)
+    static final class DeserializationEvent extends Event {
+        @Label("Type")
+        String type;
+
+        @Label("Mapper")
+        String mapper;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear histogram of nanosecond durations, laid out like HdrHistogram.
+ * <p>
+ * Values below {@code 2^SUB_BUCKET_BITS} get a bucket each. Above that, every power of two is
+ * split into {@code 2^SUB_BUCKET_BITS} equal buckets, so a recorded value is known to within
+ * {@code 1 / 2^SUB_BUCKET_BITS} (under 0.8%) of itself at any magnitude. Values above
+ * {@link #MAX_TRACKABLE_NANOS} are counted in the last bucket but still update the maximum.
+ * <p>
+ * Recording is one array increment plus three striped counters and never blocks.
+ */
+final class LatencyHistogram {
+    static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Largest value with its own bucket: just under {@code 2^43} ns, about 2.4 hours.
+     */
+    static final long MAX_TRACKABLE_NANOS = (1L << 43) - 1;
+
+    static final int BUCKET_COUNT = indexOf(MAX_TRACKABLE_NANOS) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts.incrementAndGet(indexOf(Math.min(value, MAX_TRACKABLE_NANOS)));
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    long getCount() {
+        return count.sum();
+    }
+
+    long getSum() {
+        return sum.sum();
+    }
+
+    long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @return a copy of the bucket counts; concurrent recordings may or may not be included
+     */
+    long[] copyCounts() {
+        long[] copy = new long[BUCKET_COUNT];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = counts.get(i);
+        }
+        return copy;
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int mantissa = (int) (value >>> shift);
+        return (shift + 1) * SUB_BUCKET_COUNT + mantissa - SUB_BUCKET_COUNT;
+    }
+
+    /**
+     * @return the largest value that falls into the bucket at {@code index}
+     */
+    static long highestValueOf(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long mantissa = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    /**
+     * @param counts     bucket counts as returned by {@link #copyCounts()}
+     * @param percentile percentile in {@code [0, 100]}
+     * @param max        largest recorded value, caps the result
+     * @return the value at or below which {@code percentile} percent of the recorded values fall,
+     * {@code 0} when nothing was recorded
+     */
+    static long valueAtPercentile(long[] counts, double percentile, long max) {
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(Math.max(percentile, 0), 100) / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), max);
+            }
+        }
+        return max;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * Decorates the caller's {@link CloseableHttpClient} with {@link RequestListener}s. It is the
+ * outermost decorator (see {@link HttpClientDecorator} for the order), so headers added in
+ * {@link RequestListener#requestStarted} are seen by the cache and sent to the server.
+ * <p>
+ * Only installed when listeners are registered. The exchange is published in the request context
+ * for the {@code requestHeadersSent} hook installed by {@link ClientBuilder}.
+ */
+final class ListeningHttpClient extends HttpClientDecorator {
+    private final RequestListener[] listeners;
+
+    ListeningHttpClient(CloseableHttpClient backend, Collection<RequestListener> listeners) {
+        super(backend);
+        this.listeners = ArgsCheck.notNull(listeners, "listeners").toArray(new RequestListener[0]);
+    }
+
+    /**
+     * Reports {@link RequestListener#requestHeadersSent} for the exchange executing with {@code context}, if any.
+     */
+    static void requestHeadersSent(HttpContext context) {
+        HttpExchange exchange = HttpExchange.of(context);
+        if (exchange != null) {
+            for (RequestListener listener : exchange.getListeners()) {
+                listener.requestHeadersSent(exchange);
+            }
+        }
+    }
+
+    @Override
+    void onRetryScheduled(RetryAttempt attempt, Duration delay) {
+        for (RequestListener listener : listeners) {
+            listener.retryScheduled(attempt, delay);
+        }
+    }
+
+    @Override
+    public ClassicHttpResponse executeOpen(HttpHost target, ClassicHttpRequest request, HttpContext context) throws IOException {
+        HttpContext exchangeContext = context != null ? context : HttpClientContext.create();
+        HttpExchange exchange = new HttpExchange(target, request, exchangeContext, listeners);
+        for (RequestListener listener : listeners) {
+            listener.requestStarted(exchange);
+        }
+
+        ClassicHttpResponse response;
+        exchangeContext.setAttribute(HttpExchange.CONTEXT_ATTRIBUTE, exchange);
+        try {
+            response = backend.executeOpen(target, request, exchangeContext);
+        } catch (IOException e) {
+            requestFailed(exchange, BasicConnectionFailureType.of(e), e);
+            throw e;
+        } catch (RuntimeException e) {
+            requestFailed(exchange, BasicConnectionFailureType.UNDEFINED, e);
+            throw e;
+        } finally {
+            // A caller's context may be reused for the next request.
+            exchangeContext.removeAttribute(HttpExchange.CONTEXT_ATTRIBUTE);
+        }
+
+        for (RequestListener listener : listeners) {
+            listener.responseHeadersReceived(exchange, response);
+        }
+
+        HttpEntity entity = response.getEntity();
+        if (entity == null || entity instanceof CachedHttpEntity) {
+            // Nothing to wait for: a cached body is already complete and must stay unwrapped.
+            long bytes = entity == null ? 0 : entity.getContentLength();
+            for (RequestListener listener : listeners) {
+                listener.responseBodyRead(exchange, bytes);
+                listener.requestCompleted(exchange, response.getCode());
+            }
+        } else {
+            response.setEntity(new ListenedResponseEntity(entity, exchange, response.getCode()));
+        }
+        return response;
+    }
+
+    private void requestFailed(HttpExchange exchange, ConnectionFailureType failureType, Exception cause) {
+        for (RequestListener listener : listeners) {
+            listener.requestFailed(exchange, failureType, cause);
+        }
+    }
+
+    private final class ListenedResponseEntity extends ObservedHttpEntity {
+        private final HttpExchange exchange;
+        private final int statusCode;
+
+        private ListenedResponseEntity(HttpEntity entity, HttpExchange exchange, int statusCode) {
+            super(entity);
+            this.exchange = exchange;
+            this.statusCode = statusCode;
+        }
+
+        @Override
+        void onBodyRead(long bytes) {
+            for (RequestListener listener : listeners) {
+                listener.responseBodyRead(exchange, bytes);
+            }
+        }
+
+        @Override
+        void onClosed() {
+            for (RequestListener listener : listeners) {
+                listener.requestCompleted(exchange, statusCode);
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsunsoft.http;
+
+import com.jsunsoft.http.annotations.Beta;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.NameValuePair;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.UnaryOperator;
+
+/**
+ * {@link RetryableWebTarget} that sends every attempt to an endpoint of an {@link EndpointGroup}.
+ * <p>
+ * The target is built on the group's first endpoint so that {@link #path(String)},
+ * {@link #addParameter(String, String)} and friends work as usual; at execution time the
+ * scheme, host and port of the built URI are replaced by the endpoint picked for the attempt.
+ * <p>
+ * Failover happens on two levels:
+ * <ul>
+ *     <li>An attempt that fails before the request reached the server (connect timeout,
+ *     unreachable host, exhausted route pool) is transparently re-sent to another endpoint.
+ *     This is safe for any method since nothing was transmitted.</li>
+ *     <li>A retry decided by the {@link RetryContext} never goes back to the endpoint the
+ *     previous attempt was sent to, unless the group has a single endpoint.</li>
+ * </ul>
+ * Every attempt's outcome — status code class, transport failure type, and time to response
+ * headers — is reported to the group for {@linkplain OutlierDetection outlier detection}.
+ */
+@Beta
+class LoadBalancedWebTarget extends RetryableWebTarget {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadBalancedWebTarget.class);
+
+    private final EndpointGroup endpointGroup;
+
+    LoadBalancedWebTarget(CloseableHttpClient closeableHttpClient, EndpointGroup endpointGroup, Collection<Header> defaultHeaders, Collection<NameValuePair> defaultRequestParameters, RetryContext retryContext, ResponseBodyReaderConfig responseBodyReaderConfig, RequestBodySerializeConfig requestBodySerializeConfig, boolean requestPayloadLogging, UnaryOperator<String> payloadRedactor, Charset defaultQueryCharset, Charset defaultBodyCharset) {
+        super(closeableHttpClient, endpointGroup.getEndpoints().get(0), defaultHeaders, defaultRequestParameters, retryContext, responseBodyReaderConfig, requestBodySerializeConfig, requestPayloadLogging, payloadRedactor, defaultQueryCharset, defaultBodyCharset);
+        this.endpointGroup = endpointGroup;
+    }
+
+    private LoadBalancedWebTarget(LoadBalancedWebTarget source) {
+        super(source);
+        this.endpointGroup = source.endpointGroup;
+    }
+
+    @Override
+    LoadBalancedWebTarget copy() {
+        return new LoadBalancedWebTarget(this);
+    }
+
+    @Override
+    Response requestOnce(HttpMethod method, HttpContext context, URI previousAttemptURI) {
+        ArgsCheck.notNull(method, "method");
+
+        URI requestUri = getURI();
+        List<EndpointGroup.Endpoint> tried = new ArrayList<>(2);
+        if (previousAttemptURI != null) {
+            EndpointGroup.Endpoint previous = endpointGroup.findByHost(previousAttemptURI);
+            if (previous != null) {
+                tried.add(previous);
+            }
+        }
+
+        while (true) {
+            EndpointGroup.Endpoint endpoint = endpointGroup.choose(tried);
+            tried.add(endpoint);
+
+            endpoint.acquire();
+            AtomicBoolean released = new AtomicBoolean();
+            Runnable release = () -> {
+                if (released.compareAndSet(false, true)) {
+                    endpoint.release();
+                }
+            };
+
+            long startNanos = System.nanoTime();
+            try {
+                BasicResponse response = execute(method, context, endpoint.resolve(requestUri));
+                response.setCloseListener(release);
+                if (response.getCode() >= 500) {
+                    endpointGroup.recordFailure(endpoint);
+                } else {
+                    endpointGroup.recordSuccess(endpoint, System.nanoTime() - startNanos);
+                }
+                return response;
+            } catch (ResponseException e) {
+                release.run();
+                if (!e.getConnectionFailureType().isConnectionPoolEmpty()) {
+                    // An exhausted pool is a local condition, not a sign of a sick endpoint.
+                    endpointGroup.recordFailure(endpoint);
+                }
+                if (!isRequestNotSent(e) || tried.size() >= endpointGroup.getEndpoints().size()) {
+                    throw e;
+                }
+                LOGGER.debug("Endpoint [{}] failed before the request was sent ({}). Failing over to another endpoint.", endpoint, e.getConnectionFailureType());
+            } catch (RuntimeException e) {
+                release.run();
+                throw e;
+            }
+        }
+    }
+
+    private static boolean isRequestNotSent(ResponseException e) {
+        ConnectionFailureType failureType = e.getConnectionFailureType();
+        return failureType.isConnectTimeout() || failureType.isRemoteServerUnreachable() || failureType.isConnectionPoolEmpty();
+    }
+}
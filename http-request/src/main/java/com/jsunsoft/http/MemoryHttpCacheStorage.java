@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsunsoft.http;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory {@link HttpCacheStorage} evicting the least recently used entries once the total
+ * {@linkplain CacheEntry#getWeight() weight} exceeds the bound.
+ * <p>
+ * Hits take no lock: entries live in a concurrent map, and a hit only stamps its node with the
+ * access time. Eviction is approximate LRU. The store that exceeds the bound scans the nodes once
+ * under the eviction lock and evicts the least recently stamped ones until
+ * 1/{@value #FREED_FRACTION_DIVISOR} of the bound is free, so the scan is amortized over the stores
+ * that follow. A hit racing with the scan may have its entry evicted.
+ */
+final class MemoryHttpCacheStorage implements HttpCacheStorage {
+    private static final int FREED_FRACTION_DIVISOR = 16;
+
+    private final long maxWeight;
+    private final long lowWatermark;
+    private final ConcurrentHashMap<String, Node> entries = new ConcurrentHashMap<>(64);
+    private final AtomicLong totalWeight = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private final Object evictionLock = new Object();
+
+    MemoryHttpCacheStorage(long maxWeight) {
+        this.maxWeight = maxWeight;
+        this.lowWatermark = maxWeight - maxWeight / FREED_FRACTION_DIVISOR;
+    }
+
+    @Override
+    public CacheEntry get(String key) {
+        Node node = entries.get(key);
+        if (node == null) {
+            return null;
+        }
+        node.accessNanos = System.nanoTime();
+        return node.entry;
+    }
+
+    @Override
+    public void put(String key, CacheEntry entry) {
+        Node node = new Node(entry);
+        Node previous = entries.put(key, node);
+        long weight = totalWeight.addAndGet(node.weight - (previous != null ? previous.weight : 0));
+        if (weight > maxWeight) {
+            evict();
+        }
+    }
+
+    @Override
+    public void remove(String key) {
+        Node removed = entries.remove(key);
+        if (removed != null) {
+            totalWeight.addAndGet(-removed.weight);
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (String key : entries.keySet()) {
+            remove(key);
+        }
+    }
+
+    @Override
+    public long getEntryCount() {
+        return entries.size();
+    }
+
+    @Override
+    public long getTotalWeight() {
+        return totalWeight.get();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    private void evict() {
+        synchronized (evictionLock) {
+            if (totalWeight.get() <= maxWeight) {
+                // Done by a concurrent store.
+                return;
+            }
+            // Access times keep changing: sort a snapshot of them.
+            List<Candidate> candidates = new ArrayList<>(entries.size());
+            for (Map.Entry<String, Node> entry : entries.entrySet()) {
+                candidates.add(new Candidate(entry.getKey(), entry.getValue()));
+            }
+            candidates.sort(Comparator.comparingLong(candidate -> candidate.accessNanos));
+            for (Candidate candidate : candidates) {
+                if (totalWeight.get() <= lowWatermark) {
+                    break;
+                }
+                if (entries.remove(candidate.key, candidate.node)) {
+                    totalWeight.addAndGet(-candidate.node.weight);
+                    evictionCount.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    private static final class Candidate {
+        private final String key;
+        private final Node node;
+        private final long accessNanos;
+
+        private Candidate(String key, Node node) {
+            this.key = key;
+            this.node = node;
+            this.accessNanos = node.accessNanos;
+        }
+    }
+
+    private static final class Node {
+        private final CacheEntry entry;
+        private final long weight;
+        private volatile long accessNanos;
+
+        private Node(CacheEntry entry) {
+            this.entry = entry;
+            this.weight = entry.getWeight();
+            this.accessNanos = System.nanoTime();
+        }
+    }
+}
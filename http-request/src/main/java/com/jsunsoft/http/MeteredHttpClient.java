@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
+import org.apache.hc.core5.http.protocol.HttpContext;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Decorates the caller's {@link CloseableHttpClient} with {@link HttpMetrics}. It sits above the
+ * {@link CachingHttpClient} (see {@link HttpClientDecorator} for the order), so responses served by
+ * an {@link HttpCache} are measured as the caller sees them.
+ * <p>
+ * Only installed when metrics are configured: without them requests run through the caller's
+ * client untouched and nothing is timed or wrapped.
+ */
+final class MeteredHttpClient extends HttpClientDecorator {
+    private final HttpMetrics metrics;
+
+    MeteredHttpClient(CloseableHttpClient backend, HttpMetrics metrics) {
+        super(backend);
+        this.metrics = ArgsCheck.notNull(metrics, "metrics");
+    }
+
+    @Override
+    void onRetryScheduled(RetryAttempt attempt, Duration delay) {
+        URI uri = attempt.getURI();
+        if (uri != null && uri.getHost() != null) {
+            metrics.recordRetry(routeOf(new HttpHost(uri.getScheme(), uri.getHost(), uri.getPort())), attempt.getMethod().name());
+        }
+    }
+
+    @Override
+    public ClassicHttpResponse executeOpen(HttpHost target, ClassicHttpRequest request, HttpContext context) throws IOException {
+        String route = routeOf(target);
+        String method = request.getMethod();
+        CountingRequestEntity requestEntity = null;
+        if (request.getEntity() != null) {
+            requestEntity = new CountingRequestEntity(request.getEntity());
+            request.setEntity(requestEntity);
+        }
+
+        long start = System.nanoTime();
+        ClassicHttpResponse response;
+        try {
+            response = backend.executeOpen(target, request, context);
+        } catch (IOException e) {
+            metrics.recordFailure(route, method, BasicConnectionFailureType.of(e), System.nanoTime() - start);
+            throw e;
+        }
+        long durationNanos = System.nanoTime() - start;
+        long requestBytes = requestEntity == null ? 0 : requestEntity.written;
+
+        HttpEntity entity = response.getEntity();
+        if (entity == null) {
+            metrics.recordExchange(route, method, response.getCode(), durationNanos, requestBytes, 0);
+        } else if (entity instanceof CachedHttpEntity) {
+            // Left unwrapped so the response keeps access to the cached results; its size is known.
+            metrics.recordExchange(route, method, response.getCode(), durationNanos, requestBytes, entity.getContentLength());
+        } else {
+            RequestTimings timings = RequestTimings.of(context);
+            if (timings != null) {
+                timings.setConnectionReleaseListener(reused -> metrics.recordConnectionRelease(route, reused));
+            }
+            response.setEntity(new MeteredResponseEntity(entity, route, method, response.getCode(), durationNanos, requestBytes));
+        }
+        return response;
+    }
+
+    static String routeOf(HttpHost target) {
+        return target.toURI();
+    }
+
+    private static final class CountingRequestEntity extends HttpEntityWrapper {
+        private long written;
+
+        private CountingRequestEntity(HttpEntity entity) {
+            super(entity);
+        }
+
+        @Override
+        public void writeTo(OutputStream outStream) throws IOException {
+            written = 0;
+            super.writeTo(new FilterOutputStream(outStream) {
+                @Override
+                public void write(int b) throws IOException {
+                    out.write(b);
+                    written++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                    written += len;
+                }
+            });
+        }
+    }
+
+    /**
+     * Reports the exchange once the caller has read the body.
+     */
+    private final class MeteredResponseEntity extends ObservedHttpEntity {
+        private final String route;
+        private final String method;
+        private final int statusCode;
+        private final long durationNanos;
+        private final long requestBytes;
+
+        private MeteredResponseEntity(HttpEntity entity, String route, String method, int statusCode, long durationNanos, long requestBytes) {
+            super(entity);
+            this.route = route;
+            this.method = method;
+            this.statusCode = statusCode;
+            this.durationNanos = durationNanos;
+            this.requestBytes = requestBytes;
+        }
+
+        @Override
+        void onBodyRead(long bytes) {
+            metrics.recordExchange(route, method, statusCode, durationNanos, requestBytes, bytes);
+        }
+    }
+}
@@ -21,18 +21,34 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import tools.jackson.databind.ObjectMapper;
 import tools.jackson.databind.cfg.MapperBuilder;
 import tools.jackson.databind.json.JsonMapper;
-import tools.jackson.dataformat.xml.XmlMapper;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
 
+/**
+ * Builds the default JSON mapper and the default mappers of the {@link BodyCodecProvider body codecs}.
+ * <p>
+ * Jackson 3 mappers are immutable and thread-safe, so the library-default mappers — the ones used
+ * when neither a mapper nor a date pattern is configured — are built once per JVM and shared by the
+ * request and response side of every {@link HttpRequest}. Codec mappers are built on first use only
+ * ({@link #lazyMapper}), so a service that never sends or receives, say, XML never initializes the
+ * XML stack even when the codec is on the classpath.
+ */
 class ObjectMapperInitializer {
+    /**
+     * Library-default mapper of each codec; providers are singletons of {@link BodyCodecs}.
+     */
+    private static final ConcurrentMap<BodyCodecProvider, ObjectMapper> DEFAULT_CODEC_MAPPERS = new ConcurrentHashMap<>();
 
     private ObjectMapperInitializer() {
     }
 
     /**
-     * Returns a JSON mapper ready to use. When {@code objectMapper} is {@code null}, a fresh
-     * {@link JsonMapper} configured with the library defaults is returned. Otherwise the supplied
+     * Returns a JSON mapper ready to use. When {@code objectMapper} is {@code null}, the shared
+     * {@link JsonMapper} configured with the library defaults is returned, built once per JVM, or a
+     * new one with the date-pattern overrides if {@code dateTypeToPattern} is non-empty. Otherwise the supplied
      * mapper is taken as-is — if {@code dateTypeToPattern} is non-empty, a fresh derivative
      * is produced via {@link ObjectMapper#rebuild() rebuild()} with the date-pattern overrides
      * installed; otherwise the supplied mapper is returned unchanged.
@@ -43,35 +59,48 @@ class ObjectMapperInitializer {
      */
     static ObjectMapper initJsonMapperIfNull(ObjectMapper objectMapper, Map<Class<?>, String> dateTypeToPattern) {
         if (objectMapper == null) {
-            return buildDefaultJsonMapper(dateTypeToPattern);
+            return isEmpty(dateTypeToPattern) ? DefaultJsonMapper.INSTANCE : buildDefaultJsonMapper(dateTypeToPattern);
         }
         return applyDatePatterns(objectMapper, dateTypeToPattern);
     }
 
     /**
-     * XML counterpart of {@link #initJsonMapperIfNull(ObjectMapper, Map)}.
+     * Codec counterpart of {@link #initJsonMapperIfNull(ObjectMapper, Map)}: when {@code objectMapper}
+     * is {@code null}, the mapper is built from {@link BodyCodecProvider#newMapperBuilder()}, and
+     * shared per codec unless {@code dateTypeToPattern} is non-empty.
      */
-    static ObjectMapper initXmlMapperIfNull(ObjectMapper objectMapper, Map<Class<?>, String> dateTypeToPattern) {
+    static ObjectMapper initMapperIfNull(BodyCodecProvider codec, ObjectMapper objectMapper, Map<Class<?>, String> dateTypeToPattern) {
         if (objectMapper == null) {
-            return buildDefaultXmlMapper(dateTypeToPattern);
+            return isEmpty(dateTypeToPattern)
+                    ? DEFAULT_CODEC_MAPPERS.computeIfAbsent(codec, c -> buildDefaultMapper(c.newMapperBuilder(), null))
+                    : buildDefaultMapper(codec.newMapperBuilder(), dateTypeToPattern);
         }
         return applyDatePatterns(objectMapper, dateTypeToPattern);
     }
 
+    /**
+     * Lazy form of {@link #initMapperIfNull(BodyCodecProvider, ObjectMapper, Map)}: the mapper is
+     * resolved on the first {@link Supplier#get()} and then reused.
+     */
+    static Supplier<ObjectMapper> lazyMapper(BodyCodecProvider codec, ObjectMapper objectMapper, Map<Class<?>, String> dateTypeToPattern) {
+        if (objectMapper != null && isEmpty(dateTypeToPattern)) {
+            return () -> objectMapper;
+        }
+        Map<Class<?>, String> patterns = isEmpty(dateTypeToPattern) ? Map.of() : Map.copyOf(dateTypeToPattern);
+        return new LazyObjectMapper(() -> initMapperIfNull(codec, objectMapper, patterns));
+    }
+
     private static ObjectMapper buildDefaultJsonMapper(Map<Class<?>, String> dateTypeToPattern) {
-        JsonMapper.Builder builder = JsonMapper.builder();
-        applyLibraryDefaults(builder);
-        applyDatePatternOverrides(builder, dateTypeToPattern);
-        return builder.build();
+        return buildDefaultMapper(JsonMapper.builder(), dateTypeToPattern);
     }
 
-    private static ObjectMapper buildDefaultXmlMapper(Map<Class<?>, String> dateTypeToPattern) {
-        XmlMapper.Builder builder = XmlMapper.builder();
+    private static ObjectMapper buildDefaultMapper(MapperBuilder<?, ?> builder, Map<Class<?>, String> dateTypeToPattern) {
         applyLibraryDefaults(builder);
         applyDatePatternOverrides(builder, dateTypeToPattern);
         return builder.build();
     }
 
+
     /**
      * Applies the library's specific configuration on top of the Jackson 3 default builder.
      * <p>
@@ -86,14 +115,14 @@ class ObjectMapperInitializer {
      * stays identical to the 2.x library default. {@code NON_NULL} inclusion is not a Jackson
      * default in any version, so this line is the real configuration.
      */
-    private static <M extends ObjectMapper, B extends MapperBuilder<M, B>> void applyLibraryDefaults(B builder) {
+    private static void applyLibraryDefaults(MapperBuilder<?, ?> builder) {
         builder.changeDefaultPropertyInclusion(v -> v
                 .withValueInclusion(JsonInclude.Include.NON_NULL)
                 .withContentInclusion(JsonInclude.Include.NON_NULL));
     }
 
     private static void applyDatePatternOverrides(MapperBuilder<?, ?> builder, Map<Class<?>, String> dateTypeToPattern) {
-        if (dateTypeToPattern == null || dateTypeToPattern.isEmpty()) {
+        if (isEmpty(dateTypeToPattern)) {
             return;
         }
         dateTypeToPattern.forEach((type, pattern) ->
@@ -109,7 +138,7 @@ class ObjectMapperInitializer {
      * round-trip through the source's {@link ObjectMapper#rebuild() builder}.
      */
     private static ObjectMapper applyDatePatterns(ObjectMapper source, Map<Class<?>, String> dateTypeToPattern) {
-        if (dateTypeToPattern == null || dateTypeToPattern.isEmpty()) {
+        if (isEmpty(dateTypeToPattern)) {
             return source;
         }
         // rebuild() returns the concrete MapperBuilder subtype matching `source` at runtime; the
@@ -118,4 +147,37 @@ class ObjectMapperInitializer {
         applyDatePatternOverrides(builder, dateTypeToPattern);
         return builder.build();
     }
+
+    private static boolean isEmpty(Map<Class<?>, String> dateTypeToPattern) {
+        return dateTypeToPattern == null || dateTypeToPattern.isEmpty();
+    }
+
+    private static final class DefaultJsonMapper {
+        private static final ObjectMapper INSTANCE = buildDefaultJsonMapper(null);
+    }
+
+    private static final class LazyObjectMapper implements Supplier<ObjectMapper> {
+        private Supplier<ObjectMapper> initializer;
+        private volatile ObjectMapper objectMapper;
+
+        private LazyObjectMapper(Supplier<ObjectMapper> initializer) {
+            this.initializer = initializer;
+        }
+
+        @Override
+        public ObjectMapper get() {
+            ObjectMapper result = objectMapper;
+            if (result == null) {
+                synchronized (this) {
+                    result = objectMapper;
+                    if (result == null) {
+                        result = initializer.get();
+                        objectMapper = result;
+                        initializer = null;
+                    }
+                }
+            }
+            return result;
+        }
+    }
 }
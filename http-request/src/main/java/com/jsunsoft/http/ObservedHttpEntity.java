@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Response entity that counts the body bytes the caller reads and reports, once each, when the
+ * body has been read (end of stream, or closed before that) and when the entity is closed.
+ * <p>
+ * Used by the decorators of {@link HttpClientDecorator} that report on completed responses.
+ */
+abstract class ObservedHttpEntity extends HttpEntityWrapper {
+    private long bytesRead;
+    private boolean bodyReadReported;
+    private boolean closeReported;
+
+    ObservedHttpEntity(HttpEntity entity) {
+        super(entity);
+    }
+
+    /**
+     * Called once when the body was read to the end, or when it is closed before that.
+     */
+    abstract void onBodyRead(long bytes);
+
+    /**
+     * Called once when the entity is closed, after {@link #onBodyRead(long)}.
+     */
+    void onClosed() {
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        return new FilterInputStream(super.getContent()) {
+            @Override
+            public int read() throws IOException {
+                int b = in.read();
+                if (b < 0) {
+                    bodyRead();
+                } else {
+                    bytesRead++;
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = in.read(b, off, len);
+                if (n < 0) {
+                    bodyRead();
+                } else {
+                    bytesRead += n;
+                }
+                return n;
+            }
+
+            @Override
+            public long skip(long n) throws IOException {
+                long skipped = in.skip(n);
+                bytesRead += skipped;
+                return skipped;
+            }
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    in.close();
+                } finally {
+                    bodyRead();
+                }
+            }
+        };
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+        try (InputStream content = getContent()) {
+            content.transferTo(outStream);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            bodyRead();
+            if (!closeReported) {
+                closeReported = true;
+                onClosed();
+            }
+        }
+    }
+
+    private void bodyRead() {
+        if (!bodyReadReported) {
+            bodyReadReported = true;
+            onBodyRead(bytesRead);
+        }
+    }
+}
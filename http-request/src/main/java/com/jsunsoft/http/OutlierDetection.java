@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsunsoft.http;
+
+import com.jsunsoft.http.annotations.Beta;
+
+import java.time.Duration;
+
+/**
+ * Passive health checking for an {@link EndpointGroup}: endpoints that misbehave are taken out of
+ * rotation (<em>ejected</em>) for a while, so a degraded replica stops receiving its proportional
+ * share of traffic.
+ * <p>
+ * The signals are the ones the load-balanced target already computes for every attempt:
+ * <ul>
+ *     <li><b>Consecutive failures.</b> A 5xx response or a transport failure (connect/response
+ *     timeout, unreachable host, aborted connection) counts as a failure; any other response
+ *     resets the streak. After {@link Builder#setConsecutiveFailures(int)} failures in a row the
+ *     endpoint is ejected. An exhausted connection pool is a local condition and is not counted.</li>
+ *     <li><b>Latency.</b> Each endpoint keeps an exponentially weighted moving average of its
+ *     time-to-response-headers. An endpoint whose average exceeds
+ *     {@link Builder#setLatencyOutlierFactor(double)} times the median of its peers is ejected.</li>
+ * </ul>
+ * The ejection period is {@code baseEjectionTime * 2^(n-1)} for the n-th consecutive ejection,
+ * capped at {@link Builder#setMaxEjectionTime(Duration)}; the multiplier resets once the endpoint
+ * has stayed in rotation for a full {@code maxEjectionTime} after its last ejection ended. No more than
+ * {@link Builder#setMaxEjectionPercent(int)} percent of the endpoints (at least one unless the percentage is
+ * zero, and never the last one) are ejected at the same time, so a cluster-wide problem does not empty the
+ * rotation.
+ * <p>
+ * Optionally an {@link EndpointHealthCheck} probes every endpoint on a background daemon thread;
+ * see {@link Builder#setActiveHealthCheck(EndpointHealthCheck, Duration)}. Call
+ * {@link EndpointGroup#close()} to stop it.
+ *
+ * <pre>{@code
+ * EndpointGroup replicas = EndpointGroup.builder()
+ *         .addEndpoint("http://10.0.0.1:8080")
+ *         .addEndpoint("http://10.0.0.2:8080")
+ *         .setOutlierDetection(OutlierDetection.builder()
+ *                 .setConsecutiveFailures(5)
+ *                 .setBaseEjectionTime(Duration.ofSeconds(30))
+ *                 .build())
+ *         .build();
+ * }</pre>
+ *
+ * @since 5.0.0
+ */
+@Beta
+public final class OutlierDetection {
+    private final int consecutiveFailures;
+    private final Duration baseEjectionTime;
+    private final Duration maxEjectionTime;
+    private final int maxEjectionPercent;
+    private final double latencyOutlierFactor;
+    private final int latencyMinimumSamples;
+    private final EndpointHealthCheck activeHealthCheck;
+    private final Duration activeHealthCheckInterval;
+
+    private OutlierDetection(Builder builder) {
+        this.consecutiveFailures = builder.consecutiveFailures;
+        this.baseEjectionTime = builder.baseEjectionTime;
+        this.maxEjectionTime = builder.maxEjectionTime;
+        this.maxEjectionPercent = builder.maxEjectionPercent;
+        this.latencyOutlierFactor = builder.latencyOutlierFactor;
+        this.latencyMinimumSamples = builder.latencyMinimumSamples;
+        this.activeHealthCheck = builder.activeHealthCheck;
+        this.activeHealthCheckInterval = builder.activeHealthCheckInterval;
+    }
+
+    /**
+     * @return new Builder instance
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    Duration getBaseEjectionTime() {
+        return baseEjectionTime;
+    }
+
+    Duration getMaxEjectionTime() {
+        return maxEjectionTime;
+    }
+
+    int getMaxEjectionPercent() {
+        return maxEjectionPercent;
+    }
+
+    double getLatencyOutlierFactor() {
+        return latencyOutlierFactor;
+    }
+
+    int getLatencyMinimumSamples() {
+        return latencyMinimumSamples;
+    }
+
+    EndpointHealthCheck getActiveHealthCheck() {
+        return activeHealthCheck;
+    }
+
+    Duration getActiveHealthCheckInterval() {
+        return activeHealthCheckInterval;
+    }
+
+    @Override
+    public String toString() {
+        return "OutlierDetection{" +
+                "consecutiveFailures=" + consecutiveFailures +
+                ", baseEjectionTime=" + baseEjectionTime +
+                ", maxEjectionTime=" + maxEjectionTime +
+                ", maxEjectionPercent=" + maxEjectionPercent +
+                ", latencyOutlierFactor=" + latencyOutlierFactor +
+                ", latencyMinimumSamples=" + latencyMinimumSamples +
+                ", activeHealthCheckInterval=" + activeHealthCheckInterval +
+                '}';
+    }
+
+    /**
+     * Builder for {@link OutlierDetection}.
+     */
+    public static final class Builder {
+        private int consecutiveFailures = 5;
+        private Duration baseEjectionTime = Duration.ofSeconds(30);
+        private Duration maxEjectionTime = Duration.ofMinutes(5);
+        private int maxEjectionPercent = 50;
+        private double latencyOutlierFactor = 3.0;
+        private int latencyMinimumSamples = 20;
+        private EndpointHealthCheck activeHealthCheck;
+        private Duration activeHealthCheckInterval;
+
+        private Builder() {
+        }
+
+        /**
+         * @param consecutiveFailures failures in a row that eject an endpoint, {@code <= 0} disables
+         *                            failure-based ejection. Default is {@code 5}.
+         * @return Builder instance
+         */
+        public Builder setConsecutiveFailures(int consecutiveFailures) {
+            this.consecutiveFailures = Math.max(0, consecutiveFailures);
+            return this;
+        }
+
+        /**
+         * @param baseEjectionTime ejection period of the first ejection; doubles on every
+         *                         consecutive one. Must be positive. Default is 30 seconds.
+         * @return Builder instance
+         */
+        public Builder setBaseEjectionTime(Duration baseEjectionTime) {
+            this.baseEjectionTime = requirePositive(baseEjectionTime, "baseEjectionTime");
+            return this;
+        }
+
+        /**
+         * @param maxEjectionTime upper bound of the exponentially growing ejection period. Must be
+         *                        positive. Default is 5 minutes.
+         * @return Builder instance
+         */
+        public Builder setMaxEjectionTime(Duration maxEjectionTime) {
+            this.maxEjectionTime = requirePositive(maxEjectionTime, "maxEjectionTime");
+            return this;
+        }
+
+        /**
+         * @param maxEjectionPercent max percentage of endpoints ejected at once, {@code 0..100};
+         *                           {@code 0} disables ejection. Otherwise at least one endpoint may
+         *                           be ejected in groups of two or more. Default is {@code 50}.
+         * @return Builder instance
+         */
+        public Builder setMaxEjectionPercent(int maxEjectionPercent) {
+            if (maxEjectionPercent < 0 || maxEjectionPercent > 100) {
+                throw new IllegalArgumentException("maxEjectionPercent must be in range 0..100, got " + maxEjectionPercent);
+            }
+            this.maxEjectionPercent = maxEjectionPercent;
+            return this;
+        }
+
+        /**
+         * @param latencyOutlierFactor an endpoint whose average latency exceeds this many times the
+         *                             median of its peers is ejected, {@code <= 0} disables
+         *                             latency-based ejection. Default is {@code 3.0}.
+         * @return Builder instance
+         */
+        public Builder setLatencyOutlierFactor(double latencyOutlierFactor) {
+            this.latencyOutlierFactor = Math.max(0, latencyOutlierFactor);
+            return this;
+        }
+
+        /**
+         * @param latencyMinimumSamples responses an endpoint (and each peer counted in the median)
+         *                              must have served since its last ejection before its latency
+         *                              is judged. Default is {@code 20}.
+         * @return Builder instance
+         */
+        public Builder setLatencyMinimumSamples(int latencyMinimumSamples) {
+            this.latencyMinimumSamples = Math.max(1, latencyMinimumSamples);
+            return this;
+        }
+
+        /**
+         * Enables active health checking: every endpoint is probed with {@code healthCheck} every
+         * {@code interval} on a daemon thread owned by the {@link EndpointGroup}.
+         *
+         * @param healthCheck probe. Must not be {@code null}.
+         * @param interval    probe interval. Must be positive.
+         * @return Builder instance
+         * @see EndpointHealthCheck#httpGet(HttpRequest, String)
+         */
+        public Builder setActiveHealthCheck(EndpointHealthCheck healthCheck, Duration interval) {
+            this.activeHealthCheck = ArgsCheck.notNull(healthCheck, "healthCheck");
+            this.activeHealthCheckInterval = requirePositive(interval, "interval");
+            return this;
+        }
+
+        /**
+         * @return new OutlierDetection instance
+         */
+        public OutlierDetection build() {
+            if (maxEjectionTime.compareTo(baseEjectionTime) < 0) {
+                throw new IllegalArgumentException("maxEjectionTime [" + maxEjectionTime + "] must not be less than baseEjectionTime [" + baseEjectionTime + "]");
+            }
+            return new OutlierDetection(this);
+        }
+
+        private static Duration requirePositive(Duration duration, String name) {
+            ArgsCheck.notNull(duration, name);
+            if (duration.isNegative() || duration.isZero()) {
+                throw new IllegalArgumentException(name + " must be positive, got " + duration);
+            }
+            return duration;
+        }
+    }
+}
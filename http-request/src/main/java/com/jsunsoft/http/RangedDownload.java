@@ -0,0 +1,393 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.message.BasicHeader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.apache.hc.core5.http.HttpStatus.SC_OK;
+import static org.apache.hc.core5.http.HttpStatus.SC_PARTIAL_CONTENT;
+import static org.apache.hc.core5.http.HttpStatus.SC_REQUESTED_RANGE_NOT_SATISFIABLE;
+
+/**
+ * Downloads a resource as several byte ranges fetched concurrently, each written at its offset of a
+ * temporary file sized up front, with positional writes, which is then moved over the target.
+ * <p>
+ * The first range ({@link #FIRST_RANGE_SIZE} bytes) doubles as the probe: its {@code 206} response tells
+ * the total length and the validator (a strong {@code ETag}, else {@code Last-Modified}). The rest of
+ * the resource is split into one range per worker; every range is requested with {@code If-Range}, so
+ * a resource changing mid-download answers {@code 200} and fails the download instead of mixing
+ * versions. A probe without a usable validator or total length falls back to one plain {@code GET}.
+ * An empty resource has no first range: the probe is answered {@code 416} with
+ * {@code Content-Range: bytes *&#47;0}, and the target is created empty.
+ * <p>
+ * Connections come from the client's pool, so the per-route limit of {@link HostPoolConfig} caps how
+ * many ranges are in flight: a worker that can't lease a connection puts its range back and stops
+ * while other workers are still running, instead of failing the download.
+ */
+final class RangedDownload {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RangedDownload.class);
+
+    static final long FIRST_RANGE_SIZE = 1024 * 1024;
+
+    private final BasicWebTarget source;
+    private final URI uri;
+    private final String validator;
+    private final FileChannel channel;
+    private final Queue<Range> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+    private final AtomicReference<Exception> failure = new AtomicReference<>();
+
+    private RangedDownload(BasicWebTarget source, URI uri, String validator, FileChannel channel) {
+        this.source = source;
+        this.uri = uri;
+        this.validator = validator;
+        this.channel = channel;
+    }
+
+    /**
+     * @return the header requesting the first range, to be sent with the probe request
+     */
+    static Header firstRangeHeader() {
+        return rangeHeader(0, FIRST_RANGE_SIZE - 1);
+    }
+
+    /**
+     * @return whether {@link #download} takes a probe response with {@code statusCode}
+     */
+    static boolean downloads(int statusCode) {
+        return HttpRequestUtils.isSuccess(statusCode) || statusCode == SC_REQUESTED_RANGE_NOT_SATISFIABLE;
+    }
+
+    /**
+     * Completes the download started by the probe request of {@code source}, whose response is {@code probe}.
+     */
+    static void download(BasicWebTarget source, Response probe, Path target, int parallelism) throws IOException {
+        if (probe.getCode() == SC_REQUESTED_RANGE_NOT_SATISFIABLE) {
+            if (ContentRange.unsatisfiedLength(probe.getFirstHeader(HttpHeaders.CONTENT_RANGE)) == 0) {
+                EntityTransfers.moveOver(EntityTransfers.createTempSibling(target), target);
+            } else {
+                LOGGER.debug("Uri: [{}] answered the first range with Content-Range: [{}], downloading it whole.",
+                        probe.getURI(), probe.getFirstHeader(HttpHeaders.CONTENT_RANGE));
+                downloadWhole(source, probe.getURI(), target);
+            }
+            return;
+        }
+        if (probe.getCode() != SC_PARTIAL_CONTENT) {
+            // The server ignored the Range header and sent the whole body.
+            EntityTransfers.download(probe.getEntity(), target);
+            return;
+        }
+        ContentRange firstRange = ContentRange.parse(probe.getFirstHeader(HttpHeaders.CONTENT_RANGE));
+        String validator = validatorOf(probe);
+        if (firstRange == null || firstRange.first != 0 || firstRange.total < 0 || validator == null) {
+            LOGGER.debug("Uri: [{}] can't be downloaded in ranges, downloading it whole. Content-Range: [{}], validator: [{}]",
+                    probe.getURI(), probe.getFirstHeader(HttpHeaders.CONTENT_RANGE), validator);
+            downloadWhole(source, probe.getURI(), target);
+            return;
+        }
+
+        long total = firstRange.total;
+        long maxBodySize = source.getResponseBodyReaderConfig().getMaxResponseBodySizeBytes();
+        if (maxBodySize > 0 && total > maxBodySize) {
+            throw new InvalidContentLengthException(total, "Response body exceeds maximum allowed size: " + maxBodySize + " bytes");
+        }
+
+        Path temp = EntityTransfers.createTempSibling(target);
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                if (total > 0) {
+                    EntityTransfers.preallocate(channel, temp, total);
+                }
+                new RangedDownload(source, probe.getURI(), validator, channel).run(probe, firstRange, parallelism);
+            }
+            EntityTransfers.moveOver(temp, target);
+        } catch (IOException | RuntimeException e) {
+            EntityTransfers.deleteAfterFailure(temp, e);
+            throw e;
+        }
+    }
+
+    private void run(Response probe, ContentRange firstRange, int parallelism) throws IOException {
+        long rest = firstRange.total - firstRange.last - 1;
+        int rangeCount = (int) Math.min(parallelism, (rest + FIRST_RANGE_SIZE - 1) / FIRST_RANGE_SIZE);
+        if (rangeCount > 0) {
+            long rangeSize = (rest + rangeCount - 1) / rangeCount;
+            for (long first = firstRange.last + 1; first < firstRange.total; first += rangeSize) {
+                pending.add(new Range(first, Math.min(first + rangeSize, firstRange.total) - 1));
+            }
+        }
+
+        // The calling thread works too once the probe's range is written, so at most parallelism ranges are in flight.
+        int threads = Math.max(0, pending.size() - 1);
+        activeWorkers.set(threads + 1);
+        ExecutorService executor = threads == 0 ? null : Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "http-request-ranged-download");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            for (int i = 0; i < threads; i++) {
+                executor.execute(() -> work(true));
+            }
+            try {
+                writeRange(probe.getEntity(), firstRange);
+            } catch (IOException | RuntimeException e) {
+                activeWorkers.decrementAndGet();
+                failure.compareAndSet(null, e);
+            }
+            if (failure.get() == null) {
+                work(true);
+            }
+
+            if (executor != null) {
+                executor.shutdown();
+                while (!executor.awaitTermination(100, TimeUnit.MILLISECONDS)) {
+                    if (failure.get() != null) {
+                        break;
+                    }
+                }
+            }
+            // Ranges given back by workers that found the pool exhausted after the others had finished.
+            if (failure.get() == null && !pending.isEmpty()) {
+                activeWorkers.incrementAndGet();
+                work(false);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException interrupted = new InterruptedIOException("Ranged download of [" + uri + "] was interrupted");
+            interrupted.initCause(e);
+            throw interrupted;
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+
+        Exception e = failure.get();
+        if (e instanceof IOException) {
+            throw (IOException) e;
+        } else if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        } else if (e != null) {
+            throw new IOException(e);
+        }
+    }
+
+    private void work(boolean mayYield) {
+        try {
+            Range range;
+            while (failure.get() == null && (range = pending.poll()) != null) {
+                try {
+                    fetch(range);
+                } catch (ResponseException e) {
+                    if (mayYield && e.getConnectionFailureType() != null && e.getConnectionFailureType().isConnectionPoolEmpty() && leaveIfNotLast()) {
+                        LOGGER.debug("Connection pool for [{}] is exhausted, {} ranged download workers remain", uri, activeWorkers.get());
+                        pending.add(range);
+                        return;
+                    }
+                    throw e;
+                }
+            }
+            activeWorkers.decrementAndGet();
+        } catch (Exception e) {
+            activeWorkers.decrementAndGet();
+            failure.compareAndSet(null, e);
+        }
+    }
+
+    private boolean leaveIfNotLast() {
+        int active;
+        do {
+            active = activeWorkers.get();
+            if (active <= 1) {
+                return false;
+            }
+        } while (!activeWorkers.compareAndSet(active, active - 1));
+        return true;
+    }
+
+    private void fetch(Range range) throws IOException {
+        BasicWebTarget rangeTarget = new BasicWebTarget(source);
+        rangeTarget.updateHeader(rangeHeader(range.first, range.last));
+        rangeTarget.updateHeader(new BasicHeader(HttpHeaders.IF_RANGE, validator));
+
+        try (BasicResponse response = rangeTarget.execute(HttpMethod.GET, null, uri)) {
+            int statusCode = response.getCode();
+            if (statusCode == SC_OK) {
+                throw new IOException("Resource [" + uri + "] changed during the ranged download: validator [" + validator + "] no longer matches");
+            }
+            if (statusCode != SC_PARTIAL_CONTENT) {
+                throw new IOException("Range request to [" + uri + "] for bytes " + range.first + "-" + range.last + " failed. Status code: " + statusCode);
+            }
+            ContentRange contentRange = ContentRange.parse(response.getFirstHeader(HttpHeaders.CONTENT_RANGE));
+            if (contentRange == null || contentRange.first != range.first || contentRange.last != range.last) {
+                throw new IOException("Range request to [" + uri + "] for bytes " + range.first + "-" + range.last + " was answered with Content-Range: [" + response.getFirstHeader(HttpHeaders.CONTENT_RANGE) + "]");
+            }
+            String etag = response.getFirstHeader(HttpHeaders.ETAG) == null ? null : response.getFirstHeader(HttpHeaders.ETAG).getValue();
+            if (etag != null && isStrongETag(validator) && !etag.equals(validator)) {
+                throw new IOException("Resource [" + uri + "] changed during the ranged download: ETag [" + etag + "] differs from [" + validator + "]");
+            }
+            writeRange(response.getEntity(), contentRange);
+        }
+    }
+
+    private void writeRange(HttpEntity entity, ContentRange range) throws IOException {
+        long length = range.last - range.first + 1;
+        long written = 0;
+        InputStream content = entity == null ? null : entity.getContent();
+        if (content != null) {
+            try (InputStream in = content) {
+                written = EntityTransfers.transferTo(in, channel, range.first);
+            }
+        }
+        if (written != length) {
+            throw new IOException("Range " + range.first + "-" + range.last + " of [" + uri + "] has " + written + " bytes instead of " + length);
+        }
+    }
+
+    private static void downloadWhole(BasicWebTarget source, URI uri, Path target) throws IOException {
+        BasicWebTarget wholeTarget = new BasicWebTarget(source);
+        wholeTarget.removeHeaders(HttpHeaders.RANGE);
+
+        try (BasicResponse response = wholeTarget.execute(HttpMethod.GET, null, uri)) {
+            if (response.getCode() != SC_OK) {
+                throw new IOException("Request to [" + uri + "] failed. Status code: " + response.getCode());
+            }
+            EntityTransfers.download(response.getEntity(), target);
+        }
+    }
+
+    /**
+     * @return the strong {@code ETag} of {@code response}, else its {@code Last-Modified}, or {@code null}
+     */
+    static String validatorOf(Response response) {
+        Header etag = response.getFirstHeader(HttpHeaders.ETAG);
+        if (etag != null && isStrongETag(etag.getValue())) {
+            return etag.getValue();
+        }
+        Header lastModified = response.getFirstHeader(HttpHeaders.LAST_MODIFIED);
+        return lastModified == null ? null : lastModified.getValue();
+    }
+
+    static boolean isStrongETag(String value) {
+        return value != null && value.startsWith("\"");
+    }
+
+    private static Header rangeHeader(long first, long last) {
+        return new BasicHeader(HttpHeaders.RANGE, "bytes=" + first + "-" + last);
+    }
+
+    private static final class Range {
+        private final long first;
+        private final long last;
+
+        private Range(long first, long last) {
+            this.first = first;
+            this.last = last;
+        }
+    }
+
+    /**
+     * A parsed {@code Content-Range: bytes first-last/total} header; {@code total} is {@code -1} when the server sent {@code *}.
+     */
+    static final class ContentRange {
+        final long first;
+        final long last;
+        final long total;
+
+        private ContentRange(long first, long last, long total) {
+            this.first = first;
+            this.last = last;
+            this.total = total;
+        }
+
+        /**
+         * @return the range, or {@code null} if the header is missing or malformed
+         */
+        static ContentRange parse(Header header) {
+            if (header == null) {
+                return null;
+            }
+            String value = header.getValue().trim();
+            if (!value.regionMatches(true, 0, "bytes ", 0, 6)) {
+                return null;
+            }
+            int dash = value.indexOf('-', 6);
+            int slash = value.indexOf('/', dash + 1);
+            if (dash < 0 || slash < 0) {
+                return null;
+            }
+            try {
+                long first = Long.parseLong(value.substring(6, dash).trim());
+                long last = Long.parseLong(value.substring(dash + 1, slash).trim());
+                String totalValue = value.substring(slash + 1).trim();
+                long total = "*".equals(totalValue) ? -1 : Long.parseLong(totalValue);
+                if (first < 0 || last < first || (total >= 0 && last >= total)) {
+                    return null;
+                }
+                return new ContentRange(first, last, total);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        /**
+         * @return the complete length from the {@code Content-Range: bytes *&#47;length} header of a
+         * {@code 416} response, or {@code -1} if the header is missing or malformed
+         */
+        static long unsatisfiedLength(Header header) {
+            if (header == null) {
+                return -1;
+            }
+            String value = header.getValue().trim();
+            if (!value.regionMatches(true, 0, "bytes ", 0, 6)) {
+                return -1;
+            }
+            String range = value.substring(6).trim();
+            if (!range.startsWith("*/")) {
+                return -1;
+            }
+            try {
+                long length = Long.parseLong(range.substring(2).trim());
+                return length < 0 ? -1 : length;
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+    }
+}
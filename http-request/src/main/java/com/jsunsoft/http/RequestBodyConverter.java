@@ -26,8 +26,9 @@ import org.apache.hc.core5.http.HttpEntity;
  * tried in registration order; the first whose {@link #canConvert(RequestBodyConverterContext)}
  * returns {@code true} for the given context (body type + content-type header + charset) wins.
  * <p>
- * Built-in converters cover JSON ({@code application/json}) and XML ({@code application/xml})
- * via Jackson. Register a custom one via
+ * Built-in converters cover JSON ({@code application/json}) via Jackson, plus the formats of the
+ * {@link BodyCodecProvider body codecs} on the classpath — XML ({@code application/xml} /
+ * {@code text/xml}) with {@code http-request-xml}. Register a custom one via
  * {@link HttpRequestBuilder#addRequestBodyConverter(RequestBodyConverter)} for additional
  * formats (CBOR, Protobuf, form-encoded, …); user-supplied converters are tried <em>before</em>
  * the built-ins so you can also override the defaults.
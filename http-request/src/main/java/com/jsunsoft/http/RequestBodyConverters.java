@@ -22,6 +22,8 @@ import org.apache.hc.core5.http.io.entity.StringEntity;
 import tools.jackson.databind.ObjectMapper;
 
 import java.nio.charset.Charset;
+import java.util.List;
+import java.util.function.Supplier;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
@@ -34,8 +36,12 @@ class RequestBodyConverters {
         return new JsonConverter(json);
     }
 
-    static RequestBodyConverter xmlConverter(ObjectMapper xml) {
-        return new XmlConverter(xml);
+    /**
+     * @param codec  the format whose content types the converter accepts
+     * @param mapper supplies the mapper the first time a body of the format is converted
+     */
+    static RequestBodyConverter codecConverter(BodyCodecProvider codec, Supplier<ObjectMapper> mapper) {
+        return new CodecConverter(codec.getContentTypes(), mapper);
     }
 
     private static final class JsonConverter implements RequestBodyConverter {
@@ -63,33 +69,40 @@ class RequestBodyConverters {
         }
     }
 
-    private static final class XmlConverter implements RequestBodyConverter {
-        private final ObjectMapper xml;
+    private static final class CodecConverter implements RequestBodyConverter {
+        private final List<ContentType> contentTypes;
+        private final Supplier<ObjectMapper> mapper;
 
-        XmlConverter(ObjectMapper xml) {
-            this.xml = ArgsCheck.notNull(xml, "xml");
+        CodecConverter(List<ContentType> contentTypes, Supplier<ObjectMapper> mapper) {
+            this.contentTypes = List.copyOf(ArgsCheck.notNull(contentTypes, "contentTypes"));
+            this.mapper = ArgsCheck.notNull(mapper, "mapper");
         }
 
         @Override
         public boolean canConvert(RequestBodyConverterContext context) {
-            ContentType ct = context.getContentType();
-            return ContentType.APPLICATION_XML.isSameMimeType(ct) || ContentType.TEXT_XML.isSameMimeType(ct);
+            return match(context.getContentType()) != null;
         }
 
         @Override
         public HttpEntity convert(RequestBodyConverterContext context) throws RequestException {
             Charset charset = resolveCharset(context);
-            ContentType ct = context.getContentType();
+            ContentType matched = match(context.getContentType());
             try {
-                String payload = xml.writeValueAsString(context.getBody());
-                ContentType outCt = ContentType.TEXT_XML.isSameMimeType(ct)
-                        ? ContentType.TEXT_XML.withCharset(charset)
-                        : ContentType.APPLICATION_XML.withCharset(charset);
-                return new StringEntity(payload, outCt);
+                String payload = mapper.get().writeValueAsString(context.getBody());
+                return new StringEntity(payload, ContentType.create(matched.getMimeType(), charset));
             } catch (Exception e) {
                 throw new RequestException("Serialization of request body failed.", e);
             }
         }
+
+        private ContentType match(ContentType contentType) {
+            for (ContentType convertible : contentTypes) {
+                if (convertible.isSameMimeType(contentType)) {
+                    return convertible;
+                }
+            }
+            return null;
+        }
     }
 
     private static Charset resolveCharset(RequestBodyConverterContext context) {
@@ -20,21 +20,22 @@ package com.jsunsoft.http;
 import tools.jackson.databind.ObjectMapper;
 
 import java.util.*;
+import java.util.function.Supplier;
 
 class RequestBodySerializeConfig {
     private final ObjectMapper defaultJsonMapper;
-    private final ObjectMapper defaultXmlMapper;
+    private final Map<BodyCodecProvider, Supplier<ObjectMapper>> codecMappers;
     private final Collection<RequestBodyConverter> requestBodyConverters;
     private final Collection<RequestBodyConverter> defaultRequestBodyConverters;
     private final boolean useDefaultBodySerializer;
 
     private RequestBodySerializeConfig(ObjectMapper defaultJsonMapper,
-                                       ObjectMapper defaultXmlMapper,
+                                       Map<BodyCodecProvider, Supplier<ObjectMapper>> codecMappers,
                                        Collection<RequestBodyConverter> requestBodyConverters,
                                        Collection<RequestBodyConverter> defaultRequestBodyConverters,
                                        boolean useDefaultBodySerializer) {
         this.defaultJsonMapper = defaultJsonMapper;
-        this.defaultXmlMapper = defaultXmlMapper;
+        this.codecMappers = Map.copyOf(ArgsCheck.notNull(codecMappers, "codecMappers"));
         this.requestBodyConverters = List.copyOf(ArgsCheck.notNull(requestBodyConverters, "requestBodyConverters"));
         this.defaultRequestBodyConverters = List.copyOf(ArgsCheck.notNull(defaultRequestBodyConverters, "defaultRequestBodyConverters"));
         this.useDefaultBodySerializer = useDefaultBodySerializer;
@@ -44,8 +45,15 @@ class RequestBodySerializeConfig {
         return defaultJsonMapper;
     }
 
-    public ObjectMapper getDefaultXmlMapper() {
-        return defaultXmlMapper;
+    /**
+     * @param codecName the {@link BodyCodecProvider#getName() name} of the codec
+     * @return the codec's mapper, built on the first call if it wasn't yet, or {@code null} if the codec
+     * wasn't found or the default body serializer is disabled
+     */
+    public ObjectMapper getDefaultMapper(String codecName) {
+        BodyCodecProvider codec = BodyCodecs.find(codecName);
+        Supplier<ObjectMapper> mapper = codec == null ? null : codecMappers.get(codec);
+        return mapper == null ? null : mapper.get();
     }
 
     Collection<RequestBodyConverter> getRequestBodyConverters() {
@@ -67,7 +75,7 @@ class RequestBodySerializeConfig {
     static class Builder {
 
         private ObjectMapper defaultJsonMapper;
-        private ObjectMapper defaultXmlMapper;
+        private Map<String, ObjectMapper> codecMappers;
 
         private Map<Class<?>, String> dateTypeToPattern;
         private Collection<RequestBodyConverter> requestBodyConverters;
@@ -105,8 +113,16 @@ class RequestBodySerializeConfig {
             return this;
         }
 
-        public Builder setDefaultXmlMapper(ObjectMapper defaultXmlMapper) {
-            this.defaultXmlMapper = defaultXmlMapper;
+        public Builder setDefaultMapper(String codecName, ObjectMapper mapper) {
+            ArgsCheck.notNull(codecName, "codecName");
+            if (mapper != null) {
+                if (codecMappers == null) {
+                    codecMappers = new HashMap<>();
+                }
+                codecMappers.put(codecName, mapper);
+            } else if (codecMappers != null) {
+                codecMappers.remove(codecName);
+            }
 
             return this;
         }
@@ -114,18 +130,19 @@ class RequestBodySerializeConfig {
         RequestBodySerializeConfig build() {
 
             ObjectMapper json = null;
-            ObjectMapper xml = null;
+            Map<BodyCodecProvider, Supplier<ObjectMapper>> codecs = Collections.emptyMap();
             Collection<RequestBodyConverter> defaultRequestBodyConverters = Collections.emptyList();
 
             if (useDefaultBodySerializer) {
                 json = ObjectMapperInitializer.initJsonMapperIfNull(defaultJsonMapper, dateTypeToPattern);
-                xml = ObjectMapperInitializer.initXmlMapperIfNull(defaultXmlMapper, dateTypeToPattern);
-                defaultRequestBodyConverters = List.of(
-                        RequestBodyConverters.jsonConverter(json),
-                        RequestBodyConverters.xmlConverter(xml));
+                codecs = BodyCodecs.lazyMappers(codecMappers, dateTypeToPattern);
+                List<RequestBodyConverter> converters = new ArrayList<>(1 + codecs.size());
+                converters.add(RequestBodyConverters.jsonConverter(json));
+                codecs.forEach((codec, mapper) -> converters.add(RequestBodyConverters.codecConverter(codec, mapper)));
+                defaultRequestBodyConverters = converters;
             } else {
-                if (defaultJsonMapper != null || defaultXmlMapper != null || dateTypeToPattern != null) {
-                    throw new IllegalArgumentException("Do not provide defaultJsonMapper/defaultXmlMapper/dateTypeToPattern if default body serializer is disabled.");
+                if (defaultJsonMapper != null || (codecMappers != null && !codecMappers.isEmpty()) || dateTypeToPattern != null) {
+                    throw new IllegalArgumentException("Do not provide defaultJsonMapper/codec mappers/dateTypeToPattern if default body serializer is disabled.");
                 }
             }
 
@@ -133,7 +150,7 @@ class RequestBodySerializeConfig {
                 requestBodyConverters = Collections.emptyList();
             }
 
-            return new RequestBodySerializeConfig(json, xml, requestBodyConverters, defaultRequestBodyConverters, useDefaultBodySerializer);
+            return new RequestBodySerializeConfig(json, codecs, requestBodyConverters, defaultRequestBodyConverters, useDefaultBodySerializer);
         }
     }
 }
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import com.jsunsoft.http.annotations.Beta;
+import org.apache.hc.core5.http.HttpResponse;
+
+import java.time.Duration;
+
+/**
+ * Receives lifecycle events of the requests executed by an {@link HttpRequest}, e.g. to open a
+ * tracing span per request and propagate its context in request headers.
+ * <p>
+ * Register listeners with {@link HttpRequestBuilder#addRequestListener(RequestListener)}. Every
+ * attempt sent to the server is one {@link HttpExchange}, reported in this order:
+ * <ol>
+ *     <li>{@link #requestStarted} — before anything is sent; headers added to
+ *     {@link HttpExchange#getRequest()} here are sent with the request;</li>
+ *     <li>{@link #requestHeadersSent} — the connection is ready and the request goes out;</li>
+ *     <li>{@link #responseHeadersReceived} — the response head arrived;</li>
+ *     <li>{@link #responseBodyRead} — the body was read to the end or the response was closed;</li>
+ *     <li>{@link #requestCompleted} — the response was closed;</li>
+ * </ol>
+ * or {@link #requestFailed} in place of the last four when no response was received.
+ * {@link #retryScheduled} is reported between the attempts of a retryable target.
+ * <p>
+ * {@code requestHeadersSent} is observed through a hook installed by {@link ClientBuilder} and is
+ * not reported with a client built otherwise. Callbacks run on the thread executing the request, must
+ * be thread-safe and should return quickly; an exception thrown by a listener propagates to the caller.
+ * Without listeners nothing is allocated or called.
+ *
+ * @since 5.0.0
+ */
+@Beta
+public interface RequestListener {
+
+    /**
+     * Called before the request is sent, including before a cache lookup.
+     *
+     * @param exchange the request; its headers may still be changed
+     */
+    default void requestStarted(HttpExchange exchange) {
+    }
+
+    /**
+     * Called when a connection has been leased and connected and the request is handed to it.
+     *
+     * @param exchange the request
+     */
+    default void requestHeadersSent(HttpExchange exchange) {
+    }
+
+    /**
+     * @param exchange the request
+     * @param response the response head; its body has not been read yet
+     */
+    default void responseHeadersReceived(HttpExchange exchange, HttpResponse response) {
+    }
+
+    /**
+     * @param exchange the request
+     * @param bytes    body bytes the caller read, {@code 0} without a body
+     */
+    default void responseBodyRead(HttpExchange exchange, long bytes) {
+    }
+
+    /**
+     * @param exchange   the request
+     * @param statusCode status code of the response
+     */
+    default void requestCompleted(HttpExchange exchange, int statusCode) {
+    }
+
+    /**
+     * Called when the request failed before a response was received.
+     *
+     * @param exchange    the request
+     * @param failureType why the request failed
+     * @param cause       the failure
+     */
+    default void requestFailed(HttpExchange exchange, ConnectionFailureType failureType, Exception cause) {
+    }
+
+    /**
+     * Called when a retryable target decided to send a request again, before it waits {@code delay}.
+     * The exchange of the retried attempt completes right after, when its response is closed.
+     *
+     * @param attempt the attempt that is retried
+     * @param delay   the delay before the next attempt, {@code null} or zero for none
+     * @see RetryContext
+     */
+    default void retryScheduled(RetryAttempt attempt, Duration delay) {
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import com.jsunsoft.http.annotations.Beta;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.core5.http.protocol.HttpContext;
+
+import java.util.function.Consumer;
+
+/**
+ * Where the time of one request went, phase by phase, with nanosecond resolution.
+ * <p>
+ * The phases follow the life of a request:
+ * <ol>
+ *     <li>{@link #getPoolWaitNanos() pool wait} — leasing a connection from the pool;</li>
+ *     <li>{@link #getDnsNanos() DNS}, {@link #getConnectNanos() TCP connect} and {@link #getTlsNanos() TLS handshake}
+ *     — only when a new connection was opened;</li>
+ *     <li>{@link #getTimeToFirstByteNanos() time to first byte} — sending the request and waiting for the response head;</li>
+ *     <li>{@link #getBodyNanos() body} — waiting for body bytes while reading the response;</li>
+ *     <li>{@link #getDeserializeNanos() deserialize} — time spent in the {@link ResponseBodyReader} itself.</li>
+ * </ol>
+ * Pool wait, DNS, connect and TLS are observed through hooks installed by {@link ClientBuilder};
+ * with a client built otherwise they are {@code -1}. Timings are recorded only when something reads
+ * them, see {@link HttpRequestBuilder#enableRequestTimings()}; a recorded request costs one instance
+ * and a few {@link System#nanoTime()} calls per request and per body read.
+ * <p>
+ * The values are final once the response is closed. Instances are filled in by the thread
+ * executing the request and are not safe to read from another thread while it runs.
+ *
+ * @see Response#getTimings()
+ * @see ResponseHandler#getTimings()
+ * @since 5.0.0
+ */
+@Beta
+public final class RequestTimings {
+    static final String CONTEXT_ATTRIBUTE = "com.jsunsoft.http.request-timings";
+
+    private final long startNanos;
+    private long leaseStartNanos;
+    private long connectStartNanos;
+    private long socketConnectStartNanos;
+    private long socketConnectEndNanos;
+    private long tlsStartNanos;
+    private long tlsEndNanos;
+    private long requestStartNanos;
+    private long responseHeadNanos;
+    private long bodyNanos;
+    private long deserializeNanos;
+    private long endNanos;
+    private long bodyBytes;
+    /**
+     * Handles of the open {@link HttpEvents flight recorder events}, {@code null} when not recorded.
+     */
+    private Object requestEvent;
+    private Object leaseEvent;
+    /**
+     * Told whether the connection was kept for reuse when the response body is released.
+     */
+    private Consumer<Boolean> connectionReleaseListener;
+
+    RequestTimings() {
+        this(null);
+    }
+
+    /**
+     * @param requestEvent handle of the open request event, {@code null} if not recorded
+     */
+    RequestTimings(Object requestEvent) {
+        this.startNanos = System.nanoTime();
+        this.requestEvent = requestEvent;
+    }
+
+    /**
+     * @return the timings of the request executing with {@code context}, {@code null} if it isn't recorded
+     */
+    static RequestTimings of(HttpContext context) {
+        Object timings = context == null ? null : context.getAttribute(CONTEXT_ATTRIBUTE);
+        return timings instanceof RequestTimings ? (RequestTimings) timings : null;
+    }
+
+    /**
+     * @return time spent waiting to lease a connection from the pool, {@code -1} if not observed
+     */
+    public long getPoolWaitNanos() {
+        long leaseEnd = connectStartNanos != 0 ? connectStartNanos : requestStartNanos;
+        return between(leaseStartNanos, leaseEnd);
+    }
+
+    /**
+     * @return time spent resolving the host name, {@code -1} if no connection was opened or not observed
+     */
+    public long getDnsNanos() {
+        return between(connectStartNanos, socketConnectStartNanos);
+    }
+
+    /**
+     * @return time spent establishing the TCP connection (all addresses tried), {@code -1} if no
+     * connection was opened or not observed
+     */
+    public long getConnectNanos() {
+        return between(socketConnectStartNanos, socketConnectEndNanos);
+    }
+
+    /**
+     * @return time spent in the TLS handshake, {@code -1} without a handshake or if not observed
+     */
+    public long getTlsNanos() {
+        return between(tlsStartNanos, tlsEndNanos);
+    }
+
+    /**
+     * Time from the connection being ready until the response head arrived: sending the request
+     * plus the server's processing time. With a client not built by {@link ClientBuilder} it is
+     * measured from the start of the request.
+     *
+     * @return time to the first byte of the response, {@code -1} if no response was received
+     */
+    public long getTimeToFirstByteNanos() {
+        return between(requestStartNanos != 0 ? requestStartNanos : startNanos, responseHeadNanos);
+    }
+
+    /**
+     * @return time spent waiting for response body bytes, {@code 0} if the body was not read
+     */
+    public long getBodyNanos() {
+        return bodyNanos;
+    }
+
+    /**
+     * @return time spent converting the body into the requested type, excluding the time waiting for
+     * body bytes, {@code 0} if the body was not deserialized
+     */
+    public long getDeserializeNanos() {
+        return deserializeNanos;
+    }
+
+    /**
+     * @return time from the start of the request until the response was closed, {@code -1} while it is open
+     */
+    public long getTotalNanos() {
+        return between(startNanos, endNanos);
+    }
+
+    /**
+     * @return {@code true} if the request was sent on a pooled connection, without opening a new one
+     */
+    public boolean isConnectionReused() {
+        return leaseStartNanos != 0 && connectStartNanos == 0;
+    }
+
+    /**
+     * Commits the request event, if one is recorded and still open.
+     *
+     * @param failureType why no response was received, {@code null} if one was
+     */
+    void endRequestEvent(int statusCode, ConnectionFailureType failureType) {
+        Object event = requestEvent;
+        requestEvent = null;
+        HttpEvents.endRequest(event, statusCode, bodyBytes, failureType);
+    }
+
+    void markLeaseStart(HttpRoute route) {
+        leaseStartNanos = System.nanoTime();
+        leaseEvent = HttpEvents.beginConnectionLease(route);
+    }
+
+    void markConnectStart() {
+        connectStartNanos = System.nanoTime();
+        endLeaseEvent(true);
+    }
+
+    void markSocketConnectStart() {
+        if (socketConnectStartNanos == 0) {
+            socketConnectStartNanos = System.nanoTime();
+        }
+    }
+
+    void markSocketConnectEnd() {
+        socketConnectEndNanos = System.nanoTime();
+    }
+
+    void markTlsStart() {
+        tlsStartNanos = System.nanoTime();
+    }
+
+    void markTlsEnd() {
+        tlsEndNanos = System.nanoTime();
+    }
+
+    void markRequestStart() {
+        requestStartNanos = System.nanoTime();
+        endLeaseEvent(false);
+    }
+
+    void markResponseHead() {
+        responseHeadNanos = System.nanoTime();
+    }
+
+    void addBodyNanos(long nanos) {
+        bodyNanos += nanos;
+    }
+
+    void addBodyBytes(long bytes) {
+        bodyBytes += bytes;
+    }
+
+    void addDeserializeNanos(long nanos) {
+        deserializeNanos += Math.max(nanos, 0);
+    }
+
+    void setConnectionReleaseListener(Consumer<Boolean> connectionReleaseListener) {
+        this.connectionReleaseListener = connectionReleaseListener;
+    }
+
+    /**
+     * Reports, once, how the connection of a response with a body was given back.
+     *
+     * @param reused {@code true} if the body was read to the end and the connection kept for reuse,
+     *               {@code false} if it was discarded
+     */
+    void markConnectionReleased(boolean reused) {
+        Consumer<Boolean> listener = connectionReleaseListener;
+        connectionReleaseListener = null;
+        if (listener != null) {
+            listener.accept(reused);
+        }
+    }
+
+    void markEnd() {
+        if (endNanos == 0) {
+            endNanos = System.nanoTime();
+        }
+    }
+
+    private void endLeaseEvent(boolean newConnection) {
+        Object event = leaseEvent;
+        leaseEvent = null;
+        HttpEvents.endConnectionLease(event, newConnection);
+    }
+
+    private static long between(long fromNanos, long toNanos) {
+        return fromNanos == 0 || toNanos == 0 ? -1 : Math.max(toNanos - fromNanos, 0);
+    }
+
+    @Override
+    public String toString() {
+        return "RequestTimings{" +
+                "poolWaitNanos=" + getPoolWaitNanos() +
+                ", dnsNanos=" + getDnsNanos() +
+                ", connectNanos=" + getConnectNanos() +
+                ", tlsNanos=" + getTlsNanos() +
+                ", timeToFirstByteNanos=" + getTimeToFirstByteNanos() +
+                ", bodyNanos=" + bodyNanos +
+                ", deserializeNanos=" + deserializeNanos +
+                ", totalNanos=" + getTotalNanos() +
+                ", connectionReused=" + isConnectionReused() +
+                '}';
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import org.apache.hc.client5.http.DnsResolver;
+import org.apache.hc.client5.http.SchemePortResolver;
+import org.apache.hc.client5.http.classic.ExecChainHandler;
+import org.apache.hc.client5.http.impl.io.DefaultHttpClientConnectionOperator;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.io.HttpClientConnectionOperator;
+import org.apache.hc.client5.http.io.ManagedHttpClientConnection;
+import org.apache.hc.client5.http.ssl.TlsSocketStrategy;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.URIScheme;
+import org.apache.hc.core5.http.config.RegistryBuilder;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.net.NamedEndpoint;
+import org.apache.hc.core5.util.Timeout;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+
+/**
+ * Hooks through which {@link ClientBuilder} fills in the connection phases of {@link RequestTimings}.
+ * <p>
+ * The exec chain runs {@code CONNECT} (lease, then connect if the connection is new) right before
+ * {@code MAIN_TRANSPORT} (send the request, receive the response head). An interceptor on each
+ * side of {@code CONNECT} marks where leasing starts and where sending starts; the connection
+ * operator marks DNS, TCP connect and TLS in between.
+ */
+final class RequestTimingsRecorder {
+
+    private RequestTimingsRecorder() {
+    }
+
+    /**
+     * @return exec interceptor to install right before {@code CONNECT}
+     */
+    static ExecChainHandler leaseObserver() {
+        return (request, scope, chain) -> {
+            RequestTimings timings = RequestTimings.of(scope.clientContext);
+            if (timings != null) {
+                timings.markLeaseStart(scope.route);
+            }
+            return chain.proceed(request, scope);
+        };
+    }
+
+    /**
+     * @return exec interceptor to install right after {@code CONNECT}; also reports
+     * {@link RequestListener#requestHeadersSent} for the exchange, if any
+     */
+    static ExecChainHandler transportObserver() {
+        return (request, scope, chain) -> {
+            RequestTimings timings = RequestTimings.of(scope.clientContext);
+            if (timings != null) {
+                timings.markRequestStart();
+            }
+            ListeningHttpClient.requestHeadersSent(scope.clientContext);
+            return chain.proceed(request, scope);
+        };
+    }
+
+    /**
+     * @return connection manager builder whose connection operator records the connection phases
+     */
+    static PoolingHttpClientConnectionManagerBuilder connectionManagerBuilder() {
+        return new PoolingHttpClientConnectionManagerBuilder() {
+            @Override
+            protected HttpClientConnectionOperator createConnectionOperator(SchemePortResolver schemePortResolver, DnsResolver dnsResolver, TlsSocketStrategy tlsSocketStrategy) {
+                return new TimedConnectionOperator(schemePortResolver, dnsResolver, tlsSocketStrategy);
+            }
+        };
+    }
+
+    private static final class TimedConnectionOperator extends DefaultHttpClientConnectionOperator {
+
+        private TimedConnectionOperator(SchemePortResolver schemePortResolver, DnsResolver dnsResolver, TlsSocketStrategy tlsSocketStrategy) {
+            super(schemePortResolver, dnsResolver, RegistryBuilder.<TlsSocketStrategy>create().register(URIScheme.HTTPS.id, tlsSocketStrategy).build());
+        }
+
+        @Override
+        public void connect(ManagedHttpClientConnection conn, HttpHost endpointHost, NamedEndpoint endpointName, Path unixDomainSocket, InetSocketAddress localAddress,
+                            Timeout connectTimeout, SocketConfig socketConfig, Object attachment, HttpContext context) throws IOException {
+            RequestTimings timings = RequestTimings.of(context);
+            if (timings != null) {
+                timings.markConnectStart();
+            }
+            super.connect(conn, endpointHost, endpointName, unixDomainSocket, localAddress, connectTimeout, socketConfig, attachment, context);
+        }
+
+        @Override
+        protected void onBeforeSocketConnect(HttpContext context, HttpHost endpointHost) {
+            RequestTimings timings = RequestTimings.of(context);
+            if (timings != null) {
+                timings.markSocketConnectStart();
+            }
+        }
+
+        @Override
+        protected void onAfterSocketConnect(HttpContext context, HttpHost endpointHost) {
+            RequestTimings timings = RequestTimings.of(context);
+            if (timings != null) {
+                timings.markSocketConnectEnd();
+            }
+        }
+
+        @Override
+        protected void onBeforeTlsHandshake(HttpContext context, HttpHost endpointHost) {
+            RequestTimings timings = RequestTimings.of(context);
+            if (timings != null) {
+                timings.markTlsStart();
+            }
+        }
+
+        @Override
+        protected void onAfterTlsHandshake(HttpContext context, HttpHost endpointHost) {
+            RequestTimings timings = RequestTimings.of(context);
+            if (timings != null) {
+                timings.markTlsEnd();
+            }
+        }
+    }
+}
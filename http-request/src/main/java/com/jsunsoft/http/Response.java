@@ -170,4 +170,16 @@ public interface Response extends ClassicHttpResponse {
         return !isSuccess();
     }
 
+
+    /**
+     * Where the time of the request went. Body and deserialization time grow as the body is read;
+     * the total is set once the response is closed.
+     *
+     * @return the phase timings, or {@code null} if they were not recorded
+     * @see RequestTimings
+     */
+    @Beta
+    default RequestTimings getTimings() {
+        return null;
+    }
 }
@@ -16,7 +16,10 @@
 
 package com.jsunsoft.http;
 
+import com.jsunsoft.http.annotations.Beta;
+
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * Strategy for deserializing an HTTP response body into a Java object of type {@code T}.
@@ -25,8 +28,9 @@ import java.io.IOException;
  * (target type + content-type + status) wins, and its {@link #read(ResponseBodyReaderContext)}
  * method is invoked to produce the value.
  * <p>
- * Built-in readers cover {@code String}, {@code byte[]}, JSON ({@code application/json}), and
- * XML ({@code application/xml} / {@code text/xml}) — register a custom one via
+ * Built-in readers cover {@code String}, {@code byte[]}, {@link java.nio.ByteBuffer},
+ * {@link java.nio.channels.ReadableByteChannel}, JSON ({@code application/json}), and the formats of the {@link BodyCodecProvider body codecs} on the classpath — XML
+ * ({@code application/xml} / {@code text/xml}) with {@code http-request-xml}. Register a custom one via
  * {@link HttpRequestBuilder#addBodyReader(ResponseBodyReader)} when you need something else
  * (e.g. CBOR, Protobuf, MessagePack). User-supplied readers are tried <em>before</em> the
  * built-ins, so you can also override the defaults.
@@ -78,6 +82,21 @@ public interface ResponseBodyReader<T> {
         return ResponseBodyReaders.whenSuccessStringReader();
     }
 
+    /**
+     * Returns a reader of {@link ByteBuffer} bodies into <em>direct</em> buffers, ready to be written
+     * to NIO channels without another copy. The body is staged through small pooled chunks, never
+     * through a heap array of its size. The default {@code ByteBuffer} reader returns a heap buffer;
+     * register this one with {@link HttpRequestBuilder#addBodyReader(ResponseBodyReader)} to take
+     * precedence over it.
+     *
+     * @return reader of direct {@code ByteBuffer}s, flipped for reading. The result is {@code null} if there is no content.
+     * @since 5.0.0
+     */
+    @Beta
+    static ResponseBodyReader<ByteBuffer> directByteBufferReader() {
+        return ResponseBodyReaders.directByteBufferReader();
+    }
+
     /**
      * Method checks if the response body is readable by this reader.
      *
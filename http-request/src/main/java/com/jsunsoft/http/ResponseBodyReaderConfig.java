@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2024. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsunsoft.http;
+
+/*
+ * Date: 11/20/2019.
+ * Developer: Beno Arakelyan
+ */
+
+
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Supplier;
+
+class ResponseBodyReaderConfig {
+    /**
+     * Drain budget used when a body size limit is configured and no budget is set.
+     */
+    static final long DEFAULT_MAX_DRAIN_BYTES = 64 * 1024;
+    static final Duration DEFAULT_MAX_DRAIN_TIME = Duration.ofSeconds(1);
+    /**
+     * Error bodies are read whole unless a capture limit is set.
+     */
+    static final int DEFAULT_MAX_ERROR_BODY_BYTES = 0;
+
+    private final ObjectMapper defaultJsonMapper;
+    private final Map<BodyCodecProvider, Supplier<ObjectMapper>> codecMappers;
+    private final Collection<ResponseBodyReader<?>> responseBodyReaders;
+    private final Collection<ResponseBodyReader<?>> defaultResponseBodyReaders;
+    private final boolean useDefaultReader;
+    /**
+     * Maximum allowed response body size in bytes. {@code <= 0} means "unlimited".
+     */
+    private final long maxResponseBodySizeBytes;
+    /**
+     * Charset used to decode response bodies into {@code String} when the {@code Content-Type}
+     * header carries no {@code charset} parameter. Never {@code null}.
+     */
+    private final Charset defaultResponseCharset;
+    /**
+     * Most bytes of an unread body remainder read to keep the connection reusable, see {@link DrainingHttpEntity}.
+     */
+    private final long maxDrainBytes;
+    private final long maxDrainNanos;
+    /**
+     * Most bytes of a non-successful response body read into the error text. {@code <= 0} means "unlimited".
+     */
+    private final int maxErrorBodyBytes;
+    /**
+     * Whether expected failures created by the library skip filling in their stack trace.
+     */
+    private final boolean lightweightFailures;
+    /**
+     * Whether every request records its {@link RequestTimings}, not only while a JFR recording wants its events.
+     */
+    private final boolean recordTimings;
+
+    private ResponseBodyReaderConfig(ObjectMapper defaultJsonMapper,
+                                     Map<BodyCodecProvider, Supplier<ObjectMapper>> codecMappers,
+                                     Collection<ResponseBodyReader<?>> responseBodyReaders,
+                                     Collection<ResponseBodyReader<?>> defaultResponseBodyReaders,
+                                     boolean useDefaultReader,
+                                     long maxResponseBodySizeBytes,
+                                     Charset defaultResponseCharset,
+                                     long maxDrainBytes,
+                                     long maxDrainNanos,
+                                     int maxErrorBodyBytes,
+                                     boolean lightweightFailures,
+                                     boolean recordTimings) {
+        this.defaultJsonMapper = defaultJsonMapper;
+        this.codecMappers = Map.copyOf(ArgsCheck.notNull(codecMappers, "codecMappers"));
+        this.responseBodyReaders = List.copyOf(ArgsCheck.notNull(responseBodyReaders, "responseBodyReaders"));
+        this.defaultResponseBodyReaders = List.copyOf(ArgsCheck.notNull(defaultResponseBodyReaders, "defaultResponseBodyReaders"));
+        this.useDefaultReader = useDefaultReader;
+        this.maxResponseBodySizeBytes = maxResponseBodySizeBytes;
+        this.defaultResponseCharset = ArgsCheck.notNull(defaultResponseCharset, "defaultResponseCharset");
+        this.maxDrainBytes = maxDrainBytes;
+        this.maxDrainNanos = maxDrainNanos;
+        this.maxErrorBodyBytes = maxErrorBodyBytes;
+        this.lightweightFailures = lightweightFailures;
+        this.recordTimings = recordTimings;
+    }
+
+    static Builder create() {
+        return new Builder();
+    }
+
+    public ObjectMapper getDefaultJsonMapper() {
+        return defaultJsonMapper;
+    }
+
+    /**
+     * @param codecName the {@link BodyCodecProvider#getName() name} of the codec
+     * @return the codec's mapper, built on the first call if it wasn't yet, or {@code null} if the codec
+     * wasn't found or the default body reader is disabled
+     */
+    public ObjectMapper getDefaultMapper(String codecName) {
+        BodyCodecProvider codec = BodyCodecs.find(codecName);
+        Supplier<ObjectMapper> mapper = codec == null ? null : codecMappers.get(codec);
+        return mapper == null ? null : mapper.get();
+    }
+
+    Collection<ResponseBodyReader<?>> getDefaultResponseBodyReaders() {
+        return defaultResponseBodyReaders;
+    }
+
+    Collection<ResponseBodyReader<?>> getResponseBodyReaders() {
+        return responseBodyReaders;
+    }
+
+    boolean isUseDefaultReader() {
+        return useDefaultReader;
+    }
+
+    long getMaxResponseBodySizeBytes() {
+        return maxResponseBodySizeBytes;
+    }
+
+    Charset getDefaultResponseCharset() {
+        return defaultResponseCharset;
+    }
+
+    long getMaxDrainBytes() {
+        return maxDrainBytes;
+    }
+
+    long getMaxDrainNanos() {
+        return maxDrainNanos;
+    }
+
+    int getMaxErrorBodyBytes() {
+        return maxErrorBodyBytes;
+    }
+
+    boolean isLightweightFailures() {
+        return lightweightFailures;
+    }
+
+    boolean isRecordTimings() {
+        return recordTimings;
+    }
+
+    static class Builder {
+        private Collection<ResponseBodyReader<?>> responseBodyReaders;
+        private boolean useDefaultReader = true;
+
+        private ObjectMapper defaultJsonMapper;
+        private Map<String, ObjectMapper> codecMappers;
+
+        private Map<Class<?>, String> dateTypeToPattern;
+        private long maxResponseBodySizeBytes;
+        private Charset defaultResponseCharset = StandardCharsets.UTF_8;
+        private long maxDrainBytes = -1;
+        private Duration maxDrainTime;
+        private int maxErrorBodyBytes = DEFAULT_MAX_ERROR_BODY_BYTES;
+        private boolean lightweightFailures;
+        private boolean recordTimings;
+
+        private Builder() {
+        }
+
+        Builder setMaxResponseBodySizeBytes(long maxResponseBodySizeBytes) {
+            this.maxResponseBodySizeBytes = maxResponseBodySizeBytes;
+            return this;
+        }
+
+        /**
+         * @param maxDrainBytes most bytes of an unread body remainder to read before discarding the connection instead
+         * @param maxDrainTime  most time to spend reading them
+         */
+        Builder setDrainBudget(long maxDrainBytes, Duration maxDrainTime) {
+            ArgsCheck.notNull(maxDrainTime, "maxDrainTime");
+            if (maxDrainBytes < 0 || maxDrainTime.isNegative()) {
+                throw new IllegalArgumentException("Drain budget must not be negative: [" + maxDrainBytes + " bytes, " + maxDrainTime + "].");
+            }
+            this.maxDrainBytes = maxDrainBytes;
+            this.maxDrainTime = maxDrainTime;
+            return this;
+        }
+
+        Builder setMaxErrorBodyBytes(int maxErrorBodyBytes) {
+            this.maxErrorBodyBytes = maxErrorBodyBytes;
+            return this;
+        }
+
+        Builder setLightweightFailures(boolean lightweightFailures) {
+            this.lightweightFailures = lightweightFailures;
+            return this;
+        }
+
+        Builder setRecordTimings(boolean recordTimings) {
+            this.recordTimings = recordTimings;
+            return this;
+        }
+
+        Builder setDefaultResponseCharset(Charset defaultResponseCharset) {
+            this.defaultResponseCharset = ArgsCheck.notNull(defaultResponseCharset, "defaultResponseCharset");
+            return this;
+        }
+
+        Builder addResponseBodyReader(ResponseBodyReader<?> responseBodyReader) {
+            if (responseBodyReaders == null) {
+                responseBodyReaders = new LinkedHashSet<>();
+            }
+
+            this.responseBodyReaders.add(responseBodyReader);
+
+            return this;
+        }
+
+        Builder setUseDefaultBodyReader(boolean useDefaultReader) {
+            this.useDefaultReader = useDefaultReader;
+
+            return this;
+        }
+
+        Builder addDateDeserializationPattern(Class<?> dateType, String pattern) {
+            if (dateTypeToPattern == null) {
+                dateTypeToPattern = new HashMap<>();
+            }
+
+            dateTypeToPattern.put(dateType, pattern);
+
+            return this;
+        }
+
+        public Builder setDefaultJsonMapper(ObjectMapper defaultJsonMapper) {
+            this.defaultJsonMapper = defaultJsonMapper;
+
+            return this;
+        }
+
+        public Builder setDefaultMapper(String codecName, ObjectMapper mapper) {
+            ArgsCheck.notNull(codecName, "codecName");
+            if (mapper != null) {
+                if (codecMappers == null) {
+                    codecMappers = new HashMap<>();
+                }
+                codecMappers.put(codecName, mapper);
+            } else if (codecMappers != null) {
+                codecMappers.remove(codecName);
+            }
+
+            return this;
+        }
+
+        ResponseBodyReaderConfig build() {
+            ObjectMapper json = null;
+            Map<BodyCodecProvider, Supplier<ObjectMapper>> codecs = Collections.emptyMap();
+            Collection<ResponseBodyReader<?>> defaultResponseBodyReaders = Collections.emptyList();
+
+            if (useDefaultReader) {
+                json = ObjectMapperInitializer.initJsonMapperIfNull(defaultJsonMapper, dateTypeToPattern);
+                codecs = BodyCodecs.lazyMappers(codecMappers, dateTypeToPattern);
+                List<ResponseBodyReader<?>> readers = new ArrayList<>(5 + codecs.size());
+                readers.add(ResponseBodyReaders.stringReader());
+                readers.add(ResponseBodyReaders.byteReader());
+                readers.add(ResponseBodyReaders.byteBufferReader());
+                readers.add(ResponseBodyReaders.channelReader());
+                readers.add(ResponseBodyReaders.jsonReader(json));
+                codecs.forEach((codec, mapper) -> readers.add(ResponseBodyReaders.codecReader(codec, mapper)));
+                defaultResponseBodyReaders = readers;
+            } else {
+                if (defaultJsonMapper != null || (codecMappers != null && !codecMappers.isEmpty()) || dateTypeToPattern != null) {
+                    throw new IllegalArgumentException("Do not provide defaultJsonMapper/codec mappers/dateTypeToPattern if default body reader is disabled.");
+                }
+            }
+
+            if (responseBodyReaders == null) {
+                responseBodyReaders = Collections.emptyList();
+            }
+
+            // Without a body size limit a body may be read whole anyway, so by default the remainder is too.
+            long drainBytes = maxDrainBytes;
+            long drainNanos = maxDrainTime == null ? Long.MAX_VALUE : toNanosSaturated(maxDrainTime);
+            if (drainBytes < 0) {
+                drainBytes = maxResponseBodySizeBytes > 0 ? DEFAULT_MAX_DRAIN_BYTES : Long.MAX_VALUE;
+                drainNanos = maxResponseBodySizeBytes > 0 ? DEFAULT_MAX_DRAIN_TIME.toNanos() : Long.MAX_VALUE;
+            }
+
+            return new ResponseBodyReaderConfig(json, codecs, responseBodyReaders, defaultResponseBodyReaders, useDefaultReader,
+                    maxResponseBodySizeBytes, defaultResponseCharset, drainBytes, drainNanos, maxErrorBodyBytes, lightweightFailures, recordTimings);
+        }
+
+        private static long toNanosSaturated(Duration duration) {
+            try {
+                return duration.toNanos();
+            } catch (ArithmeticException e) {
+                return Long.MAX_VALUE;
+            }
+        }
+    }
+}
@@ -18,8 +18,7 @@ package com.jsunsoft.http;
 
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.hc.core5.http.ContentType;
-import org.apache.hc.core5.http.ParseException;
-import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.HttpEntity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import tools.jackson.core.JacksonException;
@@ -30,8 +29,12 @@ import tools.jackson.databind.ObjectMapper;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.List;
+import java.util.function.Supplier;
 
-import static org.apache.hc.core5.http.ContentType.*;
+import static org.apache.hc.core5.http.ContentType.APPLICATION_JSON;
 
 class ResponseBodyReaders {
     private static final ResponseBodyReader<String> STRING_READER = new StringReader();
@@ -52,6 +55,12 @@ class ResponseBodyReaders {
 
     private static final ResponseBodyReader<byte[]> BYTE_READER = new ByteReader();
 
+    private static final ResponseBodyReader<ByteBuffer> BYTE_BUFFER_READER = new ByteBufferReader(false);
+
+    private static final ResponseBodyReader<ByteBuffer> DIRECT_BYTE_BUFFER_READER = new ByteBufferReader(true);
+
+    private static final ResponseBodyReader<ReadableByteChannel> CHANNEL_READER = new ChannelReader();
+
     private ResponseBodyReaders() {
     }
 
@@ -71,12 +80,28 @@ class ResponseBodyReaders {
         return BYTE_READER;
     }
 
+    static ResponseBodyReader<ByteBuffer> byteBufferReader() {
+        return BYTE_BUFFER_READER;
+    }
+
+    static ResponseBodyReader<ByteBuffer> directByteBufferReader() {
+        return DIRECT_BYTE_BUFFER_READER;
+    }
+
+    static ResponseBodyReader<ReadableByteChannel> channelReader() {
+        return CHANNEL_READER;
+    }
+
     static <T> ResponseBodyReader<T> jsonReader(ObjectMapper objectMapper) {
         return new JsonReader<>(objectMapper);
     }
 
-    static <T> ResponseBodyReader<T> xmlReader(ObjectMapper objectMapper) {
-        return new XmlReader<>(objectMapper);
+    /**
+     * @param codec        the format whose content types the reader accepts
+     * @param objectMapper supplies the mapper the first time a body of the format is read
+     */
+    static <T> ResponseBodyReader<T> codecReader(BodyCodecProvider codec, Supplier<ObjectMapper> objectMapper) {
+        return new CodecReader<>(codec.getContentTypes(), objectMapper);
     }
 
     private static class StringReader implements ResponseBodyReader<String> {
@@ -96,23 +121,20 @@ class ResponseBodyReaders {
 
             LOGGER.trace("Content type is: {}", contentType);
 
-            String result;
-            try {
-                // The size cap is enforced one layer down by BoundedHttpEntity wrapping the
-                // entity stream in commons-io's BoundedInputStream — that throws
-                // InvalidContentLengthException as soon as the byte cap is exceeded. Passing
-                // an additional `maxLen` here would only truncate the resulting String at a
-                // CHARACTER boundary while letting the byte cap pass silently for the read
-                // pattern EntityUtils.toString uses.
-                //
-                // The default charset is taken from the readable-context (UTF-8 by default,
-                // configurable via HttpRequestBuilder#setDefaultResponseCharset). It is used
-                // only when the response's Content-Type header carries no explicit charset
-                // parameter — Apache HC5 would otherwise silently fall back to ISO-8859-1.
-                result = EntityUtils.toString(bodyReaderContext.getHttpEntity(), bodyReaderContext.getDefaultResponseCharset());
-            } catch (ParseException e) {
-                throw new ResponseBodyReaderException(e);
-            }
+            // The size cap is enforced one layer down by BoundedHttpEntity wrapping the
+            // entity stream in commons-io's BoundedInputStream — that throws
+            // InvalidContentLengthException as soon as the byte cap is exceeded. Capping the
+            // result here as well would only truncate the resulting String at a CHARACTER
+            // boundary while letting the byte cap pass silently.
+            //
+            // The default charset is taken from the readable-context (UTF-8 by default,
+            // configurable via HttpRequestBuilder#setDefaultResponseCharset). It is used
+            // only when the response's Content-Type header carries no explicit charset
+            // parameter — Apache HC5 would otherwise silently fall back to ISO-8859-1.
+            //
+            // BodyBuffers pre-sizes from Content-Length and reads chunked bodies into pooled
+            // chunks, avoiding EntityUtils' grow-by-doubling buffers and char[] copies.
+            String result = BodyBuffers.toString(bodyReaderContext.getHttpEntity(), bodyReaderContext.getDefaultResponseCharset());
 
             if (result == null || result.isEmpty()) {
                 LOGGER.warn("No content to read. Content length is: {}", bodyReaderContext.getContentLength());
@@ -138,10 +160,47 @@ class ResponseBodyReaders {
 
         @Override
         public byte[] read(ResponseBodyReaderContext<byte[]> bodyReaderContext) throws IOException, ResponseBodyReaderException {
-            // See StringReader#read for why no maxLen is passed: BoundedHttpEntity already
+            // See StringReader#read for why no cap is applied here: BoundedHttpEntity already
             // wraps the stream in BoundedInputStream and throws InvalidContentLengthException
             // when the byte cap is exceeded.
-            return EntityUtils.toByteArray(bodyReaderContext.getHttpEntity());
+            return BodyBuffers.toByteArray(bodyReaderContext.getHttpEntity());
+        }
+    }
+
+    private static final class ByteBufferReader implements ResponseBodyReader<ByteBuffer> {
+        private final boolean direct;
+
+        ByteBufferReader(boolean direct) {
+            this.direct = direct;
+        }
+
+        @Override
+        public boolean isReadable(ResponseBodyReadableContext bodyReadableContext) {
+            return bodyReadableContext.getType() == ByteBuffer.class && bodyReadableContext.hasEntity();
+        }
+
+        @Override
+        public ByteBuffer read(ResponseBodyReaderContext<ByteBuffer> bodyReaderContext) throws IOException {
+            HttpEntity entity = bodyReaderContext.getHttpEntity();
+            if (direct) {
+                return BodyBuffers.toDirectByteBuffer(entity);
+            }
+            byte[] body = BodyBuffers.toByteArray(entity);
+            return body == null ? null : ByteBuffer.wrap(body);
+        }
+    }
+
+    private static final class ChannelReader implements ResponseBodyReader<ReadableByteChannel> {
+
+        @Override
+        public boolean isReadable(ResponseBodyReadableContext bodyReadableContext) {
+            return bodyReadableContext.getType() == ReadableByteChannel.class && bodyReadableContext.hasEntity();
+        }
+
+        @Override
+        public ReadableByteChannel read(ResponseBodyReaderContext<ReadableByteChannel> bodyReaderContext) throws IOException {
+            InputStream content = bodyReaderContext.getContent();
+            return content == null ? null : new EntityChannel(content);
         }
     }
 
@@ -172,19 +231,29 @@ class ResponseBodyReaders {
         }
     }
 
-    private static final class XmlReader<T> implements ResponseBodyReader<T> {
-        private static final Logger LOGGER = LoggerFactory.getLogger(XmlReader.class);
+    private static final class CodecReader<T> implements ResponseBodyReader<T> {
+        private static final Logger LOGGER = LoggerFactory.getLogger(CodecReader.class);
 
-        private final ObjectMapper objectMapper;
+        private final List<ContentType> contentTypes;
+        private final Supplier<ObjectMapper> objectMapper;
 
-        XmlReader(ObjectMapper objectMapper) {
+        CodecReader(List<ContentType> contentTypes, Supplier<ObjectMapper> objectMapper) {
+            this.contentTypes = List.copyOf(ArgsCheck.notNull(contentTypes, "contentTypes"));
             this.objectMapper = ArgsCheck.notNull(objectMapper, "objectMapper");
         }
 
         @Override
         public boolean isReadable(ResponseBodyReadableContext bodyReadableContext) {
+            if (!bodyReadableContext.hasEntity()) {
+                return false;
+            }
             ContentType contentType = bodyReadableContext.getContentType();
-            return bodyReadableContext.hasEntity() && (APPLICATION_XML.isSameMimeType(contentType) || TEXT_XML.isSameMimeType(contentType));
+            for (ContentType readable : contentTypes) {
+                if (readable.isSameMimeType(contentType)) {
+                    return true;
+                }
+            }
+            return false;
         }
 
         @Override
@@ -196,7 +265,7 @@ class ResponseBodyReaders {
                 return null;
             }
 
-            return ResponseBodyReaders.deserialize(content, bodyReaderContext.getGenericType(), objectMapper, LOGGER);
+            return ResponseBodyReaders.deserialize(content, bodyReaderContext.getGenericType(), objectMapper.get(), LOGGER);
         }
     }
 
@@ -207,6 +276,7 @@ class ResponseBodyReaders {
         logger.debug("Starting deserialization to type: [{}]", type);
 
         long startTime = System.currentTimeMillis();
+        Object deserializationEvent = HttpEvents.beginDeserialization(type, objectMapper);
         JavaType javaType = objectMapper.constructType(type);
         T result;
         try {
@@ -227,6 +297,8 @@ class ResponseBodyReaders {
             throw new IOException("Deserialization stream error: " + e.getMessage(), e);
         } catch (JacksonException e) {
             throw new ResponseBodyReaderException("Deserialization failed: " + e.getMessage(), e);
+        } finally {
+            HttpEvents.endDeserialization(deserializationEvent);
         }
 
         if (logger.isDebugEnabled()) {
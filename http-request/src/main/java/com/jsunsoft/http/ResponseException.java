@@ -38,6 +38,8 @@ public class ResponseException extends RuntimeException {
     private final URI uri;
     /** Connection failure classification, if available. */
     private final ConnectionFailureType connectionFailureType;
+    /** Phase timings of the failed request, if recorded. */
+    private transient RequestTimings timings;
 
     /**
      * Creates an exception with a status code and message.
@@ -107,7 +109,16 @@ public class ResponseException extends RuntimeException {
     }
 
     ResponseException(int statusCode, int originalStatusCode, String msg, URI uri, ConnectionFailureType connectionFailureType, Throwable cause) {
-        super(msg, cause);
+        this(statusCode, originalStatusCode, msg, uri, connectionFailureType, cause, true);
+    }
+
+    /**
+     * @param writableStackTrace {@code false} to skip filling in the stack trace, for expected failures
+     *                           whose cause already tells where they come from
+     */
+    ResponseException(int statusCode, int originalStatusCode, String msg, URI uri, ConnectionFailureType connectionFailureType, Throwable cause,
+                      boolean writableStackTrace) {
+        super(msg, cause, true, writableStackTrace);
         this.statusCode = statusCode;
         this.originalStatusCode = originalStatusCode;
         this.uri = uri;
@@ -140,6 +151,14 @@ public class ResponseException extends RuntimeException {
         return connectionFailureType;
     }
 
+    RequestTimings getTimings() {
+        return timings;
+    }
+
+    void setTimings(RequestTimings timings) {
+        this.timings = timings;
+    }
+
     @Override
     public String toString() {
         return new StringJoiner(", ", super.toString() + " [", "]")
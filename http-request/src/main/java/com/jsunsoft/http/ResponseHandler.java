@@ -271,6 +271,37 @@ public interface ResponseHandler<T> {
      */
     String getErrorText();
 
+    /**
+     * Reads the body of a non-successful response into {@code errorType} with the response body
+     * readers, e.g. into the error DTO of an API.
+     * <p>
+     * The body is read from the bytes captured for the {@link #getErrorText() error text}, so it
+     * must fit in the capture limit, if one is set (see {@link HttpRequestBuilder#setMaxErrorBodyBytes(int)}).
+     * It is read again on each call.
+     *
+     * @param errorType type to read the error body into
+     * @param <E>       type of the error body
+     * @return the error body, empty if the response was successful or had no body
+     * @throws ResponseBodyProcessingException if the body was truncated or cannot be read as {@code errorType}
+     */
+    @Beta
+    default <E> Optional<E> getError(Class<E> errorType) {
+        return Optional.empty();
+    }
+
+    /**
+     * Generic variant of {@link #getError(Class)}.
+     *
+     * @param errorType type to read the error body into
+     * @param <E>       type of the error body
+     * @return the error body, empty if the response was successful or had no body
+     * @throws ResponseBodyProcessingException if the body was truncated or cannot be read as {@code errorType}
+     */
+    @Beta
+    default <E> Optional<E> getError(TypeReference<E> errorType) {
+        return Optional.empty();
+    }
+
     /**
      * Gets the connection URI.
      *
@@ -403,4 +434,28 @@ public interface ResponseHandler<T> {
      */
     @Beta
     Duration getDuration();
+
+    /**
+     * Whether the response is a stale copy served by the {@link HttpCache}: either while it is being
+     * refreshed in the background ({@code stale-while-revalidate}) or because the origin failed
+     * ({@code stale-if-error}).
+     *
+     * @return {@code true} if the content is stale
+     */
+    @Beta
+    default boolean isStale() {
+        return false;
+    }
+
+    /**
+     * Where the time of the request went: pool wait, connect, time to first byte, body and
+     * deserialization. For failed requests only the phases reached before the failure are set.
+     *
+     * @return the phase timings, or {@code null} if they were not recorded
+     * @see RequestTimings
+     */
+    @Beta
+    default RequestTimings getTimings() {
+        return null;
+    }
 }
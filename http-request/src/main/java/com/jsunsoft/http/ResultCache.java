@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsunsoft.http;
+
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Deserialized response bodies of the {@link HttpCache}, keyed by the cache key, the
+ * {@code Vary}-nominated request header values, the {@linkplain CacheEntry#getContentVersion() content
+ * version} of the body and the target type.
+ * <p>
+ * Each result weighs the size of the body it was read from, and the least recently used results are
+ * evicted beyond the bound, like {@link MemoryHttpCacheStorage} does for the bodies themselves.
+ */
+final class ResultCache {
+    private final long maxWeight;
+    private final LinkedHashMap<Key, Result> results = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalWeight;
+
+    ResultCache(long maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    synchronized Object get(Key key) {
+        Result result = results.get(key);
+        return result != null ? result.value : null;
+    }
+
+    synchronized void put(Key key, Object value, long weight) {
+        if (weight > maxWeight) {
+            return;
+        }
+        Result previous = results.put(key, new Result(value, weight));
+        if (previous != null) {
+            totalWeight -= previous.weight;
+        }
+        totalWeight += weight;
+
+        Iterator<Result> it = results.values().iterator();
+        while (totalWeight > maxWeight && it.hasNext()) {
+            totalWeight -= it.next().weight;
+            it.remove();
+        }
+    }
+
+    /**
+     * Removes the results of all variants and versions stored under {@code cacheKey}.
+     */
+    synchronized void removeAll(String cacheKey) {
+        Iterator<Map.Entry<Key, Result>> it = results.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Key, Result> entry = it.next();
+            if (entry.getKey().cacheKey.equals(cacheKey)) {
+                totalWeight -= entry.getValue().weight;
+                it.remove();
+            }
+        }
+    }
+
+    synchronized void clear() {
+        results.clear();
+        totalWeight = 0;
+    }
+
+    synchronized long size() {
+        return results.size();
+    }
+
+    private static final class Result {
+        private final Object value;
+        private final long weight;
+
+        private Result(Object value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    static final class Key {
+        private final String cacheKey;
+        private final Map<String, String> varyValues;
+        private final String contentVersion;
+        private final Type type;
+        private final Object readerScope;
+        private final int hash;
+
+        /**
+         * @param readerScope the configuration the body is read with; results of differently configured readers are kept apart
+         */
+        Key(String cacheKey, Map<String, String> varyValues, String contentVersion, Type type, Object readerScope) {
+            this.cacheKey = cacheKey;
+            this.varyValues = varyValues;
+            this.contentVersion = contentVersion;
+            this.type = type;
+            this.readerScope = readerScope;
+            this.hash = Objects.hash(cacheKey, varyValues, contentVersion, type, System.identityHashCode(readerScope));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return hash == key.hash
+                    && readerScope == key.readerScope
+                    && cacheKey.equals(key.cacheKey)
+                    && contentVersion.equals(key.contentVersion)
+                    && type.equals(key.type)
+                    && varyValues.equals(key.varyValues);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.message.BasicHeader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import static org.apache.hc.core5.http.HttpStatus.SC_OK;
+import static org.apache.hc.core5.http.HttpStatus.SC_PARTIAL_CONTENT;
+import static org.apache.hc.core5.http.HttpStatus.SC_REQUESTED_RANGE_NOT_SATISFIABLE;
+
+/**
+ * Download that survives a connection dying in the middle of the body.
+ * <p>
+ * The body is written to {@code <target>.part}; the URI and the validator of the resource (a strong
+ * {@code ETag}, else {@code Last-Modified}) are persisted next to it in {@code <target>.part.state}. The
+ * size of the part file is the progress. When a download is resumed — by a later call, possibly from
+ * another process, or by a retry of a {@link RetryableWebTarget} — the request carries
+ * {@code Range: bytes=<size>-} and {@code If-Range: <validator>}. The body is appended only if the server
+ * answers {@code 206} from exactly that offset with the same validator; a {@code 200} (the resource
+ * changed) overwrites the part file, and any other {@code 206} restarts the download with a plain
+ * {@code GET}. Once complete, the part file is moved over the target and the state file deleted.
+ * <p>
+ * A part file may already hold the whole body: the connection died after the last byte, or the process
+ * before the part file was moved over the target. The server then answers {@code 416} with
+ * {@code Content-Range: bytes *&#47;<size>}, and the part file is moved over the target as is. Any other
+ * {@code 416} drops the part and state files and restarts the download.
+ * <p>
+ * The part file is not sized up front, as its size is the progress.
+ */
+final class ResumableDownload {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResumableDownload.class);
+
+    static final String PART_SUFFIX = ".part";
+    static final String STATE_SUFFIX = ".part.state";
+
+    private static final String URI_PROPERTY = "uri";
+    private static final String VALIDATOR_PROPERTY = "validator";
+
+    private final Path target;
+    private final Path part;
+    private final Path state;
+    private boolean interrupted;
+
+    ResumableDownload(Path target) {
+        this.target = ArgsCheck.notNull(target, "target").toAbsolutePath();
+        this.part = this.target.resolveSibling(this.target.getFileName() + PART_SUFFIX);
+        this.state = this.target.resolveSibling(this.target.getFileName() + STATE_SUFFIX);
+    }
+
+    /**
+     * Starts an attempt of the download.
+     *
+     * @return the headers resuming the persisted partial download of {@code uri}, or an empty list if there is none
+     */
+    List<Header> resumeHeaders(URI uri) {
+        interrupted = false;
+        Properties properties;
+        long offset;
+        try {
+            properties = readState();
+            offset = Files.exists(part) ? Files.size(part) : 0;
+        } catch (IOException e) {
+            LOGGER.warn("Can't read the partial download of [{}] to [{}], downloading it from the start.", uri, target, e);
+            return Collections.emptyList();
+        }
+        if (properties == null || offset == 0 || !uri.toString().equals(properties.getProperty(URI_PROPERTY))) {
+            return Collections.emptyList();
+        }
+        LOGGER.debug("Resuming download of [{}] to [{}] from byte {}", uri, target, offset);
+        return Arrays.asList(
+                new BasicHeader(HttpHeaders.RANGE, "bytes=" + offset + "-"),
+                new BasicHeader(HttpHeaders.IF_RANGE, properties.getProperty(VALIDATOR_PROPERTY))
+        );
+    }
+
+    Path getTarget() {
+        return target;
+    }
+
+    /**
+     * @return whether the last {@link #write} was cut in the middle of the body with progress worth resuming
+     */
+    boolean isInterrupted() {
+        return interrupted;
+    }
+
+    /**
+     * @return whether {@link #write} takes a response with {@code statusCode} to a request sent with {@code resumeHeaders}
+     */
+    static boolean writes(int statusCode, List<Header> resumeHeaders) {
+        return HttpRequestUtils.isSuccess(statusCode) || (statusCode == SC_REQUESTED_RANGE_NOT_SATISFIABLE && !resumeHeaders.isEmpty());
+    }
+
+    /**
+     * Writes the body of the successful response to a request sent with {@link #resumeHeaders(URI)}, or
+     * completes the download on a {@code 416} to it.
+     *
+     * @param source the target the request was sent from, used to restart the download when it can't be resumed
+     * @param uri    the URI the request was sent to, as passed to {@link #resumeHeaders(URI)}
+     */
+    void write(BasicWebTarget source, Response response, URI uri) throws IOException {
+        interrupted = false;
+        if (response.getCode() == SC_REQUESTED_RANGE_NOT_SATISFIABLE) {
+            completeOrRestart(source, response, uri);
+        } else if (response.getCode() == SC_PARTIAL_CONTENT) {
+            RangedDownload.ContentRange range = RangedDownload.ContentRange.parse(response.getFirstHeader(HttpHeaders.CONTENT_RANGE));
+            Properties properties = readState();
+            long offset = Files.exists(part) ? Files.size(part) : 0;
+            String validator = RangedDownload.validatorOf(response);
+            if (range != null && properties != null && range.first == offset && validator != null
+                    && validator.equals(properties.getProperty(VALIDATOR_PROPERTY))) {
+                checkSize(source, range.total);
+                writeFrom(response.getEntity(), offset, validator, uri);
+            } else {
+                LOGGER.debug("Download of [{}] can't be resumed from byte {}: Content-Range [{}], validator [{}]. Restarting it.",
+                        uri, offset, response.getFirstHeader(HttpHeaders.CONTENT_RANGE), validator);
+                restart(source, uri);
+            }
+        } else {
+            writeFrom(response.getEntity(), 0, RangedDownload.validatorOf(response), uri);
+        }
+    }
+
+    /**
+     * A range past the end of the resource: If-Range matched, or the server would have answered
+     * {@code 200}, so a part file of the resource's size is the whole body.
+     */
+    private void completeOrRestart(BasicWebTarget source, Response response, URI uri) throws IOException {
+        long length = RangedDownload.ContentRange.unsatisfiedLength(response.getFirstHeader(HttpHeaders.CONTENT_RANGE));
+        long offset = Files.exists(part) ? Files.size(part) : 0;
+        if (length > 0 && length == offset && readState() != null) {
+            LOGGER.debug("Download of [{}] to [{}] was already complete", uri, target);
+            EntityTransfers.moveOver(part, target);
+            Files.deleteIfExists(state);
+        } else {
+            LOGGER.debug("Download of [{}] can't be resumed from byte {}: Content-Range [{}]. Restarting it.",
+                    uri, offset, response.getFirstHeader(HttpHeaders.CONTENT_RANGE));
+            Files.deleteIfExists(part);
+            Files.deleteIfExists(state);
+            restart(source, uri);
+        }
+    }
+
+    private void restart(BasicWebTarget source, URI uri) throws IOException {
+        BasicWebTarget restartTarget = new BasicWebTarget(source);
+        restartTarget.removeHeaders(HttpHeaders.RANGE);
+        restartTarget.removeHeaders(HttpHeaders.IF_RANGE);
+
+        try (BasicResponse response = restartTarget.execute(HttpMethod.GET, null, uri)) {
+            if (response.getCode() != SC_OK) {
+                throw new IOException("Restarting the download of [" + uri + "] failed. Status code: " + response.getCode());
+            }
+            writeFrom(response.getEntity(), 0, RangedDownload.validatorOf(response), uri);
+        }
+    }
+
+    /**
+     * Writes {@code entity} to the part file at {@code offset}, the end of the part file or {@code 0} for a whole body.
+     */
+    private void writeFrom(HttpEntity entity, long offset, String validator, URI uri) throws IOException {
+        if (offset == 0) {
+            if (validator != null) {
+                writeState(uri, validator);
+            } else {
+                // Without a validator a resumed body could belong to another version of the resource.
+                Files.deleteIfExists(state);
+            }
+        }
+        StandardOpenOption[] options = offset == 0
+                ? new StandardOpenOption[]{StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING}
+                : new StandardOpenOption[]{StandardOpenOption.WRITE};
+        try (FileChannel channel = FileChannel.open(part, options)) {
+            InputStream content = entity == null ? null : entity.getContent();
+            if (content != null) {
+                try (InputStream in = content) {
+                    EntityTransfers.transferTo(in, channel, offset);
+                }
+            }
+        } catch (ResponseBodyReaderException e) {
+            discard(e);
+            throw e;
+        } catch (IOException e) {
+            // Keep the part file: its size is the progress to resume from.
+            interrupted = validator != null;
+            throw e;
+        }
+        EntityTransfers.moveOver(part, target);
+        Files.deleteIfExists(state);
+    }
+
+    private void checkSize(BasicWebTarget source, long total) throws IOException {
+        long maxBodySize = source.getResponseBodyReaderConfig().getMaxResponseBodySizeBytes();
+        if (maxBodySize > 0 && total > maxBodySize) {
+            InvalidContentLengthException e = new InvalidContentLengthException(total, "Response body exceeds maximum allowed size: " + maxBodySize + " bytes");
+            discard(e);
+            throw e;
+        }
+    }
+
+    private void discard(Exception failure) {
+        EntityTransfers.deleteAfterFailure(part, failure);
+        EntityTransfers.deleteAfterFailure(state, failure);
+    }
+
+    private Properties readState() throws IOException {
+        if (!Files.exists(state)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(state, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return properties.getProperty(URI_PROPERTY) == null || properties.getProperty(VALIDATOR_PROPERTY) == null ? null : properties;
+    }
+
+    private void writeState(URI uri, String validator) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(URI_PROPERTY, uri.toString());
+        properties.setProperty(VALIDATOR_PROPERTY, validator);
+        try (Writer writer = Files.newBufferedWriter(state, StandardCharsets.UTF_8)) {
+            properties.store(writer, null);
+        }
+    }
+}
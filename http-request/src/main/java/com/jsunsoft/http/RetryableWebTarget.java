@@ -42,9 +42,19 @@ class RetryableWebTarget extends BasicWebTarget {
         this.retryContext = retryContext;
     }
 
+    RetryableWebTarget(RetryableWebTarget source) {
+        super(source);
+        this.retryContext = source.retryContext;
+    }
+
+    @Override
+    RetryableWebTarget copy() {
+        return new RetryableWebTarget(this);
+    }
+
     @Override
     public Response request(HttpMethod method, HttpContext context) {
-        Response response = super.request(method, context);
+        Response response = requestOnce(method, context, null);
 
         final int maxRetries = retryContext.getRetryCount();
         int remaining = maxRetries;
@@ -57,12 +67,26 @@ class RetryableWebTarget extends BasicWebTarget {
                     break;
                 }
 
+                try {
+                    // A body that can't be replayed fails now, before waiting for the retry delay.
+                    checkEntityRepeatable();
+                } catch (IllegalStateException e) {
+                    closeResponse(response);
+                    throw e;
+                }
+
                 LOGGER.debug("Request to URI: [{}] will be retried (attempt {} of {}). Response code: [{}]",
                         response.getURI(), attemptNumber + 1, maxRetries + 1, response.getCode());
 
                 Duration delay = retryContext.getRetryDelay(attempt);
+                HttpClientDecorator.retryScheduled(getCloseableHttpClient(), attempt, delay);
                 if (delay != null && !delay.isZero() && !delay.isNegative()) {
-                    Thread.sleep(delay.toMillis());
+                    Object retrySleepEvent = HttpEvents.beginRetrySleep(attempt, delay);
+                    try {
+                        Thread.sleep(delay.toMillis());
+                    } finally {
+                        HttpEvents.endRetrySleep(retrySleepEvent);
+                    }
                 }
 
                 closeResponse(response);
@@ -70,8 +94,9 @@ class RetryableWebTarget extends BasicWebTarget {
                 WebTarget retryTarget = retryContext.beforeRetry(attempt, this);
                 if (retryTarget instanceof RetryableWebTarget rt) {
                     // Avoid recursion (and retryCount reset) when beforeRetry returns the same retryable instance.
-                    // Execute a single request attempt using a non-retryable target copy.
-                    response = new BasicWebTarget(rt).request(method, context);
+                    // Execute a single request attempt without entering the retry loop again.
+                    rt.checkEntityRepeatable();
+                    response = rt.requestOnce(method, context, attempt.getURI());
                 } else {
                     response = retryTarget.request(method, context);
                 }
@@ -87,6 +112,23 @@ class RetryableWebTarget extends BasicWebTarget {
         return response;
     }
 
+    /**
+     * A download interrupted in the middle of the body is resumed as many times as a request is retried.
+     */
+    @Override
+    int getMaxResumes() {
+        return retryContext.getRetryCount();
+    }
+
+    /**
+     * Executes a single attempt, without retries.
+     *
+     * @param previousAttemptURI URI the previous attempt of the same request chain was sent to, {@code null} for the first attempt
+     */
+    Response requestOnce(HttpMethod method, HttpContext context, URI previousAttemptURI) {
+        return super.request(method, context);
+    }
+
     private void closeResponse(Response response) {
         if (response != null) {
             try {
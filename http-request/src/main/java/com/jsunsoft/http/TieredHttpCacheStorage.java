@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsunsoft.http;
+
+/**
+ * Memory tier in front of a {@link DiskHttpCacheStorage}. Entries are written through to both
+ * tiers; a lookup missing the memory tier is served from disk, without promoting the entry, so its
+ * body keeps being read from the mapped file instead of occupying the heap. The disk tier holds
+ * every entry, hence its numbers are reported.
+ */
+final class TieredHttpCacheStorage implements HttpCacheStorage {
+    private final HttpCacheStorage memory;
+    private final HttpCacheStorage disk;
+
+    TieredHttpCacheStorage(HttpCacheStorage memory, HttpCacheStorage disk) {
+        this.memory = memory;
+        this.disk = disk;
+    }
+
+    @Override
+    public CacheEntry get(String key) {
+        CacheEntry entry = memory.get(key);
+        return entry != null ? entry : disk.get(key);
+    }
+
+    @Override
+    public void put(String key, CacheEntry entry) {
+        memory.put(key, entry);
+        disk.put(key, entry);
+    }
+
+    @Override
+    public void remove(String key) {
+        memory.remove(key);
+        disk.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        memory.clear();
+        disk.clear();
+    }
+
+    @Override
+    public long getEntryCount() {
+        return disk.getEntryCount();
+    }
+
+    @Override
+    public long getTotalWeight() {
+        return disk.getTotalWeight();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return disk.getEvictionCount();
+    }
+
+    @Override
+    public void close() {
+        memory.close();
+        disk.close();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Adds the time spent waiting for body bytes to {@link RequestTimings#getBodyNanos()}, and counts
+ * the bytes read for the request's flight recorder event.
+ */
+final class TimedHttpEntity extends HttpEntityWrapper {
+    private final RequestTimings timings;
+
+    TimedHttpEntity(HttpEntity entity, RequestTimings timings) {
+        super(entity);
+        this.timings = timings;
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        return new FilterInputStream(super.getContent()) {
+            @Override
+            public int read() throws IOException {
+                long startNanos = System.nanoTime();
+                try {
+                    int b = in.read();
+                    if (b >= 0) {
+                        timings.addBodyBytes(1);
+                    }
+                    return b;
+                } finally {
+                    timings.addBodyNanos(System.nanoTime() - startNanos);
+                }
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                long startNanos = System.nanoTime();
+                try {
+                    int read = in.read(b, off, len);
+                    if (read > 0) {
+                        timings.addBodyBytes(read);
+                    }
+                    return read;
+                } finally {
+                    timings.addBodyNanos(System.nanoTime() - startNanos);
+                }
+            }
+
+            @Override
+            public long skip(long n) throws IOException {
+                long startNanos = System.nanoTime();
+                try {
+                    return in.skip(n);
+                } finally {
+                    timings.addBodyNanos(System.nanoTime() - startNanos);
+                }
+            }
+        };
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+        long startNanos = System.nanoTime();
+        try {
+            super.writeTo(outStream);
+        } finally {
+            timings.addBodyNanos(System.nanoTime() - startNanos);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsunsoft.http;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.DefaultSchemePortResolver;
+import org.apache.hc.client5.http.routing.HttpRoutePlanner;
+import org.apache.hc.client5.http.routing.RoutingSupport;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.URIScheme;
+import org.apache.hc.core5.http.protocol.HttpContext;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Route planner that sends requests for selected hosts over a Unix domain socket instead of TCP.
+ * <p>
+ * The request URI keeps its host (e.g. {@code http://envoy/stats}); the host only selects the
+ * socket and is sent in the {@code Host} header. Hosts without a mapping are routed by the
+ * delegate, so proxies and the client-wide {@code RequestConfig} socket keep working for them.
+ */
+class UnixDomainSocketRoutePlanner implements HttpRoutePlanner {
+    private final Map<HttpHost, Path> hostToSocket;
+    private final HttpRoutePlanner delegate;
+
+    UnixDomainSocketRoutePlanner(Map<HttpHost, Path> hostToSocket, HttpRoutePlanner delegate) {
+        this.hostToSocket = new HashMap<>(hostToSocket.size());
+        hostToSocket.forEach((host, socket) -> this.hostToSocket.put(normalize(host), socket));
+        this.delegate = delegate;
+    }
+
+    @Override
+    public HttpRoute determineRoute(HttpHost target, HttpContext context) throws HttpException {
+        return determineRoute(target, null, context);
+    }
+
+    @Override
+    public HttpRoute determineRoute(HttpHost target, HttpRequest request, HttpContext context) throws HttpException {
+        if (target != null) {
+            HttpHost normalized = normalize(target);
+            Path socket = hostToSocket.get(normalized);
+            if (socket != null) {
+                return new HttpRoute(normalized, URIScheme.HTTPS.same(normalized.getSchemeName()), socket);
+            }
+        }
+        return delegate.determineRoute(target, request, context);
+    }
+
+    static HttpHost normalize(HttpHost httpHost) {
+        return RoutingSupport.normalize(httpHost, DefaultSchemePortResolver.INSTANCE);
+    }
+}
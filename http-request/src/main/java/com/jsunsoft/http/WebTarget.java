@@ -16,6 +16,7 @@
 
 package com.jsunsoft.http;
 
+import com.jsunsoft.http.annotations.Beta;
 import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.core5.http.*;
 import org.apache.hc.core5.http.io.entity.StringEntity;
@@ -25,8 +26,11 @@ import org.apache.hc.core5.http.protocol.HttpContext;
 import org.apache.hc.core5.net.WWWFormCodec;
 import org.apache.hc.core5.util.Args;
 
+import java.io.OutputStream;
 import java.net.URI;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Map;
 
@@ -664,6 +668,99 @@ public interface WebTarget {
         return request(HttpMethod.GET, responseType);
     }
 
+    /**
+     * Invoke HTTP GET method for the current request and stream the response body to {@code target}.
+     * <p>
+     * The body is written to a temporary file next to {@code target}, sized up front from the
+     * {@code Content-Length} when known, and moved over {@code target} (atomically where the file
+     * system allows) only once it was fully received. On any failure {@code target} is left
+     * untouched. The maximum response body size, when configured, applies.
+     * <p>
+     * Statuses and errors are reported as for {@link #get(Class)}: a non-success response doesn't touch
+     * the file and its body becomes the {@link ResponseHandler#getErrorText() error text}.
+     *
+     * @param target the file to write the body to. Its directory must exist.
+     * @return the ResponseHandler instance to the request, holding {@code target} on success.
+     */
+    @Beta
+    ResponseHandler<Path> download(Path target);
+
+    /**
+     * Invoke HTTP GET method for the current request and download the resource to {@code target} as
+     * {@code parallelism} byte ranges fetched concurrently over pooled connections.
+     * <p>
+     * The first request asks for the first megabyte. If the server answers it with {@code 206} and a
+     * strong {@code ETag} or a {@code Last-Modified} date, the rest of the resource is split into up to
+     * {@code parallelism} ranges requested with {@code If-Range}, each written at its offset of a temporary
+     * file sized to the resource. A resource changing mid-download fails the download. A server that
+     * ignores {@code Range} is downloaded whole as by {@link #download(Path)}, as is a resource without a
+     * validator. An empty resource, whose first range the server answers with {@code 416}, is written as an
+     * empty file with status {@code 200}. The file is moved over {@code target} once complete; on any failure {@code target} is left
+     * untouched.
+     * <p>
+     * At most {@code parallelism} connections are used, and never more than the per-route limit of the
+     * connection pool: a range that can't lease a connection waits for another range to finish. Keep
+     * {@code parallelism} at or below that limit (see {@link HostPoolConfig#setMaxPoolSizePerRoute}), as
+     * each such wait lasts up to the connection request timeout.
+     * <p>
+     * Statuses and errors are reported as for {@link #get(Class)}; the status of a ranged download is that
+     * of its first request, {@code 206}.
+     *
+     * @param target      the file to write the body to. Its directory must exist.
+     * @param parallelism the maximum number of ranges fetched concurrently; {@code 1} is {@link #download(Path)}.
+     * @return the ResponseHandler instance to the request, holding {@code target} on success.
+     */
+    @Beta
+    ResponseHandler<Path> download(Path target, int parallelism);
+
+    /**
+     * Invoke HTTP GET method for the current request and download the resource to {@code target}, resuming
+     * a download of the same URI that was interrupted in the middle of the body.
+     * <p>
+     * The body is written to {@code <target>.part}, and the resource's validator (a strong {@code ETag},
+     * else {@code Last-Modified}) to {@code <target>.part.state}. If the connection dies in the middle of
+     * the body, both files are kept; the next call — from a later run too — sends
+     * {@code Range: bytes=<part size>-} with {@code If-Range} and appends the rest only if the server answers
+     * {@code 206} from that offset with the same validator. Otherwise the download restarts from the first byte.
+     * A part file already holding the whole body, which the server answers with {@code 416}, completes the
+     * download with status {@code 200}. Resources without a validator are never resumed. Once complete, the part file is moved over
+     * {@code target}. A {@link HttpRequest#retryableTarget(URI, RetryContext) retryable target} resumes an
+     * interrupted download right away, up to {@link RetryContext#getRetryCount()} times.
+     * <p>
+     * Statuses and errors are reported as for {@link #get(Class)}.
+     *
+     * @param target the file to write the body to. Its directory must exist.
+     * @return the ResponseHandler instance to the request, holding {@code target} on success.
+     */
+    @Beta
+    ResponseHandler<Path> resumableDownload(Path target);
+
+    /**
+     * Invoke HTTP GET method for the current request and copy the response body to {@code out}
+     * through a large buffer. The stream is neither flushed nor closed.
+     * <p>
+     * Statuses and errors are reported as for {@link #get(Class)}; note that on a failure in the
+     * middle of the body part of it may already have been written to {@code out}.
+     *
+     * @param out the stream to copy the body to.
+     * @return the ResponseHandler instance to the request, holding the number of bytes copied on success.
+     */
+    @Beta
+    ResponseHandler<Long> getTo(OutputStream out);
+
+    /**
+     * Invoke HTTP GET method for the current request and copy the response body to {@code channel}
+     * through a large buffer. The channel is not closed.
+     * <p>
+     * Statuses and errors are reported as for {@link #get(Class)}; note that on a failure in the
+     * middle of the body part of it may already have been written to {@code channel}.
+     *
+     * @param channel the channel to copy the body to.
+     * @return the ResponseHandler instance to the request, holding the number of bytes copied on success.
+     */
+    @Beta
+    ResponseHandler<Long> getTo(WritableByteChannel channel);
+
     /**
      * Invoke HTTP PUT method for the current request.
      *
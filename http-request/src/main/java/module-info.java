@@ -18,7 +18,6 @@ module com.jsunsoft.http {
     requires transitive org.apache.httpcomponents.core5.httpcore5;
 
     requires transitive tools.jackson.databind;
-    requires transitive tools.jackson.dataformat.xml;
     requires tools.jackson.core;
     // jackson-annotations keeps its 2.x JPMS name in Jackson 3 — the annotations artifact is
     // intentionally shared between Jackson 2.x and 3.x consumers.
@@ -28,16 +27,21 @@ module com.jsunsoft.http {
     requires org.apache.commons.lang3;
     requires org.apache.commons.io;
 
+    // Optional: flight recorder events are skipped on runtimes without jdk.jfr.
+    requires static jdk.jfr;
+
     exports com.jsunsoft.http;
     exports com.jsunsoft.http.annotations;
 
+    // Body formats other than JSON, e.g. XML from http-request-xml.
+    uses com.jsunsoft.http.BodyCodecProvider;
+
     // Permit Jackson deep reflection into the main package. Required so test fixtures (POJOs
     // declared as inner classes of tests in `com.jsunsoft.http`) are reachable when a test
     // runner places test classes on the modulepath via `--patch-module` (IntelliJ's default,
     // and any other runner that ignores Surefire's `useModulePath=false`). Scope is restricted
-    // to the two Jackson modules we already publish as `requires transitive`, so no other
-    // module gains reflective access.
+    // to the Jackson module we already publish as `requires transitive`, so no other module gains
+    // reflective access.
     opens com.jsunsoft.http to
-            tools.jackson.databind,
-            tools.jackson.dataformat.xml;
+            tools.jackson.databind;
 }
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsunsoft.http;
+
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.message.BasicHttpResponse;
+import org.apache.hc.core5.util.TimeValue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.IOException;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AdaptiveKeepAliveStrategyTest {
+
+    @RegisterExtension
+    static WireMockExtension wireMockRule = WireMockExtension.newInstance()
+            .options(WireMockConfiguration.wireMockConfig().dynamicPort())
+            .build();
+
+    private final HttpRoute route = new HttpRoute(new HttpHost("http", "upstream.example.com", 80));
+    private final AdaptiveKeepAliveStrategy strategy = new AdaptiveKeepAliveStrategy();
+    private HttpClientContext context;
+
+    @BeforeEach
+    void setup() {
+        context = HttpClientContext.create();
+        context.setRoute(route);
+        context.setRequestConfig(RequestConfig.custom().setConnectionKeepAlive(TimeValue.ofMinutes(3)).build());
+    }
+
+    @Test
+    void defaultKeepAliveAppliesWithoutHint() {
+        assertEquals(TimeValue.ofMinutes(3).toMilliseconds(), strategy.getKeepAliveDuration(new BasicHttpResponse(200), context).toMilliseconds());
+    }
+
+    @Test
+    void keepAliveHintIsHonoredWithSafetyMargin() {
+        BasicHttpResponse response = new BasicHttpResponse(200);
+        response.addHeader("Keep-Alive", "timeout=5, max=100");
+
+        assertEquals(4500, strategy.getKeepAliveDuration(response, context).toMilliseconds());
+    }
+
+    @Test
+    void zeroKeepAliveHintExpiresImmediately() {
+        BasicHttpResponse response = new BasicHttpResponse(200);
+        response.addHeader("Keep-Alive", "timeout=0");
+
+        assertEquals(1, strategy.getKeepAliveDuration(response, context).toMilliseconds());
+    }
+
+    @Test
+    void malformedKeepAliveHintIsIgnored() {
+        BasicHttpResponse response = new BasicHttpResponse(200);
+        response.addHeader("Keep-Alive", "timeout=abc");
+
+        assertEquals(TimeValue.ofMinutes(3).toMilliseconds(), strategy.getKeepAliveDuration(response, context).toMilliseconds());
+    }
+
+    @Test
+    void learnedIdleTimeoutOnlyShrinks() {
+        strategy.onStaleConnection(route, 60_000);
+        assertEquals(54_000, strategy.getKeepAliveDuration(new BasicHttpResponse(200), context).toMilliseconds());
+
+        strategy.onStaleConnection(route, 120_000);
+        assertEquals(60_000, strategy.getLearnedIdleTimeoutMillis(route));
+
+        strategy.onStaleConnection(route, 5_000);
+        assertEquals(5_000, strategy.getLearnedIdleTimeoutMillis(route));
+        assertEquals(4_500, strategy.getKeepAliveDuration(new BasicHttpResponse(200), context).toMilliseconds());
+    }
+
+    @Test
+    void learnedIdleTimeoutHasFloor() {
+        strategy.onStaleConnection(route, 10);
+
+        assertEquals(AdaptiveKeepAliveStrategy.MIN_LEARNED_IDLE_TIMEOUT_MILLIS, strategy.getLearnedIdleTimeoutMillis(route));
+    }
+
+    @Test
+    void learnedIdleTimeoutIsPerRoute() {
+        strategy.onStaleConnection(route, 5_000);
+
+        HttpClientContext otherContext = HttpClientContext.create();
+        otherContext.setRoute(new HttpRoute(new HttpHost("http", "other.example.com", 80)));
+        otherContext.setRequestConfig(RequestConfig.custom().setConnectionKeepAlive(TimeValue.ofMinutes(3)).build());
+
+        assertEquals(TimeValue.ofMinutes(3).toMilliseconds(), strategy.getKeepAliveDuration(new BasicHttpResponse(200), otherContext).toMilliseconds());
+    }
+
+    @Test
+    void learnedIdleTimeoutRecoversWithoutStaleConnections() {
+        long now = System.nanoTime();
+        long period = AdaptiveKeepAliveStrategy.RECOVERY_PERIOD_NANOS;
+        strategy.onStaleConnection(route, 5_000, now);
+
+        assertEquals(5_000, strategy.getLearnedIdleTimeoutMillis(route, now + period - 1));
+        assertEquals(10_000, strategy.getLearnedIdleTimeoutMillis(route, now + period));
+        assertEquals(20_000, strategy.getLearnedIdleTimeoutMillis(route, now + 2 * period));
+
+        // A stale connection while recovering shrinks the value again and restarts the quiet period.
+        strategy.onStaleConnection(route, 15_000, now + 2 * period);
+        assertEquals(15_000, strategy.getLearnedIdleTimeoutMillis(route, now + 3 * period - 1));
+
+        long forgotten = now + 2 * period + AdaptiveKeepAliveStrategy.MAX_RECOVERY_DOUBLINGS * period;
+        assertEquals(-1, strategy.getLearnedIdleTimeoutMillis(route, forgotten));
+    }
+
+    @Test
+    void resetOnReusedConnectionShrinksLearnedIdleTimeout() throws IOException {
+        wireMockRule.stubFor(get(urlEqualTo("/ok")).willReturn(aResponse().withStatus(200).withBody("ok")));
+        wireMockRule.stubFor(get(urlEqualTo("/reset")).willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER)));
+        HttpRoute wireMockRoute = new HttpRoute(new HttpHost("http", "localhost", wireMockRule.getPort()));
+        strategy.onStaleConnection(wireMockRoute, 60_000);
+
+        try (CloseableHttpClient client = ClientBuilder.create()
+                .enableAdaptiveKeepAlive(strategy)
+                .setConnectionKeepAlive(TimeValue.ofMinutes(3))
+                .build()) {
+            HttpRequest httpRequest = HttpRequestBuilder.create(client).build();
+            try (Response response = httpRequest.target(wireMockRule.getRuntimeInfo().getHttpBaseUrl() + "/ok").get()) {
+                assertEquals(200, response.getCode());
+                response.readEntity(String.class);
+            }
+
+            // Sent over the connection the first request returned to the pool.
+            assertThrows(ResponseException.class, () -> httpRequest.target(wireMockRule.getRuntimeInfo().getHttpBaseUrl() + "/reset").get());
+        }
+
+        assertEquals(AdaptiveKeepAliveStrategy.MIN_LEARNED_IDLE_TIMEOUT_MILLIS, strategy.getLearnedIdleTimeoutMillis(wireMockRoute));
+    }
+}
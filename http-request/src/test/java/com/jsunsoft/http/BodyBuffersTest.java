@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.BasicHttpEntity;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BodyBuffersTest {
+
+    @Test
+    void knownLengthBodyIsReadExactly() throws IOException {
+        byte[] body = TestPayloads.randomBytes(3 * BodyBuffers.CHUNK_SIZE + 17);
+
+        assertArrayEquals(body, BodyBuffers.toByteArray(new ByteArrayEntity(body, ContentType.APPLICATION_OCTET_STREAM)));
+    }
+
+    @Test
+    void unknownLengthBodyIsReadAcrossChunks() throws IOException {
+        for (int size : new int[]{0, 1, BodyBuffers.CHUNK_SIZE - 1, BodyBuffers.CHUNK_SIZE, BodyBuffers.CHUNK_SIZE + 1, 5 * BodyBuffers.CHUNK_SIZE + 3}) {
+            byte[] body = TestPayloads.randomBytes(size);
+
+            assertArrayEquals(body, BodyBuffers.toByteArray(unknownLength(body, null)), "size " + size);
+        }
+    }
+
+    @Test
+    void bodyLongerThanAnnouncedIsReadCompletely() throws IOException {
+        byte[] body = TestPayloads.randomBytes(100);
+        BasicHttpEntity entity = new BasicHttpEntity(new ByteArrayInputStream(body), 60, ContentType.APPLICATION_OCTET_STREAM);
+
+        assertArrayEquals(body, BodyBuffers.toByteArray(entity));
+    }
+
+    @Test
+    void textIsDecodedWithContentTypeCharset() throws IOException {
+        String text = "Grüße, ";
+        String longText = text.repeat(BodyBuffers.CHUNK_SIZE / 4);
+
+        assertEquals(text, BodyBuffers.toString(unknownLength(text.getBytes(StandardCharsets.ISO_8859_1), "text/plain; charset=ISO-8859-1"), StandardCharsets.UTF_8));
+        assertEquals(longText, BodyBuffers.toString(unknownLength(longText.getBytes(StandardCharsets.UTF_8), "text/plain; charset=UTF-8"), StandardCharsets.ISO_8859_1));
+        assertEquals(longText, BodyBuffers.toString(new ByteArrayEntity(longText.getBytes(StandardCharsets.UTF_8), ContentType.TEXT_PLAIN.withCharset(StandardCharsets.UTF_8)), StandardCharsets.ISO_8859_1));
+    }
+
+    @Test
+    void textWithoutCharsetUsesDefault() throws IOException {
+        String text = "Grüße";
+
+        assertEquals(text, BodyBuffers.toString(unknownLength(text.getBytes(StandardCharsets.UTF_8), "text/plain"), StandardCharsets.UTF_8));
+        assertEquals(text, BodyBuffers.toString(unknownLength(text.getBytes(StandardCharsets.UTF_16), null), StandardCharsets.UTF_16));
+    }
+
+    @Test
+    void malformedInputIsReplaced() throws IOException {
+        byte[] body = {'a', (byte) 0xC3, 'b'};
+
+        assertEquals("a�b", BodyBuffers.toString(unknownLength(body, "text/plain; charset=UTF-8"), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void unsupportedCharsetIsRejected() {
+        HttpEntity entity = new HttpEntityWrapper(unknownLength(new byte[]{'a'}, null)) {
+            @Override
+            public String getContentType() {
+                return "text/plain; charset=x-no-such-charset";
+            }
+        };
+
+        assertThrows(UnsupportedEncodingException.class, () -> BodyBuffers.toString(entity, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void sizeCapAppliesToUnknownLength() {
+        HttpEntity entity = new BoundedHttpEntity(unknownLength(TestPayloads.randomBytes(3 * BodyBuffers.CHUNK_SIZE), null), BodyBuffers.CHUNK_SIZE);
+
+        assertThrows(InvalidContentLengthException.class, () -> BodyBuffers.toByteArray(entity));
+    }
+
+    @Test
+    void chunksGoBackToBoundedPool() throws IOException {
+        BodyBuffers.toByteArray(unknownLength(TestPayloads.randomBytes(4 * BodyBuffers.CHUNK_SIZE), null));
+        int pooled = BodyBuffers.pooledChunks();
+        assertTrue(pooled >= 5, "chunks of the last read must be pooled, was " + pooled);
+
+        BodyBuffers.toByteArray(unknownLength(TestPayloads.randomBytes((BodyBuffers.MAX_POOLED_CHUNKS + 10) * BodyBuffers.CHUNK_SIZE), null));
+        assertEquals(BodyBuffers.MAX_POOLED_CHUNKS, BodyBuffers.pooledChunks());
+    }
+
+    @Test
+    void concurrentBorrowersNeverShareChunk() throws Exception {
+        Set<byte[]> borrowed = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Future<?>[] futures = new Future<?>[8];
+            for (int t = 0; t < futures.length; t++) {
+                futures[t] = executor.submit(() -> {
+                    byte[][] chunks = new byte[4][];
+                    for (int i = 0; i < 10_000; i++) {
+                        for (int c = 0; c < chunks.length; c++) {
+                            chunks[c] = BodyBuffers.borrow();
+                            assertTrue(borrowed.add(chunks[c]), "chunk handed out twice");
+                        }
+                        for (byte[] chunk : chunks) {
+                            borrowed.remove(chunk);
+                            BodyBuffers.release(chunk);
+                        }
+                    }
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(BodyBuffers.pooledChunks() <= BodyBuffers.MAX_POOLED_CHUNKS);
+    }
+
+    private static HttpEntity unknownLength(byte[] body, String contentType) {
+        return new BasicHttpEntity(new ByteArrayInputStream(body), -1, contentType == null ? null : ContentType.parse(contentType));
+    }
+}
@@ -20,6 +20,7 @@ import org.junit.jupiter.api.Test;
 
 import java.io.InputStream;
 import java.lang.reflect.Type;
+import java.nio.channels.ReadableByteChannel;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -38,6 +39,11 @@ class CustomArgsCheckTest {
         assertThrows(IllegalArgumentException.class, () -> CustomArgsCheck.checkIsCorrectTypeForDeserialization(type));
     }
 
+    @Test
+    void testCheckIsCorrectTypeForDeserializationWhenTypeIsChannel() {
+        assertThrows(IllegalArgumentException.class, () -> CustomArgsCheck.checkIsCorrectTypeForDeserialization(ReadableByteChannel.class));
+    }
+
     @Test
     void testCheckIsCorrectTypeForDeserializationWhenTypeIsNotInputStream() {
         CustomArgsCheck.checkIsCorrectTypeForDeserialization(Object.class);
@@ -0,0 +1,315 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsunsoft.http;
+
+import org.apache.hc.core5.http.message.BasicHttpRequest;
+import org.apache.hc.core5.http.message.BasicHttpResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiskHttpCacheStorageTest {
+
+    private Path directory;
+    private DiskHttpCacheStorage storage;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("http-request-cache");
+        storage = open(1024 * 1024, DiskHttpCacheStorage.DEFAULT_SEGMENT_SIZE);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        storage.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void bodyIsServedFromMappedSegment() throws IOException {
+        CacheEntry entry = entry("catalog", "\"v1\"");
+        storage.put("http://example.com:80/catalog", entry);
+
+        CacheEntry stored = storage.get("http://example.com:80/catalog");
+
+        assertNotNull(stored);
+        assertTrue(stored.getBody().isDirect());
+        assertEquals("catalog", body(stored));
+        assertEquals("\"v1\"", stored.getETag());
+        assertEquals(entry.getResponseTimeMillis(), stored.getResponseTimeMillis());
+        assertEquals(entry.getContentVersion(), stored.getContentVersion());
+    }
+
+    @Test
+    void reopenedStorageStartsWithPreviousEntries() throws IOException {
+        storage.put("http://example.com:80/a", entry("a", null));
+        storage.put("http://example.com:80/b", entry("b", null));
+        storage.put("http://example.com:80/a", entry("a2", null));
+        storage.remove("http://example.com:80/b");
+        storage.close();
+
+        storage = open(1024 * 1024, DiskHttpCacheStorage.DEFAULT_SEGMENT_SIZE);
+
+        assertEquals(1, storage.getEntryCount());
+        assertEquals("a2", body(storage.get("http://example.com:80/a")));
+        assertNull(storage.get("http://example.com:80/b"));
+    }
+
+    @Test
+    void tornRecordIsTruncatedOnRecovery() throws IOException {
+        storage.put("http://example.com:80/a", entry("a", null));
+        storage.put("http://example.com:80/b", entry("b", null));
+        storage.close();
+
+        // Simulate a crash while appending: no hint file and half a record at the end of the segment.
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                String name = path.getFileName().toString();
+                if (name.endsWith(".hint")) {
+                    Files.delete(path);
+                } else if (name.endsWith(".segment")) {
+                    Files.write(path, new byte[]{0x48, 0x43, 0x52, 0x31, 1, 0, 0, 0x10}, StandardOpenOption.APPEND);
+                }
+            }
+        }
+
+        storage = open(1024 * 1024, DiskHttpCacheStorage.DEFAULT_SEGMENT_SIZE);
+        storage.put("http://example.com:80/c", entry("c", null));
+
+        assertEquals("a", body(storage.get("http://example.com:80/a")));
+        assertEquals("b", body(storage.get("http://example.com:80/b")));
+        assertEquals("c", body(storage.get("http://example.com:80/c")));
+    }
+
+    @Test
+    void compactionBoundsFilesAndKeepsLiveEntries() throws IOException {
+        storage.close();
+        storage = open(16 * 1024, 4 * 1024);
+        String body = "x".repeat(1000);
+
+        for (int i = 0; i < 200; i++) {
+            storage.put("http://example.com:80/" + (i % 5), entry(body + i, null));
+        }
+
+        assertEquals(5, storage.getEntryCount());
+        assertTrue(storage.getFileBytes() <= 16 * 1024 * 3 / 2 + 4 * 1024, "file bytes: " + storage.getFileBytes());
+        for (int i = 195; i < 200; i++) {
+            assertEquals(body + i, body(storage.get("http://example.com:80/" + (i % 5))));
+        }
+    }
+
+    @Test
+    void leastRecentlyUsedEntriesAreEvicted() throws IOException {
+        storage.close();
+        storage = open(4 * 1024, 64 * 1024);
+        String body = "x".repeat(1000);
+
+        storage.put("http://example.com:80/a", entry(body, null));
+        storage.put("http://example.com:80/b", entry(body, null));
+        storage.put("http://example.com:80/c", entry(body, null));
+        storage.get("http://example.com:80/a");
+        storage.put("http://example.com:80/d", entry(body, null));
+
+        assertEquals(1, storage.getEvictionCount());
+        assertNull(storage.get("http://example.com:80/b"));
+        assertNotNull(storage.get("http://example.com:80/a"));
+    }
+
+    @Test
+    void removalOfEvictedEntrySurvivesRestart() throws IOException {
+        storage.close();
+        storage = open(4 * 1024, 64 * 1024);
+        String body = "x".repeat(1000);
+
+        storage.put("http://example.com:80/a", entry(body, null));
+        storage.put("http://example.com:80/b", entry(body, null));
+        storage.put("http://example.com:80/c", entry(body, null));
+        storage.get("http://example.com:80/a");
+        storage.put("http://example.com:80/d", entry(body, null));
+        assertEquals(1, storage.getEvictionCount());
+
+        storage.remove("http://example.com:80/b");
+        storage.close();
+        storage = open(4 * 1024, 64 * 1024);
+
+        assertNull(storage.get("http://example.com:80/b"));
+        assertEquals(3, storage.getEntryCount());
+    }
+
+    @Test
+    void freshenedEntryKeepsItsBodyRecord() throws IOException {
+        String body = "x".repeat(10_000);
+        storage.put("http://example.com:80/a", entry(body, "\"v1\""));
+        long fileBytes = storage.getFileBytes();
+
+        storage.put("http://example.com:80/a", storage.get("http://example.com:80/a").update(notModified("max-age=120"), 1, 2));
+
+        assertTrue(storage.getFileBytes() - fileBytes < 1024, "header update took " + (storage.getFileBytes() - fileBytes) + " bytes");
+        CacheEntry freshened = storage.get("http://example.com:80/a");
+        assertEquals(body, body(freshened));
+        assertEquals(120, freshened.getCacheControl().getMaxAge());
+        assertEquals(2, freshened.getResponseTimeMillis());
+
+        storage.close();
+        storage = open(1024 * 1024, DiskHttpCacheStorage.DEFAULT_SEGMENT_SIZE);
+
+        CacheEntry reopened = storage.get("http://example.com:80/a");
+        assertEquals(body, body(reopened));
+        assertEquals(120, reopened.getCacheControl().getMaxAge());
+    }
+
+    @Test
+    void compactionFoldsHeaderRecordsIntoBodyRecords() throws IOException {
+        storage.close();
+        storage = open(16 * 1024, 4 * 1024);
+        String body = "x".repeat(1000);
+
+        storage.put("http://example.com:80/kept", entry(body, null));
+        storage.put("http://example.com:80/kept", storage.get("http://example.com:80/kept").update(notModified("max-age=120"), 1, 2));
+        for (int i = 0; i < 200; i++) {
+            storage.put("http://example.com:80/" + (i % 5), entry(body + i, null));
+            storage.get("http://example.com:80/kept");
+        }
+        assertFalse(Files.exists(directory.resolve(String.format("%016d.segment", 1))), "first segment is compacted");
+        storage.close();
+        storage = open(16 * 1024, 4 * 1024);
+
+        CacheEntry kept = storage.get("http://example.com:80/kept");
+        assertEquals(body, body(kept));
+        assertEquals(120, kept.getCacheControl().getMaxAge());
+    }
+
+    @Test
+    void putIsServedBeforeItIsWritten() throws IOException {
+        storage.close();
+        List<Runnable> writes = new ArrayList<>();
+        storage = new DiskHttpCacheStorage(directory, 1024 * 1024, DiskHttpCacheStorage.DEFAULT_SEGMENT_SIZE, writes::add);
+
+        storage.put("http://example.com:80/a", entry("a", null));
+
+        assertEquals(0, storage.getFileBytes());
+        assertFalse(storage.get("http://example.com:80/a").getBody().isDirect());
+        writes.forEach(Runnable::run);
+        assertTrue(storage.getFileBytes() > 0);
+        assertTrue(storage.get("http://example.com:80/a").getBody().isDirect());
+    }
+
+    @Test
+    void onlyLastPendingWriteOfKeyIsWritten() throws IOException {
+        storage.close();
+        List<Runnable> writes = new ArrayList<>();
+        storage = new DiskHttpCacheStorage(directory, 1024 * 1024, DiskHttpCacheStorage.DEFAULT_SEGMENT_SIZE, writes::add);
+
+        storage.put("http://example.com:80/a", entry("a", null));
+        storage.remove("http://example.com:80/a");
+        storage.put("http://example.com:80/a", entry("a2", null));
+        storage.put("http://example.com:80/b", entry("b", null));
+        storage.remove("http://example.com:80/b");
+        assertNull(storage.get("http://example.com:80/b"));
+
+        for (int i = writes.size() - 1; i >= 0; i--) {
+            writes.get(i).run();
+        }
+
+        assertEquals(1, storage.getEntryCount());
+        assertEquals("a2", body(storage.get("http://example.com:80/a")));
+        assertNull(storage.get("http://example.com:80/b"));
+    }
+
+    @Test
+    void closeWaitsForBackgroundWrites() throws IOException {
+        storage.close();
+        storage = new DiskHttpCacheStorage(directory, 1024 * 1024, DiskHttpCacheStorage.DEFAULT_SEGMENT_SIZE);
+        for (int i = 0; i < 100; i++) {
+            storage.put("http://example.com:80/" + i, entry("body" + i, null));
+        }
+        storage.close();
+
+        storage = open(1024 * 1024, DiskHttpCacheStorage.DEFAULT_SEGMENT_SIZE);
+
+        assertEquals(100, storage.getEntryCount());
+        assertEquals("body99", body(storage.get("http://example.com:80/99")));
+    }
+
+    @Test
+    void hitTakesNoLock() throws Exception {
+        storage.put("http://example.com:80/a", entry("a", null));
+
+        synchronized (storage) {
+            CacheEntry hit = CompletableFuture.supplyAsync(() -> storage.get("http://example.com:80/a")).get(5, TimeUnit.SECONDS);
+            assertTrue(hit.getBody().isDirect());
+        }
+    }
+
+    @Test
+    void segmentSizeIsBoundedByIntOffsets() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new DiskHttpCacheStorage(directory.resolve("large"), Long.MAX_VALUE, DiskHttpCacheStorage.MAX_SEGMENT_SIZE + 1));
+    }
+
+    @Test
+    void directoryIsLockedWhileOpen() {
+        assertThrows(IOException.class, () -> open(1024, 1024));
+    }
+
+    /**
+     * @return storage writing on the calling thread
+     */
+    private DiskHttpCacheStorage open(long maxSize, long segmentSize) throws IOException {
+        return new DiskHttpCacheStorage(directory, maxSize, segmentSize, Runnable::run);
+    }
+
+    private static CacheEntry entry(String body, String eTag) {
+        BasicHttpResponse response = new BasicHttpResponse(200, "OK");
+        response.addHeader("Content-Type", "text/plain");
+        response.addHeader("Cache-Control", "max-age=60");
+        if (eTag != null) {
+            response.addHeader("ETag", eTag);
+        }
+        long now = System.currentTimeMillis();
+        return CacheEntry.create(new BasicHttpRequest("GET", "/"), response, body.getBytes(StandardCharsets.UTF_8), now, now);
+    }
+
+    private static BasicHttpResponse notModified(String cacheControl) {
+        BasicHttpResponse response = new BasicHttpResponse(304, "Not Modified");
+        response.addHeader("Cache-Control", cacheControl);
+        return response;
+    }
+
+    private static String body(CacheEntry entry) throws IOException {
+        try (InputStream in = new ByteBufferInputStream(entry.getBody())) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
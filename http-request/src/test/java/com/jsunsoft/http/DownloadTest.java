@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DownloadTest {
+    private static final byte[] BODY = TestPayloads.randomBytes(3 * EntityTransfers.TRANSFER_SIZE + 7);
+
+    @RegisterExtension
+    static WireMockExtension wireMockRule = WireMockExtension.newInstance()
+            .options(WireMockConfiguration.wireMockConfig().dynamicPort())
+            .build();
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setUp() {
+        wireMockRule.resetAll();
+        wireMockRule.stubFor(get(urlEqualTo("/blob"))
+                .willReturn(aResponse().withStatus(200).withHeader("Content-Type", "application/octet-stream").withBody(BODY)));
+        wireMockRule.stubFor(get(urlEqualTo("/chunked"))
+                .willReturn(aResponse().withStatus(200).withHeader("Content-Type", "application/octet-stream").withBody(BODY).withChunkedDribbleDelay(4, 1)));
+        wireMockRule.stubFor(get(urlEqualTo("/missing"))
+                .willReturn(aResponse().withStatus(404).withBody("no such artifact")));
+    }
+
+    @Test
+    void downloadWritesBodyToTarget() throws IOException {
+        HttpRequest httpRequest = HttpRequestBuilder.create(ClientBuilder.create().build()).build();
+
+        for (String path : new String[]{"blob", "chunked"}) {
+            Path target = directory.resolve(path + ".bin");
+
+            ResponseHandler<Path> rh = target(httpRequest, path).download(target);
+
+            assertEquals(200, rh.getCode(), path);
+            assertEquals(target, rh.requiredGet(), path);
+            assertArrayEquals(BODY, Files.readAllBytes(target), path);
+        }
+        assertOnlyFiles("blob.bin", "chunked.bin");
+    }
+
+    @Test
+    void downloadReplacesExistingTarget() throws IOException {
+        Path target = Files.write(directory.resolve("artifact.bin"), "old".getBytes(StandardCharsets.UTF_8));
+
+        target(HttpRequestBuilder.create(ClientBuilder.create().build()).build(), "blob").download(target).requiredGet();
+
+        assertArrayEquals(BODY, Files.readAllBytes(target));
+    }
+
+    @Test
+    void nonSuccessStatusLeavesTargetUntouched() throws IOException {
+        Path target = Files.write(directory.resolve("artifact.bin"), "old".getBytes(StandardCharsets.UTF_8));
+
+        ResponseHandler<Path> rh = target(HttpRequestBuilder.create(ClientBuilder.create().build()).build(), "missing").download(target);
+
+        assertEquals(404, rh.getCode());
+        assertFalse(rh.hasContent());
+        assertEquals("no such artifact", rh.getErrorText());
+        assertEquals("old", Files.readString(target));
+        assertOnlyFiles("artifact.bin");
+    }
+
+    @Test
+    void oversizedBodyIsRejectedAndTempFileRemoved() throws IOException {
+        HttpRequest httpRequest = HttpRequestBuilder.create(ClientBuilder.create().build())
+                .setMaxResponseBodySizeBytes(EntityTransfers.TRANSFER_SIZE)
+                .build();
+
+        for (String path : new String[]{"blob", "chunked"}) {
+            ResponseHandler<Path> rh = target(httpRequest, path).download(directory.resolve(path + ".bin"));
+
+            assertEquals(502, rh.getCode(), path);
+        }
+        assertOnlyFiles();
+    }
+
+    @Test
+    void getToCopiesBodyToStreamAndChannel() {
+        HttpRequest httpRequest = HttpRequestBuilder.create(ClientBuilder.create().build()).build();
+
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        long streamedLength = target(httpRequest, "chunked").getTo(streamed).requiredGet();
+        assertEquals(BODY.length, streamedLength);
+        assertArrayEquals(BODY, streamed.toByteArray());
+
+        ByteArrayOutputStream channeled = new ByteArrayOutputStream();
+        long channeledLength = target(httpRequest, "blob").getTo(Channels.newChannel(channeled)).requiredGet();
+        assertEquals(BODY.length, channeledLength);
+        assertArrayEquals(BODY, channeled.toByteArray());
+    }
+
+    @Test
+    void getToDoesNotWriteErrorBody() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ResponseHandler<Long> rh = target(HttpRequestBuilder.create(ClientBuilder.create().build()).build(), "missing").getTo(out);
+
+        assertEquals(404, rh.getCode());
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    void immutableTargetDownloads() throws IOException {
+        Path target = directory.resolve("artifact.bin");
+
+        HttpRequestBuilder.create(ClientBuilder.create().build()).build()
+                .immutableTarget(wireMockRule.getRuntimeInfo().getHttpBaseUrl())
+                .path("blob")
+                .download(target)
+                .requiredGet();
+
+        assertArrayEquals(BODY, Files.readAllBytes(target));
+    }
+
+    private void assertOnlyFiles(String... names) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of(names), files.map(path -> path.getFileName().toString()).sorted().collect(Collectors.toList()));
+        }
+    }
+
+    private static WebTarget target(HttpRequest httpRequest, String path) {
+        return httpRequest.target(wireMockRule.getRuntimeInfo().getHttpBaseUrl()).path(path);
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.entity.InputStreamEntity;
+import org.apache.hc.core5.http.message.BasicClassicHttpResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ErrorBodyTest {
+
+    @RegisterExtension
+    static WireMockExtension wireMock = WireMockExtension.newInstance()
+            .options(WireMockConfiguration.wireMockConfig().dynamicPort())
+            .build();
+
+    private static final String API_ERROR = "{\"code\":\"OUT_OF_STOCK\",\"message\":\"No items left\"}";
+
+    private final CloseableHttpClient client = new ClientBuilder().build();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        client.close();
+    }
+
+    @Test
+    void largeErrorBodyIsTruncatedAndConnectionReused() {
+        wireMock.stubFor(get(urlEqualTo("/overloaded")).willReturn(aResponse().withStatus(503).withBody("e".repeat(100_000))));
+        HttpRequest httpRequest = HttpRequestBuilder.create(client).setMaxErrorBodyBytes(8 * 1024).enableRequestTimings().build();
+
+        ResponseHandler<String> first = httpRequest.target(wireMock.baseUrl()).path("/overloaded").get(String.class);
+        ResponseHandler<String> second = httpRequest.target(wireMock.baseUrl()).path("/overloaded").get(String.class);
+
+        assertEquals(503, first.getCode());
+        assertEquals("e".repeat(8 * 1024) + "... (truncated to 8192 bytes)", first.getErrorText());
+        assertTrue(second.getTimings().isConnectionReused());
+    }
+
+    @Test
+    void errorBodyWithinLimitIsKeptWhole() {
+        wireMock.stubFor(get(urlEqualTo("/missing")).willReturn(aResponse().withStatus(404).withBody("Not here")));
+        HttpRequest httpRequest = HttpRequestBuilder.create(client).setMaxErrorBodyBytes(8).build();
+
+        assertEquals("Not here", httpRequest.target(wireMock.baseUrl()).path("/missing").get(String.class).getErrorText());
+    }
+
+    @Test
+    void wholeErrorBodyIsReadByDefault() {
+        wireMock.stubFor(get(urlEqualTo("/overloaded")).willReturn(aResponse().withStatus(503).withBody("e".repeat(100_000))));
+        HttpRequest httpRequest = HttpRequestBuilder.create(client).build();
+
+        assertEquals("e".repeat(100_000), httpRequest.target(wireMock.baseUrl()).path("/overloaded").get(String.class).getErrorText());
+    }
+
+    @Test
+    void unlimitedCaptureReadsWholeBody() {
+        wireMock.stubFor(get(urlEqualTo("/overloaded")).willReturn(aResponse().withStatus(503).withBody("e".repeat(20_000))));
+        HttpRequest httpRequest = HttpRequestBuilder.create(client).setMaxErrorBodyBytes(0).build();
+
+        assertEquals("e".repeat(20_000), httpRequest.target(wireMock.baseUrl()).path("/overloaded").get(String.class).getErrorText());
+    }
+
+    @Test
+    void truncationDropsSplitCharacter() throws IOException {
+        // Each 'é' is two bytes in UTF-8; a 5 byte limit splits the third one.
+        ErrorBody errorBody = capture("ééééé", -1, 5);
+
+        assertTrue(errorBody.isTruncated());
+        assertEquals("éé... (truncated to 5 bytes)", errorBody.getText());
+    }
+
+    @Test
+    void bodyOfUnknownLengthIsTruncatedOnlyWhenLonger() throws IOException {
+        assertFalse(capture("abcde", -1, 5).isTruncated());
+        assertEquals("abcde", capture("abcde", -1, 5).getText());
+        assertTrue(capture("abcdef", -1, 5).isTruncated());
+    }
+
+    @Test
+    void errorBodyIsReadIntoErrorType() {
+        wireMock.stubFor(post(urlEqualTo("/orders")).willReturn(aResponse().withStatus(409)
+                .withHeader("Content-Type", "application/json").withBody(API_ERROR)));
+        HttpRequest httpRequest = HttpRequestBuilder.create(client).build();
+
+        ResponseHandler<String> responseHandler = httpRequest.target(wireMock.baseUrl()).path("/orders").post("{}", String.class);
+
+        ApiError apiError = responseHandler.getError(ApiError.class).orElseThrow();
+        assertEquals("OUT_OF_STOCK", apiError.getCode());
+        assertEquals("No items left", apiError.getMessage());
+        assertEquals("No items left", responseHandler.getError(new TypeReference<Map<String, String>>() {
+        }).orElseThrow().get("message"));
+        assertEquals(API_ERROR, responseHandler.getErrorText());
+    }
+
+    @Test
+    void successfulResponseHasNoError() {
+        wireMock.stubFor(get(urlEqualTo("/orders/1")).willReturn(aResponse().withHeader("Content-Type", "application/json").withBody(API_ERROR)));
+        HttpRequest httpRequest = HttpRequestBuilder.create(client).build();
+
+        assertFalse(httpRequest.target(wireMock.baseUrl()).path("/orders/1").get(String.class).getError(ApiError.class).isPresent());
+    }
+
+    @Test
+    void truncatedErrorBodyIsNotDeserialized() {
+        wireMock.stubFor(post(urlEqualTo("/orders")).willReturn(aResponse().withStatus(409)
+                .withHeader("Content-Type", "application/json").withBody(API_ERROR)));
+        HttpRequest httpRequest = HttpRequestBuilder.create(client).setMaxErrorBodyBytes(16).build();
+
+        ResponseHandler<String> responseHandler = httpRequest.target(wireMock.baseUrl()).path("/orders").post("{}", String.class);
+
+        assertThrows(ResponseBodyProcessingException.class, () -> responseHandler.getError(ApiError.class));
+    }
+
+    private static ErrorBody capture(String body, long contentLength, int maxBytes) throws IOException {
+        BasicClassicHttpResponse classicHttpResponse = new BasicClassicHttpResponse(500);
+        classicHttpResponse.setEntity(new InputStreamEntity(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), contentLength, ContentType.TEXT_PLAIN.withCharset(StandardCharsets.UTF_8)));
+        ResponseBodyReaderConfig config = ResponseBodyReaderConfig.create().setMaxErrorBodyBytes(maxBytes).build();
+        try (BasicResponse response = new BasicResponse(classicHttpResponse, config, URI.create("http://localhost"))) {
+            return ErrorBody.capture(response, config);
+        }
+    }
+
+    static class ApiError {
+        private String code;
+        private String message;
+
+        public String getCode() {
+            return code;
+        }
+
+        public void setCode(String code) {
+            this.code = code;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
@@ -125,7 +125,7 @@ class GetErrorTextTest {
     }
 
     private static BasicResponseHandler<String> newHandler(String errorText, Exception errorCause) {
-        return new BasicResponseHandler<>(null, 500, 500, new HeaderGroup(), errorCause, errorText, String.class, null,
-                URI.create("http://localhost"), System.currentTimeMillis());
+        return new BasicResponseHandler<>(null, 500, 500, new HeaderGroup(), errorText, errorCause, String.class, null,
+                URI.create("http://localhost"), BasicConnectionFailureType.NONE, System.currentTimeMillis(), false, null, null);
     }
 }
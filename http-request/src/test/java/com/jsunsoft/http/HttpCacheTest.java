@@ -0,0 +1,396 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsunsoft.http;
+
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import com.github.tomakehurst.wiremock.matching.RequestPatternBuilder;
+import org.apache.hc.client5.http.utils.DateUtils;
+import org.apache.hc.core5.http.message.BasicHttpRequest;
+import org.apache.hc.core5.http.message.BasicHttpResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpCacheTest {
+
+    @RegisterExtension
+    static WireMockExtension wireMock = WireMockExtension.newInstance()
+            .options(WireMockConfiguration.wireMockConfig().dynamicPort())
+            .build();
+
+    private final HttpCache cache = HttpCache.builder().build();
+
+    private final HttpRequest httpRequest = HttpRequestBuilder.create(new ClientBuilder().build())
+            .setHttpCache(cache)
+            .build();
+
+    @Test
+    void freshResponseIsServedFromCache() {
+        wireMock.stubFor(get(urlEqualTo("/flags")).willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withHeader("Cache-Control", "max-age=60")
+                .withBody("[\"a\",\"b\"]")));
+
+        for (int i = 0; i < 3; i++) {
+            ResponseHandler<List<String>> responseHandler = httpRequest.target(wireMock.baseUrl()).path("/flags").get(new TypeReference<>() {
+            });
+            assertEquals(200, responseHandler.getCode());
+            assertEquals(List.of("a", "b"), responseHandler.get());
+        }
+
+        wireMock.verify(1, getRequestedFor(urlEqualTo("/flags")));
+        HttpCacheStatistics statistics = cache.getStatistics();
+        assertEquals(2, statistics.getHitCount());
+        assertEquals(1, statistics.getMissCount());
+        assertEquals(1, statistics.getEntryCount());
+    }
+
+    @Test
+    void staleResponseIsRevalidatedWithETag() {
+        wireMock.stubFor(get(urlEqualTo("/catalog")).atPriority(2).willReturn(aResponse()
+                .withHeader("Cache-Control", "max-age=0")
+                .withHeader("ETag", "\"v1\"")
+                .withBody("catalog")));
+        wireMock.stubFor(get(urlEqualTo("/catalog")).atPriority(1)
+                .withHeader("If-None-Match", equalTo("\"v1\""))
+                .willReturn(aResponse().withStatus(304).withHeader("ETag", "\"v1\"")));
+
+        assertEquals("catalog", httpRequest.target(wireMock.baseUrl()).path("/catalog").get(String.class).get());
+
+        ResponseHandler<String> revalidated = httpRequest.target(wireMock.baseUrl()).path("/catalog").get(String.class);
+        assertEquals(200, revalidated.getCode());
+        assertEquals("catalog", revalidated.get());
+
+        wireMock.verify(1, getRequestedFor(urlEqualTo("/catalog")).withHeader("If-None-Match", equalTo("\"v1\"")));
+        assertEquals(1, cache.getStatistics().getRevalidationCount());
+        assertEquals(1, cache.getStatistics().getRevalidationHitCount());
+    }
+
+    @Test
+    void noCacheResponseIsRevalidatedWithLastModified() {
+        String lastModified = "Tue, 15 Nov 1994 12:45:26 GMT";
+        wireMock.stubFor(get(urlEqualTo("/report")).willReturn(aResponse()
+                .withHeader("Cache-Control", "no-cache")
+                .withHeader("Last-Modified", lastModified)
+                .withBody("report")));
+
+        httpRequest.target(wireMock.baseUrl()).path("/report").get(String.class);
+        httpRequest.target(wireMock.baseUrl()).path("/report").get(String.class);
+
+        wireMock.verify(2, getRequestedFor(urlEqualTo("/report")));
+        wireMock.verify(1, getRequestedFor(urlEqualTo("/report")).withHeader("If-Modified-Since", equalTo(lastModified)));
+    }
+
+    @Test
+    void changedResponseReplacesEntry() {
+        wireMock.stubFor(get(urlEqualTo("/version")).willReturn(aResponse()
+                .withHeader("Cache-Control", "max-age=0")
+                .withHeader("ETag", "\"v1\"")
+                .withBody("v1")));
+        assertEquals("v1", httpRequest.target(wireMock.baseUrl()).path("/version").get(String.class).get());
+
+        wireMock.stubFor(get(urlEqualTo("/version")).willReturn(aResponse()
+                .withHeader("Cache-Control", "max-age=60")
+                .withHeader("ETag", "\"v2\"")
+                .withBody("v2")));
+        assertEquals("v2", httpRequest.target(wireMock.baseUrl()).path("/version").get(String.class).get());
+        assertEquals("v2", httpRequest.target(wireMock.baseUrl()).path("/version").get(String.class).get());
+
+        wireMock.verify(2, getRequestedFor(urlEqualTo("/version")));
+    }
+
+    @Test
+    void noStoreResponseIsNotCached() {
+        wireMock.stubFor(get(urlEqualTo("/secret")).willReturn(aResponse()
+                .withHeader("Cache-Control", "no-store, max-age=60")
+                .withBody("secret")));
+
+        httpRequest.target(wireMock.baseUrl()).path("/secret").get(String.class);
+        httpRequest.target(wireMock.baseUrl()).path("/secret").get(String.class);
+
+        wireMock.verify(2, getRequestedFor(urlEqualTo("/secret")));
+        assertEquals(0, cache.getStatistics().getEntryCount());
+    }
+
+    @Test
+    void varyMismatchIsAMiss() {
+        wireMock.stubFor(get(urlEqualTo("/greeting")).willReturn(aResponse()
+                .withHeader("Cache-Control", "max-age=60")
+                .withHeader("Vary", "Accept-Language")
+                .withBody("hello")));
+
+        httpRequest.target(wireMock.baseUrl()).path("/greeting").addHeader("Accept-Language", "en").get(String.class);
+        httpRequest.target(wireMock.baseUrl()).path("/greeting").addHeader("Accept-Language", "en").get(String.class);
+        httpRequest.target(wireMock.baseUrl()).path("/greeting").addHeader("Accept-Language", "de").get(String.class);
+
+        wireMock.verify(2, getRequestedFor(urlEqualTo("/greeting")));
+    }
+
+    @Test
+    void unsafeRequestInvalidatesEntry() {
+        wireMock.stubFor(get(urlEqualTo("/items")).willReturn(aResponse()
+                .withHeader("Cache-Control", "max-age=60")
+                .withBody("items")));
+        wireMock.stubFor(post(urlEqualTo("/items")).willReturn(aResponse().withStatus(201)));
+
+        httpRequest.target(wireMock.baseUrl()).path("/items").get(String.class);
+        httpRequest.target(wireMock.baseUrl()).path("/items").post("item", Void.class);
+        httpRequest.target(wireMock.baseUrl()).path("/items").get(String.class);
+
+        wireMock.verify(2, getRequestedFor(urlEqualTo("/items")));
+    }
+
+    @Test
+    void requestNoCacheForcesRevalidation() {
+        wireMock.stubFor(get(urlEqualTo("/prices")).willReturn(aResponse()
+                .withHeader("Cache-Control", "max-age=60")
+                .withHeader("ETag", "\"p1\"")
+                .withBody("prices")));
+
+        httpRequest.target(wireMock.baseUrl()).path("/prices").get(String.class);
+        httpRequest.target(wireMock.baseUrl()).path("/prices").addHeader("Cache-Control", "no-cache").get(String.class);
+
+        wireMock.verify(1, getRequestedFor(urlEqualTo("/prices")).withHeader("If-None-Match", equalTo("\"p1\"")));
+    }
+
+    @Test
+    void responseLargerThanMaxObjectSizeStreamsThrough() {
+        HttpRequest smallCacheRequest = HttpRequestBuilder.create(new ClientBuilder().build())
+                .setHttpCache(HttpCache.builder().setMaxObjectSize(16).build())
+                .build();
+        String body = "x".repeat(10_000);
+        wireMock.stubFor(get(urlEqualTo("/large")).willReturn(aResponse()
+                .withHeader("Cache-Control", "max-age=60")
+                .withChunkedDribbleDelay(4, 10)
+                .withBody(body)));
+
+        assertEquals(body, smallCacheRequest.target(wireMock.baseUrl()).path("/large").get(String.class).get());
+        assertEquals(body, smallCacheRequest.target(wireMock.baseUrl()).path("/large").get(String.class).get());
+
+        wireMock.verify(2, getRequestedFor(urlEqualTo("/large")));
+    }
+
+    @Test
+    void defaultMaxObjectSizeIsBoundedByTotalSize() {
+        assertEquals(4 * 1024 * 1024, HttpCache.builder().setMaxTotalSize(4 * 1024 * 1024).build().getMaxObjectSize());
+        assertEquals(8 * 1024 * 1024, HttpCache.builder().build().getMaxObjectSize());
+        assertThrows(IllegalArgumentException.class, () -> HttpCache.builder().setMaxTotalSize(1_000).setMaxObjectSize(2_000).build());
+    }
+
+    @Test
+    void leastRecentlyUsedEntriesAreEvicted() {
+        HttpCache smallCache = HttpCache.builder().setMaxTotalSize(2_000).setMaxObjectSize(1_000).build();
+        HttpRequest smallCacheRequest = HttpRequestBuilder.create(new ClientBuilder().build())
+                .setHttpCache(smallCache)
+                .build();
+        for (int i = 0; i < 5; i++) {
+            wireMock.stubFor(get(urlEqualTo("/page/" + i)).willReturn(aResponse()
+                    .withHeader("Cache-Control", "max-age=60")
+                    .withBody("p".repeat(600))));
+            smallCacheRequest.target(wireMock.baseUrl()).path("/page/" + i).get(String.class);
+        }
+
+        HttpCacheStatistics statistics = smallCache.getStatistics();
+        assertTrue(statistics.getTotalSize() <= 2_000);
+        assertEquals(3, statistics.getEvictionCount());
+        assertEquals(2, statistics.getEntryCount());
+    }
+
+    @Test
+    void immutableResultIsDeserializedOncePerBodyVersion() {
+        HttpCache resultCache = HttpCache.builder()
+                .addImmutableResultType(new TypeReference<List<String>>() {
+                })
+                .build();
+        HttpRequest resultCacheRequest = HttpRequestBuilder.create(new ClientBuilder().build())
+                .setHttpCache(resultCache)
+                .build();
+        wireMock.stubFor(get(urlEqualTo("/catalog")).atPriority(2).willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withHeader("Cache-Control", "max-age=0")
+                .withHeader("ETag", "\"v1\"")
+                .withBody("[\"a\",\"b\"]")));
+        wireMock.stubFor(get(urlEqualTo("/catalog")).atPriority(1)
+                .withHeader("If-None-Match", equalTo("\"v1\""))
+                .willReturn(aResponse().withStatus(304).withHeader("ETag", "\"v1\"")));
+
+        List<String> first = resultCacheRequest.target(wireMock.baseUrl()).path("/catalog").get(new TypeReference<List<String>>() {
+        }).get();
+        List<String> revalidated = resultCacheRequest.target(wireMock.baseUrl()).path("/catalog").get(new TypeReference<List<String>>() {
+        }).get();
+
+        assertEquals(List.of("a", "b"), first);
+        assertSame(first, revalidated);
+        assertEquals(1, resultCache.getStatistics().getResultHitCount());
+
+        resultCache.invalidate(URI.create(wireMock.baseUrl() + "/catalog"));
+        List<String> refetched = resultCacheRequest.target(wireMock.baseUrl()).path("/catalog").get(new TypeReference<List<String>>() {
+        }).get();
+
+        assertEquals(first, refetched);
+        assertNotSame(first, refetched);
+        assertEquals(1, resultCache.getStatistics().getResultCount());
+    }
+
+    @Test
+    void undeclaredResultTypeIsDeserializedOnEveryHit() {
+        wireMock.stubFor(get(urlEqualTo("/flags")).willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withHeader("Cache-Control", "max-age=60")
+                .withBody("[\"a\",\"b\"]")));
+
+        List<String> first = httpRequest.target(wireMock.baseUrl()).path("/flags").get(new TypeReference<List<String>>() {
+        }).get();
+        List<String> second = httpRequest.target(wireMock.baseUrl()).path("/flags").get(new TypeReference<List<String>>() {
+        }).get();
+
+        assertEquals(first, second);
+        assertNotSame(first, second);
+        assertEquals(1, cache.getStatistics().getHitCount());
+        assertEquals(0, cache.getStatistics().getResultHitCount());
+    }
+
+    @Test
+    void staleWhileRevalidateServesStaleAndRefreshesOnceInBackground() throws InterruptedException {
+        wireMock.stubFor(get(urlEqualTo("/flags")).atPriority(2).willReturn(aResponse()
+                .withHeader("Cache-Control", "max-age=0, stale-while-revalidate=60")
+                .withHeader("ETag", "\"v1\"")
+                .withBody("flags")));
+        wireMock.stubFor(get(urlEqualTo("/flags")).atPriority(1)
+                .withHeader("If-None-Match", equalTo("\"v1\""))
+                .willReturn(aResponse().withStatus(304).withHeader("ETag", "\"v1\"").withFixedDelay(300)));
+
+        ResponseHandler<String> first = httpRequest.target(wireMock.baseUrl()).path("/flags").get(String.class);
+        assertFalse(first.isStale());
+
+        for (int i = 0; i < 5; i++) {
+            ResponseHandler<String> stale = httpRequest.target(wireMock.baseUrl()).path("/flags").get(String.class);
+            assertEquals("flags", stale.get());
+            assertTrue(stale.isStale());
+        }
+
+        RequestPatternBuilder conditionalRequests = getRequestedFor(urlEqualTo("/flags")).withHeader("If-None-Match", equalTo("\"v1\""));
+        for (int i = 0; i < 50 && wireMock.findAll(conditionalRequests).isEmpty(); i++) {
+            Thread.sleep(20);
+        }
+        Thread.sleep(400);
+        wireMock.verify(1, conditionalRequests);
+        assertEquals(5, cache.getStatistics().getStaleWhileRevalidateCount());
+    }
+
+    @Test
+    void staleIfErrorServesStaleWhenOriginFails() {
+        wireMock.stubFor(get(urlEqualTo("/catalog")).willReturn(aResponse()
+                .withHeader("Cache-Control", "max-age=0, stale-if-error=60")
+                .withBody("catalog")));
+        assertFalse(httpRequest.target(wireMock.baseUrl()).path("/catalog").get(String.class).isStale());
+
+        wireMock.stubFor(get(urlEqualTo("/catalog")).willReturn(aResponse().withStatus(503)));
+        ResponseHandler<String> stale = httpRequest.target(wireMock.baseUrl()).path("/catalog").get(String.class);
+
+        assertEquals(200, stale.getCode());
+        assertEquals("catalog", stale.get());
+        assertTrue(stale.isStale());
+        assertEquals(1, cache.getStatistics().getStaleIfErrorCount());
+    }
+
+    @Test
+    void originErrorIsReturnedWithoutStaleIfError() {
+        wireMock.stubFor(get(urlEqualTo("/catalog")).willReturn(aResponse()
+                .withHeader("Cache-Control", "max-age=0, must-revalidate, stale-if-error=60")
+                .withBody("catalog")));
+        httpRequest.target(wireMock.baseUrl()).path("/catalog").get(String.class);
+
+        wireMock.stubFor(get(urlEqualTo("/catalog")).willReturn(aResponse().withStatus(503)));
+        ResponseHandler<String> response = httpRequest.target(wireMock.baseUrl()).path("/catalog").get(String.class);
+
+        assertEquals(503, response.getCode());
+        assertFalse(response.isStale());
+    }
+
+    @Test
+    void restartedCacheIsWarmedFromDisk() throws IOException {
+        wireMock.stubFor(get(urlEqualTo("/catalog")).willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withHeader("Cache-Control", "max-age=60")
+                .withBody("[\"a\",\"b\"]")));
+        Path directory = Files.createTempDirectory("http-request-cache");
+        try {
+            try (HttpCache diskCache = HttpCache.builder().setDiskStorage(directory).build()) {
+                HttpRequest diskCacheRequest = HttpRequestBuilder.create(new ClientBuilder().build()).setHttpCache(diskCache).build();
+                diskCacheRequest.target(wireMock.baseUrl()).path("/catalog").get(String.class);
+            }
+
+            try (HttpCache restartedCache = HttpCache.builder().setDiskStorage(directory).build()) {
+                HttpRequest restartedRequest = HttpRequestBuilder.create(new ClientBuilder().build()).setHttpCache(restartedCache).build();
+                List<String> catalog = restartedRequest.target(wireMock.baseUrl()).path("/catalog").get(new TypeReference<List<String>>() {
+                }).get();
+
+                assertEquals(List.of("a", "b"), catalog);
+                assertEquals(1, restartedCache.getStatistics().getHitCount());
+            }
+            wireMock.verify(1, getRequestedFor(urlEqualTo("/catalog")));
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    @Test
+    void expiresAndAgeDetermineFreshness() {
+        Instant date = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        BasicHttpResponse response = new BasicHttpResponse(200);
+        response.addHeader("Date", DateUtils.formatStandardDate(date));
+        response.addHeader("Expires", DateUtils.formatStandardDate(date.plus(Duration.ofSeconds(100))));
+        response.addHeader("Age", "30");
+        long now = date.toEpochMilli();
+
+        CacheEntry entry = CacheEntry.create(new BasicHttpRequest("GET", "/"), response, new byte[0], now, now);
+
+        assertEquals(100_000, cache.getFreshnessLifetimeMillis(entry));
+        assertEquals(30_000, entry.getCurrentAgeMillis(now));
+        assertTrue(cache.isFresh(entry, now + 60_000, CacheControl.EMPTY));
+        assertFalse(cache.isFresh(entry, now + 80_000, CacheControl.EMPTY));
+    }
+
+    @Test
+    void heuristicFreshnessIsAFractionOfLastModifiedAge() {
+        Instant date = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        BasicHttpResponse response = new BasicHttpResponse(200);
+        response.addHeader("Date", DateUtils.formatStandardDate(date));
+        response.addHeader("Last-Modified", DateUtils.formatStandardDate(date.minus(Duration.ofHours(10))));
+
+        CacheEntry entry = CacheEntry.create(new BasicHttpRequest("GET", "/"), response, new byte[0], date.toEpochMilli(), date.toEpochMilli());
+
+        assertEquals(Duration.ofHours(1).toMillis(), cache.getFreshnessLifetimeMillis(entry));
+    }
+}
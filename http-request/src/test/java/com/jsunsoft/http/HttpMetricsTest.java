@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpMetricsTest {
+
+    @RegisterExtension
+    static WireMockExtension wireMock = WireMockExtension.newInstance()
+            .options(WireMockConfiguration.wireMockConfig().dynamicPort())
+            .build();
+
+    private final InMemoryHttpMetrics metrics = new InMemoryHttpMetrics();
+
+    private final HttpRequest httpRequest = HttpRequestBuilder.create(new ClientBuilder().build())
+            .setMetrics(metrics)
+            .build();
+
+    @Test
+    void exchangesAreRecordedPerRouteMethodAndStatusClass() {
+        wireMock.stubFor(get(urlEqualTo("/items")).willReturn(aResponse().withFixedDelay(20).withBody("0123456789")));
+        wireMock.stubFor(post(urlEqualTo("/items")).willReturn(aResponse().withStatus(404)));
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("0123456789", httpRequest.target(wireMock.baseUrl()).path("/items").get(String.class).get());
+        }
+        assertEquals(404, httpRequest.target(wireMock.baseUrl()).path("/items").post("payload", String.class).getCode());
+
+        HttpMetricsSnapshot snapshot = metrics.snapshot();
+        HttpMetricsSnapshot.Exchange gets = snapshot.getExchange(wireMock.baseUrl(), "GET", "2xx").orElseThrow();
+        assertEquals(3, gets.getCount());
+        assertEquals(30, gets.getResponseBytes());
+        assertEquals(0, gets.getRequestBytes());
+        assertTrue(gets.getLatencyNanosAtPercentile(50) >= Duration.ofMillis(20).toNanos());
+        assertTrue(gets.getLatencyNanosAtPercentile(99) <= gets.getMaxLatencyNanos());
+
+        HttpMetricsSnapshot.Exchange posts = snapshot.getExchange(wireMock.baseUrl(), "POST", "4xx").orElseThrow();
+        assertEquals(1, posts.getCount());
+        assertEquals("payload".length(), posts.getRequestBytes());
+        assertEquals(2, snapshot.getExchanges().size());
+    }
+
+    @Test
+    void retriesAreRecorded() throws IOException {
+        wireMock.stubFor(get(urlEqualTo("/flaky")).willReturn(aResponse().withStatus(503).withBody("unavailable")));
+
+        try (Response response = httpRequest.retryableTarget(wireMock.baseUrl() + "/flaky", RetryContext.onIdempotent5xx(2, Duration.ofMillis(1))).get()) {
+            assertEquals(503, response.getCode());
+        }
+
+        // Each attempt is reported once its response is closed, the last one included.
+        HttpMetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(2, snapshot.getRetryCount(wireMock.baseUrl(), "GET"));
+        assertEquals(3, snapshot.getExchange(wireMock.baseUrl(), "GET", "5xx").orElseThrow().getCount());
+    }
+
+    @Test
+    void connectionFailuresAreCountedByType() throws IOException {
+        int port;
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            port = serverSocket.getLocalPort();
+        }
+        String route = "http://localhost:" + port;
+
+        assertEquals(503, httpRequest.target(route).path("/down").get(String.class).getCode());
+
+        List<HttpMetricsSnapshot.Failure> failures = metrics.snapshot().getFailures();
+        assertEquals(1, failures.size());
+        assertEquals(route, failures.get(0).getRoute());
+        assertTrue(failures.get(0).getFailureType().isRemoteServerUnreachable());
+        assertTrue(metrics.snapshot().getExchanges().isEmpty());
+    }
+
+    @Test
+    void histogramResolvesPercentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1000);
+        }
+
+        long[] counts = histogram.copyCounts();
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMax());
+        assertEquals(500_000, LatencyHistogram.valueAtPercentile(counts, 50, histogram.getMax()), 500_000 / 128.0);
+        assertEquals(990_000, LatencyHistogram.valueAtPercentile(counts, 99, histogram.getMax()), 990_000 / 128.0);
+        assertEquals(1_000_000, LatencyHistogram.valueAtPercentile(counts, 100, histogram.getMax()));
+        assertEquals(0, LatencyHistogram.valueAtPercentile(new long[LatencyHistogram.BUCKET_COUNT], 99, 0));
+    }
+
+    @Test
+    void histogramBucketsAreContiguous() {
+        for (int index = 1; index < LatencyHistogram.BUCKET_COUNT; index++) {
+            long lowest = LatencyHistogram.highestValueOf(index - 1) + 1;
+            assertEquals(index, LatencyHistogram.indexOf(lowest));
+            assertEquals(index, LatencyHistogram.indexOf(LatencyHistogram.highestValueOf(index)));
+        }
+        assertEquals(LatencyHistogram.MAX_TRACKABLE_NANOS, LatencyHistogram.highestValueOf(LatencyHistogram.BUCKET_COUNT - 1));
+    }
+}
@@ -21,6 +21,7 @@ import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
 import org.apache.hc.client5.http.HttpRoute;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
 import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.TimeValue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
@@ -318,4 +319,38 @@ class HttpRequestConnectionManagementLiveTest {
         hot1.join();
         hot2.join();
     }
+
+    @Test
+    void idleConnectionsAreEvictedInBackground() throws IOException, InterruptedException {
+        try (ClientBuilder.HttpClientWithResourcesWrapper resources = ClientBuilder.create()
+                .evictIdleConnections(TimeValue.ofMilliseconds(100))
+                .setConnectionEvictionInterval(TimeValue.ofMilliseconds(50))
+                .buildWithResources()) {
+            PoolingHttpClientConnectionManager pool = (PoolingHttpClientConnectionManager) resources.getConnectionManager();
+            HttpRequest httpRequest = HttpRequestBuilder.create(resources.getClient()).build();
+
+            assertEquals(200, httpRequest.target(server1.baseUrl()).get(String.class).getStatusCode());
+            assertEquals(1, pool.getTotalStats().getAvailable(), "Connection must be kept alive in the pool after the request");
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while (pool.getTotalStats().getAvailable() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(0, pool.getTotalStats().getAvailable(), "Idle connection must be evicted without a new lease");
+        }
+    }
+
+    @Test
+    void evictorStopsWhenLastClientIsClosed() throws IOException {
+        ClientBuilder.HttpClientWithResourcesWrapper first = ClientBuilder.create().evictExpiredConnections().buildWithResources();
+        ClientBuilder.HttpClientWithResourcesWrapper second = ClientBuilder.create().evictExpiredConnections().buildWithResources();
+        assertTrue(ConnectionEvictor.isRunning());
+
+        first.close();
+        assertTrue(ConnectionEvictor.isRunning(), "Evictor is shared and must keep running for the second client");
+
+        second.close();
+        second.close();
+        assertFalse(ConnectionEvictor.isRunning());
+    }
 }
@@ -30,7 +30,6 @@ import java.nio.charset.StandardCharsets;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static org.apache.hc.core5.http.ContentType.APPLICATION_JSON;
-import static org.apache.hc.core5.http.ContentType.APPLICATION_XML;
 import static org.apache.hc.core5.http.HttpHeaders.CONTENT_LENGTH;
 import static org.apache.hc.core5.http.HttpHeaders.CONTENT_TYPE;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -39,7 +38,6 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 class HttpRequestSimpleTest {
     private static final Logger LOGGER = LoggerFactory.getLogger(HttpRequestSimpleTest.class);
 
-    private static final String XML_BODY = "<xml><id>1</id><key>testValue</key></xml>";
     private static final String TEXT_BODY = "abcd";
     private static final String JSON_BODY = """
             {"id":1,"key":"testValue"}""";
@@ -55,10 +53,6 @@ class HttpRequestSimpleTest {
             .addDefaultHeader(HttpHeaders.USER_AGENT, userAgent)
             .build();
 
-    private final HttpRequest xmlHttpRequest = HttpRequestBuilder.create(new ClientBuilder().build())
-            .addContentType(APPLICATION_XML)
-            .build();
-
     private final HttpRequest basicHttpRequest = HttpRequestBuilder.create((new ClientBuilder().build()))
             .build();
 
@@ -95,66 +89,6 @@ class HttpRequestSimpleTest {
         assertTrue(httpRequestUserAgent.target(wireMockRule.getRuntimeInfo().getHttpBaseUrl()).path("userAgent").get(Void.class).isSuccess());
     }
 
-    @Test
-    void xmlParsingTest() {
-        wireMockRule.stubFor(post(urlEqualTo("/xml"))
-                .withHeader(CONTENT_TYPE, equalTo(APPLICATION_XML.toString()))
-                .withRequestBody(equalTo(XML_BODY))
-                .willReturn(
-                        aResponse()
-                                .withBody(XML_BODY)
-                                .withHeader(CONTENT_TYPE, APPLICATION_XML.toString())
-                                .withHeader(CONTENT_LENGTH, String.valueOf(XML_BODY.length()))
-                                .withStatus(200)
-                )
-        );
-
-        WebTarget webTarget = xmlHttpRequest.immutableTarget(wireMockRule.getRuntimeInfo().getHttpBaseUrl()).path("xml");
-
-        ResponseHandler<Wrapper> responseHandler = webTarget
-                .post(XML_BODY, Wrapper.class);
-        responseHandler.filter(ResponseHandler::hasNotContent).ifPassed(r -> LOGGER.info(r.getErrorText()));
-
-        assertTrue(responseHandler.isSuccess());
-        assertTrue(responseHandler.hasContent());
-        assertTrue(responseHandler.containsHeader(CONTENT_TYPE));
-
-        Wrapper parsedXml = responseHandler.get();
-
-        assertEquals(1, parsedXml.id);
-    }
-
-    @Test
-    void requestXmlSerializationTest() {
-        wireMockRule.stubFor(post(urlEqualTo("/xml"))
-                .withHeader(CONTENT_TYPE, equalTo(APPLICATION_XML.toString()))
-                .withRequestBody(equalTo(XML_BODY))
-                .willReturn(
-                        aResponse()
-                                .withBody(XML_BODY)
-                                .withHeader(CONTENT_TYPE, APPLICATION_XML.toString())
-                                .withHeader(CONTENT_LENGTH, String.valueOf(XML_BODY.length()))
-                                .withStatus(200)
-                )
-        );
-
-        WebTarget webTarget = xmlHttpRequest.immutableTarget(wireMockRule.getRuntimeInfo().getHttpBaseUrl()).path("xml");
-
-        Wrapper xmlWrapper = webTarget
-                .post(XML_BODY, Wrapper.class)
-                .requiredGet();
-
-        ResponseHandler<Wrapper> rh = webTarget
-                .post(xmlWrapper, Wrapper.class);
-
-        assertTrue(rh.isSuccess());
-        assertTrue(rh.hasContent());
-
-        Wrapper parsedXml = rh.get();
-
-        assertEquals(1, parsedXml.id);
-    }
-
     @Test
     void withoutParseTest() {
         wireMockRule.stubFor(post(urlEqualTo("/text"))
@@ -18,16 +18,23 @@ package com.jsunsoft.http;
 
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
 import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpEntity;
 import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.io.entity.InputStreamEntity;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class HttpRetryableRequestTest {
 
@@ -176,22 +183,43 @@ class HttpRetryableRequestTest {
         wireMockRule.stubFor(post(urlEqualTo("/stream-post"))
                 .willReturn(aResponse().withStatus(503)));
 
-        org.apache.hc.core5.http.HttpEntity streaming = new org.apache.hc.core5.http.io.entity.InputStreamEntity(
-                new java.io.ByteArrayInputStream("{}".getBytes(java.nio.charset.StandardCharsets.UTF_8)),
-                org.apache.hc.core5.http.ContentType.APPLICATION_JSON);
+        HttpEntity streaming = new InputStreamEntity(
+                new ByteArrayInputStream("{}".getBytes(StandardCharsets.UTF_8)),
+                ContentType.APPLICATION_JSON);
 
-        IllegalStateException thrown = org.junit.jupiter.api.Assertions.assertThrows(
+        IllegalStateException thrown = assertThrows(
                 IllegalStateException.class,
                 () -> httpRequest.retryableTarget(
                                 wireMockRule.getRuntimeInfo().getHttpBaseUrl() + "/stream-post",
                                 RetryContext.onAnyMethod5xx(2, Duration.ofMillis(1)))
                         .rawRequest(HttpMethod.POST, streaming));
 
-        org.junit.jupiter.api.Assertions.assertTrue(
+        assertTrue(
                 thrown.getMessage().contains("non-repeatable"),
                 "Error message should name the cause: " + thrown.getMessage());
     }
 
+    @Test
+    void nonRepeatableBodyFailsFastWithoutResending() {
+        wireMockRule.stubFor(post(urlEqualTo("/stream-post-fail-fast"))
+                .willReturn(aResponse().withStatus(503)));
+
+        HttpEntity streaming = new InputStreamEntity(
+                new ByteArrayInputStream("{}".getBytes(StandardCharsets.UTF_8)),
+                ContentType.APPLICATION_JSON);
+
+        // The retry delay is far longer than the timeout: the failure must come before the delay,
+        // and the consumed stream must never be sent a second time.
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> assertThrows(
+                IllegalStateException.class,
+                () -> httpRequest.retryableTarget(
+                                wireMockRule.getRuntimeInfo().getHttpBaseUrl() + "/stream-post-fail-fast",
+                                RetryContext.onAnyMethod5xx(2, Duration.ofMinutes(1)))
+                        .rawRequest(HttpMethod.POST, streaming)));
+
+        wireMockRule.verify(1, postRequestedFor(urlEqualTo("/stream-post-fail-fast")));
+    }
+
     @Test
     void defaultRetryContextDoesNotRetryPostOn503() {
         // The default mustBeRetried(RetryAttempt) is idempotency-gated — a caller who supplies a
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LightweightFailuresTest {
+
+    @RegisterExtension
+    static WireMockExtension wireMock = WireMockExtension.newInstance()
+            .options(WireMockConfiguration.wireMockConfig().dynamicPort())
+            .build();
+
+    private final CloseableHttpClient client = new ClientBuilder().build();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        client.close();
+    }
+
+    @Test
+    void transportFailureSkipsStackTrace() throws IOException {
+        HttpRequest httpRequest = HttpRequestBuilder.create(client).setLightweightFailures(true).build();
+
+        ResponseException e = assertThrows(ResponseException.class, () -> httpRequest.target(unusedPortUri()).get());
+
+        assertEquals(0, e.getStackTrace().length);
+        assertTrue(e.getCause().getStackTrace().length > 0);
+        assertEquals(503, e.getStatusCode());
+        assertTrue(e.getConnectionFailureType().isRemoteServerUnreachable());
+    }
+
+    @Test
+    void transportFailureKeepsStackTraceByDefault() throws IOException {
+        HttpRequest httpRequest = HttpRequestBuilder.create(client).build();
+
+        ResponseException e = assertThrows(ResponseException.class, () -> httpRequest.target(unusedPortUri()).get());
+
+        assertTrue(e.getStackTrace().length > 0);
+    }
+
+    @Test
+    void bodyOverSizeLimitSkipsStackTrace() throws IOException {
+        wireMock.stubFor(get(urlEqualTo("/large")).willReturn(aResponse().withBody("x".repeat(2000))));
+        HttpRequest httpRequest = HttpRequestBuilder.create(client).setMaxResponseBodySizeBytes(1024).setLightweightFailures(true).build();
+
+        try (Response response = httpRequest.target(wireMock.baseUrl()).path("/large").get()) {
+            InvalidContentLengthException e = assertThrows(InvalidContentLengthException.class, () -> response.readEntityChecked(String.class));
+
+            assertEquals(0, e.getStackTrace().length);
+        }
+        assertEquals(502, httpRequest.target(wireMock.baseUrl()).path("/large").get(String.class).getCode());
+    }
+
+    @Test
+    void invalidContentLengthKeepsStackTraceByDefault() {
+        assertTrue(new InvalidContentLengthException(1, "too large").getStackTrace().length > 0);
+        assertEquals(0, new InvalidContentLengthException(1, "too large", false).getStackTrace().length);
+    }
+
+    private static String unusedPortUri() throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            return "http://localhost:" + serverSocket.getLocalPort() + "/down";
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsunsoft.http;
+
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.time.Duration;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadBalancedWebTargetTest {
+
+    @RegisterExtension
+    static WireMockExtension first = WireMockExtension.newInstance()
+            .options(WireMockConfiguration.wireMockConfig().dynamicPort())
+            .build();
+
+    @RegisterExtension
+    static WireMockExtension second = WireMockExtension.newInstance()
+            .options(WireMockConfiguration.wireMockConfig().dynamicPort())
+            .build();
+
+    private final HttpRequest httpRequest = HttpRequestBuilder.create(new ClientBuilder().build())
+            .build();
+
+    @BeforeEach
+    void setup() {
+        first.stubFor(get(urlEqualTo("/ok")).willReturn(aResponse().withStatus(200).withBody("first")));
+        second.stubFor(get(urlEqualTo("/ok")).willReturn(aResponse().withStatus(200).withBody("second")));
+
+        first.stubFor(get(urlEqualTo("/flaky")).willReturn(aResponse().withStatus(503)));
+        second.stubFor(get(urlEqualTo("/flaky")).willReturn(aResponse().withStatus(503)));
+    }
+
+    @Test
+    void spreadsRequestsOverAllEndpoints() {
+        EndpointGroup group = EndpointGroup.of(URI.create(first.baseUrl()), URI.create(second.baseUrl()));
+
+        for (int i = 0; i < 40; i++) {
+            ResponseHandler<String> responseHandler = httpRequest.loadBalancedTarget(group).path("/ok").get(String.class);
+            assertEquals(200, responseHandler.getStatusCode());
+        }
+
+        int firstCount = first.findAll(getRequestedFor(urlEqualTo("/ok"))).size();
+        int secondCount = second.findAll(getRequestedFor(urlEqualTo("/ok"))).size();
+
+        assertEquals(40, firstCount + secondCount);
+        assertTrue(firstCount > 0 && secondCount > 0, "Both endpoints must receive requests. first: " + firstCount + ", second: " + secondCount);
+    }
+
+    @Test
+    void inFlightCountIsReleasedWhenResponseIsClosed() throws IOException {
+        URI firstUri = URI.create(first.baseUrl());
+        EndpointGroup group = EndpointGroup.of(firstUri);
+
+        try (Response response = httpRequest.loadBalancedTarget(group).path("/ok").get()) {
+            assertEquals(200, response.getCode());
+            assertEquals(1, group.getInFlight(firstUri));
+        }
+        assertEquals(0, group.getInFlight(firstUri));
+    }
+
+    @Test
+    void retryGoesToAnotherEndpoint() {
+        EndpointGroup group = EndpointGroup.of(URI.create(first.baseUrl()), URI.create(second.baseUrl()));
+
+        ResponseHandler<String> responseHandler = httpRequest.loadBalancedTarget(group, RetryContext.onIdempotent5xx(1, Duration.ZERO))
+                .path("/flaky")
+                .get(String.class);
+
+        assertEquals(503, responseHandler.getStatusCode());
+        assertEquals(1, first.findAll(getRequestedFor(urlEqualTo("/flaky"))).size());
+        assertEquals(1, second.findAll(getRequestedFor(urlEqualTo("/flaky"))).size());
+    }
+
+    @Test
+    void failsOverWhenEndpointIsUnreachable() throws IOException {
+        URI unreachable;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            unreachable = URI.create("http://localhost:" + socket.getLocalPort());
+        }
+        EndpointGroup group = EndpointGroup.of(unreachable, URI.create(first.baseUrl()));
+
+        for (int i = 0; i < 10; i++) {
+            ResponseHandler<String> responseHandler = httpRequest.loadBalancedTarget(group).path("/ok").get(String.class);
+            assertEquals(200, responseHandler.getStatusCode());
+            assertEquals("first", responseHandler.get());
+        }
+        assertEquals(0, group.getInFlight(unreachable));
+    }
+
+    @Test
+    void rejectsEndpointsWithDifferentBasePath() {
+        assertThrows(IllegalArgumentException.class, () -> EndpointGroup.of(URI.create("http://a:8080/api"), URI.create("http://b:8080/other")));
+        assertThrows(IllegalArgumentException.class, () -> EndpointGroup.builder().build());
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsunsoft.http;
+
+import org.apache.hc.core5.http.message.BasicHttpRequest;
+import org.apache.hc.core5.http.message.BasicHttpResponse;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoryHttpCacheStorageTest {
+
+    @Test
+    void leastRecentlyUsedEntriesAreEvicted() throws InterruptedException {
+        CacheEntry entry = entry("x".repeat(1000));
+        MemoryHttpCacheStorage storage = new MemoryHttpCacheStorage(entry.getWeight() * 16);
+
+        for (int i = 0; i < 16; i++) {
+            storage.put("k" + i, entry);
+        }
+        // Access times are System.nanoTime() stamps: make sure the hit is the most recent one.
+        Thread.sleep(1);
+        storage.get("k0");
+        storage.put("k16", entry);
+
+        // Evicted until 1/16 of the bound is free.
+        assertEquals(2, storage.getEvictionCount());
+        assertEquals(entry.getWeight() * 15, storage.getTotalWeight());
+        assertNotNull(storage.get("k0"));
+        assertNull(storage.get("k1"));
+        assertNull(storage.get("k2"));
+        assertNotNull(storage.get("k16"));
+    }
+
+    @Test
+    void weightStaysConsistentUnderConcurrentAccess() throws Exception {
+        CacheEntry entry = entry("x".repeat(100));
+        MemoryHttpCacheStorage storage = new MemoryHttpCacheStorage(entry.getWeight() * 50);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < 20_000; i++) {
+                        String key = "k" + random.nextInt(200);
+                        switch (random.nextInt(4)) {
+                            case 0:
+                                storage.put(key, entry);
+                                break;
+                            case 1:
+                                storage.remove(key);
+                                break;
+                            default:
+                                storage.get(key);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(storage.getTotalWeight() <= entry.getWeight() * 50);
+        assertEquals(storage.getEntryCount() * entry.getWeight(), storage.getTotalWeight());
+    }
+
+    private static CacheEntry entry(String body) {
+        BasicHttpResponse response = new BasicHttpResponse(200, "OK");
+        response.addHeader("Cache-Control", "max-age=60");
+        long now = System.currentTimeMillis();
+        return CacheEntry.create(new BasicHttpRequest("GET", "/"), response, body.getBytes(StandardCharsets.UTF_8), now, now);
+    }
+}
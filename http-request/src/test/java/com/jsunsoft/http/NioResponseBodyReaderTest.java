@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.apache.hc.core5.util.Timeout;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class NioResponseBodyReaderTest {
+    private static final byte[] BODY = TestPayloads.randomBytes(3 * BodyBuffers.CHUNK_SIZE + 5);
+
+    @RegisterExtension
+    static WireMockExtension wireMockRule = WireMockExtension.newInstance()
+            .options(WireMockConfiguration.wireMockConfig().dynamicPort())
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        wireMockRule.resetAll();
+        wireMockRule.stubFor(get(urlEqualTo("/blob"))
+                .willReturn(aResponse().withStatus(200).withHeader("Content-Type", "application/octet-stream").withBody(BODY)));
+        wireMockRule.stubFor(get(urlEqualTo("/chunked"))
+                .willReturn(aResponse().withStatus(200).withHeader("Content-Type", "application/octet-stream").withBody(BODY).withChunkedDribbleDelay(4, 1)));
+    }
+
+    @Test
+    void byteBufferIsHeapByDefault() {
+        ByteBuffer body = target(HttpRequestBuilder.create(ClientBuilder.create().build()).build(), "blob")
+                .get(ByteBuffer.class)
+                .requiredGet();
+
+        assertFalse(body.isDirect());
+        assertEquals(ByteBuffer.wrap(BODY), body);
+    }
+
+    @Test
+    void directByteBufferReaderReturnsDirectBuffer() {
+        HttpRequest httpRequest = HttpRequestBuilder.create(ClientBuilder.create().build())
+                .addBodyReader(ResponseBodyReader.directByteBufferReader())
+                .build();
+
+        for (String path : new String[]{"blob", "chunked"}) {
+            ByteBuffer body = target(httpRequest, path).get(ByteBuffer.class).requiredGet();
+
+            assertTrue(body.isDirect(), path);
+            assertEquals(ByteBuffer.wrap(BODY), body, path);
+        }
+    }
+
+    @Test
+    void directByteBufferRespectsSizeCap() {
+        HttpRequest httpRequest = HttpRequestBuilder.create(ClientBuilder.create().build())
+                .addBodyReader(ResponseBodyReader.directByteBufferReader())
+                .setMaxResponseBodySizeBytes(BodyBuffers.CHUNK_SIZE)
+                .build();
+
+        ResponseHandler<ByteBuffer> rh = target(httpRequest, "chunked").get(ByteBuffer.class);
+
+        assertEquals(502, rh.getCode());
+    }
+
+    @Test
+    void channelStreamsBodyIntoDirectAndHeapBuffers() throws IOException {
+        HttpRequest httpRequest = HttpRequestBuilder.create(ClientBuilder.create().build()).build();
+
+        try (Response response = target(httpRequest, "chunked").request(HttpMethod.GET);
+             ReadableByteChannel channel = response.readEntity(ReadableByteChannel.class)) {
+            ByteBuffer direct = ByteBuffer.allocateDirect(BodyBuffers.CHUNK_SIZE);
+            ByteBuffer heap = ByteBuffer.allocate(BODY.length);
+            boolean useDirect = true;
+            while (true) {
+                int read;
+                if (useDirect) {
+                    direct.clear();
+                    read = channel.read(direct);
+                    heap.put(direct.flip());
+                } else {
+                    read = channel.read(heap);
+                }
+                if (read == -1) {
+                    break;
+                }
+                useDirect = !useDirect;
+            }
+
+            assertEquals(ByteBuffer.wrap(BODY), heap.flip());
+        }
+    }
+
+    @Test
+    void channelRespectsSizeCap() throws IOException {
+        HttpRequest httpRequest = HttpRequestBuilder.create(ClientBuilder.create().build())
+                .setMaxResponseBodySizeBytes(BodyBuffers.CHUNK_SIZE)
+                .build();
+
+        try (Response response = target(httpRequest, "chunked").request(HttpMethod.GET);
+             ReadableByteChannel channel = response.readEntity(ReadableByteChannel.class)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BODY.length);
+
+            assertThrows(InvalidContentLengthException.class, () -> {
+                while (channel.read(buffer) != -1) {
+                    buffer.clear();
+                }
+            });
+        }
+    }
+
+    @Test
+    void closingChannelReleasesConnection() throws IOException {
+        HttpRequest httpRequest = HttpRequestBuilder.create(ClientBuilder.create()
+                        .setMaxPoolSize(1)
+                        .setDefaultMaxPoolSizePerRoute(1)
+                        .setConnectionRequestTimeout(Timeout.ofSeconds(2))
+                        .build())
+                .build();
+
+        Response response = target(httpRequest, "blob").request(HttpMethod.GET);
+        ReadableByteChannel channel = response.readEntity(ReadableByteChannel.class);
+        channel.read(ByteBuffer.allocate(16));
+        channel.close();
+
+        assertFalse(channel.isOpen());
+        assertEquals(ByteBuffer.wrap(BODY), target(httpRequest, "blob").get(ByteBuffer.class).requiredGet());
+        response.close();
+    }
+
+    @Test
+    void channelIsRejectedWhereResponseIsClosedAfterReading() {
+        WebTarget webTarget = target(HttpRequestBuilder.create(ClientBuilder.create().build()).build(), "blob");
+
+        assertThrows(IllegalArgumentException.class, () -> webTarget.get(ReadableByteChannel.class));
+    }
+
+    private static WebTarget target(HttpRequest httpRequest, String path) {
+        return httpRequest.target(wireMockRule.getRuntimeInfo().getHttpBaseUrl()).path(path);
+    }
+}
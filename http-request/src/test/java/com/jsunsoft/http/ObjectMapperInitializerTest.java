@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import org.apache.hc.core5.http.ContentType;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.cfg.MapperBuilder;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ObjectMapperInitializerTest {
+    private static final BodyCodecProvider TEST_CODEC = new BodyCodecProvider() {
+        @Override
+        public String getName() {
+            return "test";
+        }
+
+        @Override
+        public List<ContentType> getContentTypes() {
+            return List.of(ContentType.create("application/test+json"));
+        }
+
+        @Override
+        public MapperBuilder<?, ?> newMapperBuilder() {
+            return JsonMapper.builder();
+        }
+    };
+
+    @Test
+    void defaultMappersAreSharedByRequestAndResponseSide() {
+        ResponseBodyReaderConfig responseConfig = ResponseBodyReaderConfig.create().build();
+        RequestBodySerializeConfig requestConfig = RequestBodySerializeConfig.create().build();
+
+        assertSame(responseConfig.getDefaultJsonMapper(), requestConfig.getDefaultJsonMapper());
+        assertSame(responseConfig.getDefaultJsonMapper(), ResponseBodyReaderConfig.create().build().getDefaultJsonMapper());
+    }
+
+    @Test
+    void datePatternsGetTheirOwnMapper() {
+        ResponseBodyReaderConfig withPattern = ResponseBodyReaderConfig.create()
+                .addDateDeserializationPattern(LocalDate.class, "yyyyMMdd")
+                .build();
+
+        assertNotSame(ResponseBodyReaderConfig.create().build().getDefaultJsonMapper(), withPattern.getDefaultJsonMapper());
+    }
+
+    @Test
+    void codecDefaultMapperIsShared() {
+        ObjectMapper first = ObjectMapperInitializer.lazyMapper(TEST_CODEC, null, null).get();
+
+        assertSame(first, ObjectMapperInitializer.lazyMapper(TEST_CODEC, null, Map.of()).get());
+        assertNotSame(ObjectMapperInitializer.initJsonMapperIfNull(null, null), first);
+    }
+
+    @Test
+    void codecMapperIsBuiltOnFirstUseOnly() {
+        Map<Class<?>, String> patterns = new HashMap<>(Map.of(LocalDate.class, "yyyyMMdd"));
+        Supplier<ObjectMapper> mapper = ObjectMapperInitializer.lazyMapper(TEST_CODEC, null, patterns);
+
+        // Later changes to the builder's patterns must not leak into an already built config.
+        patterns.clear();
+
+        ObjectMapper first = mapper.get();
+        assertNotSame(ObjectMapperInitializer.initMapperIfNull(TEST_CODEC, null, null), first);
+        assertSame(first, mapper.get());
+        assertEquals("\"19930511\"", first.writeValueAsString(LocalDate.of(1993, 5, 11)));
+    }
+
+    @Test
+    void userCodecMapperWithoutPatternsIsUsedAsIs() {
+        ObjectMapper userMapper = JsonMapper.builder().build();
+
+        assertSame(userMapper, ObjectMapperInitializer.lazyMapper(TEST_CODEC, userMapper, Map.of()).get());
+    }
+
+    @Test
+    void mapperOfUnknownCodecIsRejected() {
+        ResponseBodyReaderConfig.Builder builder = ResponseBodyReaderConfig.create()
+                .setDefaultMapper("no-such-codec", JsonMapper.builder().build());
+
+        assertThrows(IllegalArgumentException.class, builder::build);
+    }
+
+    @Test
+    void clearedCodecMapperIsNotRejected() {
+        RequestBodySerializeConfig config = RequestBodySerializeConfig.create()
+                .setDefaultMapper("no-such-codec", JsonMapper.builder().build())
+                .setDefaultMapper("no-such-codec", null)
+                .build();
+
+        assertNull(config.getDefaultMapper("no-such-codec"));
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsunsoft.http;
+
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutlierDetectionTest {
+
+    private static final URI A = URI.create("http://a:8080");
+    private static final URI B = URI.create("http://b:8080");
+    private static final URI C = URI.create("http://c:8080");
+
+    @RegisterExtension
+    static WireMockExtension healthy = WireMockExtension.newInstance()
+            .options(WireMockConfiguration.wireMockConfig().dynamicPort())
+            .build();
+
+    @RegisterExtension
+    static WireMockExtension failing = WireMockExtension.newInstance()
+            .options(WireMockConfiguration.wireMockConfig().dynamicPort())
+            .build();
+
+    private final HttpRequest httpRequest = HttpRequestBuilder.create(new ClientBuilder().build())
+            .build();
+
+    @Test
+    void consecutiveFailuresEjectEndpoint() {
+        EndpointGroup group = group(OutlierDetection.builder().setConsecutiveFailures(3).build(), A, B);
+        EndpointGroup.Endpoint a = group.findByHost(A);
+
+        group.recordFailure(a);
+        group.recordFailure(a);
+        group.recordSuccess(a, 1_000_000);
+        group.recordFailure(a);
+        group.recordFailure(a);
+        assertFalse(group.isEjected(A));
+
+        group.recordFailure(a);
+        assertTrue(group.isEjected(A));
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(B, group.choose(Collections.emptyList()).getURI());
+        }
+    }
+
+    @Test
+    void maxEjectionPercentKeepsEndpointsInRotation() {
+        EndpointGroup group = group(OutlierDetection.builder().setConsecutiveFailures(1).setMaxEjectionPercent(50).build(), A, B, C);
+
+        group.recordFailure(group.findByHost(A));
+        group.recordFailure(group.findByHost(B));
+        group.recordFailure(group.findByHost(C));
+
+        assertTrue(group.isEjected(A));
+        assertFalse(group.isEjected(B));
+        assertFalse(group.isEjected(C));
+    }
+
+    @Test
+    void lastEndpointIsNeverEjected() {
+        EndpointGroup group = group(OutlierDetection.builder().setConsecutiveFailures(1).setMaxEjectionPercent(100).build(), A, B);
+
+        group.recordFailure(group.findByHost(A));
+        group.recordFailure(group.findByHost(B));
+
+        assertTrue(group.isEjected(A));
+        assertFalse(group.isEjected(B));
+    }
+
+    @Test
+    void slowEndpointIsEjected() {
+        EndpointGroup group = group(OutlierDetection.builder().setLatencyOutlierFactor(3).setLatencyMinimumSamples(5).build(), A, B, C);
+
+        for (int i = 0; i < 5; i++) {
+            group.recordSuccess(group.findByHost(B), TimeUnit.MILLISECONDS.toNanos(10));
+            group.recordSuccess(group.findByHost(C), TimeUnit.MILLISECONDS.toNanos(12));
+        }
+        for (int i = 0; i < 4; i++) {
+            group.recordSuccess(group.findByHost(A), TimeUnit.MILLISECONDS.toNanos(200));
+        }
+        assertFalse(group.isEjected(A), "Not enough samples yet");
+
+        group.recordSuccess(group.findByHost(A), TimeUnit.MILLISECONDS.toNanos(200));
+        assertTrue(group.isEjected(A));
+        assertFalse(group.isEjected(B));
+    }
+
+    @Test
+    void ejectedEndpointReturnsAfterEjectionTime() throws InterruptedException {
+        EndpointGroup group = group(OutlierDetection.builder().setConsecutiveFailures(1).setBaseEjectionTime(Duration.ofMillis(50)).build(), A, B);
+
+        group.recordFailure(group.findByHost(A));
+        assertTrue(group.isEjected(A));
+
+        Thread.sleep(100);
+        assertFalse(group.isEjected(A));
+    }
+
+    @Test
+    void loadBalancedTargetStopsSendingToFailingEndpoint() {
+        healthy.stubFor(get(urlEqualTo("/ok")).willReturn(aResponse().withStatus(200)));
+        failing.stubFor(get(urlEqualTo("/ok")).willReturn(aResponse().withStatus(500)));
+
+        URI failingUri = URI.create(failing.baseUrl());
+        EndpointGroup group = group(OutlierDetection.builder().setConsecutiveFailures(3).build(), URI.create(healthy.baseUrl()), failingUri);
+
+        for (int i = 0; i < 50; i++) {
+            httpRequest.loadBalancedTarget(group).path("/ok").get(String.class);
+        }
+
+        assertTrue(group.isEjected(failingUri));
+        assertEquals(3, failing.findAll(getRequestedFor(urlEqualTo("/ok"))).size());
+    }
+
+    @Test
+    void activeHealthCheckReturnsEjectedEndpoint() throws InterruptedException {
+        OutlierDetection outlierDetection = OutlierDetection.builder()
+                .setConsecutiveFailures(1)
+                .setBaseEjectionTime(Duration.ofMinutes(1))
+                .setActiveHealthCheck(endpoint -> true, Duration.ofMillis(20))
+                .build();
+
+        try (EndpointGroup group = group(outlierDetection, A, B)) {
+            group.recordFailure(group.findByHost(A));
+            assertTrue(group.isEjected(A));
+
+            Thread.sleep(200);
+            assertFalse(group.isEjected(A));
+        }
+    }
+
+    private static EndpointGroup group(OutlierDetection outlierDetection, URI... uris) {
+        EndpointGroup.Builder builder = EndpointGroup.builder().setOutlierDetection(outlierDetection);
+        for (URI uri : uris) {
+            builder.addEndpoint(uri);
+        }
+        return builder.build();
+    }
+}
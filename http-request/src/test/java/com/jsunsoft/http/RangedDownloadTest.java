@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.apache.hc.core5.http.message.BasicHeader;
+import org.apache.hc.core5.util.Timeout;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RangedDownloadTest {
+    private static final int FIRST = (int) RangedDownload.FIRST_RANGE_SIZE;
+    private static final int RANGE = 700_000;
+    /**
+     * The first range, then three ranges of {@link #RANGE} bytes when downloaded with a parallelism of 3.
+     */
+    private static final byte[] BODY = TestPayloads.randomBytes(FIRST + 3 * RANGE);
+    private static final String ETAG = "\"v1\"";
+
+    @RegisterExtension
+    static WireMockExtension wireMockRule = WireMockExtension.newInstance()
+            .options(WireMockConfiguration.wireMockConfig().dynamicPort())
+            .build();
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setUp() {
+        wireMockRule.resetAll();
+    }
+
+    @Test
+    void rangesAreFetchedWithIfRangeAndAssembled() throws IOException {
+        stubAllRanges("ETag", ETAG);
+        Path target = directory.resolve("artifact.bin");
+
+        ResponseHandler<Path> rh = target(HttpRequestBuilder.create(ClientBuilder.create().build()).build()).download(target, 3);
+
+        assertEquals(206, rh.getCode(), rh.getErrorText());
+        assertEquals(target, rh.requiredGet());
+        assertArrayEquals(BODY, Files.readAllBytes(target));
+        wireMockRule.verify(3, getRequestedFor(urlEqualTo("/artifact")).withHeader("If-Range", equalTo(ETAG)));
+        assertEquals(1, directory.toFile().list().length);
+    }
+
+    @Test
+    void lastModifiedIsUsedWithoutStrongETag() throws IOException {
+        String lastModified = "Mon, 19 Oct 2026 10:00:00 GMT";
+        stubAllRanges("Last-Modified", lastModified);
+        Path target = directory.resolve("artifact.bin");
+
+        target(HttpRequestBuilder.create(ClientBuilder.create().build()).build()).download(target, 3).requiredGet();
+
+        assertArrayEquals(BODY, Files.readAllBytes(target));
+        wireMockRule.verify(3, getRequestedFor(urlEqualTo("/artifact")).withHeader("If-Range", equalTo(lastModified)));
+    }
+
+    @Test
+    void serverIgnoringRangeIsDownloadedWhole() throws IOException {
+        wireMockRule.stubFor(get(urlEqualTo("/artifact"))
+                .willReturn(aResponse().withStatus(200).withHeader("Content-Type", "application/octet-stream").withBody(BODY)));
+        Path target = directory.resolve("artifact.bin");
+
+        ResponseHandler<Path> rh = target(HttpRequestBuilder.create(ClientBuilder.create().build()).build()).download(target, 3);
+
+        assertEquals(200, rh.getCode());
+        assertArrayEquals(BODY, Files.readAllBytes(target));
+        wireMockRule.verify(1, getRequestedFor(urlEqualTo("/artifact")));
+    }
+
+    @Test
+    void resourceWithoutValidatorIsDownloadedWhole() throws IOException {
+        wireMockRule.stubFor(get(urlEqualTo("/artifact"))
+                .willReturn(aResponse().withStatus(200).withHeader("Content-Type", "application/octet-stream").withBody(BODY)));
+        wireMockRule.stubFor(get(urlEqualTo("/artifact"))
+                .withHeader("Range", equalTo("bytes=0-" + (FIRST - 1)))
+                .atPriority(1)
+                .willReturn(partialContent(0, FIRST - 1)));
+        Path target = directory.resolve("artifact.bin");
+
+        target(HttpRequestBuilder.create(ClientBuilder.create().build()).build()).download(target, 3).requiredGet();
+
+        assertArrayEquals(BODY, Files.readAllBytes(target));
+        wireMockRule.verify(2, getRequestedFor(urlEqualTo("/artifact")));
+    }
+
+    @Test
+    void emptyResourceIsDownloadedEmpty() throws IOException {
+        wireMockRule.stubFor(get(urlEqualTo("/artifact"))
+                .withHeader("Range", equalTo(range(0, FIRST - 1)))
+                .willReturn(aResponse().withStatus(416).withHeader("Content-Range", "bytes */0")));
+        Path target = Files.write(directory.resolve("artifact.bin"), new byte[]{1, 2, 3});
+
+        ResponseHandler<Path> rh = target(HttpRequestBuilder.create(ClientBuilder.create().build()).build()).download(target, 3);
+
+        assertEquals(200, rh.getCode(), rh.getErrorText());
+        assertEquals(0, Files.size(target));
+        assertEquals(1, directory.toFile().list().length);
+        wireMockRule.verify(1, getRequestedFor(urlEqualTo("/artifact")));
+    }
+
+    @Test
+    void unsatisfiableFirstRangeOfNonEmptyResourceIsDownloadedWhole() throws IOException {
+        wireMockRule.stubFor(get(urlEqualTo("/artifact"))
+                .willReturn(aResponse().withStatus(200).withHeader("Content-Type", "application/octet-stream").withBody(BODY)));
+        wireMockRule.stubFor(get(urlEqualTo("/artifact"))
+                .withHeader("Range", equalTo(range(0, FIRST - 1)))
+                .atPriority(1)
+                .willReturn(aResponse().withStatus(416)));
+        Path target = directory.resolve("artifact.bin");
+
+        target(HttpRequestBuilder.create(ClientBuilder.create().build()).build()).download(target, 3).requiredGet();
+
+        assertArrayEquals(BODY, Files.readAllBytes(target));
+        wireMockRule.verify(2, getRequestedFor(urlEqualTo("/artifact")));
+    }
+
+    @Test
+    void resourceChangedMidDownloadFailsAndLeavesTargetUntouched() throws IOException {
+        stubAllRanges("ETag", ETAG);
+        // The resource changed: If-Range no longer matches, so the server sends the whole new body.
+        wireMockRule.stubFor(get(urlEqualTo("/artifact"))
+                .withHeader("Range", equalTo(range(FIRST + RANGE, FIRST + 2 * RANGE - 1)))
+                .atPriority(1)
+                .willReturn(aResponse().withStatus(200).withHeader("ETag", "\"v2\"").withBody(BODY)));
+        Path target = Files.write(directory.resolve("artifact.bin"), new byte[]{1, 2, 3});
+
+        ResponseHandler<Path> rh = target(HttpRequestBuilder.create(ClientBuilder.create().build()).build()).download(target, 3);
+
+        assertTrue(rh.isNonSuccess());
+        assertTrue(rh.getErrorText().contains("changed during the ranged download"), rh.getErrorText());
+        assertArrayEquals(new byte[]{1, 2, 3}, Files.readAllBytes(target));
+        assertEquals(1, directory.toFile().list().length);
+    }
+
+    @Test
+    void oversizedResourceIsRejectedBeforeFetchingRanges() {
+        stubAllRanges("ETag", ETAG);
+        HttpRequest httpRequest = HttpRequestBuilder.create(ClientBuilder.create().build())
+                .setMaxResponseBodySizeBytes(2L * FIRST)
+                .build();
+
+        ResponseHandler<Path> rh = target(httpRequest).download(directory.resolve("artifact.bin"), 3);
+
+        assertEquals(502, rh.getCode());
+        wireMockRule.verify(1, getRequestedFor(urlEqualTo("/artifact")));
+        assertEquals(0, directory.toFile().list().length);
+    }
+
+    @Test
+    void rangesWaitForConnectionsWhenRoutePoolIsSmallerThanParallelism() throws IOException {
+        stubAllRanges("ETag", ETAG);
+        HttpRequest httpRequest = HttpRequestBuilder.create(ClientBuilder.create()
+                        .setMaxPoolSize(2)
+                        .setDefaultMaxPoolSizePerRoute(2)
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(50))
+                        .build())
+                .build();
+        Path target = directory.resolve("artifact.bin");
+
+        target(httpRequest).download(target, 3).requiredGet();
+
+        assertArrayEquals(BODY, Files.readAllBytes(target));
+    }
+
+    @Test
+    void targetHeadersAreRestoredAfterDownload() throws IOException {
+        stubAllRanges("ETag", ETAG);
+        WebTarget webTarget = target(HttpRequestBuilder.create(ClientBuilder.create().build()).build())
+                .addHeader(new BasicHeader("X-Trace", "abc"));
+
+        webTarget.download(directory.resolve("artifact.bin"), 3).requiredGet();
+        webTarget.get(String.class);
+
+        wireMockRule.verify(5, getRequestedFor(urlEqualTo("/artifact")).withHeader("X-Trace", equalTo("abc")));
+        wireMockRule.verify(4, getRequestedFor(urlEqualTo("/artifact")).withHeader("Range", matching(".*")));
+    }
+
+    @Test
+    void callersRangeHeaderIsKeptOnTarget() throws IOException {
+        stubAllRanges("ETag", ETAG);
+        WebTarget webTarget = target(HttpRequestBuilder.create(ClientBuilder.create().build()).build())
+                .addHeader(new BasicHeader("Range", "bytes=0-9"));
+
+        webTarget.download(directory.resolve("artifact.bin"), 3).requiredGet();
+        webTarget.get(String.class);
+
+        assertArrayEquals(BODY, Files.readAllBytes(directory.resolve("artifact.bin")));
+        wireMockRule.verify(1, getRequestedFor(urlEqualTo("/artifact")).withHeader("Range", equalTo("bytes=0-9")));
+    }
+
+    @Test
+    void contentRangeIsParsed() {
+        RangedDownload.ContentRange range = RangedDownload.ContentRange.parse(new BasicHeader("Content-Range", "bytes 10-19/100"));
+        assertEquals(10, range.first);
+        assertEquals(19, range.last);
+        assertEquals(100, range.total);
+
+        assertEquals(-1, RangedDownload.ContentRange.parse(new BasicHeader("Content-Range", "bytes 0-9/*")).total);
+        assertNull(RangedDownload.ContentRange.parse(new BasicHeader("Content-Range", "bytes */100")));
+        assertNull(RangedDownload.ContentRange.parse(new BasicHeader("Content-Range", "bytes 10-200/100")));
+        assertNull(RangedDownload.ContentRange.parse(new BasicHeader("Content-Range", "items 0-9/100")));
+        assertNull(RangedDownload.ContentRange.parse(null));
+
+        assertEquals(0, RangedDownload.ContentRange.unsatisfiedLength(new BasicHeader("Content-Range", "bytes */0")));
+        assertEquals(100, RangedDownload.ContentRange.unsatisfiedLength(new BasicHeader("Content-Range", "bytes */100")));
+        assertEquals(-1, RangedDownload.ContentRange.unsatisfiedLength(new BasicHeader("Content-Range", "bytes 0-9/100")));
+        assertEquals(-1, RangedDownload.ContentRange.unsatisfiedLength(null));
+    }
+
+    private static void stubAllRanges(String validatorHeader, String validator) {
+        wireMockRule.stubFor(get(urlEqualTo("/artifact"))
+                .withHeader("Range", equalTo(range(0, FIRST - 1)))
+                .willReturn(partialContent(0, FIRST - 1).withHeader(validatorHeader, validator)));
+        for (int first = FIRST; first < BODY.length; first += RANGE) {
+            wireMockRule.stubFor(get(urlEqualTo("/artifact"))
+                    .withHeader("Range", equalTo(range(first, first + RANGE - 1)))
+                    .withHeader("If-Range", equalTo(validator))
+                    .willReturn(partialContent(first, first + RANGE - 1).withHeader(validatorHeader, validator)));
+        }
+    }
+
+    private static com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder partialContent(int first, int last) {
+        return aResponse().withStatus(206)
+                .withHeader("Content-Type", "application/octet-stream")
+                .withHeader("Content-Range", "bytes " + first + "-" + last + "/" + BODY.length)
+                .withBody(Arrays.copyOfRange(BODY, first, last + 1));
+    }
+
+    private static String range(int first, int last) {
+        return "bytes=" + first + "-" + last;
+    }
+
+    private static WebTarget target(HttpRequest httpRequest) {
+        return httpRequest.target(wireMockRule.getRuntimeInfo().getHttpBaseUrl()).path("artifact");
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.apache.hc.core5.http.HttpResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestListenerTest {
+
+    @RegisterExtension
+    static WireMockExtension wireMock = WireMockExtension.newInstance()
+            .options(WireMockConfiguration.wireMockConfig().dynamicPort())
+            .build();
+
+    private final RecordingListener listener = new RecordingListener();
+
+    private final HttpRequest httpRequest = HttpRequestBuilder.create(new ClientBuilder().build())
+            .addRequestListener(listener)
+            .build();
+
+    @Test
+    void lifecycleIsReportedInOrderAndHeadersCanBeInjected() {
+        wireMock.stubFor(get(urlEqualTo("/traced")).willReturn(aResponse().withBody("0123456789")));
+
+        ResponseHandler<String> responseHandler = httpRequest.target(wireMock.baseUrl()).path("/traced").get(String.class);
+
+        assertEquals("0123456789", responseHandler.get());
+        assertEquals(List.of("started GET", "headersSent", "responseHeaders 200", "bodyRead 10", "completed 200 span-1"), listener.events);
+        wireMock.verify(1, getRequestedFor(urlEqualTo("/traced")).withHeader("traceparent", equalTo("span-1")));
+    }
+
+    @Test
+    void retriesAreReportedBetweenAttempts() {
+        wireMock.stubFor(get(urlEqualTo("/flaky")).willReturn(aResponse().withStatus(503)));
+
+        int code = httpRequest.retryableTarget(wireMock.baseUrl() + "/flaky", RetryContext.onIdempotent5xx(1, Duration.ofMillis(1)))
+                .get(String.class)
+                .getCode();
+
+        assertEquals(503, code);
+        assertEquals(List.of(
+                "started GET", "headersSent", "responseHeaders 503", "retryScheduled 1", "bodyRead 0", "completed 503 span-1",
+                "started GET", "headersSent", "responseHeaders 503", "bodyRead 0", "completed 503 span-2"
+        ), listener.events);
+    }
+
+    @Test
+    void connectionFailureIsReportedWithType() throws IOException {
+        int port;
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            port = serverSocket.getLocalPort();
+        }
+
+        httpRequest.target("http://localhost:" + port).path("/down").get(String.class);
+
+        assertEquals(List.of("started GET", "failed SERVICE_UNREACHABLE"), listener.events);
+    }
+
+    private static final class RecordingListener implements RequestListener {
+        private final List<String> events = new ArrayList<>();
+        private int spans;
+
+        @Override
+        public void requestStarted(HttpExchange exchange) {
+            String span = "span-" + ++spans;
+            exchange.setAttribute(RecordingListener.class, span);
+            exchange.getRequest().setHeader("traceparent", span);
+            events.add("started " + exchange.getMethod());
+        }
+
+        @Override
+        public void requestHeadersSent(HttpExchange exchange) {
+            events.add("headersSent");
+        }
+
+        @Override
+        public void responseHeadersReceived(HttpExchange exchange, HttpResponse response) {
+            events.add("responseHeaders " + response.getCode());
+        }
+
+        @Override
+        public void responseBodyRead(HttpExchange exchange, long bytes) {
+            events.add("bodyRead " + bytes);
+        }
+
+        @Override
+        public void requestCompleted(HttpExchange exchange, int statusCode) {
+            events.add("completed " + statusCode + " " + exchange.getAttribute(RecordingListener.class));
+        }
+
+        @Override
+        public void requestFailed(HttpExchange exchange, ConnectionFailureType failureType, Exception cause) {
+            events.add("failed " + failureType);
+        }
+
+        @Override
+        public void retryScheduled(RetryAttempt attempt, Duration delay) {
+            events.add("retryScheduled " + attempt.getAttemptNumber());
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestTimingsTest {
+
+    @RegisterExtension
+    static WireMockExtension wireMock = WireMockExtension.newInstance()
+            .options(WireMockConfiguration.wireMockConfig().dynamicPort())
+            .build();
+
+    private final CloseableHttpClient client = new ClientBuilder().build();
+
+    private final HttpRequest httpRequest = HttpRequestBuilder.create(client).enableRequestTimings().build();
+
+    @AfterEach
+    void closeClient() throws IOException {
+        client.close();
+    }
+
+    @Test
+    void phasesOfNewAndReusedConnectionsAreRecorded() {
+        wireMock.stubFor(get(urlEqualTo("/slow")).willReturn(aResponse().withFixedDelay(50).withHeader("Content-Type", "application/json").withBody("[\"a\",\"b\"]")));
+
+        ResponseHandler<List<String>> first = httpRequest.target(wireMock.baseUrl()).path("/slow").get(new TypeReference<>() {
+        });
+        assertEquals(List.of("a", "b"), first.get());
+
+        RequestTimings timings = first.getTimings();
+        assertFalse(timings.isConnectionReused());
+        assertTrue(timings.getPoolWaitNanos() >= 0);
+        assertTrue(timings.getDnsNanos() >= 0);
+        assertTrue(timings.getConnectNanos() >= 0);
+        assertEquals(-1, timings.getTlsNanos());
+        assertTrue(timings.getTimeToFirstByteNanos() >= Duration.ofMillis(50).toNanos());
+        assertTrue(timings.getDeserializeNanos() > 0);
+        assertTrue(timings.getTotalNanos() >= timings.getTimeToFirstByteNanos() + timings.getBodyNanos() + timings.getDeserializeNanos());
+
+        RequestTimings reused = httpRequest.target(wireMock.baseUrl()).path("/slow").get(String.class).getTimings();
+        assertTrue(reused.isConnectionReused());
+        assertEquals(-1, reused.getConnectNanos());
+        assertTrue(reused.getPoolWaitNanos() >= 0);
+    }
+
+    @Test
+    void responseTimingsAreCompletedOnClose() throws IOException {
+        wireMock.stubFor(get(urlEqualTo("/body")).willReturn(aResponse().withBody("body")));
+
+        RequestTimings timings;
+        try (Response response = httpRequest.target(wireMock.baseUrl()).path("/body").get()) {
+            timings = response.getTimings();
+            assertTrue(timings.getTimeToFirstByteNanos() >= 0);
+            assertEquals(-1, timings.getTotalNanos());
+            assertEquals("body", response.readEntity(String.class));
+        }
+        assertTrue(timings.getTotalNanos() >= timings.getTimeToFirstByteNanos());
+    }
+
+    @Test
+    void connectionPhasesAreUnknownWithForeignClient() throws IOException {
+        wireMock.stubFor(get(urlEqualTo("/plain")).willReturn(aResponse().withBody("plain")));
+
+        try (CloseableHttpClient foreignClient = HttpClients.createDefault()) {
+            RequestTimings timings = HttpRequestBuilder.create(foreignClient).enableRequestTimings().build()
+                    .target(wireMock.baseUrl()).path("/plain").get(String.class).getTimings();
+
+            assertEquals(-1, timings.getPoolWaitNanos());
+            assertEquals(-1, timings.getConnectNanos());
+            assertTrue(timings.getTimeToFirstByteNanos() > 0);
+        }
+    }
+
+    @Test
+    void timingsAreNotRecordedUnlessEnabled() {
+        wireMock.stubFor(get(urlEqualTo("/plain")).willReturn(aResponse().withBody("plain")));
+        HttpRequest plainRequest = HttpRequestBuilder.create(client).build();
+
+        ResponseHandler<String> responseHandler = plainRequest.target(wireMock.baseUrl()).path("/plain").get(String.class);
+
+        assertEquals("plain", responseHandler.get());
+        assertNull(responseHandler.getTimings());
+    }
+
+    @Test
+    void metricsEnableTimings() {
+        wireMock.stubFor(get(urlEqualTo("/plain")).willReturn(aResponse().withBody("plain")));
+        HttpRequest meteredRequest = HttpRequestBuilder.create(client).setMetrics(new InMemoryHttpMetrics()).build();
+
+        assertNotNull(meteredRequest.target(wireMock.baseUrl()).path("/plain").get(String.class).getTimings());
+    }
+
+    @Test
+    void failedRequestKeepsPhasesReachedBeforeFailure() throws IOException {
+        int port;
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            port = serverSocket.getLocalPort();
+        }
+
+        ResponseHandler<String> responseHandler = httpRequest.target("http://localhost:" + port).path("/down").get(String.class);
+
+        assertEquals(503, responseHandler.getCode());
+        RequestTimings timings = responseHandler.getTimings();
+        assertNotNull(timings);
+        assertTrue(timings.getPoolWaitNanos() >= 0);
+        assertEquals(-1, timings.getTimeToFirstByteNanos());
+        assertTrue(timings.getTotalNanos() >= 0);
+    }
+}
@@ -25,7 +25,6 @@ import org.junit.jupiter.api.Test;
 import tools.jackson.databind.DeserializationFeature;
 import tools.jackson.databind.ObjectMapper;
 import tools.jackson.databind.json.JsonMapper;
-import tools.jackson.dataformat.xml.XmlMapper;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
@@ -171,39 +170,6 @@ class ResponseBodyReaderTest {
                 "non-null Map entries must be retained. Got: " + json);
     }
 
-    @Test
-    void initXmlMapperIfNullAppliesPatternsToOwnedMapper() throws IOException {
-        // Symmetric XML counterpart of initJsonMapperIfNullAppliesPatternsToOwnedMapper. Defends the
-        // XmlMapper.rebuild() → withConfigOverride → build() path through applyDatePatterns; without
-        // a behavioral test here, a regression that breaks the XmlMapper branch (e.g. a wildcard-
-        // typing change that compiles but mis-binds the date override) would slip through silently.
-        String xml = """
-                <Result>
-                  <message>Test message</message>
-                  <value>1</value>
-                  <relations>
-                    <string>12345</string>
-                    <localDate>19930511</localDate>
-                  </relations>
-                </Result>""";
-
-        ObjectMapper owned = XmlMapper.builder()
-                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
-                .build();
-
-        Map<Class<?>, String> dateTypeToPattern = new HashMap<>();
-        dateTypeToPattern.put(LocalDate.class, "yyyyMMdd");
-
-        ObjectMapper effective = ObjectMapperInitializer.initXmlMapperIfNull(owned, dateTypeToPattern);
-
-        Assertions.assertNotSame(owned, effective,
-                "Date overrides force an XmlMapper.rebuild() — result must be a fresh derivative");
-
-        XmlResult result = effective.readValue(xml, XmlResult.class);
-        Assertions.assertEquals(LocalDate.of(1993, 5, 11), result.getRelations().localDate,
-                "Date pattern override on the XmlMapper derivative must be honoured during deserialization");
-    }
-
     @Test
     void noPatternsReturnsUserMapperUnchanged() {
         ObjectMapper userMapper = JsonMapper.builder().build();
@@ -320,24 +286,4 @@ class ResponseBodyReaderTest {
         public String kept;
         public Map<String, String> tags;
     }
-
-    /**
-     * Fixture for {@link #initXmlMapperIfNullAppliesPatternsToOwnedMapper()}. Public no-arg
-     * constructor + public mutable fields keep the Jackson wiring trivial across the JSON-vs-XML
-     * comparison; the test only cares about the {@code LocalDate} round-trip.
-     */
-    public static class XmlResult {
-        public String message;
-        public long value;
-        public XmlRelations relations;
-
-        public XmlRelations getRelations() {
-            return relations;
-        }
-    }
-
-    public static class XmlRelations {
-        public String string;
-        public LocalDate localDate;
-    }
 }
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.entity.InputStreamEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseDrainTest {
+
+    @RegisterExtension
+    static WireMockExtension wireMock = WireMockExtension.newInstance()
+            .options(WireMockConfiguration.wireMockConfig().dynamicPort())
+            .build();
+
+    private final CloseableHttpClient client = new ClientBuilder().build();
+    private final InMemoryHttpMetrics metrics = new InMemoryHttpMetrics();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        client.close();
+    }
+
+    @Test
+    void unreadBodyWithinBudgetIsDrainedAndConnectionReused() throws IOException {
+        wireMock.stubFor(get(urlEqualTo("/small")).willReturn(aResponse().withBody("x".repeat(4000))));
+        HttpRequest httpRequest = HttpRequestBuilder.create(client).setMaxResponseBodySizeBytes(1024).setMetrics(metrics).build();
+
+        try (Response response = httpRequest.target(wireMock.baseUrl()).path("/small").get()) {
+            assertEquals(200, response.getCode());
+        }
+        Response second = httpRequest.target(wireMock.baseUrl()).path("/small").get();
+        second.close();
+
+        assertTrue(second.getTimings().isConnectionReused());
+        HttpMetricsSnapshot.ConnectionRelease releases = metrics.snapshot().getConnectionRelease(wireMock.baseUrl()).orElseThrow();
+        assertEquals(2, releases.getReusedCount());
+        assertEquals(0, releases.getDiscardedCount());
+    }
+
+    @Test
+    void bodyOverSizeLimitIsDrainedWithinBudget() {
+        wireMock.stubFor(get(urlEqualTo("/over")).willReturn(aResponse().withBody("x".repeat(2000))));
+        HttpRequest httpRequest = HttpRequestBuilder.create(client).setMaxResponseBodySizeBytes(1024).setMetrics(metrics).build();
+
+        assertEquals(502, httpRequest.target(wireMock.baseUrl()).path("/over").get(String.class).getCode());
+        ResponseHandler<String> second = httpRequest.target(wireMock.baseUrl()).path("/over").get(String.class);
+
+        assertEquals(502, second.getCode());
+        assertTrue(second.getTimings().isConnectionReused());
+        assertEquals(0, metrics.snapshot().getConnectionRelease(wireMock.baseUrl()).orElseThrow().getDiscardedCount());
+    }
+
+    @Test
+    void remainderOverBudgetDiscardsConnectionWithoutReadingIt() throws IOException {
+        wireMock.stubFor(get(urlEqualTo("/large")).willReturn(aResponse().withBody("x".repeat(200_000))));
+        HttpRequest httpRequest = HttpRequestBuilder.create(client).setMaxResponseBodySizeBytes(1024).setMetrics(metrics).build();
+
+        Response first = httpRequest.target(wireMock.baseUrl()).path("/large").get();
+        first.close();
+        Response second = httpRequest.target(wireMock.baseUrl()).path("/large").get();
+        second.close();
+
+        long bodyBytesRead = metrics.snapshot().getExchange(wireMock.baseUrl(), "GET", "2xx").orElseThrow().getResponseBytes();
+        assertEquals(0, bodyBytesRead);
+        assertFalse(first.getTimings().isConnectionReused());
+        assertFalse(second.getTimings().isConnectionReused());
+        HttpMetricsSnapshot.ConnectionRelease releases = metrics.snapshot().getConnectionRelease(wireMock.baseUrl()).orElseThrow();
+        assertEquals(0, releases.getReusedCount());
+        assertEquals(2, releases.getDiscardedCount());
+        // Exchanges of discarded connections are still reported.
+        assertEquals(2, metrics.snapshot().getExchange(wireMock.baseUrl(), "GET", "2xx").orElseThrow().getCount());
+    }
+
+    @Test
+    void withoutSizeLimitUnreadBodyIsDrainedWhole() throws IOException {
+        wireMock.stubFor(get(urlEqualTo("/large")).willReturn(aResponse().withBody("x".repeat(200_000))));
+        HttpRequest httpRequest = HttpRequestBuilder.create(client).setMetrics(metrics).build();
+
+        httpRequest.target(wireMock.baseUrl()).path("/large").get().close();
+        Response second = httpRequest.target(wireMock.baseUrl()).path("/large").get();
+        second.close();
+
+        assertTrue(second.getTimings().isConnectionReused());
+        assertEquals(2, metrics.snapshot().getConnectionRelease(wireMock.baseUrl()).orElseThrow().getReusedCount());
+    }
+
+    @Test
+    void zeroBudgetDiscardsOnlyUnreadBodies() throws IOException {
+        wireMock.stubFor(get(urlEqualTo("/body")).willReturn(aResponse().withBody("0123456789")));
+        HttpRequest httpRequest = HttpRequestBuilder.create(client).setResponseDrainBudget(0, Duration.ZERO).setMetrics(metrics).build();
+
+        assertEquals("0123456789", httpRequest.target(wireMock.baseUrl()).path("/body").get(String.class).get());
+        httpRequest.target(wireMock.baseUrl()).path("/body").get().close();
+
+        HttpMetricsSnapshot.ConnectionRelease releases = metrics.snapshot().getConnectionRelease(wireMock.baseUrl()).orElseThrow();
+        assertEquals(1, releases.getReusedCount());
+        assertEquals(1, releases.getDiscardedCount());
+    }
+
+    @Test
+    void negativeBudgetIsRejected() {
+        HttpRequestBuilder builder = HttpRequestBuilder.create(client);
+
+        assertThrows(IllegalArgumentException.class, () -> builder.setResponseDrainBudget(-1, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> builder.setResponseDrainBudget(0, Duration.ofMillis(-1)));
+    }
+
+    @Test
+    void bodyOfUnknownLengthIsDrainedUpToBudget() throws IOException {
+        DrainingHttpEntity exactlyBudget = new DrainingHttpEntity(chunked(1000, 0), 1000, Long.MAX_VALUE);
+        DrainingHttpEntity overBudget = new DrainingHttpEntity(chunked(1001, 0), 1000, Long.MAX_VALUE);
+
+        assertTrue(exactlyBudget.release());
+        assertFalse(overBudget.release());
+    }
+
+    @Test
+    void partlyReadBodyCountsTowardsContentLength() throws IOException {
+        byte[] body = new byte[3000];
+        DrainingHttpEntity entity = new DrainingHttpEntity(new InputStreamEntity(new ByteArrayInputStream(body), body.length, ContentType.DEFAULT_BINARY), 1000, Long.MAX_VALUE);
+
+        InputStream content = entity.getContent();
+        assertEquals(2500, content.readNBytes(2500).length);
+
+        assertTrue(entity.release());
+    }
+
+    @Test
+    void slowRemainderIsAbandonedAfterTimeBudget() throws IOException {
+        DrainingHttpEntity entity = new DrainingHttpEntity(chunked(100_000, 20), Long.MAX_VALUE, Duration.ofMillis(30).toNanos());
+
+        InputStream content = entity.getContent();
+        content.close();
+
+        assertFalse(entity.release());
+    }
+
+    /**
+     * @return entity of unknown length that returns at most 1000 bytes per read, sleeping {@code delayMillis} before each
+     */
+    private static InputStreamEntity chunked(int length, long delayMillis) {
+        InputStream slow = new FilterInputStream(new ByteArrayInputStream(new byte[length])) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+                return super.read(b, off, Math.min(len, 1000));
+            }
+        };
+        return new InputStreamEntity(slow, -1, ContentType.DEFAULT_BINARY);
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.jsunsoft.http;
+
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.io.entity.InputStreamEntity;
+import org.apache.hc.core5.http.message.BasicClassicHttpResponse;
+import org.apache.hc.core5.http.message.BasicHeader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResumableDownloadTest {
+    private static final byte[] BODY = TestPayloads.randomBytes(5 * EntityTransfers.TRANSFER_SIZE + 11);
+    private static final int CUT = 2 * EntityTransfers.TRANSFER_SIZE;
+    private static final String ETAG = "\"v1\"";
+
+    @RegisterExtension
+    static WireMockExtension wireMockRule = WireMockExtension.newInstance()
+            .options(WireMockConfiguration.wireMockConfig().dynamicPort())
+            .build();
+
+    @TempDir
+    Path directory;
+    private Path target;
+
+    @BeforeEach
+    void setUp() {
+        target = directory.resolve("artifact.bin");
+        wireMockRule.resetAll();
+        wireMockRule.stubFor(get(urlEqualTo("/artifact"))
+                .willReturn(aResponse().withStatus(200).withHeader("ETag", ETAG).withBody(BODY)));
+        wireMockRule.stubFor(get(urlEqualTo("/artifact"))
+                .withHeader("Range", equalTo("bytes=" + CUT + "-"))
+                .withHeader("If-Range", equalTo(ETAG))
+                .atPriority(1)
+                .willReturn(aResponse().withStatus(206)
+                        .withHeader("ETag", ETAG)
+                        .withHeader("Content-Range", "bytes " + CUT + "-" + (BODY.length - 1) + "/" + BODY.length)
+                        .withBody(Arrays.copyOfRange(BODY, CUT, BODY.length))));
+    }
+
+    @Test
+    void downloadWithoutPartialStateIsWhole() throws IOException {
+        ResponseHandler<Path> rh = webTarget(httpRequest()).resumableDownload(target);
+
+        assertEquals(200, rh.getCode());
+        assertEquals(target.toAbsolutePath(), rh.requiredGet());
+        assertArrayEquals(BODY, Files.readAllBytes(target));
+        assertEquals(List.of("artifact.bin"), files());
+        wireMockRule.verify(0, getRequestedFor(urlEqualTo("/artifact")).withHeader("Range", matching(".*")));
+    }
+
+    @Test
+    void interruptedDownloadKeepsProgressAndIsResumed() throws IOException {
+        HttpRequest httpRequest = httpRequest();
+        ResumableDownload download = new ResumableDownload(target);
+        URI uri = webTarget(httpRequest).getURI();
+
+        assertThrows(IOException.class, () -> download.write((BasicWebTarget) webTarget(httpRequest), responseCutAt(CUT), uri));
+
+        assertTrue(download.isInterrupted());
+        assertEquals(List.of("artifact.bin.part", "artifact.bin.part.state"), files());
+        assertEquals(CUT, Files.size(directory.resolve("artifact.bin.part")));
+
+        ResponseHandler<Path> rh = webTarget(httpRequest).resumableDownload(target);
+
+        assertEquals(206, rh.getCode(), rh.getErrorText());
+        assertArrayEquals(BODY, Files.readAllBytes(target));
+        assertEquals(List.of("artifact.bin"), files());
+        wireMockRule.verify(1, getRequestedFor(urlEqualTo("/artifact")).withHeader("Range", equalTo("bytes=" + CUT + "-")).withHeader("If-Range", equalTo(ETAG)));
+    }
+
+    @Test
+    void changedResourceOverwritesProgress() throws IOException {
+        writePartialState(ETAG);
+        // If-Range no longer matches: the server sends the whole new version.
+        byte[] newVersion = TestPayloads.randomBytes(1000);
+        wireMockRule.stubFor(get(urlEqualTo("/artifact"))
+                .withHeader("Range", equalTo("bytes=" + CUT + "-"))
+                .atPriority(1)
+                .willReturn(aResponse().withStatus(200).withHeader("ETag", "\"v2\"").withBody(newVersion)));
+
+        ResponseHandler<Path> rh = webTarget(httpRequest()).resumableDownload(target);
+
+        assertEquals(200, rh.getCode());
+        assertArrayEquals(newVersion, Files.readAllBytes(target));
+        assertEquals(List.of("artifact.bin"), files());
+    }
+
+    @Test
+    void partialContentWithOtherValidatorRestartsDownload() throws IOException {
+        writePartialState("\"v0\"");
+        // A server ignoring If-Range answers 206 with the validator of the current version.
+        wireMockRule.stubFor(get(urlEqualTo("/artifact"))
+                .withHeader("Range", equalTo("bytes=" + CUT + "-"))
+                .atPriority(1)
+                .willReturn(aResponse().withStatus(206)
+                        .withHeader("ETag", ETAG)
+                        .withHeader("Content-Range", "bytes " + CUT + "-" + (BODY.length - 1) + "/" + BODY.length)
+                        .withBody(Arrays.copyOfRange(BODY, CUT, BODY.length))));
+
+        webTarget(httpRequest()).resumableDownload(target).requiredGet();
+
+        assertArrayEquals(BODY, Files.readAllBytes(target));
+        assertEquals(List.of("artifact.bin"), files());
+        wireMockRule.verify(2, getRequestedFor(urlEqualTo("/artifact")));
+    }
+
+    @Test
+    void nonSuccessStatusKeepsProgress() throws IOException {
+        writePartialState(ETAG);
+        wireMockRule.stubFor(get(urlEqualTo("/artifact"))
+                .withHeader("Range", equalTo("bytes=" + CUT + "-"))
+                .atPriority(1)
+                .willReturn(aResponse().withStatus(503).withBody("maintenance")));
+
+        ResponseHandler<Path> rh = webTarget(httpRequest()).resumableDownload(target);
+
+        assertEquals(503, rh.getCode());
+        assertEquals(List.of("artifact.bin.part", "artifact.bin.part.state"), files());
+    }
+
+    @Test
+    void completePartFileIsMovedOverTargetOnUnsatisfiableRange() throws IOException {
+        HttpRequest httpRequest = httpRequest();
+        ResumableDownload download = new ResumableDownload(target);
+        // The connection dies after the last byte, before the end of the body was seen.
+        assertThrows(IOException.class, () -> download.write((BasicWebTarget) webTarget(httpRequest), responseCutAt(BODY.length), webTarget(httpRequest).getURI()));
+        assertEquals(BODY.length, Files.size(directory.resolve("artifact.bin.part")));
+        wireMockRule.stubFor(get(urlEqualTo("/artifact"))
+                .withHeader("Range", equalTo("bytes=" + BODY.length + "-"))
+                .atPriority(1)
+                .willReturn(aResponse().withStatus(416).withHeader("Content-Range", "bytes */" + BODY.length)));
+
+        ResponseHandler<Path> rh = webTarget(httpRequest).resumableDownload(target);
+
+        assertEquals(200, rh.getCode(), rh.getErrorText());
+        assertEquals(416, rh.getOriginalCode());
+        assertArrayEquals(BODY, Files.readAllBytes(target));
+        assertEquals(List.of("artifact.bin"), files());
+        wireMockRule.verify(1, getRequestedFor(urlEqualTo("/artifact")));
+    }
+
+    @Test
+    void unsatisfiableRangeOfOtherLengthRestartsDownload() throws IOException {
+        writePartialState(ETAG);
+        wireMockRule.stubFor(get(urlEqualTo("/artifact"))
+                .withHeader("Range", equalTo("bytes=" + CUT + "-"))
+                .atPriority(1)
+                .willReturn(aResponse().withStatus(416).withHeader("Content-Range", "bytes */" + (CUT - 1))));
+
+        ResponseHandler<Path> rh = webTarget(httpRequest()).resumableDownload(target);
+
+        assertEquals(200, rh.getCode(), rh.getErrorText());
+        assertArrayEquals(BODY, Files.readAllBytes(target));
+        assertEquals(List.of("artifact.bin"), files());
+        wireMockRule.verify(1, getRequestedFor(urlEqualTo("/artifact")).withoutHeader("Range"));
+    }
+
+    @Test
+    void nextAttemptResetsInterruption() throws IOException {
+        HttpRequest httpRequest = httpRequest();
+        ResumableDownload download = new ResumableDownload(target);
+        URI uri = webTarget(httpRequest).getURI();
+        assertThrows(IOException.class, () -> download.write((BasicWebTarget) webTarget(httpRequest), responseCutAt(CUT), uri));
+        assertTrue(download.isInterrupted());
+
+        assertFalse(download.resumeHeaders(uri).isEmpty());
+
+        assertFalse(download.isInterrupted());
+    }
+
+    @Test
+    void callersHeadersAreKeptOnTarget() throws IOException {
+        writePartialState(ETAG);
+        WebTarget webTarget = webTarget(httpRequest()).addHeader(new BasicHeader(HttpHeaders.IF_RANGE, "\"caller\""));
+
+        webTarget.resumableDownload(target).requiredGet();
+        webTarget.get(String.class);
+
+        assertArrayEquals(BODY, Files.readAllBytes(target));
+        wireMockRule.verify(1, getRequestedFor(urlEqualTo("/artifact")).withHeader("If-Range", equalTo(ETAG)));
+        wireMockRule.verify(1, getRequestedFor(urlEqualTo("/artifact")).withHeader("If-Range", equalTo("\"caller\"")));
+    }
+
+    @Test
+    void progressOfAnotherUriIsNotResumed() throws IOException {
+        HttpRequest httpRequest = httpRequest();
+        ResumableDownload download = new ResumableDownload(target);
+        assertThrows(IOException.class, () -> download.write((BasicWebTarget) webTarget(httpRequest), responseCutAt(CUT), URI.create("http://other.example.com/artifact")));
+
+        webTarget(httpRequest).resumableDownload(target).requiredGet();
+
+        assertArrayEquals(BODY, Files.readAllBytes(target));
+        wireMockRule.verify(0, getRequestedFor(urlEqualTo("/artifact")).withHeader("Range", matching(".*")));
+    }
+
+    @Test
+    void bodyWithoutValidatorIsNotResumable() throws IOException {
+        HttpRequest httpRequest = httpRequest();
+        ResumableDownload download = new ResumableDownload(target);
+        BasicClassicHttpResponse raw = new BasicClassicHttpResponse(200);
+        raw.setEntity(new InputStreamEntity(cutStream(CUT), BODY.length, ContentType.APPLICATION_OCTET_STREAM));
+        Response response = new BasicResponse(raw, ResponseBodyReaderConfig.create().build(), webTarget(httpRequest).getURI());
+
+        assertThrows(IOException.class, () -> download.write((BasicWebTarget) webTarget(httpRequest), response, webTarget(httpRequest).getURI()));
+
+        assertFalse(download.isInterrupted());
+        assertFalse(Files.exists(directory.resolve("artifact.bin.part.state")));
+    }
+
+    private void writePartialState(String validator) throws IOException {
+        HttpRequest httpRequest = httpRequest();
+        ResumableDownload download = new ResumableDownload(target);
+        BasicClassicHttpResponse raw = new BasicClassicHttpResponse(200);
+        raw.setHeader(new BasicHeader(HttpHeaders.ETAG, validator));
+        raw.setEntity(new InputStreamEntity(cutStream(CUT), BODY.length, ContentType.APPLICATION_OCTET_STREAM));
+        Response response = new BasicResponse(raw, ResponseBodyReaderConfig.create().build(), webTarget(httpRequest).getURI());
+
+        assertThrows(IOException.class, () -> download.write((BasicWebTarget) webTarget(httpRequest), response, webTarget(httpRequest).getURI()));
+    }
+
+    private Response responseCutAt(int cut) {
+        BasicClassicHttpResponse raw = new BasicClassicHttpResponse(200);
+        raw.setHeader(new BasicHeader(HttpHeaders.ETAG, ETAG));
+        raw.setEntity(new InputStreamEntity(cutStream(cut), BODY.length, ContentType.APPLICATION_OCTET_STREAM));
+        return new BasicResponse(raw, ResponseBodyReaderConfig.create().build(), URI.create("http://x/artifact"));
+    }
+
+    /**
+     * @return the first {@code cut} bytes of the body, then a connection reset
+     */
+    private static InputStream cutStream(int cut) {
+        return new SequenceInputStream(new ByteArrayInputStream(BODY, 0, cut), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Connection reset");
+            }
+        });
+    }
+
+    private List<String> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static HttpRequest httpRequest() {
+        return HttpRequestBuilder.create(ClientBuilder.create().build()).build();
+    }
+
+    private static WebTarget webTarget(HttpRequest httpRequest) {
+        return httpRequest.target(wireMockRule.getRuntimeInfo().getHttpBaseUrl()).path("artifact");
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2026. Benik Arakelyan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jsunsoft.http;
+
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.socket.UnixDomainSocketFactory;
+import org.apache.hc.core5.http.HttpHost;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class UnixDomainSocketTransportTest {
+
+    private Path socketDir;
+    private Path socketPath;
+    private MiniHttpServer udsServer;
+
+    @BeforeEach
+    void setup() throws IOException {
+        assumeTrue(UnixDomainSocketFactory.isAvailable(), "Unix domain sockets are not supported on this platform");
+
+        socketDir = Files.createTempDirectory("http-request-uds");
+        socketPath = socketDir.resolve("server.sock");
+        udsServer = MiniHttpServer.start(ServerSocketChannel.open(StandardProtocolFamily.UNIX), UnixDomainSocketAddress.of(socketPath));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (udsServer != null) {
+            udsServer.close();
+        }
+        if (socketDir != null) {
+            Files.deleteIfExists(socketPath);
+            Files.deleteIfExists(socketDir);
+        }
+    }
+
+    @Test
+    void clientWideSocketRoutesAllRequests() throws IOException {
+        try (CloseableHttpClient client = ClientBuilder.create().setUnixDomainSocket(socketPath).build()) {
+            HttpRequest httpRequest = HttpRequestBuilder.create(client).build();
+
+            ResponseHandler<String> responseHandler = httpRequest.target("http://localhost/ping").get(String.class);
+
+            assertEquals(200, responseHandler.getCode());
+            assertEquals("GET /ping", responseHandler.get());
+        }
+    }
+
+    @Test
+    void perHostSocketMappingRoutesOnlyThatHost() throws IOException {
+        try (CloseableHttpClient client = ClientBuilder.create()
+                .setUnixDomainSocket(new HttpHost("sidecar"), socketPath)
+                .build()) {
+            HttpRequest httpRequest = HttpRequestBuilder.create(client).build();
+
+            for (int i = 0; i < 3; i++) {
+                ResponseHandler<String> responseHandler = httpRequest.target("http://sidecar/stats").addParameter("i", String.valueOf(i)).get(String.class);
+                assertEquals(200, responseHandler.getCode());
+                assertEquals("GET /stats?i=" + i, responseHandler.get());
+            }
+            assertEquals(1, udsServer.getAcceptedConnections(), "Connection over the socket must be pooled and reused");
+        }
+    }
+
+    /**
+     * Minimal blocking HTTP/1.1 server answering every request with its request line.
+     */
+    private static final class MiniHttpServer implements Closeable {
+        private final ServerSocketChannel serverChannel;
+        private volatile int acceptedConnections;
+
+        private MiniHttpServer(ServerSocketChannel serverChannel) {
+            this.serverChannel = serverChannel;
+        }
+
+        static MiniHttpServer start(ServerSocketChannel serverChannel, SocketAddress address) throws IOException {
+            serverChannel.bind(address);
+            MiniHttpServer server = new MiniHttpServer(serverChannel);
+            Thread acceptor = new Thread(server::acceptLoop, "mini-http-server");
+            acceptor.setDaemon(true);
+            acceptor.start();
+            return server;
+        }
+
+        int getAcceptedConnections() {
+            return acceptedConnections;
+        }
+
+        private void acceptLoop() {
+            while (serverChannel.isOpen()) {
+                try {
+                    SocketChannel channel = serverChannel.accept();
+                    acceptedConnections++;
+                    Thread handler = new Thread(() -> serve(channel), "mini-http-server-connection");
+                    handler.setDaemon(true);
+                    handler.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private static void serve(SocketChannel channel) {
+            try (channel;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.US_ASCII));
+                 OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel))) {
+                String requestLine;
+                while ((requestLine = in.readLine()) != null) {
+                    String line;
+                    do {
+                        line = in.readLine();
+                    } while (line != null && !line.isEmpty());
+
+                    String[] parts = requestLine.split(" ");
+                    byte[] body = (parts[0] + " " + parts[1]).getBytes(StandardCharsets.US_ASCII);
+                    out.write(("HTTP/1.1 200 OK\r\nContent-Type: text/plain\r\nContent-Length: " + body.length + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+                    out.write(body);
+                    out.flush();
+                }
+            } catch (IOException ignored) {
+                // Client closed the connection.
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverChannel.close();
+        }
+    }
+}